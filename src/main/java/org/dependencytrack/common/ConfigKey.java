@@ -33,10 +33,31 @@ public enum ConfigKey implements Config.Key {
     OSSINDEX_RETRY_EXPONENTIAL_BACKOFF_MAX_ATTEMPTS("ossindex.retry.backoff.max.attempts", 10),
     OSSINDEX_RETRY_EXPONENTIAL_BACKOFF_MULTIPLIER("ossindex.retry.backoff.multiplier", 2),
     OSSINDEX_RETRY_EXPONENTIAL_BACKOFF_MAX_DURATION("ossindex.retry.backoff.max.duration", Duration.ofMinutes(10).toMillis()),
+    OSSINDEX_REQUEST_MAX_CONCURRENCY("ossindex.request.max.concurrency", 4),
+    OSSINDEX_REQUEST_RATE_LIMIT("ossindex.request.rate.limit", 10),
     REPO_META_ANALYZER_CACHE_STAMPEDE_BLOCKER_ENABLED("repo.meta.analyzer.cacheStampedeBlocker.enabled", true),
     REPO_META_ANALYZER_CACHE_STAMPEDE_BLOCKER_LOCK_BUCKETS("repo.meta.analyzer.cacheStampedeBlocker.lock.buckets", 1000),
     REPO_META_ANALYZER_CACHE_STAMPEDE_BLOCKER_MAX_ATTEMPTS("repo.meta.analyzer.cacheStampedeBlocker.max.attempts", 10),
-    SYSTEM_REQUIREMENT_CHECK_ENABLED("system.requirement.check.enabled", true);
+    SYSTEM_REQUIREMENT_CHECK_ENABLED("system.requirement.check.enabled", true),
+    BOM_PROCESSING_STREAMING_THRESHOLD("bom.processing.streaming.threshold", 10485760),
+    BOM_PROCESSING_STREAMING_CHUNK_SIZE("bom.processing.streaming.chunk.size", 500),
+    BOM_PROCESSING_THREADS("bom.processing.threads", 4),
+    BOM_PROCESSING_QUEUE_CAPACITY("bom.processing.queue.capacity", 100),
+    BOM_PROCESSING_QUEUE_RETRY_AFTER_SECONDS("bom.processing.queue.retry.after.seconds", 30),
+    BOM_UPLOAD_MAX_SIZE("bom.upload.max.size", 536870912),
+    BOM_UPLOAD_SESSION_TIMEOUT_MINUTES("bom.upload.session.timeout.minutes", 60),
+    VULNERABLE_SOFTWARE_INDEX_ENABLED("vulnerable.software.index.enabled", false),
+    VULNERABILITY_ANALYSIS_THREAD_POOL_SIZE("vulnerability.analysis.thread.pool.size", 8),
+    VULNERABILITY_ANALYSIS_LANE_WEIGHT_BOM_UPLOAD("vulnerability.analysis.lane.weight.bom.upload", 4),
+    VULNERABILITY_ANALYSIS_LANE_WEIGHT_PERIODIC("vulnerability.analysis.lane.weight.periodic", 1),
+    VULNERABILITY_ANALYSIS_PORTFOLIO_DEDUPLICATION_ENABLED("vulnerability.analysis.portfolio.deduplication.enabled", false),
+    VULNERABILITY_ANALYSIS_PORTFOLIO_SHARD_SIZE("vulnerability.analysis.portfolio.shard.size", 25),
+    VULNERABILITY_ANALYSIS_PORTFOLIO_WORKERS("vulnerability.analysis.portfolio.workers", 2),
+    VULNERABILITY_ANALYSIS_PORTFOLIO_SHARD_LEASE_MINUTES("vulnerability.analysis.portfolio.shard.lease.minutes", 60),
+    VULNERABILITY_ANALYSIS_CACHE_MEMORY_MAX_SIZE("vulnerability.analysis.cache.memory.max.size", 10000),
+    UPSTREAM_REQUEST_EXECUTOR_ENABLED("upstream.request.executor.enabled", false),
+    UPSTREAM_REQUEST_MAX_CONCURRENCY_PER_HOST("upstream.request.max.concurrency.per.host", 8),
+    UPSTREAM_REQUEST_MAX_CONCURRENCY_PER_TASK("upstream.request.max.concurrency.per.task", 8);
 
     private final String propertyName;
     private final Object defaultValue;
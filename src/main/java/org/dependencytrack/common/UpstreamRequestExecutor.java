@@ -0,0 +1,179 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.common;
+
+import alpine.Config;
+import alpine.common.logging.Logger;
+import alpine.common.metrics.Metrics;
+import alpine.event.framework.LoggableUncaughtExceptionHandler;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Executes work that is bound by requests to upstream services, such as vulnerability
+ * intelligence sources and package repositories.
+ * <p>
+ * When enabled, work runs on an elastic pool of platform threads that are released when idle.
+ * On Java 21 or newer, work runs on virtual threads instead. Concurrent requests are limited
+ * per upstream host, rather than by the number of threads available.
+ *
+ * @since 4.11.0
+ */
+public final class UpstreamRequestExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(UpstreamRequestExecutor.class);
+    private static final int MAX_PLATFORM_THREADS = 64;
+    private static final boolean ENABLED = Config.getInstance().getPropertyAsBoolean(ConfigKey.UPSTREAM_REQUEST_EXECUTOR_ENABLED);
+    private static final int MAX_CONCURRENCY_PER_HOST = Config.getInstance().getPropertyAsInt(ConfigKey.UPSTREAM_REQUEST_MAX_CONCURRENCY_PER_HOST);
+    private static final int MAX_CONCURRENCY_PER_TASK = Config.getInstance().getPropertyAsInt(ConfigKey.UPSTREAM_REQUEST_MAX_CONCURRENCY_PER_TASK);
+    private static final Map<String, Semaphore> PERMITS_BY_HOST = new ConcurrentHashMap<>();
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    /**
+     * A permit to perform requests to an upstream host.
+     */
+    public interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+    private static final Permit NOOP_PERMIT = () -> {
+    };
+
+    private UpstreamRequestExecutor() {
+    }
+
+    /**
+     * @return {@code true} when upstream requests should be performed on this executor
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @return the {@link ExecutorService} to perform upstream requests on
+     */
+    public static ExecutorService getExecutor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Acquires a permit to perform requests to the host of a given URL, blocking until one is available.
+     * The permit must be closed once the request and its response have been handled.
+     * <p>
+     * Returns a no-op permit when the executor is not enabled.
+     *
+     * @param url the URL to be requested
+     * @return the acquired {@link Permit}
+     */
+    public static Permit acquirePermit(final String url) {
+        if (!ENABLED) {
+            return NOOP_PERMIT;
+        }
+        final Semaphore semaphore = PERMITS_BY_HOST.computeIfAbsent(getHost(url), ignored -> new Semaphore(MAX_CONCURRENCY_PER_HOST));
+        semaphore.acquireUninterruptibly();
+        return semaphore::release;
+    }
+
+    /**
+     * Performs an action for all given items concurrently, and waits for all of them to complete.
+     * <p>
+     * At most {@link ConfigKey#UPSTREAM_REQUEST_MAX_CONCURRENCY_PER_TASK} items are processed at a time, which
+     * bounds the resources (e.g. database connections) held by the actions in addition to their requests.
+     * Requests performed by the actions are limited per host separately, via {@link #acquirePermit(String)}.
+     * Failed actions are logged, and do not prevent the remaining items from being processed.
+     *
+     * @param items  the items to process
+     * @param action the action to perform for each item
+     * @param <T>    type of the items
+     */
+    public static <T> void forEach(final Collection<T> items, final Consumer<T> action) {
+        final var inFlight = new Semaphore(Math.max(1, MAX_CONCURRENCY_PER_TASK));
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(items.size());
+        for (final T item : items) {
+            inFlight.acquireUninterruptibly();
+            futures.add(CompletableFuture
+                    .runAsync(() -> action.accept(item), EXECUTOR)
+                    .whenComplete((result, exception) -> {
+                        inFlight.release();
+                        if (exception != null) {
+                            LOGGER.error("An unexpected error occurred while processing %s".formatted(item), exception);
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .exceptionally(exception -> null)
+                .join();
+    }
+
+    private static String getHost(final String url) {
+        try {
+            final String authority = URI.create(url).getAuthority();
+            if (authority != null) {
+                return authority;
+            }
+        } catch (IllegalArgumentException e) {
+            LOGGER.debug("Failed to determine host of " + url, e);
+        }
+        return url;
+    }
+
+    private static ExecutorService createExecutor() {
+        if (ENABLED) {
+            try {
+                // Virtual threads are not available on the Java version this project is compiled for,
+                // but are used whenever the runtime provides them.
+                final ExecutorService executor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+                LOGGER.info("Performing upstream requests on virtual threads");
+                return executor;
+            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+                LOGGER.info("Virtual threads are not supported by the runtime; Performing upstream requests on platform threads");
+            }
+        }
+        final var threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern(UpstreamRequestExecutor.class.getSimpleName() + "-%d")
+                .uncaughtExceptionHandler(new LoggableUncaughtExceptionHandler())
+                .build();
+        final var executor = new ThreadPoolExecutor(MAX_PLATFORM_THREADS, MAX_PLATFORM_THREADS,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        Metrics.registerExecutorService(executor, UpstreamRequestExecutor.class.getSimpleName());
+        return executor;
+    }
+
+}
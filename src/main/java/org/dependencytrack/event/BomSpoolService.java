@@ -0,0 +1,232 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.event;
+
+import alpine.Config;
+import alpine.common.logging.Logger;
+import alpine.event.framework.LoggableUncaughtExceptionHandler;
+import org.apache.commons.io.input.BOMInputStream;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.dependencytrack.common.ConfigKey;
+import org.dependencytrack.exception.SizeLimitExceededException;
+import org.dependencytrack.util.CompressUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores uploaded BOMs on disk until they are processed, and manages resumable uploads of BOMs.
+ * <p>
+ * BOMs are spooled to disk, such that they don't need to be held in memory while their
+ * {@link BomUploadEvent} is pending. Spool files are deleted by the {@link BomUploadEventService}
+ * once their event has been processed, superseded, or rejected.
+ * <p>
+ * The service has to be started using {@link #start()} before resumable uploads expire automatically,
+ * and should be stopped using {@link #stop()}. Both is done by {@link EventSubsystemInitializer}.
+ *
+ * @since 4.11.0
+ */
+public final class BomSpoolService {
+
+    private static final Logger LOGGER = Logger.getLogger(BomSpoolService.class);
+    private static final String SPOOL_DIRECTORY_NAME = "bom-uploads";
+    private static final BomSpoolService INSTANCE = new BomSpoolService(
+            Config.getInstance().getDataDirectorty().toPath().resolve(SPOOL_DIRECTORY_NAME),
+            Duration.ofMinutes(Config.getInstance().getPropertyAsInt(ConfigKey.BOM_UPLOAD_SESSION_TIMEOUT_MINUTES)));
+
+    private final Path spoolDirectory;
+    private final Duration uploadSessionTimeout;
+    private final Map<UUID, BomUploadSession> uploadSessions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService uploadSessionSweeper;
+
+    /**
+     * @param spoolDirectory       The directory to spool uploaded BOMs to
+     * @param uploadSessionTimeout Duration after which resumable uploads that were not modified expire
+     */
+    BomSpoolService(final Path spoolDirectory, final Duration uploadSessionTimeout) {
+        this.spoolDirectory = spoolDirectory;
+        this.uploadSessionTimeout = uploadSessionTimeout;
+    }
+
+    public static BomSpoolService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Deletes all stale spooled BOMs, and starts periodically aborting expired resumable uploads.
+     * <p>
+     * BOMs are spooled for as long as their events are pending. As pending events do not survive restarts,
+     * any BOMs that are still spooled during startup are stale.
+     */
+    public synchronized void start() {
+        if (uploadSessionSweeper != null) {
+            return;
+        }
+        purgeSpoolDirectory();
+
+        // Abandoned sessions would otherwise keep their partially uploaded BOMs on disk
+        // until the next session is created.
+        uploadSessionSweeper = Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder()
+                .namingPattern(BomSpoolService.class.getSimpleName() + "-SessionSweeper")
+                .uncaughtExceptionHandler(new LoggableUncaughtExceptionHandler())
+                .daemon(true)
+                .build());
+        final long sweepIntervalSeconds = Math.max(60, uploadSessionTimeout.toSeconds() / 2);
+        uploadSessionSweeper.scheduleWithFixedDelay(this::abortExpiredUploadSessions,
+                sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops periodically aborting expired resumable uploads.
+     */
+    public synchronized void stop() {
+        if (uploadSessionSweeper != null) {
+            uploadSessionSweeper.shutdownNow();
+            uploadSessionSweeper = null;
+        }
+    }
+
+    /**
+     * Spools an uploaded BOM to disk.
+     * <p>
+     * Compressed BOMs are decompressed incrementally while being spooled.
+     *
+     * @param inputStream The {@link InputStream} to read the BOM from
+     * @param maxSize     The maximum size of the (decompressed) BOM
+     * @return The {@link File} the BOM was spooled to
+     * @throws SizeLimitExceededException When the (decompressed) BOM exceeds {@code maxSize} bytes
+     * @throws IOException                When spooling the BOM failed
+     */
+    public File spool(final InputStream inputStream, final long maxSize) throws IOException {
+        Files.createDirectories(spoolDirectory);
+        final Path spoolFile = Files.createTempFile(spoolDirectory, "bom-", ".upload");
+        try (final OutputStream outputStream = Files.newOutputStream(spoolFile)) {
+            CompressUtil.optionallyDecompress(inputStream, outputStream, maxSize);
+        } catch (IOException e) {
+            Files.deleteIfExists(spoolFile);
+            throw e;
+        }
+        return spoolFile.toFile();
+    }
+
+    /**
+     * Starts a resumable upload of a BOM.
+     * <p>
+     * Sessions that were not modified for {@link ConfigKey#BOM_UPLOAD_SESSION_TIMEOUT_MINUTES}
+     * expire, and all bytes received for them are discarded.
+     *
+     * @param projectUuid       The UUID of the project the BOM is uploaded to
+     * @param forceReprocessing Whether to process the BOM even if it is identical to the last BOM of the project
+     * @return The created {@link BomUploadSession}
+     * @throws IOException When creating the file to receive the BOM failed
+     */
+    public BomUploadSession createUploadSession(final UUID projectUuid, final boolean forceReprocessing) throws IOException {
+        abortExpiredUploadSessions();
+
+        Files.createDirectories(spoolDirectory);
+        final Path file = Files.createTempFile(spoolDirectory, "bom-", ".partial");
+        final var session = new BomUploadSession(UUID.randomUUID(), projectUuid, forceReprocessing, file);
+        uploadSessions.put(session.getUuid(), session);
+        return session;
+    }
+
+    /**
+     * @param uuid The UUID of the {@link BomUploadSession}
+     * @return The {@link BomUploadSession}, or {@code null} when no such session exists
+     */
+    public BomUploadSession getUploadSession(final UUID uuid) {
+        return uploadSessions.get(uuid);
+    }
+
+    /**
+     * Completes a resumable upload of a BOM, and spools the BOM for processing.
+     * <p>
+     * Compressed BOMs are decompressed incrementally while being spooled.
+     *
+     * @param session The {@link BomUploadSession} to complete
+     * @param maxSize The maximum size of the (decompressed) BOM
+     * @return The {@link File} the BOM was spooled to
+     * @throws SizeLimitExceededException When the decompressed BOM exceeds {@code maxSize} bytes
+     * @throws IOException                When spooling the BOM failed
+     */
+    public File completeUploadSession(final BomUploadSession session, final long maxSize) throws IOException {
+        uploadSessions.remove(session.getUuid());
+        try (final InputStream inputStream = new BOMInputStream(Files.newInputStream(session.getFile()))) {
+            return spool(inputStream, maxSize);
+        } finally {
+            Files.deleteIfExists(session.getFile());
+        }
+    }
+
+    /**
+     * Aborts a resumable upload of a BOM, and discards all bytes received for it.
+     *
+     * @param session The {@link BomUploadSession} to abort
+     */
+    public void abortUploadSession(final BomUploadSession session) {
+        uploadSessions.remove(session.getUuid());
+        try {
+            Files.deleteIfExists(session.getFile());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete partially uploaded BOM " + session.getFile(), e);
+        }
+    }
+
+    /**
+     * Aborts all resumable uploads that were not modified for {@link ConfigKey#BOM_UPLOAD_SESSION_TIMEOUT_MINUTES}.
+     * <p>
+     * Invoked periodically while the service is started, and whenever a new session is created.
+     */
+    void abortExpiredUploadSessions() {
+        final Instant expiry = Instant.now().minus(uploadSessionTimeout);
+        for (final BomUploadSession session : uploadSessions.values()) {
+            if (session.getLastModified().isBefore(expiry)) {
+                LOGGER.debug("Upload session %s expired".formatted(session.getUuid()));
+                abortUploadSession(session);
+            }
+        }
+    }
+
+    private void purgeSpoolDirectory() {
+        if (!Files.isDirectory(spoolDirectory)) {
+            return;
+        }
+        try (final DirectoryStream<Path> spoolFiles = Files.newDirectoryStream(spoolDirectory)) {
+            for (final Path spoolFile : spoolFiles) {
+                Files.deleteIfExists(spoolFile);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to purge spooled BOMs from " + spoolDirectory, e);
+        }
+    }
+
+}
@@ -34,17 +34,40 @@ public class BomUploadEvent extends AbstractChainableEvent {
     private final UUID projectUuid;
     private File file;
     private byte[] bom;
+    private boolean forceReprocessing;
 
     public BomUploadEvent(final UUID projectUuid, final byte[] bom) {
+        this(projectUuid, bom, false);
+    }
+
+    /**
+     * @param projectUuid       The UUID of the project the BOM was uploaded to
+     * @param bom               The uploaded BOM
+     * @param forceReprocessing Whether to process the BOM even if it is identical to the last BOM of the project
+     * @since 4.11.0
+     */
+    public BomUploadEvent(final UUID projectUuid, final byte[] bom, final boolean forceReprocessing) {
         this.projectUuid = projectUuid;
         if (bom != null) {
             this.bom = bom.clone();
         }
+        this.forceReprocessing = forceReprocessing;
     }
 
     public BomUploadEvent(final UUID projectUuid, final File file) {
+        this(projectUuid, file, false);
+    }
+
+    /**
+     * @param projectUuid       The UUID of the project the BOM was uploaded to
+     * @param file              The file the uploaded BOM was spooled to. It is deleted once the BOM was read.
+     * @param forceReprocessing Whether to process the BOM even if it is identical to the last BOM of the project
+     * @since 4.11.0
+     */
+    public BomUploadEvent(final UUID projectUuid, final File file, final boolean forceReprocessing) {
         this.projectUuid = projectUuid;
         this.file = file;
+        this.forceReprocessing = forceReprocessing;
     }
 
     public UUID getProjectUuid() {
@@ -58,4 +81,16 @@ public class BomUploadEvent extends AbstractChainableEvent {
     public File getFile() {
         return file;
     }
+
+    public boolean isForceReprocessing() {
+        return forceReprocessing;
+    }
+
+    /**
+     * Requests the BOM to be processed even if it is identical to the last BOM of the project.
+     * Used when this event supersedes a queued event that requested reprocessing.
+     */
+    void forceReprocessing() {
+        this.forceReprocessing = true;
+    }
 }
@@ -0,0 +1,377 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.event;
+
+import alpine.Config;
+import alpine.common.logging.Logger;
+import alpine.common.metrics.Metrics;
+import alpine.event.framework.ChainLink;
+import alpine.event.framework.ChainableEvent;
+import alpine.event.framework.Event;
+import alpine.event.framework.IEventService;
+import alpine.event.framework.LoggableUncaughtExceptionHandler;
+import alpine.event.framework.Subscriber;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.dependencytrack.common.ConfigKey;
+import org.dependencytrack.resources.v1.vo.IsTokenBeingProcessedResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A dedicated event service for {@link BomUploadEvent}s.
+ * <p>
+ * Processing of BOMs is isolated from the shared {@link alpine.event.framework.EventService}, such that
+ * uploads do not compete with metrics updates, mirroring, and analysis work. Events for the same project
+ * are processed strictly one after another, in the order in which they were submitted, while events for
+ * different projects are processed in parallel, using up to {@link ConfigKey#BOM_PROCESSING_THREADS} threads.
+ * <p>
+ * Only the latest BOM of a project matters. When an event is submitted for a project that already has
+ * events waiting to be processed, the waiting events are superseded by the new one. Superseded events
+ * are never processed, and are no longer reported as being processed. Instead, the token of the event that
+ * superseded them can be looked up using {@link #getSupersedingChainIdentifier(UUID)}. If any superseded
+ * event requested reprocessing of identical BOMs, so does the event that superseded it.
+ * <p>
+ * The number of events that may be pending at any given time is limited by
+ * {@link ConfigKey#BOM_PROCESSING_QUEUE_CAPACITY}. Once that limit is reached, further events are rejected
+ * by {@link #offer(BomUploadEvent)}, allowing callers to signal clients to back off.
+ *
+ * @since 4.11.0
+ */
+public final class BomUploadEventService implements IEventService {
+
+    private static final Logger LOGGER = Logger.getLogger(BomUploadEventService.class);
+    private static final String EXECUTOR_NAME = "BomUploadProcessing";
+    private static final int MAX_SUPERSEDED_CHAIN_IDENTIFIERS = 10_000;
+    private static final BomUploadEventService INSTANCE = new BomUploadEventService(
+            Config.getInstance().getPropertyAsInt(ConfigKey.BOM_PROCESSING_THREADS),
+            Config.getInstance().getPropertyAsInt(ConfigKey.BOM_PROCESSING_QUEUE_CAPACITY));
+
+    private final List<Class<? extends Subscriber>> subscribers = new CopyOnWriteArrayList<>();
+    private final Map<UUID, Deque<BomUploadEvent>> queuedEventsByProject = new HashMap<>();
+    private final Map<UUID, Integer> trackedChainIdentifiers = new HashMap<>();
+    private final Map<UUID, UUID> supersedingChainIdentifiers = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<UUID, UUID> eldest) {
+            return size() > MAX_SUPERSEDED_CHAIN_IDENTIFIERS;
+        }
+    };
+    private final ExecutorService executor;
+    private final int capacity;
+    private int pendingEvents;
+
+    /**
+     * @param threads  Number of projects to process events for in parallel
+     * @param capacity Maximum number of events that may be pending (i.e. queued or in progress) at once
+     */
+    BomUploadEventService(final int threads, final int capacity) {
+        final var threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern(EXECUTOR_NAME + "-%d")
+                .uncaughtExceptionHandler(new LoggableUncaughtExceptionHandler())
+                .build();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), threadFactory);
+        this.capacity = Math.max(1, capacity);
+        Metrics.registerExecutorService(executor, EXECUTOR_NAME);
+    }
+
+    public static BomUploadEventService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Submits a {@link BomUploadEvent} for processing, unless too many events are pending already.
+     * <p>
+     * Events that are queued for the same project, but whose processing didn't start yet,
+     * are superseded by {@code event}. Spool files of events that are superseded or rejected are deleted.
+     *
+     * @param event The {@link BomUploadEvent} to submit
+     * @return {@code true} when the event was accepted, otherwise {@code false}
+     */
+    public boolean offer(final BomUploadEvent event) {
+        if (subscribers.isEmpty()) {
+            LOGGER.debug("No subscribers to inform on " + event.getClass().getName());
+            deleteSpoolFile(event);
+            return true;
+        }
+
+        final UUID projectUuid = event.getProjectUuid();
+        synchronized (this) {
+            if (executor.isShutdown()) {
+                deleteSpoolFile(event);
+                return false;
+            }
+
+            final Deque<BomUploadEvent> queuedEvents = queuedEventsByProject.get(projectUuid);
+            if (queuedEvents != null && !queuedEvents.isEmpty()) {
+                // Events that are still queued for the same project are superseded by this event,
+                // as only the latest BOM of a project matters. Coalescing doesn't increase the number
+                // of pending events, so it must not be subject to the capacity limit.
+                coalesce(queuedEvents, event);
+                return true;
+            }
+            if (pendingEvents >= capacity) {
+                deleteSpoolFile(event);
+                return false;
+            }
+            track(event);
+
+            if (queuedEvents != null) {
+                // Another event for the same project is in progress. Processing of this
+                // event will be kicked off once that event completed.
+                queuedEvents.add(event);
+                return true;
+            }
+            queuedEventsByProject.put(projectUuid, new ArrayDeque<>());
+        }
+
+        execute(projectUuid, event);
+        return true;
+    }
+
+    /**
+     * @return {@code true} when the service has been shut down, and thus won't accept any events anymore
+     */
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publish(final Event event) {
+        if (!(event instanceof final BomUploadEvent bomUploadEvent)) {
+            throw new IllegalArgumentException("Only %s is supported, but got %s"
+                    .formatted(BomUploadEvent.class.getName(), event.getClass().getName()));
+        }
+        if (!offer(bomUploadEvent)) {
+            LOGGER.warn("Rejected BOM upload for project %s, because too many BOMs are pending processing"
+                    .formatted(bomUploadEvent.getProjectUuid()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe(final Class<? extends Event> eventType, final Class<? extends Subscriber> subscriberType) {
+        if (!BomUploadEvent.class.isAssignableFrom(eventType)) {
+            throw new IllegalArgumentException("Only %s is supported, but got %s"
+                    .formatted(BomUploadEvent.class.getName(), eventType.getName()));
+        }
+        if (!subscribers.contains(subscriberType)) {
+            subscribers.add(subscriberType);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unsubscribe(final Class<? extends Subscriber> subscriberType) {
+        subscribers.remove(subscriberType);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasSubscriptions(final Event event) {
+        return event instanceof BomUploadEvent && !subscribers.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isEventBeingProcessed(final ChainableEvent event) {
+        return isEventBeingProcessed(event.getChainIdentifier());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isEventBeingProcessed(final UUID chainIdentifier) {
+        return trackedChainIdentifiers.containsKey(chainIdentifier);
+    }
+
+    /**
+     * Determines the chain identifier of the {@link BomUploadEvent} that superseded the event with a given
+     * chain identifier. If the superseding event was itself superseded later on, the chain identifier of the
+     * latest event is returned. Only the {@value #MAX_SUPERSEDED_CHAIN_IDENTIFIERS} most recently superseded
+     * events are remembered.
+     *
+     * @param chainIdentifier The chain identifier of the event
+     * @return The chain identifier of the superseding event, or {@code null} when the event was not superseded
+     */
+    public synchronized UUID getSupersedingChainIdentifier(final UUID chainIdentifier) {
+        UUID supersedingChainIdentifier = supersedingChainIdentifiers.get(chainIdentifier);
+        while (supersedingChainIdentifier != null && supersedingChainIdentifiers.containsKey(supersedingChainIdentifier)) {
+            supersedingChainIdentifier = supersedingChainIdentifiers.get(supersedingChainIdentifier);
+        }
+        return supersedingChainIdentifier;
+    }
+
+    /**
+     * Determines whether any tasks associated with a token are being processed, or queued to be processed.
+     * <p>
+     * A {@link BomUploadEvent} that was superseded by a later upload of the same project is only complete
+     * once the event that superseded it is. The token of that event is included in the response.
+     *
+     * @param token The token to query
+     * @return The processing status of the token
+     */
+    public IsTokenBeingProcessedResponse isTokenBeingProcessed(final UUID token) {
+        final UUID supersedingToken = getSupersedingChainIdentifier(token);
+        final UUID effectiveToken = supersedingToken != null ? supersedingToken : token;
+        final var response = new IsTokenBeingProcessedResponse();
+        response.setProcessing(isEventBeingProcessed(effectiveToken) || Event.isEventBeingProcessed(effectiveToken));
+        response.setSupersededBy(supersedingToken);
+        return response;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        shutdown(Duration.ofSeconds(30));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean shutdown(final Duration timeout) {
+        LOGGER.info("Shutting down " + EXECUTOR_NAME);
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void execute(final UUID projectUuid, final BomUploadEvent event) {
+        try {
+            executor.execute(() -> process(projectUuid, event));
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Discarding BOM upload for project %s, because %s is shutting down"
+                    .formatted(projectUuid, EXECUTOR_NAME));
+            synchronized (this) {
+                final Deque<BomUploadEvent> queuedEvents = queuedEventsByProject.remove(projectUuid);
+                untrack(event);
+                deleteSpoolFile(event);
+                if (queuedEvents != null) {
+                    queuedEvents.forEach(this::untrack);
+                    queuedEvents.forEach(this::deleteSpoolFile);
+                }
+            }
+        }
+    }
+
+    private void process(final UUID projectUuid, final BomUploadEvent event) {
+        try {
+            boolean succeeded = true;
+            for (final Class<? extends Subscriber> subscriberType : subscribers) {
+                try {
+                    final Subscriber subscriber = subscriberType.getDeclaredConstructor().newInstance();
+                    subscriber.inform(event);
+                } catch (Exception e) {
+                    LOGGER.error("An error occurred while informing subscriber " + subscriberType.getName(), e);
+                    succeeded = false;
+                }
+            }
+            for (final ChainLink chainLink : succeeded ? event.onSuccess() : event.onFailure()) {
+                final Event chainedEvent = succeeded ? chainLink.getSuccessEvent() : chainLink.getFailureEvent();
+                if (chainedEvent != null) {
+                    Event.dispatch(chainedEvent);
+                }
+            }
+        } finally {
+            // Only move on to the next event of the project once this one is completed.
+            // The next event is submitted to the back of the executor's queue, so that
+            // projects with many queued events can't starve other projects.
+            final BomUploadEvent nextEvent;
+            synchronized (this) {
+                untrack(event);
+                final Deque<BomUploadEvent> queuedEvents = queuedEventsByProject.get(projectUuid);
+                nextEvent = queuedEvents != null ? queuedEvents.poll() : null;
+                if (nextEvent == null) {
+                    queuedEventsByProject.remove(projectUuid);
+                }
+            }
+            if (nextEvent != null) {
+                execute(projectUuid, nextEvent);
+            }
+        }
+    }
+
+    private void coalesce(final Deque<BomUploadEvent> queuedEvents, final BomUploadEvent event) {
+        for (final BomUploadEvent supersededEvent : queuedEvents) {
+            LOGGER.info("BOM upload %s for project %s is superseded by %s and will not be processed"
+                    .formatted(supersededEvent.getChainIdentifier(), event.getProjectUuid(), event.getChainIdentifier()));
+            untrack(supersededEvent);
+            deleteSpoolFile(supersededEvent);
+            supersedingChainIdentifiers.put(supersededEvent.getChainIdentifier(), event.getChainIdentifier());
+            if (supersededEvent.isForceReprocessing()) {
+                event.forceReprocessing();
+            }
+        }
+        queuedEvents.clear();
+        track(event);
+        queuedEvents.add(event);
+    }
+
+    private void deleteSpoolFile(final BomUploadEvent event) {
+        if (event.getFile() != null) {
+            try {
+                Files.deleteIfExists(event.getFile().toPath());
+            } catch (IOException e) {
+                LOGGER.warn("Failed to delete spooled BOM " + event.getFile(), e);
+            }
+        }
+    }
+
+    private void track(final BomUploadEvent event) {
+        pendingEvents++;
+        trackedChainIdentifiers.merge(event.getChainIdentifier(), 1, Integer::sum);
+    }
+
+    private void untrack(final BomUploadEvent event) {
+        pendingEvents--;
+        trackedChainIdentifiers.computeIfPresent(event.getChainIdentifier(), (ignored, count) -> count > 1 ? count - 1 : null);
+    }
+
+}
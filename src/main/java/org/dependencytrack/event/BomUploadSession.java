@@ -0,0 +1,123 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.event;
+
+import org.apache.commons.io.IOUtils;
+import org.dependencytrack.exception.SizeLimitExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A resumable upload of a BOM, whose content is received in one or more consecutive ranges of bytes.
+ * <p>
+ * Received bytes are appended to a file in the spool directory of {@link BomSpoolService}.
+ * When the transfer of a range is interrupted, all bytes that were received up until the interruption
+ * are retained, and the upload may be resumed from {@link #getReceivedBytes()}.
+ *
+ * @since 4.11.0
+ */
+public final class BomUploadSession {
+
+    private final UUID uuid;
+    private final UUID projectUuid;
+    private final boolean forceReprocessing;
+    private final Path file;
+    private long receivedBytes;
+    private volatile Instant lastModified;
+
+    BomUploadSession(final UUID uuid, final UUID projectUuid, final boolean forceReprocessing, final Path file) {
+        this.uuid = uuid;
+        this.projectUuid = projectUuid;
+        this.forceReprocessing = forceReprocessing;
+        this.file = file;
+        this.lastModified = Instant.now();
+    }
+
+    /**
+     * Appends a range of bytes to the upload.
+     *
+     * @param offset      The offset of the first byte of the range. Must be equal to {@link #getReceivedBytes()}.
+     * @param inputStream The {@link InputStream} to read the range from
+     * @param maxSize     The maximum size of the entire upload
+     * @return {@code true} when the range was appended, or {@code false} when {@code offset}
+     * does not match the number of bytes received so far
+     * @throws SizeLimitExceededException When the upload would exceed {@code maxSize} bytes
+     * @throws IOException                When receiving the range failed
+     */
+    public synchronized boolean append(final long offset, final InputStream inputStream, final long maxSize) throws IOException {
+        if (offset != receivedBytes) {
+            return false;
+        }
+
+        final var buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+        try (final OutputStream outputStream = Files.newOutputStream(file, StandardOpenOption.APPEND)) {
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != IOUtils.EOF) {
+                if (receivedBytes + bytesRead > maxSize) {
+                    throw new SizeLimitExceededException(maxSize);
+                }
+                outputStream.write(buffer, 0, bytesRead);
+                receivedBytes += bytesRead;
+            }
+        } catch (IOException e) {
+            // Discard bytes of a partially written buffer, such that
+            // the upload can be resumed from a consistent state.
+            try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(receivedBytes);
+            }
+            throw e;
+        } finally {
+            lastModified = Instant.now();
+        }
+        return true;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public UUID getProjectUuid() {
+        return projectUuid;
+    }
+
+    public boolean isForceReprocessing() {
+        return forceReprocessing;
+    }
+
+    public synchronized long getReceivedBytes() {
+        return receivedBytes;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    Instant getLastModified() {
+        return lastModified;
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.event;
+
+import alpine.event.framework.Event;
+import org.dependencytrack.model.VulnerableSoftware;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Defines an {@link Event} triggered when mirroring of a vulnerability source associated
+ * {@link VulnerableSoftware} records with vulnerabilities they were previously not associated with.
+ * <p>
+ * Only components that may be affected by any of those records are analyzed, instead of
+ * waiting for the next analysis of the entire portfolio.
+ *
+ * @since 4.11.0
+ */
+public record DeltaVulnerabilityAnalysisEvent(Set<Long> vulnerableSoftwareIds) implements Event {
+
+    /**
+     * @param vulnerableSoftwareIds IDs of the {@link VulnerableSoftware} records that changed
+     */
+    public DeltaVulnerabilityAnalysisEvent(final Set<Long> vulnerableSoftwareIds) {
+        this.vulnerableSoftwareIds = Set.copyOf(Objects.requireNonNull(vulnerableSoftwareIds));
+    }
+
+}
@@ -29,6 +29,7 @@ import org.dependencytrack.tasks.CallbackTask;
 import org.dependencytrack.tasks.ClearComponentAnalysisCacheTask;
 import org.dependencytrack.tasks.CloneProjectTask;
 import org.dependencytrack.tasks.DefectDojoUploadTask;
+import org.dependencytrack.tasks.DeltaVulnerabilityAnalysisTask;
 import org.dependencytrack.tasks.EpssMirrorTask;
 import org.dependencytrack.tasks.FortifySscUploadTask;
 import org.dependencytrack.tasks.GitHubAdvisoryMirrorTask;
@@ -73,6 +74,11 @@ public class EventSubsystemInitializer implements ServletContextListener {
     // Starts the SingleThreadedEventService
     private static final SingleThreadedEventService EVENT_SERVICE_ST = SingleThreadedEventService.getInstance();
 
+    // Starts the BomUploadEventService
+    private static final BomUploadEventService BOM_UPLOAD_EVENT_SERVICE = BomUploadEventService.getInstance();
+
+    private static final BomSpoolService BOM_SPOOL_SERVICE = BomSpoolService.getInstance();
+
     /**
      * {@inheritDoc}
      */
@@ -83,7 +89,8 @@ public class EventSubsystemInitializer implements ServletContextListener {
         if (RequirementsVerifier.failedValidation()) {
             return;
         }
-        EVENT_SERVICE.subscribe(BomUploadEvent.class, BomUploadProcessingTask.class);
+        BOM_SPOOL_SERVICE.start();
+        BOM_UPLOAD_EVENT_SERVICE.subscribe(BomUploadEvent.class, BomUploadProcessingTask.class);
         EVENT_SERVICE.subscribe(VexUploadEvent.class, VexUploadProcessingTask.class);
         EVENT_SERVICE.subscribe(LdapSyncEvent.class, LdapSyncTask.class);
         EVENT_SERVICE.subscribe(InternalAnalysisEvent.class, InternalAnalysisTask.class);
@@ -94,6 +101,7 @@ public class EventSubsystemInitializer implements ServletContextListener {
         EVENT_SERVICE.subscribe(VulnDbAnalysisEvent.class, VulnDbAnalysisTask.class);
         EVENT_SERVICE.subscribe(VulnerabilityAnalysisEvent.class, VulnerabilityAnalysisTask.class);
         EVENT_SERVICE.subscribe(PortfolioVulnerabilityAnalysisEvent.class, VulnerabilityAnalysisTask.class);
+        EVENT_SERVICE.subscribe(DeltaVulnerabilityAnalysisEvent.class, DeltaVulnerabilityAnalysisTask.class);
         EVENT_SERVICE.subscribe(SnykAnalysisEvent.class, SnykAnalysisTask.class);
         EVENT_SERVICE.subscribe(RepositoryMetaEvent.class, RepositoryMetaAnalyzerTask.class);
         EVENT_SERVICE.subscribe(PolicyEvaluationEvent.class, PolicyEvaluationTask.class);
@@ -126,7 +134,10 @@ public class EventSubsystemInitializer implements ServletContextListener {
         LOGGER.info("Shutting down asynchronous event subsystem");
         TaskScheduler.getInstance().shutdown();
 
-        EVENT_SERVICE.unsubscribe(BomUploadProcessingTask.class);
+        BOM_UPLOAD_EVENT_SERVICE.unsubscribe(BomUploadProcessingTask.class);
+        BOM_UPLOAD_EVENT_SERVICE.shutdown();
+        BOM_SPOOL_SERVICE.stop();
+
         EVENT_SERVICE.unsubscribe(VexUploadProcessingTask.class);
         EVENT_SERVICE.unsubscribe(LdapSyncTask.class);
         EVENT_SERVICE.unsubscribe(InternalAnalysisTask.class);
@@ -136,6 +147,7 @@ public class EventSubsystemInitializer implements ServletContextListener {
         EVENT_SERVICE.unsubscribe(VulnDbSyncTask.class);
         EVENT_SERVICE.unsubscribe(VulnDbAnalysisTask.class);
         EVENT_SERVICE.unsubscribe(VulnerabilityAnalysisTask.class);
+        EVENT_SERVICE.unsubscribe(DeltaVulnerabilityAnalysisTask.class);
         EVENT_SERVICE.unsubscribe(RepositoryMetaAnalyzerTask.class);
         EVENT_SERVICE.unsubscribe(PolicyEvaluationTask.class);
         EVENT_SERVICE.unsubscribe(ComponentMetricsUpdateTask.class);
@@ -153,6 +165,8 @@ public class EventSubsystemInitializer implements ServletContextListener {
         EVENT_SERVICE.unsubscribe(NistMirrorTask.class);
         EVENT_SERVICE.unsubscribe(NistApiMirrorTask.class);
         EVENT_SERVICE.unsubscribe(EpssMirrorTask.class);
+        VulnerabilityAnalysisTask.shutdown();
+        OssIndexAnalysisTask.shutdown();
         EVENT_SERVICE.shutdown();
 
         EVENT_SERVICE_ST.unsubscribe(IndexTask.class);
@@ -0,0 +1,43 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.exception;
+
+import java.io.IOException;
+
+/**
+ * Exception for when a stream exceeds the maximum number of bytes it may contain.
+ *
+ * @since 4.11.0
+ */
+public class SizeLimitExceededException extends IOException {
+
+    private final long limit;
+
+    /**
+     * @since 4.11.0
+     */
+    public SizeLimitExceededException(final long limit) {
+        super("The size limit of %d bytes was exceeded".formatted(limit));
+        this.limit = limit;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+}
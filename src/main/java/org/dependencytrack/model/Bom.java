@@ -91,6 +91,10 @@ public class Bom implements Serializable {
     @Column(name = "SERIAL_NUMBER")
     private String serialNumber;
 
+    @Persistent
+    @Column(name = "FINGERPRINT", length = 64)
+    private String fingerprint;
+
     @Persistent(defaultFetchGroup = "true")
     @Column(name = "PROJECT_ID", allowsNull = "false")
     @NotNull
@@ -150,6 +154,14 @@ public class Bom implements Serializable {
         this.serialNumber = serialNumber;
     }
 
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     public Project getProject() {
         return project;
     }
@@ -0,0 +1,183 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import javax.jdo.annotations.Column;
+import javax.jdo.annotations.IdGeneratorStrategy;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+import javax.jdo.annotations.Unique;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Model class for a shard of a portfolio vulnerability analysis. A shard covers all active
+ * projects within a range of project IDs, and is claimed by exactly one worker at a time.
+ * <p>
+ * Shards are persistent, so that an analysis interrupted by a restart can be resumed,
+ * and so that their processing can be distributed across multiple workers.
+ *
+ * @since 4.11.0
+ */
+@PersistenceCapable
+@Unique(name = "PORTFOLIOANALYSISSHARD_SHARD_IDX", members = {"shardIndex"})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PortfolioAnalysisShard implements Serializable {
+
+    private static final long serialVersionUID = 3913574251906283172L;
+
+    public enum Status {
+        PENDING,
+        CLAIMED,
+        COMPLETED
+    }
+
+    /**
+     * Index of the shard that covers the deduplicated internal analysis of the entire portfolio, rather
+     * than a range of projects. It precedes all other shards, which can only be claimed once it completed.
+     */
+    public static final int DEDUPLICATION_SHARD_INDEX = -1;
+
+    @PrimaryKey
+    @Persistent(valueStrategy = IdGeneratorStrategy.NATIVE)
+    @JsonIgnore
+    private long id;
+
+    @Persistent
+    @Column(name = "SHARD_INDEX", allowsNull = "false")
+    private int shardIndex;
+
+    @Persistent
+    @Column(name = "FIRST_PROJECT_ID", allowsNull = "false")
+    private long firstProjectId;
+
+    @Persistent
+    @Column(name = "LAST_PROJECT_ID", allowsNull = "false")
+    private long lastProjectId;
+
+    @Persistent
+    @Column(name = "STATUS", allowsNull = "false")
+    @NotNull
+    private Status status;
+
+    @Persistent
+    @Column(name = "CLAIMED_BY", allowsNull = "true")
+    private String claimedBy;
+
+    /**
+     * The time the shard was claimed at, or its last checkpoint was recorded at, whichever is more recent.
+     */
+    @Persistent
+    @Column(name = "CLAIMED_AT", allowsNull = "true")
+    private Date claimedAt;
+
+    /**
+     * The ID of the last project of this shard whose analysis has completed.
+     */
+    @Persistent
+    @Column(name = "CHECKPOINT_PROJECT_ID", allowsNull = "true")
+    private Long checkpointProjectId;
+
+    @Persistent
+    @Column(name = "COMPLETED_AT", allowsNull = "true")
+    private Date completedAt;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public void setShardIndex(int shardIndex) {
+        this.shardIndex = shardIndex;
+    }
+
+    @JsonIgnore
+    public boolean isDeduplicationShard() {
+        return shardIndex == DEDUPLICATION_SHARD_INDEX;
+    }
+
+    public long getFirstProjectId() {
+        return firstProjectId;
+    }
+
+    public void setFirstProjectId(long firstProjectId) {
+        this.firstProjectId = firstProjectId;
+    }
+
+    public long getLastProjectId() {
+        return lastProjectId;
+    }
+
+    public void setLastProjectId(long lastProjectId) {
+        this.lastProjectId = lastProjectId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public Date getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(Date claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public Long getCheckpointProjectId() {
+        return checkpointProjectId;
+    }
+
+    public void setCheckpointProjectId(Long checkpointProjectId) {
+        this.checkpointProjectId = checkpointProjectId;
+    }
+
+    public Date getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Date completedAt) {
+        this.completedAt = completedAt;
+    }
+
+}
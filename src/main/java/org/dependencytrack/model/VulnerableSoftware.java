@@ -22,6 +22,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.MoreObjects;
+import org.dependencytrack.util.VersionRange;
 
 import javax.jdo.annotations.Column;
 import javax.jdo.annotations.Element;
@@ -177,6 +178,8 @@ public class VulnerableSoftware implements ICpe, Serializable {
 
     private transient List<AffectedVersionAttribution> affectedVersionAttributions;
 
+    private transient volatile VersionRange versionRange;
+
     public long getId() {
         return id;
     }
@@ -351,6 +354,7 @@ public class VulnerableSoftware implements ICpe, Serializable {
 
     public void setVersionEndExcluding(String versionEndExcluding) {
         this.versionEndExcluding = versionEndExcluding;
+        this.versionRange = null;
     }
 
     public String getVersionEndIncluding() {
@@ -359,6 +363,7 @@ public class VulnerableSoftware implements ICpe, Serializable {
 
     public void setVersionEndIncluding(String versionEndIncluding) {
         this.versionEndIncluding = versionEndIncluding;
+        this.versionRange = null;
     }
 
     public String getVersionStartExcluding() {
@@ -367,6 +372,7 @@ public class VulnerableSoftware implements ICpe, Serializable {
 
     public void setVersionStartExcluding(String versionStartExcluding) {
         this.versionStartExcluding = versionStartExcluding;
+        this.versionRange = null;
     }
 
     public String getVersionStartIncluding() {
@@ -375,6 +381,25 @@ public class VulnerableSoftware implements ICpe, Serializable {
 
     public void setVersionStartIncluding(String versionStartIncluding) {
         this.versionStartIncluding = versionStartIncluding;
+        this.versionRange = null;
+    }
+
+    /**
+     * Returns the pre-parsed range of affected versions. The range is parsed upon first access,
+     * and retained for the lifetime of this object.
+     *
+     * @return The {@link VersionRange}
+     * @since 4.11.0
+     */
+    @JsonIgnore
+    public VersionRange getVersionRange() {
+        VersionRange range = versionRange;
+        if (range == null) {
+            range = VersionRange.of(getVersionStartIncluding(), getVersionStartExcluding(),
+                    getVersionEndIncluding(), getVersionEndExcluding());
+            versionRange = range;
+        }
+        return range;
     }
 
     public boolean isVulnerable() {
@@ -21,10 +21,13 @@ package org.dependencytrack.notification.vo;
 import org.dependencytrack.model.Bom;
 import org.dependencytrack.model.Project;
 
+import java.util.Base64;
+
 public class BomConsumedOrProcessed {
 
     private Project project;
-    private String bom;
+    private volatile String bom;
+    private byte[] bomBytes;
     private Bom.Format format;
     private String specVersion;
 
@@ -35,11 +38,30 @@ public class BomConsumedOrProcessed {
         this.specVersion = specVersion;
     }
 
+    /**
+     * @param project     The {@link Project} the BOM was uploaded to
+     * @param bomBytes    The raw BOM, which is only Base64 encoded once {@link #getBom()} is called
+     * @param format      The format of the BOM
+     * @param specVersion The specification version of the BOM
+     * @since 4.11.0
+     */
+    public BomConsumedOrProcessed(final Project project, final byte[] bomBytes, final Bom.Format format, final String specVersion) {
+        this.project = project;
+        this.bomBytes = bomBytes;
+        this.format = format;
+        this.specVersion = specVersion;
+    }
+
     public Project getProject() {
         return project;
     }
 
     public String getBom() {
+        // Encoding large BOMs is expensive, and the encoded BOM is not needed
+        // unless a notification publisher actually renders it.
+        if (bom == null && bomBytes != null) {
+            bom = Base64.getEncoder().encodeToString(bomBytes);
+        }
         return bom;
     }
 
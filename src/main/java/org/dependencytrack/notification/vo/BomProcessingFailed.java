@@ -21,10 +21,13 @@ package org.dependencytrack.notification.vo;
 import org.dependencytrack.model.Bom;
 import org.dependencytrack.model.Project;
 
+import java.util.Base64;
+
 public class BomProcessingFailed {
 
     private Project project;
-    private String bom;
+    private volatile String bom;
+    private byte[] bomBytes;
     private String cause;
     private Bom.Format format;
     private String specVersion;
@@ -37,11 +40,30 @@ public class BomProcessingFailed {
         this.specVersion = specVersion;
     }
 
+    /**
+     * @param project     The {@link Project} the BOM was uploaded to
+     * @param bomBytes    The raw BOM, which is only Base64 encoded once {@link #getBom()} is called
+     * @param cause       The cause of the failure
+     * @param format      The format of the BOM
+     * @param specVersion The specification version of the BOM
+     * @since 4.11.0
+     */
+    public BomProcessingFailed(final Project project, final byte[] bomBytes, final String cause, final Bom.Format format, final String specVersion) {
+        this.project = project;
+        this.bomBytes = bomBytes;
+        this.cause = cause;
+        this.format = format;
+        this.specVersion = specVersion;
+    }
+
     public Project getProject() {
         return project;
     }
 
     public String getBom() {
+        if (bom == null && bomBytes != null) {
+            bom = Base64.getEncoder().encodeToString(bomBytes);
+        }
         return bom;
     }
 
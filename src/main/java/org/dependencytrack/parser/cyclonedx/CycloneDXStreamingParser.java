@@ -0,0 +1,302 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.parser.cyclonedx;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Parser for CycloneDX BOMs that does not materialize the entire document in memory.
+ * <p>
+ * Rather than parsing a BOM into a single {@link org.cyclonedx.model.Bom}, the document is walked
+ * token by token, and only individual elements of the requested {@link Section}s are deserialized
+ * and handed over to a {@link Visitor}. This keeps the memory footprint of very large BOMs flat,
+ * as each element can be garbage collected as soon as the {@link Visitor} is done with it.
+ * <p>
+ * Because processing of a BOM typically requires multiple passes over the document (e.g. the
+ * dependency graph can only be resolved once all components are known), the parser operates
+ * on {@link InputStream}s, and it is up to the caller to provide a fresh stream for each pass.
+ *
+ * @since 4.11.0
+ */
+public class CycloneDXStreamingParser {
+
+    public enum Format {
+        JSON,
+        XML
+    }
+
+    public enum Section {
+        METADATA,
+        COMPONENTS,
+        SERVICES,
+        DEPENDENCIES
+    }
+
+    /**
+     * Receives the elements of a BOM while it is being parsed.
+     */
+    public interface Visitor {
+
+        default void visitMetadata(final Metadata metadata) {
+        }
+
+        default void visitComponent(final Component component) {
+        }
+
+        default void visitService(final Service service) {
+        }
+
+        default void visitDependency(final Dependency dependency) {
+        }
+
+    }
+
+    /**
+     * Top-level attributes of a BOM.
+     *
+     * @param specVersion  The CycloneDX specification version
+     * @param version      The version of the BOM
+     * @param serialNumber The serial number of the BOM
+     */
+    public record Header(String specVersion, Integer version, String serialNumber) {
+    }
+
+    private static final String XML_NAMESPACE_PREFIX = "http://cyclonedx.org/schema/bom/";
+
+    private final Format format;
+    private final ObjectMapper jsonMapper;
+    private final XmlMapper xmlMapper;
+    private final XMLInputFactory xmlInputFactory;
+
+    public CycloneDXStreamingParser(final Format format) {
+        this.format = format;
+        if (format == Format.XML) {
+            this.jsonMapper = null;
+            this.xmlMapper = new XmlMapper();
+            this.xmlInputFactory = XMLInputFactory.newFactory();
+            this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        } else {
+            this.jsonMapper = new ObjectMapper();
+            this.xmlMapper = null;
+            this.xmlInputFactory = null;
+        }
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Walks through the entire BOM without deserializing any of its elements, thereby
+     * verifying that the document is well-formed, and reads the BOM's top-level attributes.
+     * <p>
+     * Performing this pass before processing any elements ensures that malformed
+     * (e.g. truncated) documents are rejected before any changes are made based on them.
+     *
+     * @param inputStream The {@link InputStream} to read the BOM from
+     * @return The {@link Header} of the BOM
+     * @throws ParseException When the BOM is not well-formed
+     */
+    public Header readHeader(final InputStream inputStream) throws ParseException {
+        try {
+            return format == Format.XML ? readXmlHeader(inputStream) : readJsonHeader(inputStream);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            throw new ParseException("Unable to parse BOM from byte array", e);
+        }
+    }
+
+    /**
+     * Parses the given {@link Section}s of a BOM, and passes each of their elements to {@code visitor}.
+     * <p>
+     * Nested components are not visited individually, but as children of their respective parent.
+     *
+     * @param inputStream The {@link InputStream} to read the BOM from
+     * @param sections    The {@link Section}s to parse; All other sections are skipped
+     * @param visitor     The {@link Visitor} to pass parsed elements to
+     * @throws ParseException When the BOM could not be parsed
+     */
+    public void parse(final InputStream inputStream, final Set<Section> sections, final Visitor visitor) throws ParseException {
+        final Set<Section> requestedSections = sections.isEmpty() ? EnumSet.noneOf(Section.class) : EnumSet.copyOf(sections);
+        try {
+            if (format == Format.XML) {
+                parseXml(inputStream, requestedSections, visitor);
+            } else {
+                parseJson(inputStream, requestedSections, visitor);
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new ParseException("Unable to parse BOM from byte array", e);
+        }
+    }
+
+    private Header readJsonHeader(final InputStream inputStream) throws IOException {
+        String specVersion = null;
+        Integer version = null;
+        String serialNumber = null;
+        try (final JsonParser jsonParser = jsonMapper.createParser(inputStream)) {
+            if (jsonParser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected BOM to be a JSON object");
+            }
+            while (jsonParser.nextToken() != JsonToken.END_OBJECT) {
+                final String fieldName = jsonParser.getCurrentName();
+                final JsonToken valueToken = jsonParser.nextToken();
+                if ("specVersion".equals(fieldName) && valueToken.isScalarValue()) {
+                    specVersion = jsonParser.getValueAsString();
+                } else if ("version".equals(fieldName) && valueToken.isScalarValue()) {
+                    version = jsonParser.getValueAsInt();
+                } else if ("serialNumber".equals(fieldName) && valueToken.isScalarValue()) {
+                    serialNumber = jsonParser.getValueAsString();
+                } else {
+                    jsonParser.skipChildren();
+                }
+            }
+            if (jsonParser.nextToken() != null) {
+                throw new IOException("Unexpected content after end of BOM");
+            }
+        }
+        return new Header(specVersion, version, serialNumber);
+    }
+
+    private void parseJson(final InputStream inputStream, final Set<Section> sections, final Visitor visitor) throws IOException {
+        try (final JsonParser jsonParser = jsonMapper.createParser(inputStream)) {
+            jsonParser.nextToken(); // Position cursor at first token
+            while (jsonParser.nextToken() != JsonToken.END_OBJECT) {
+                final String fieldName = jsonParser.getCurrentName();
+                final JsonToken valueToken = jsonParser.nextToken();
+                final Section section = jsonSection(fieldName);
+                if (section == null || !sections.contains(section)) {
+                    jsonParser.skipChildren();
+                } else if (section == Section.METADATA && valueToken == JsonToken.START_OBJECT) {
+                    visitor.visitMetadata(jsonParser.readValueAs(Metadata.class));
+                } else if (valueToken == JsonToken.START_ARRAY) {
+                    while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+                        switch (section) {
+                            case COMPONENTS -> visitor.visitComponent(jsonParser.readValueAs(Component.class));
+                            case SERVICES -> visitor.visitService(jsonParser.readValueAs(Service.class));
+                            case DEPENDENCIES -> visitor.visitDependency(jsonParser.readValueAs(Dependency.class));
+                            default -> jsonParser.skipChildren();
+                        }
+                    }
+                } else {
+                    jsonParser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private static Section jsonSection(final String fieldName) {
+        if (fieldName == null) {
+            return null;
+        }
+        return switch (fieldName) {
+            case "metadata" -> Section.METADATA;
+            case "components" -> Section.COMPONENTS;
+            case "services" -> Section.SERVICES;
+            case "dependencies" -> Section.DEPENDENCIES;
+            default -> null;
+        };
+    }
+
+    private Header readXmlHeader(final InputStream inputStream) throws XMLStreamException {
+        final XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(inputStream);
+        try {
+            reader.nextTag(); // Position cursor at the root element
+            String specVersion = null;
+            final String namespace = reader.getNamespaceURI();
+            if (namespace != null && namespace.startsWith(XML_NAMESPACE_PREFIX)) {
+                specVersion = namespace.substring(XML_NAMESPACE_PREFIX.length());
+            }
+            final String versionAttribute = reader.getAttributeValue(null, "version");
+            final Integer version = versionAttribute != null ? Integer.valueOf(versionAttribute.trim()) : null;
+            final String serialNumber = reader.getAttributeValue(null, "serialNumber");
+            while (reader.hasNext()) {
+                reader.next();
+            }
+            return new Header(specVersion, version, serialNumber);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void parseXml(final InputStream inputStream, final Set<Section> sections, final Visitor visitor) throws IOException, XMLStreamException {
+        final XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(inputStream);
+        try {
+            reader.nextTag(); // Position cursor at the root element
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                final Section section = xmlSection(reader.getLocalName());
+                if (section == null || !sections.contains(section)) {
+                    skipXmlElement(reader);
+                } else if (section == Section.METADATA) {
+                    visitor.visitMetadata(xmlMapper.readValue(reader, Metadata.class));
+                } else {
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        switch (section) {
+                            case COMPONENTS -> visitor.visitComponent(xmlMapper.readValue(reader, Component.class));
+                            case SERVICES -> visitor.visitService(xmlMapper.readValue(reader, Service.class));
+                            case DEPENDENCIES -> visitor.visitDependency(xmlMapper.readValue(reader, Dependency.class));
+                            default -> skipXmlElement(reader);
+                        }
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static Section xmlSection(final String localName) {
+        return switch (localName) {
+            case "metadata" -> Section.METADATA;
+            case "components" -> Section.COMPONENTS;
+            case "services" -> Section.SERVICES;
+            case "dependencies" -> Section.DEPENDENCIES;
+            default -> null;
+        };
+    }
+
+    private static void skipXmlElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+}
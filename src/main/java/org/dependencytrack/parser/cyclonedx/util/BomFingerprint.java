@@ -0,0 +1,143 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.parser.cyclonedx.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Service;
+import org.dependencytrack.parser.cyclonedx.CycloneDXStreamingParser;
+
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.EnumSet;
+
+/**
+ * Computes fingerprints of CycloneDX BOMs, which allow for identifying BOMs with identical content.
+ * <p>
+ * Tools typically generate a new serial number and timestamp every time a BOM is generated,
+ * even if nothing else changed. Those attributes are excluded from the fingerprint, so that
+ * repeated uploads of otherwise identical BOMs (e.g. from CI pipelines) can be detected.
+ *
+ * @since 4.11.0
+ */
+public final class BomFingerprint {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .serializationInclusion(JsonInclude.Include.NON_EMPTY)
+            .build();
+
+    private BomFingerprint() { }
+
+    /**
+     * Computes the fingerprint of a given {@link Bom}.
+     * <p>
+     * The BOM is serialized to a normalized JSON representation without its serial number,
+     * version, and metadata timestamp. The fingerprint is the SHA-256 digest thereof.
+     *
+     * @param bom The {@link Bom} to compute the fingerprint for
+     * @return The hex encoded fingerprint
+     * @throws JsonProcessingException When the {@link Bom} could not be serialized
+     */
+    public static String compute(final Bom bom) throws JsonProcessingException {
+        final ObjectNode bomNode = MAPPER.valueToTree(bom);
+        bomNode.remove("serialNumber");
+        bomNode.remove("version");
+        if (bomNode.get("metadata") instanceof final ObjectNode metadataNode) {
+            metadataNode.remove("timestamp");
+        }
+        return DigestUtils.sha256Hex(MAPPER.writeValueAsBytes(bomNode));
+    }
+
+    /**
+     * Computes the fingerprint of a BOM that is processed in streaming mode, without parsing it into memory.
+     * <p>
+     * Only the sections that are processed in streaming mode (metadata without its timestamp, components,
+     * services, and dependencies) are considered, in addition to the specification version. Each of their
+     * elements is serialized to a normalized JSON representation, and the fingerprint is the SHA-256 digest
+     * of all of them. Fingerprints computed this way are not comparable to those of {@link #compute(Bom)}.
+     *
+     * @param parser      The {@link CycloneDXStreamingParser} to parse the BOM with
+     * @param inputStream The {@link InputStream} to read the BOM from
+     * @param specVersion The specification version of the BOM
+     * @return The hex encoded fingerprint
+     * @throws ParseException When the BOM could not be parsed
+     * @since 4.11.0
+     */
+    public static String compute(final CycloneDXStreamingParser parser, final InputStream inputStream,
+                                 final String specVersion) throws ParseException {
+        final MessageDigest digest = DigestUtils.getSha256Digest();
+        update(digest, "specVersion", specVersion);
+        parser.parse(inputStream, EnumSet.allOf(CycloneDXStreamingParser.Section.class), new CycloneDXStreamingParser.Visitor() {
+            @Override
+            public void visitMetadata(final Metadata metadata) {
+                if (metadata == null) {
+                    return;
+                }
+                final ObjectNode metadataNode = MAPPER.valueToTree(metadata);
+                metadataNode.remove("timestamp");
+                update(digest, "metadata", metadataNode);
+            }
+
+            @Override
+            public void visitComponent(final Component component) {
+                update(digest, "component", component);
+            }
+
+            @Override
+            public void visitService(final Service service) {
+                update(digest, "service", service);
+            }
+
+            @Override
+            public void visitDependency(final Dependency dependency) {
+                update(digest, "dependency", dependency);
+            }
+        });
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    private static void update(final MessageDigest digest, final String section, final Object value) {
+        // The section name separates elements, such that moving an element
+        // from one section to another results in a different fingerprint.
+        digest.update(section.getBytes(StandardCharsets.UTF_8));
+        try {
+            digest.update(MAPPER.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -54,7 +54,6 @@ import org.dependencytrack.persistence.QueryManager;
 import org.dependencytrack.util.InternalComponentIdentificationUtil;
 import org.dependencytrack.util.PurlUtil;
 import org.dependencytrack.util.VulnerabilityUtil;
-import org.json.JSONArray;
 
 import javax.json.Json;
 import javax.json.JsonArray;
@@ -66,10 +65,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 public class ModelConverter {
 
@@ -86,12 +88,24 @@ public class ModelConverter {
      * @return a List of Component object
      */
     public static List<Component> convertComponents(final QueryManager qm, final Bom bom, final Project project) {
+        return convertComponents(qm, bom, project, true);
+    }
+
+    /**
+     * Converts a parsed Bom to a native list of Dependency-Track component object
+     * @param bom the Bom to convert
+     * @param matchExisting whether to match components against existing components of the project;
+     *                      when {@code false}, all returned components are transient
+     * @return a List of Component object
+     * @since 4.11.0
+     */
+    public static List<Component> convertComponents(final QueryManager qm, final Bom bom, final Project project, final boolean matchExisting) {
         final List<Component> components = new ArrayList<>();
         if (bom.getComponents() != null) {
             for (int i = 0; i < bom.getComponents().size(); i++) {
                 final org.cyclonedx.model.Component cycloneDxComponent = bom.getComponents().get(i);
                 if (cycloneDxComponent != null) {
-                    components.add(convert(qm, cycloneDxComponent, project));
+                    components.add(convert(qm, cycloneDxComponent, project, matchExisting));
                 }
             }
         }
@@ -100,7 +114,12 @@ public class ModelConverter {
 
     /**Convert from CycloneDX to DT */
     public static Component convert(final QueryManager qm, final org.cyclonedx.model.Component cycloneDxComponent, final Project project) {
-        Component component = qm.matchSingleIdentity(project, new ComponentIdentity(cycloneDxComponent));
+        return convert(qm, cycloneDxComponent, project, true);
+    }
+
+    private static Component convert(final QueryManager qm, final org.cyclonedx.model.Component cycloneDxComponent,
+                                     final Project project, final boolean matchExisting) {
+        Component component = matchExisting ? qm.matchSingleIdentity(project, new ComponentIdentity(cycloneDxComponent)) : null;
         if (component == null) {
             component = new Component();
             component.setProject(project);
@@ -196,14 +215,14 @@ public class ModelConverter {
                 for (final org.cyclonedx.model.License cycloneLicense : licenseOptions) {
                     if (cycloneLicense != null) {
                         if (StringUtils.isNotBlank(cycloneLicense.getId())) {
-                            final License license = qm.getLicense(StringUtils.trimToNull(cycloneLicense.getId()));
+                            final License license = qm.resolveLicense(StringUtils.trimToNull(cycloneLicense.getId()));
                             if (license != null) {
                                 component.setResolvedLicense(license);
                             }
                         }
                         else if (StringUtils.isNotBlank(cycloneLicense.getName()))
                         {
-                            final License license = qm.getCustomLicense(StringUtils.trimToNull(cycloneLicense.getName()));
+                            final License license = qm.resolveCustomLicense(StringUtils.trimToNull(cycloneLicense.getName()));
                             if (license != null) {
                                 component.setResolvedLicense(license);
                             }
@@ -234,7 +253,7 @@ public class ModelConverter {
             for (int i = 0; i < cycloneDxComponent.getComponents().size(); i++) {
                 final org.cyclonedx.model.Component cycloneDxChildComponent = cycloneDxComponent.getComponents().get(i);
                 if (cycloneDxChildComponent != null) {
-                    components.add(convert(qm, cycloneDxChildComponent, project));
+                    components.add(convert(qm, cycloneDxChildComponent, project, matchExisting));
                 }
             }
             if (CollectionUtils.isNotEmpty(components)) {
@@ -761,60 +780,82 @@ public class ModelConverter {
     }
 
     /**
-     * Converts a parsed Bom to a native list of Dependency-Track component objects
+     * Resolves the dependency graph of a parsed Bom, and populates the direct dependencies
+     * of the given {@link Project} and {@link Component}s accordingly.
+     * <p>
+     * Dependencies and components are indexed by their bom-ref once, such that the graph
+     * is resolved in time linear to the number of components and dependency edges.
+     * Direct dependencies are only modified when they actually changed.
      *
-     * @param bom        the Bom to convert
+     * @param bom        the Bom to resolve the dependency graph of
      * @param project    The project based on the BOM
-     * @param components All known {@link Component}s from the BOM
-     * @return a List of Component object
+     * @param components All known {@link Component}s from the BOM, flattened
      */
     public static void generateDependencies(final Bom bom, final Project project, final List<Component> components) {
+        final Map<String, org.cyclonedx.model.Dependency> dependenciesByBomRef = new HashMap<>();
+        if (bom.getDependencies() != null) {
+            for (final org.cyclonedx.model.Dependency dependency : bom.getDependencies()) {
+                if (dependency.getRef() != null) {
+                    dependenciesByBomRef.putIfAbsent(dependency.getRef(), dependency);
+                }
+            }
+        }
+        final Map<String, Component> componentsByBomRef = new HashMap<>(components.size());
+        for (final Component component : components) {
+            componentsByBomRef.put(component.getBomRef(), component);
+        }
+        final var writer = new DirectDependenciesWriter();
+
         // Get direct dependencies first
         if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null && bom.getMetadata().getComponent().getBomRef() != null) {
             final String targetBomRef = bom.getMetadata().getComponent().getBomRef();
-            final org.cyclonedx.model.Dependency targetDep = getDependencyFromBomRef(targetBomRef, bom.getDependencies());
-            final JSONArray jsonArray = new JSONArray();
-            if (targetDep != null && targetDep.getDependencies() != null) {
-                for (final org.cyclonedx.model.Dependency directDep : targetDep.getDependencies()) {
-                    final Component c = getComponentFromBomRef(directDep.getRef(), components, false);
-                    if (c != null) {
-                        final ComponentIdentity ci = new ComponentIdentity(c);
-                        jsonArray.put(ci.toJSON());
-                    }
-                }
-            }
-            if (jsonArray.isEmpty()) {
-                project.setDirectDependencies(null);
-            } else {
-                project.setDirectDependencies(jsonArray.toString());
+            final String directDependencies = writer.write(dependenciesByBomRef.get(targetBomRef), componentsByBomRef);
+            if (!Objects.equals(project.getDirectDependencies(), directDependencies)) {
+                project.setDirectDependencies(directDependencies);
             }
         }
         // Get transitive last. It is possible that some CycloneDX implementations may not properly specify direct
         // dependencies. As a result, it is not possible to distinguish between direct and transitive.
-
-        // Flatten the components to remove and need for repeated recursion
-        Map<String, Component> flatComponents = flattenComponents(components);
-
-        for (final Map.Entry<String, Component> c1: flatComponents.entrySet()) {
-            if (c1.getKey() != null) {
-                final JSONArray jsonArray = new JSONArray();
-                final org.cyclonedx.model.Dependency d1 = getDependencyFromBomRef(c1.getKey(), bom.getDependencies());
-                if (d1 != null && d1.getDependencies() != null) {
-                    for (final org.cyclonedx.model.Dependency d2: d1.getDependencies()) {
-                        final Component c2 = flatComponents.get(d2.getRef());
-                        if (c2 != null) {
-                            final ComponentIdentity ci = new ComponentIdentity(c2);
-                            jsonArray.put(ci.toJSON());
-                        }
-                    }
+        for (final Map.Entry<String, Component> entry : componentsByBomRef.entrySet()) {
+            if (entry.getKey() != null) {
+                final String directDependencies = writer.write(dependenciesByBomRef.get(entry.getKey()), componentsByBomRef);
+                if (!Objects.equals(entry.getValue().getDirectDependencies(), directDependencies)) {
+                    entry.getValue().setDirectDependencies(directDependencies);
                 }
-                if (jsonArray.isEmpty()) {
-                    c1.getValue().setDirectDependencies(null);
-                } else {
-                    c1.getValue().setDirectDependencies(jsonArray.toString());
+            }
+        }
+    }
+
+    /**
+     * Serializes direct dependencies to the JSON format used by {@link Project#getDirectDependencies()}
+     * and {@link Component#getDirectDependencies()}.
+     * <p>
+     * The identity of each {@link Component} is serialized only once, no matter how many other
+     * components depend on it. Arrays are assembled in a single buffer that is reused across invocations.
+     */
+    private static final class DirectDependenciesWriter {
+
+        private final Map<Component, String> identityJsonCache = new IdentityHashMap<>();
+        private final StringBuilder buffer = new StringBuilder();
+
+        private String write(final org.cyclonedx.model.Dependency dependency, final Map<String, Component> componentsByBomRef) {
+            if (dependency == null || dependency.getDependencies() == null) {
+                return null;
+            }
+            buffer.setLength(0);
+            for (final org.cyclonedx.model.Dependency directDependency : dependency.getDependencies()) {
+                final Component component = componentsByBomRef.get(directDependency.getRef());
+                if (component != null) {
+                    buffer.append(buffer.isEmpty() ? '[' : ',');
+                    buffer.append(identityJsonCache.computeIfAbsent(component, c -> new ComponentIdentity(c).toJSON().toString()));
                 }
             }
+            if (buffer.isEmpty()) {
+                return null;
+            }
+            return buffer.append(']').toString();
         }
+
     }
 
     /**
@@ -830,21 +871,26 @@ public class ModelConverter {
             return Collections.emptyList();
         }
 
+        final Set<String> componentUuids = components.stream()
+                .map(Component::getUuid)
+                .map(UUID::toString)
+                .collect(Collectors.toSet());
+
         final var dependencies = new ArrayList<Dependency>();
         final var rootDependency = new Dependency(project.getUuid().toString());
-        rootDependency.setDependencies(convertDirectDependencies(project.getDirectDependencies(), components));
+        rootDependency.setDependencies(convertDirectDependencies(project.getDirectDependencies(), componentUuids));
         dependencies.add(rootDependency);
 
         for (final Component component : components) {
             final var dependency = new Dependency(component.getUuid().toString());
-            dependency.setDependencies(convertDirectDependencies(component.getDirectDependencies(), components));
+            dependency.setDependencies(convertDirectDependencies(component.getDirectDependencies(), componentUuids));
             dependencies.add(dependency);
         }
 
         return dependencies;
     }
 
-    private static List<Dependency> convertDirectDependencies(final String directDependenciesRaw, final List<Component> components) {
+    private static List<Dependency> convertDirectDependencies(final String directDependenciesRaw, final Set<String> componentUuids) {
         if (directDependenciesRaw == null || directDependenciesRaw.isBlank()) {
             return Collections.emptyList();
         }
@@ -857,7 +903,7 @@ public class ModelConverter {
             for (final JsonValue directDependency : directDependenciesJsonArray) {
                 if (directDependency instanceof final JsonObject directDependencyObject) {
                     final String componentUuid = directDependencyObject.getString("uuid", null);
-                    if (componentUuid != null && components.stream().map(Component::getUuid).map(UUID::toString).anyMatch(componentUuid::equals)) {
+                    if (componentUuid != null && componentUuids.contains(componentUuid)) {
                         dependencies.add(new Dependency(directDependencyObject.getString("uuid")));
                     }
                 }
@@ -868,8 +914,12 @@ public class ModelConverter {
     }
 
     public static List<ExternalReference> convertBomMetadataExternalReferences(Bom bom) {
-        if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
-            org.cyclonedx.model.Component cycloneDxComponent = bom.getMetadata().getComponent();
+        return convertBomMetadataExternalReferences(bom.getMetadata());
+    }
+
+    public static List<ExternalReference> convertBomMetadataExternalReferences(final org.cyclonedx.model.Metadata metadata) {
+        if (metadata != null && metadata.getComponent() != null) {
+            org.cyclonedx.model.Component cycloneDxComponent = metadata.getComponent();
             if (cycloneDxComponent.getExternalReferences() != null && cycloneDxComponent.getExternalReferences().size() > 0) {
                 List<ExternalReference> references = new ArrayList<>();
                 for (org.cyclonedx.model.ExternalReference cycloneDxRef : cycloneDxComponent.getExternalReferences()) {
@@ -888,40 +938,6 @@ public class ModelConverter {
         }
     }
 
-    /**
-     * Attempts to find a component from the bom-ref, optionally scanning through and children to do so
-     * @param bomRef The bom-ref to search for
-     * @param components The list of components to search within
-     * @param recursive Whether to recurse through any child components
-     * @return The component with the target bom-ref, or <code>null</code> is it is not found
-     */
-    private static Component getComponentFromBomRef(final String bomRef, final Collection<Component> components, boolean recursive) {
-        if (components != null && bomRef != null) {
-            for (Component c : components) {
-                if (bomRef.equals(c.getBomRef())) {
-                    return c;
-                } else if (recursive) {
-                    Component result = getComponentFromBomRef(bomRef, c.getChildren(), false);
-                    if (result != null) {
-                        return result;
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
-    private static org.cyclonedx.model.Dependency getDependencyFromBomRef(final String bomRef, final List<org.cyclonedx.model.Dependency> dependencies) {
-        if (dependencies != null) {
-            for (Dependency o : dependencies) {
-                if (bomRef != null && bomRef.equals(o.getRef())) {
-                    return o;
-                }
-            }
-        }
-        return null;
-    }
-
     private static org.cyclonedx.model.vulnerability.Vulnerability.Rating.Severity convertDtSeverityToCdxSeverity(final Severity severity) {
         switch (severity) {
             case CRITICAL:
@@ -1092,22 +1108,4 @@ public class ModelConverter {
                 return AnalysisJustification.NOT_SET;
         }
     }
-
-    /**
-     * Recurse through the list of components to generate a map keyed on their bom-ref
-     * @param components The components to process
-     * @return A Map of every component found keyed on their bom-ref
-     */
-    private static Map<String, Component> flattenComponents(final Collection<Component> components) {
-        Map<String, Component> result = new HashMap<>(components.size());
-
-        for (Component comp : components) {
-            result.put(comp.getBomRef(), comp);
-            if (comp.getChildren() != null) {
-                result.putAll(flattenComponents(comp.getChildren()));
-            }
-        }
-
-        return result;
-    }
 }
@@ -34,6 +34,7 @@ import org.dependencytrack.model.Vulnerability;
 import org.dependencytrack.model.VulnerableSoftware;
 import org.dependencytrack.parser.common.resolver.CweResolver;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.persistence.VulnerableSoftwareIndex;
 import us.springett.cvss.Cvss;
 import us.springett.parsers.cpe.exceptions.CpeEncodingException;
 import us.springett.parsers.cpe.exceptions.CpeParsingException;
@@ -230,6 +231,7 @@ public final class NvdParser {
             vsList = qm.reconcileVulnerableSoftware(synchronizeVulnerability, vsListOld, vsList, Vulnerability.Source.NVD);
             synchronizeVulnerability.setVulnerableSoftware(vsList);
             qm.persist(synchronizeVulnerability);
+            VulnerableSoftwareIndex.getInstance().update(vsList);
         }
     }
 
@@ -32,6 +32,7 @@ import org.dependencytrack.model.VulnerableSoftware;
 import org.dependencytrack.parser.common.resolver.CweResolver;
 import org.dependencytrack.parser.snyk.model.SnykError;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.persistence.VulnerableSoftwareIndex;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -107,6 +108,7 @@ public class SnykParser {
             vsList = qm.reconcileVulnerableSoftware(synchronizedVulnerability, vsListOld, vsList, Vulnerability.Source.SNYK);
             synchronizedVulnerability.setVulnerableSoftware(vsList);
             qm.persist(synchronizedVulnerability);
+            VulnerableSoftwareIndex.getInstance().update(vsList);
         }
         return synchronizedVulnerability;
     }
@@ -74,6 +74,19 @@ final class BomQueryManager extends QueryManager implements IQueryManager {
         return (List<Bom>) query.execute(project);
     }
 
+    /**
+     * Returns the most recently imported Bom for the specified Project.
+     * @param project the Project to retrieve the bom for
+     * @return a Bom, or null if no bom was imported for the Project yet
+     */
+    public Bom getLatestBom(Project project) {
+        final Query<Bom> query = pm.newQuery(Bom.class, "project == :project");
+        query.setOrdering("imported desc, id desc");
+        query.setRange(0, 1);
+        query.setParameters(project);
+        return query.executeUnique();
+    }
+
     /**
      * Deletes boms belonging to the specified Project.
      * @param project the Project to delete boms for
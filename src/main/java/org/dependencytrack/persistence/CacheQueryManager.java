@@ -18,18 +18,27 @@
  */
 package org.dependencytrack.persistence;
 
+import alpine.common.logging.Logger;
 import alpine.resources.AlpineRequest;
 import org.dependencytrack.model.ComponentAnalysisCache;
 
+import javax.jdo.JDOException;
 import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
+import javax.jdo.Transaction;
 import javax.json.JsonObject;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class CacheQueryManager extends QueryManager implements IQueryManager {
 
+    private static final Logger LOGGER = Logger.getLogger(CacheQueryManager.class);
+
+    private static final int TARGET_BATCH_SIZE = 500;
 
     /**
      * Constructs a new QueryManager.
@@ -64,20 +73,71 @@ public class CacheQueryManager extends QueryManager implements IQueryManager {
         return query.executeList();
     }
 
-    public synchronized void updateComponentAnalysisCache(ComponentAnalysisCache.CacheType cacheType, String targetHost, String targetType, String target, Date lastOccurrence, JsonObject result) {
-        ComponentAnalysisCache cac = getComponentAnalysisCache(cacheType, targetHost, targetType, target);
-        if (cac == null) {
-            cac = new ComponentAnalysisCache();
-            cac.setCacheType(cacheType);
-            cac.setTargetHost(targetHost);
-            cac.setTargetType(targetType);
-            cac.setTarget(target);
+    /**
+     * Fetches the {@link ComponentAnalysisCache} entries of multiple targets at once.
+     * Targets without an entry are absent from the returned {@link Map}.
+     *
+     * @param cacheType  the {@link ComponentAnalysisCache.CacheType} to look up
+     * @param targetHost the host the targets were analyzed against
+     * @param targetType the type of the targets
+     * @param targets    the targets to look up
+     * @return the {@link ComponentAnalysisCache} entries, keyed by target
+     * @since 4.11.0
+     */
+    public Map<String, ComponentAnalysisCache> getComponentAnalysisCaches(ComponentAnalysisCache.CacheType cacheType, String targetHost, String targetType, Collection<String> targets) {
+        final var cacheByTarget = new HashMap<String, ComponentAnalysisCache>();
+        final List<String> targetList = new ArrayList<>(targets);
+        for (int i = 0; i < targetList.size(); i += TARGET_BATCH_SIZE) {
+            final List<String> targetChunk = targetList.subList(i, Math.min(i + TARGET_BATCH_SIZE, targetList.size()));
+            final Query<ComponentAnalysisCache> query = pm.newQuery(ComponentAnalysisCache.class,
+                    "cacheType == :cacheType && targetHost == :targetHost && targetType == :targetType && :targetValues.contains(target)");
+            query.setNamedParameters(Map.of("cacheType", cacheType, "targetHost", targetHost, "targetType", targetType, "targetValues", targetChunk));
+            try {
+                for (final ComponentAnalysisCache cac : query.executeList()) {
+                    cacheByTarget.merge(cac.getTarget(), cac, (existing, candidate) ->
+                            candidate.getLastOccurrence().after(existing.getLastOccurrence()) ? candidate : existing);
+                }
+            } finally {
+                query.closeAll();
+            }
+        }
+        return cacheByTarget;
+    }
+
+    public void updateComponentAnalysisCache(ComponentAnalysisCache.CacheType cacheType, String targetHost, String targetType, String target, Date lastOccurrence, JsonObject result) {
+        try {
+            createOrUpdateComponentAnalysisCache(cacheType, targetHost, targetType, target, lastOccurrence, result);
+        } catch (JDOException e) {
+            // Another thread may have created the entry between our lookup and insert,
+            // violating the unique constraint. The entry exists now, so update it instead.
+            LOGGER.debug("Creating cache entry for " + target + " failed; Retrying as update", e);
+            createOrUpdateComponentAnalysisCache(cacheType, targetHost, targetType, target, lastOccurrence, result);
         }
-        cac.setLastOccurrence(lastOccurrence);
-        if (result != null) {
-            cac.setResult(result);
+    }
+
+    private void createOrUpdateComponentAnalysisCache(ComponentAnalysisCache.CacheType cacheType, String targetHost, String targetType, String target, Date lastOccurrence, JsonObject result) {
+        final Transaction trx = pm.currentTransaction();
+        try {
+            trx.begin();
+            ComponentAnalysisCache cac = getComponentAnalysisCache(cacheType, targetHost, targetType, target);
+            if (cac == null) {
+                cac = new ComponentAnalysisCache();
+                cac.setCacheType(cacheType);
+                cac.setTargetHost(targetHost);
+                cac.setTargetType(targetType);
+                cac.setTarget(target);
+            }
+            cac.setLastOccurrence(lastOccurrence);
+            if (result != null) {
+                cac.setResult(result);
+            }
+            pm.makePersistent(cac);
+            trx.commit();
+        } finally {
+            if (trx.isActive()) {
+                trx.rollback();
+            }
         }
-        persist(cac);
     }
 
     public void clearComponentAnalysisCache() {
@@ -0,0 +1,39 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.Project;
+
+import java.util.List;
+
+/**
+ * Outcome of reconciling the existing {@link Component}s of a {@link Project} with the {@link Component}s of a BOM.
+ *
+ * @param components All persistent {@link Component}s of the BOM, flattened in depth-first order
+ * @param added      {@link Component}s that did not exist before, and were created
+ * @param changed    {@link Component}s that existed before, and were updated
+ * @param unchanged  {@link Component}s that existed before, and were left untouched
+ * @param removed    {@link Component}s that are no longer part of the BOM, and were deleted
+ * @see QueryManager#reconcileComponents(Project, List, List)
+ * @since 4.11.0
+ */
+public record ComponentDiff(List<Component> components, List<Component> added, List<Component> changed,
+                            List<Component> unchanged, List<Component> removed) {
+}
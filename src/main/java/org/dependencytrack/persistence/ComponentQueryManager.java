@@ -29,13 +29,19 @@ import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import org.apache.commons.lang3.tuple.Pair;
 import org.dependencytrack.event.IndexEvent;
+import org.dependencytrack.model.Analysis;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.ComponentIdentity;
 import org.dependencytrack.model.ConfigPropertyConstants;
+import org.dependencytrack.model.DependencyMetrics;
+import org.dependencytrack.model.FindingAttribution;
+import org.dependencytrack.model.PolicyViolation;
 import org.dependencytrack.model.Project;
 import org.dependencytrack.model.RepositoryMetaComponent;
 import org.dependencytrack.model.RepositoryType;
+import org.dependencytrack.model.ViolationAnalysis;
 import org.dependencytrack.resources.v1.vo.DependencyGraphResponse;
+import org.dependencytrack.util.PersistenceUtil;
 
 import javax.jdo.FetchPlan;
 import javax.jdo.PersistenceManager;
@@ -45,16 +51,35 @@ import javax.json.JsonArray;
 import javax.json.JsonValue;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 
 final class ComponentQueryManager extends QueryManager implements IQueryManager {
 
     private static final Logger LOGGER = Logger.getLogger(ComponentQueryManager.class);
 
+    /**
+     * Maximum number of parameters to use in bulk queries. Stays well below the limits
+     * imposed by the supported databases (e.g. 2100 parameters for MSSQL).
+     */
+    private static final int BULK_QUERY_BATCH_SIZE = 1000;
+
+    /**
+     * Maximum number of {@link ComponentIdentity}s to match in a single query.
+     * Each identity contributes up to five parameters.
+     */
+    private static final int IDENTITY_QUERY_BATCH_SIZE = 200;
+
     /**
      * Constructs a new QueryManager.
      * @param pm a PersistenceManager object
@@ -344,6 +369,90 @@ final class ComponentQueryManager extends QueryManager implements IQueryManager
         return result;
     }
 
+    /**
+     * Inserts or updates the given {@link Component}s, including all of their children, in bulk.
+     * <p>
+     * Components that are not persistent yet are inserted, all others are updated. Contrary to calling
+     * {@link #createComponent(Component, boolean)} for each component, all writes are performed in a single
+     * transaction, and flushing is deferred until commit. This allows DataNucleus to batch the resulting
+     * JDBC statements. Once committed, the components are refreshed with one query per
+     * {@value #BULK_QUERY_BATCH_SIZE} components, instead of one query per component.
+     *
+     * @param components  The {@link Component}s to insert or update
+     * @param commitIndex Whether the search index should be committed
+     * @return The persistent {@link Component}s, flattened in depth-first order
+     * @since 4.11.0
+     */
+    public List<Component> bulkUpsertComponents(final List<Component> components, final boolean commitIndex) {
+        final List<Component> flattenedComponents = new ArrayList<>();
+        components.forEach(component -> flattenComponent(component, flattenedComponents));
+        if (flattenedComponents.isEmpty()) {
+            return flattenedComponents;
+        }
+
+        runInBulkTransaction(() -> pm.makePersistentAll(flattenedComponents));
+        loadInBulk(flattenedComponents);
+
+        for (final Component component : flattenedComponents) {
+            Event.dispatch(new IndexEvent(IndexEvent.Action.CREATE, component));
+        }
+        commitSearchIndex(commitIndex, Component.class);
+        return flattenedComponents;
+    }
+
+    /**
+     * Objects are hollow after commit. Load them in bulk, rather than
+     * having DataNucleus fetch them one by one upon first access.
+     *
+     * @param components The {@link Component}s to load
+     */
+    private void loadInBulk(final List<Component> components) {
+        final List<Long> componentIds = components.stream().map(Component::getId).distinct().toList();
+        for (int i = 0; i < componentIds.size(); i += BULK_QUERY_BATCH_SIZE) {
+            final Query<Component> query = pm.newQuery(Component.class, ":ids.contains(id)");
+            query.setParameters(componentIds.subList(i, Math.min(i + BULK_QUERY_BATCH_SIZE, componentIds.size())));
+            try {
+                query.executeList();
+            } finally {
+                query.closeAll();
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link Component}s with the given IDs, using one query per
+     * {@value #BULK_QUERY_BATCH_SIZE} components instead of one query per component.
+     * <p>
+     * Components that do not exist (anymore) are omitted from the result.
+     *
+     * @param componentIds IDs of the {@link Component}s to fetch
+     * @return The {@link Component}s, in no particular order
+     * @since 4.11.0
+     */
+    public List<Component> getComponentsById(final Collection<Long> componentIds) {
+        final List<Long> componentIdList = List.copyOf(componentIds);
+        final List<Component> components = new ArrayList<>(componentIdList.size());
+        for (int i = 0; i < componentIdList.size(); i += BULK_QUERY_BATCH_SIZE) {
+            final Query<Component> query = pm.newQuery(Component.class, ":ids.contains(id)");
+            query.setParameters(componentIdList.subList(i, Math.min(i + BULK_QUERY_BATCH_SIZE, componentIdList.size())));
+            try {
+                components.addAll(query.executeList());
+            } finally {
+                query.closeAll();
+            }
+        }
+        return components;
+    }
+
+    private static void flattenComponent(final Component component, final List<Component> flattenedComponents) {
+        flattenedComponents.add(component);
+        if (component.getChildren() != null) {
+            for (final Component child : component.getChildren()) {
+                flattenComponent(child, flattenedComponents);
+            }
+        }
+    }
+
     public Component cloneComponent(Component sourceComponent, Project destinationProject, boolean commitIndex) {
         final Component component = new Component();
         component.setGroup(sourceComponent.getGroup());
@@ -492,6 +601,94 @@ final class ComponentQueryManager extends QueryManager implements IQueryManager
         return (List<Component>) query.executeWithMap(queryFilterParamsPair.getRight());
     }
 
+    /**
+     * Returns the IDs of all projects containing a component that matches any of the given identities.
+     * <p>
+     * Matching follows the same rules as {@link #matchIdentity(ComponentIdentity)}, but candidates
+     * for up to {@value #IDENTITY_QUERY_BATCH_SIZE} identities are fetched with a single query,
+     * and matched against the identities in memory.
+     * @param identities the identities to match
+     * @return the IDs of matching projects, keyed by the given {@link ComponentIdentity} instances
+     * @since 4.11.0
+     */
+    public Map<ComponentIdentity, Set<Long>> getProjectIdsByIdentity(final Collection<ComponentIdentity> identities) {
+        final Map<ComponentIdentity, Set<Long>> projectIdsByIdentity = new IdentityHashMap<>();
+        final List<ComponentIdentity> identityList = List.copyOf(identities);
+        for (int i = 0; i < identityList.size(); i += IDENTITY_QUERY_BATCH_SIZE) {
+            final List<ComponentIdentity> batch = identityList.subList(i, Math.min(i + IDENTITY_QUERY_BATCH_SIZE, identityList.size()));
+            final var index = new ProjectIdIndex(getIdentityCandidateRows(batch));
+            for (final ComponentIdentity identity : batch) {
+                projectIdsByIdentity.put(identity, index.find(identity));
+            }
+        }
+        return projectIdsByIdentity;
+    }
+
+    private List<Object[]> getIdentityCandidateRows(final List<ComponentIdentity> identities) {
+        final var purls = new HashSet<String>();
+        final var purlCoordinates = new HashSet<String>();
+        final var cpes = new HashSet<String>();
+        final var swidTagIds = new HashSet<String>();
+        final var names = new HashSet<String>();
+        boolean hasNullName = false;
+        for (final ComponentIdentity identity : identities) {
+            if (identity.getPurl() != null) {
+                purls.add(identity.getPurl().canonicalize());
+            }
+            if (identity.getPurlCoordinates() != null) {
+                purlCoordinates.add(identity.getPurlCoordinates().canonicalize());
+            }
+            if (identity.getCpe() != null) {
+                cpes.add(identity.getCpe());
+            }
+            if (identity.getSwidTagId() != null) {
+                swidTagIds.add(identity.getSwidTagId());
+            }
+            if (identity.getName() != null) {
+                names.add(identity.getName());
+            } else {
+                hasNullName = true;
+            }
+        }
+
+        // The filter selects a superset of matching components. Coordinates are only
+        // pre-filtered by name, the remaining criteria are evaluated by ProjectIdIndex.
+        final var filterParts = new ArrayList<String>();
+        final var params = new HashMap<String, Object>();
+        if (!purls.isEmpty()) {
+            filterParts.add(":purls.contains(purl)");
+            params.put("purls", purls);
+        }
+        if (!purlCoordinates.isEmpty()) {
+            filterParts.add(":purlCoordinatesValues.contains(purlCoordinates)");
+            params.put("purlCoordinatesValues", purlCoordinates);
+        }
+        if (!cpes.isEmpty()) {
+            filterParts.add(":cpes.contains(cpe)");
+            params.put("cpes", cpes);
+        }
+        if (!swidTagIds.isEmpty()) {
+            filterParts.add(":swidTagIds.contains(swidTagId)");
+            params.put("swidTagIds", swidTagIds);
+        }
+        if (!names.isEmpty()) {
+            filterParts.add(":names.contains(name)");
+            params.put("names", names);
+        }
+        if (hasNullName) {
+            filterParts.add("name == null");
+        }
+
+        final Query<Component> query = pm.newQuery(Component.class, String.join(" || ", filterParts));
+        query.setNamedParameters(params);
+        query.setResult("purl, purlCoordinates, cpe, swidTagId, this.group, name, version, project.id");
+        try {
+            return List.copyOf(query.executeResultList(Object[].class));
+        } finally {
+            query.closeAll();
+        }
+    }
+
     private static Pair<String, Map<String, Object>> buildComponentIdentityQuery(final Project project, final ComponentIdentity cid) {
         String purlString = null;
         String purlCoordinates = null;
@@ -556,35 +753,355 @@ final class ComponentQueryManager extends QueryManager implements IQueryManager
     }
 
     /**
-     * Intelligently adds dependencies for components that are not already a dependency
-     * of the specified project and removes the dependency relationship for components
-     * that are not in the list of specified components.
+     * Reconciles the existing components of a project with the components of a BOM.
+     * <p>
+     * {@code components} are expected to be transient, i.e. not yet matched against the project's
+     * existing components. Matching is performed in memory, using hash indexes over the identities
+     * of {@code existingProjectComponents}, such that each component is classified as either:
+     * <ul>
+     *     <li><em>added</em>: the component is persisted</li>
+     *     <li><em>changed</em>: the changes are applied to the matching existing component</li>
+     *     <li><em>unchanged</em>: the matching existing component is not written to at all</li>
+     *     <li><em>removed</em>: the existing component is deleted, along with all objects dependant on it</li>
+     * </ul>
+     * All writes are performed in bulk.
      * @param project the project to bind components to
      * @param existingProjectComponents the complete list of existing dependent components
      * @param components the complete list of components that should be dependencies of the project
+     * @return a {@link ComponentDiff} describing the changes that were made; <em>removed</em> components are detached
+     */
+    public ComponentDiff reconcileComponents(final Project project, final List<Component> existingProjectComponents, final List<Component> components) {
+        final var identityIndex = new ComponentIdentityIndex(existingProjectComponents);
+        final var resolvedComponents = new ArrayList<Component>();
+        final Set<Component> added = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Map<Component, Component> changed = new IdentityHashMap<>();
+        final Set<Component> unchanged = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Component component : components) {
+            resolveComponent(identityIndex, component, null, resolvedComponents, added, changed, unchanged);
+        }
+        unchanged.removeAll(changed.keySet());
+
+        runInBulkTransaction(() -> {
+            changed.forEach((existingComponent, component) -> applyChanges(existingComponent, component, false));
+            pm.makePersistentAll(added);
+        });
+        final List<Component> writtenComponents = new ArrayList<>(added);
+        writtenComponents.addAll(changed.keySet());
+        loadInBulk(writtenComponents);
+        for (final Component component : added) {
+            Event.dispatch(new IndexEvent(IndexEvent.Action.CREATE, component));
+        }
+        for (final Component component : changed.keySet()) {
+            Event.dispatch(new IndexEvent(IndexEvent.Action.UPDATE, component));
+        }
+
+        final Set<Long> retainedComponentIds = new HashSet<>();
+        resolvedComponents.forEach(component -> retainedComponentIds.add(component.getId()));
+        final List<Component> removed = detach(existingProjectComponents.stream()
+                .filter(component -> !retainedComponentIds.contains(component.getId()))
+                .toList());
+        deleteComponentsInBulk(removed.stream().map(Component::getId).toList());
+
+        return new ComponentDiff(resolvedComponents, List.copyOf(added), List.copyOf(changed.keySet()),
+                List.copyOf(unchanged), removed);
+    }
+
+    private static void resolveComponent(final ComponentIdentityIndex identityIndex, final Component component,
+                                         final Component resolvedParent, final List<Component> resolvedComponents,
+                                         final Set<Component> added, final Map<Component, Component> changed,
+                                         final Set<Component> unchanged) {
+        final Component existingComponent = identityIndex.find(component);
+        final Component resolvedComponent;
+        if (existingComponent == null) {
+            resolvedComponent = component;
+            resolvedComponent.setParent(resolvedParent);
+            added.add(resolvedComponent);
+        } else {
+            resolvedComponent = existingComponent;
+            resolvedComponent.setBomRef(component.getBomRef());
+            if (applyChanges(existingComponent, component, true)) {
+                changed.put(existingComponent, component);
+            } else {
+                unchanged.add(existingComponent);
+            }
+        }
+        resolvedComponents.add(resolvedComponent);
+
+        if (component.getChildren() != null) {
+            final var resolvedChildren = new ArrayList<Component>();
+            for (final Component child : component.getChildren()) {
+                final int childIndex = resolvedComponents.size();
+                resolveComponent(identityIndex, child, resolvedComponent, resolvedComponents, added, changed, unchanged);
+                resolvedChildren.add(resolvedComponents.get(childIndex));
+            }
+            if (existingComponent == null) {
+                resolvedComponent.setChildren(resolvedChildren);
+            }
+        }
+    }
+
+    /**
+     * Applies changed values of a transient {@link Component} to an existing {@link Component}.
+     * <p>
+     * Mirrors the semantics of {@link org.dependencytrack.parser.cyclonedx.util.ModelConverter}: Hashes, identifiers,
+     * and license information are never cleared, and license information is not overwritten when it has already
+     * been resolved before.
+     *
+     * @param existingComponent The existing {@link Component}
+     * @param component         The transient {@link Component}
+     * @param dryRun            Whether to only compare, without modifying {@code existingComponent}
+     * @return {@code true} when at least one value differs, otherwise {@code false}
+     */
+    private static boolean applyChanges(final Component existingComponent, final Component component, final boolean dryRun) {
+        final var differ = new PersistenceUtil.Differ<>(existingComponent, component);
+        final Component target = dryRun ? new Component() : existingComponent;
+        differ.applyIfChanged("author", Component::getAuthor, target::setAuthor);
+        differ.applyIfChanged("publisher", Component::getPublisher, target::setPublisher);
+        differ.applyIfChanged("supplier", Component::getSupplier, target::setSupplier);
+        differ.applyIfChanged("group", Component::getGroup, target::setGroup);
+        differ.applyIfChanged("name", Component::getName, target::setName);
+        differ.applyIfChanged("version", Component::getVersion, target::setVersion);
+        differ.applyIfChanged("description", Component::getDescription, target::setDescription);
+        differ.applyIfChanged("copyright", Component::getCopyright, target::setCopyright);
+        differ.applyIfChanged("cpe", Component::getCpe, target::setCpe);
+        differ.applyIfChanged("classifier", Component::getClassifier, target::setClassifier);
+        differ.applyIfChanged("internal", Component::isInternal, target::setInternal);
+        differ.applyIfChanged("externalReferences", Component::getExternalReferences, target::setExternalReferences);
+        differ.applyIfNonNullAndChanged("swidTagId", Component::getSwidTagId, target::setSwidTagId);
+        differ.applyIfNonNullAndChanged("purl", Component::getPurl, target::setPurl);
+        differ.applyIfNonNullAndChanged("purlCoordinates", Component::getPurlCoordinates, target::setPurlCoordinates);
+        differ.applyIfNonNullAndChanged("md5", Component::getMd5, target::setMd5);
+        differ.applyIfNonNullAndChanged("sha1", Component::getSha1, target::setSha1);
+        differ.applyIfNonNullAndChanged("sha256", Component::getSha256, target::setSha256);
+        differ.applyIfNonNullAndChanged("sha512", Component::getSha512, target::setSha512);
+        differ.applyIfNonNullAndChanged("sha3_256", Component::getSha3_256, target::setSha3_256);
+        differ.applyIfNonNullAndChanged("sha3_512", Component::getSha3_512, target::setSha3_512);
+        if (existingComponent.getLicenseExpression() == null) {
+            differ.applyIfNonNullAndChanged("licenseExpression", Component::getLicenseExpression, target::setLicenseExpression);
+        }
+        if (existingComponent.getResolvedLicense() == null) {
+            differ.applyIfNonNullAndChanged("resolvedLicense", Component::getResolvedLicense, target::setResolvedLicense);
+            differ.applyIfNonNullAndChanged("license", Component::getLicense, target::setLicense);
+            differ.applyIfNonNullAndChanged("licenseUrl", Component::getLicenseUrl, target::setLicenseUrl);
+        }
+        return !differ.getDiffs().isEmpty();
+    }
+
+    /**
+     * Removes all components of the specified project whose ID is not contained in {@code retainedComponentIds}.
+     * <p>
+     * Unlike {@link #reconcileComponents(Project, List, List)}, this method does not require all existing
+     * components of the project to be loaded into memory, which makes it suitable for very large projects.
+     * @param project the project to reconcile components of
+     * @param retainedComponentIds IDs of the components that should remain dependencies of the project
+     * @since 4.11.0
+     */
+    public void reconcileComponents(final Project project, final Collection<Long> retainedComponentIds) {
+        final Query<Component> query = pm.newQuery(Component.class, "project == :project");
+        query.setParameters(project);
+        query.setResult("id");
+        final List<Long> existingComponentIds;
+        try {
+            existingComponentIds = List.copyOf(query.executeResultList(Long.class));
+        } finally {
+            query.closeAll();
+        }
+        deleteComponentsInBulk(existingComponentIds.stream()
+                .filter(componentId -> !retainedComponentIds.contains(componentId))
+                .toList());
+    }
+
+    /**
+     * Deletes components, their children, and all objects dependant on them in bulk.
+     * <p>
+     * Provides the same semantics as calling {@link #recursivelyDelete(Component, boolean)} for
+     * each component, but issues one query per {@value #BULK_QUERY_BATCH_SIZE} components instead
+     * of multiple queries per component.
+     *
+     * @param componentIds IDs of the components to delete
      */
-    public void reconcileComponents(Project project, List<Component> existingProjectComponents, List<Component> components) {
-        // Removes components as dependencies to the project for all
-        // components not included in the list provided
-        List<Component> markedForDeletion = new ArrayList<>();
-        for (final Component existingComponent: existingProjectComponents) {
-            boolean keep = false;
-            for (final Component component: components) {
-                if (component.getId() == existingComponent.getId()) {
-                    keep = true;
-                    break;
+    private void deleteComponentsInBulk(final List<Long> componentIds) {
+        if (componentIds.isEmpty()) {
+            return;
+        }
+
+        // Resolve children of all levels. Children must be deleted before their parents,
+        // so group components by their depth in the hierarchy.
+        final Map<Long, Object[]> rowsById = new HashMap<>();
+        queryInBulk(componentIds, ":ids.contains(id)").forEach(row -> rowsById.put((Long) row[0], row));
+        List<Long> parentIds = List.copyOf(rowsById.keySet());
+        while (!parentIds.isEmpty()) {
+            final var childIds = new ArrayList<Long>();
+            for (final Object[] row : queryInBulk(parentIds, ":ids.contains(parent.id)")) {
+                if (rowsById.putIfAbsent((Long) row[0], row) == null) {
+                    childIds.add((Long) row[0]);
                 }
             }
-            if (!keep) {
-                markedForDeletion.add(existingComponent);
+            parentIds = childIds;
+        }
+        final Map<Long, Integer> depthById = new HashMap<>();
+        final var idsByDepth = new TreeMap<Integer, List<Long>>(Comparator.reverseOrder());
+        for (final Long componentId : rowsById.keySet()) {
+            idsByDepth.computeIfAbsent(depthOf(componentId, rowsById, depthById), ignored -> new ArrayList<>()).add(componentId);
+        }
+
+        for (final List<Long> idsOfDepth : idsByDepth.values()) {
+            for (int i = 0; i < idsOfDepth.size(); i += BULK_QUERY_BATCH_SIZE) {
+                final List<Long> batch = idsOfDepth.subList(i, Math.min(i + BULK_QUERY_BATCH_SIZE, idsOfDepth.size()));
+                runInTransaction(() -> {
+                    for (final Class<?> dependantClass : List.of(Analysis.class, ViolationAnalysis.class,
+                            DependencyMetrics.class, FindingAttribution.class, PolicyViolation.class)) {
+                        pm.newQuery(dependantClass, ":ids.contains(component.id)").deletePersistentAll(batch);
+                    }
+                    pm.newQuery(Component.class, ":ids.contains(id)").deletePersistentAll(batch);
+                });
+                for (final Long componentId : batch) {
+                    final var component = new Component();
+                    component.setId(componentId);
+                    component.setUuid((UUID) rowsById.get(componentId)[2]);
+                    Event.dispatch(new IndexEvent(IndexEvent.Action.DELETE, component));
+                }
             }
         }
-        if (!markedForDeletion.isEmpty()) {
-            for (Component c: markedForDeletion) {
-                this.recursivelyDelete(c, false);
+    }
+
+    private List<Object[]> queryInBulk(final List<Long> ids, final String filter) {
+        final var rows = new ArrayList<Object[]>();
+        for (int i = 0; i < ids.size(); i += BULK_QUERY_BATCH_SIZE) {
+            final Query<Component> query = pm.newQuery(Component.class, filter);
+            query.setParameters(ids.subList(i, Math.min(i + BULK_QUERY_BATCH_SIZE, ids.size())));
+            query.setResult("id, parent.id, uuid");
+            try {
+                rows.addAll(query.executeResultList(Object[].class));
+            } finally {
+                query.closeAll();
             }
-            //this.delete(markedForDeletion);
         }
+        return rows;
+    }
+
+    private static int depthOf(final Long componentId, final Map<Long, Object[]> rowsById, final Map<Long, Integer> depthById) {
+        final Integer depth = depthById.get(componentId);
+        if (depth != null) {
+            return depth;
+        }
+        final Long parentId = (Long) rowsById.get(componentId)[1];
+        final int result = (parentId != null && rowsById.containsKey(parentId) && !parentId.equals(componentId))
+                ? depthOf(parentId, rowsById, depthById) + 1
+                : 0;
+        depthById.put(componentId, result);
+        return result;
+    }
+
+    /**
+     * Hash indexes over the identities of existing {@link Component}s.
+     * <p>
+     * Lookups follow the same rules as {@link #matchSingleIdentity(Project, ComponentIdentity)},
+     * but without querying the database for every single component.
+     */
+    private static final class ComponentIdentityIndex {
+
+        private final Map<String, Component> byPurl = new HashMap<>();
+        private final Map<String, Component> byPurlCoordinates = new HashMap<>();
+        private final Map<String, Component> byCpe = new HashMap<>();
+        private final Map<String, Component> bySwidTagId = new HashMap<>();
+        private final Map<List<String>, Component> byCoordinates = new HashMap<>();
+
+        private ComponentIdentityIndex(final List<Component> components) {
+            for (final Component component : components) {
+                if (component.getPurl() != null) {
+                    byPurl.putIfAbsent(component.getPurl().canonicalize(), component);
+                }
+                if (component.getPurlCoordinates() != null) {
+                    byPurlCoordinates.putIfAbsent(component.getPurlCoordinates().canonicalize(), component);
+                }
+                if (component.getCpe() != null) {
+                    byCpe.putIfAbsent(component.getCpe(), component);
+                }
+                if (component.getSwidTagId() != null) {
+                    bySwidTagId.putIfAbsent(component.getSwidTagId(), component);
+                }
+                byCoordinates.putIfAbsent(coordinatesOf(component), component);
+            }
+        }
+
+        private Component find(final Component component) {
+            final var identity = new ComponentIdentity(component);
+            Component match = null;
+            if (identity.getPurl() != null) {
+                match = byPurl.get(identity.getPurl().canonicalize());
+            }
+            if (match == null && identity.getPurlCoordinates() != null) {
+                match = byPurlCoordinates.get(identity.getPurlCoordinates().canonicalize());
+            }
+            if (match == null && identity.getCpe() != null) {
+                match = byCpe.get(identity.getCpe());
+            }
+            if (match == null && identity.getSwidTagId() != null) {
+                match = bySwidTagId.get(identity.getSwidTagId());
+            }
+            if (match == null) {
+                match = byCoordinates.get(coordinatesOf(component));
+            }
+            return match;
+        }
+
+        private static List<String> coordinatesOf(final Component component) {
+            return Arrays.asList(component.getGroup(), component.getName(), component.getVersion());
+        }
+
+    }
+
+    /**
+     * Hash indexes over the identity attributes of component rows, mapping them to the IDs of their projects.
+     * <p>
+     * Lookups follow the same rules as {@link #matchIdentity(ComponentIdentity)}: a row matches
+     * when <em>any</em> of the identity criteria matches.
+     */
+    private static final class ProjectIdIndex {
+
+        private final Map<String, Set<Long>> byPurl = new HashMap<>();
+        private final Map<String, Set<Long>> byPurlCoordinates = new HashMap<>();
+        private final Map<String, Set<Long>> byCpe = new HashMap<>();
+        private final Map<String, Set<Long>> bySwidTagId = new HashMap<>();
+        private final Map<List<String>, Set<Long>> byCoordinates = new HashMap<>();
+
+        private ProjectIdIndex(final List<Object[]> rows) {
+            for (final Object[] row : rows) {
+                final Long projectId = (Long) row[7];
+                addIfNotNull(byPurl, (String) row[0], projectId);
+                addIfNotNull(byPurlCoordinates, (String) row[1], projectId);
+                addIfNotNull(byCpe, (String) row[2], projectId);
+                addIfNotNull(bySwidTagId, (String) row[3], projectId);
+                byCoordinates.computeIfAbsent(Arrays.asList((String) row[4], (String) row[5], (String) row[6]), ignored -> new HashSet<>()).add(projectId);
+            }
+        }
+
+        private Set<Long> find(final ComponentIdentity identity) {
+            final var projectIds = new HashSet<Long>();
+            if (identity.getPurl() != null) {
+                projectIds.addAll(byPurl.getOrDefault(identity.getPurl().canonicalize(), Collections.emptySet()));
+            }
+            if (identity.getPurlCoordinates() != null) {
+                projectIds.addAll(byPurlCoordinates.getOrDefault(identity.getPurlCoordinates().canonicalize(), Collections.emptySet()));
+            }
+            if (identity.getCpe() != null) {
+                projectIds.addAll(byCpe.getOrDefault(identity.getCpe(), Collections.emptySet()));
+            }
+            if (identity.getSwidTagId() != null) {
+                projectIds.addAll(bySwidTagId.getOrDefault(identity.getSwidTagId(), Collections.emptySet()));
+            }
+            projectIds.addAll(byCoordinates.getOrDefault(
+                    Arrays.asList(identity.getGroup(), identity.getName(), identity.getVersion()), Collections.emptySet()));
+            return projectIds;
+        }
+
+        private static void addIfNotNull(final Map<String, Set<Long>> index, final String key, final Long projectId) {
+            if (key != null) {
+                index.computeIfAbsent(key, ignored -> new HashSet<>()).add(projectId);
+            }
+        }
+
     }
 
     /**
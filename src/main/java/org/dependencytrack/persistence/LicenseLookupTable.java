@@ -0,0 +1,121 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import org.dependencytrack.model.License;
+import org.dependencytrack.util.SnapshotCache;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Process-wide lookup table of the IDs of all {@link License}s, keyed by their normalized SPDX license ID,
+ * and by the normalized name of custom licenses respectively.
+ * <p>
+ * There are only a few hundred licenses, but resolving them one by one for every component of a BOM
+ * results in a database query each. The table is loaded once, and served from memory afterwards.
+ * Mutations of {@link License}s performed through {@link LicenseQueryManager} invalidate the table,
+ * causing it to be reloaded upon its next use. Mutations performed by other instances are picked up
+ * once the table is older than five minutes.
+ *
+ * @since 4.11.0
+ */
+final class LicenseLookupTable {
+
+    /**
+     * An immutable snapshot of the lookup table.
+     *
+     * @param idsByLicenseId         IDs of all licenses, keyed by their normalized SPDX license ID
+     * @param idsByCustomLicenseName IDs of all custom licenses, keyed by their normalized name
+     */
+    private record Snapshot(Map<String, Long> idsByLicenseId, Map<String, Long> idsByCustomLicenseName) {
+    }
+
+    private static final SnapshotCache<Snapshot> SNAPSHOT_CACHE = new SnapshotCache<>(Duration.ofMinutes(5));
+
+    private LicenseLookupTable() { }
+
+    /**
+     * Looks up the ID of the {@link License} with a given SPDX license ID.
+     *
+     * @param pm        The {@link PersistenceManager} to use for loading the table, if necessary
+     * @param licenseId The SPDX license ID to look up
+     * @return The ID of the {@link License}, or {@code null} if no such license exists
+     */
+    static Long getIdByLicenseId(final PersistenceManager pm, final String licenseId) {
+        return licenseId != null ? getSnapshot(pm).idsByLicenseId().get(normalize(licenseId)) : null;
+    }
+
+    /**
+     * Looks up the ID of the custom {@link License} with a given name.
+     *
+     * @param pm          The {@link PersistenceManager} to use for loading the table, if necessary
+     * @param licenseName The name of the custom license to look up
+     * @return The ID of the {@link License}, or {@code null} if no such license exists
+     */
+    static Long getIdByCustomLicenseName(final PersistenceManager pm, final String licenseName) {
+        return licenseName != null ? getSnapshot(pm).idsByCustomLicenseName().get(normalize(licenseName)) : null;
+    }
+
+    /**
+     * Invalidates the table, causing it to be reloaded upon its next use.
+     */
+    static void invalidate() {
+        SNAPSHOT_CACHE.invalidate();
+    }
+
+    private static Snapshot getSnapshot(final PersistenceManager pm) {
+        return SNAPSHOT_CACHE.get(pm.getPersistenceManagerFactory(), () -> loadSnapshot(pm));
+    }
+
+    private static Snapshot loadSnapshot(final PersistenceManager pm) {
+        final Map<String, Long> idsByLicenseId = new HashMap<>();
+        final Map<String, Long> idsByCustomLicenseName = new HashMap<>();
+        final Query<License> query = pm.newQuery(License.class);
+        query.setResult("id, licenseId, name, customLicense");
+        query.setOrdering("id asc");
+        try {
+            for (final Object[] row : query.executeResultList(Object[].class)) {
+                final Long id = (Long) row[0];
+                if (row[1] != null) {
+                    idsByLicenseId.putIfAbsent(normalize((String) row[1]), id);
+                }
+                if (row[2] != null && Boolean.TRUE.equals(row[3])) {
+                    idsByCustomLicenseName.putIfAbsent(normalize((String) row[2]), id);
+                }
+            }
+        } finally {
+            query.closeAll();
+        }
+
+        return new Snapshot(Map.copyOf(idsByLicenseId), Map.copyOf(idsByCustomLicenseName));
+    }
+
+    /**
+     * SPDX license IDs are case-insensitive. Names of custom licenses are treated the same way.
+     */
+    private static String normalize(final String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -105,6 +105,39 @@ final class LicenseQueryManager extends QueryManager implements IQueryManager {
         return singleResult(query.execute(licenseName));
     }
 
+    /**
+     * Resolves a License from the specified SPDX license ID, without querying the database.
+     * <p>
+     * In contrast to {@link #getLicense(String)}, the license ID is matched case-insensitively,
+     * and the returned License is hollow, i.e. its fields are only loaded upon first access.
+     * @param licenseId the SPDX license ID to resolve
+     * @return a License object, or null if not found
+     * @since 4.11.0
+     */
+    public License resolveLicense(final String licenseId) {
+        return getLicenseReference(LicenseLookupTable.getIdByLicenseId(pm, licenseId));
+    }
+
+    /**
+     * Resolves a Custom License from the specified name, without querying the database.
+     * <p>
+     * In contrast to {@link #getCustomLicense(String)}, the name is matched case-insensitively,
+     * and the returned License is hollow, i.e. its fields are only loaded upon first access.
+     * @param licenseName license name of custom license
+     * @return a License object, or null if not found
+     * @since 4.11.0
+     */
+    public License resolveCustomLicense(final String licenseName) {
+        return getLicenseReference(LicenseLookupTable.getIdByCustomLicenseName(pm, licenseName));
+    }
+
+    private License getLicenseReference(final Long id) {
+        if (id == null) {
+            return null;
+        }
+        return (License) pm.getObjectById(pm.newObjectIdInstance(License.class, id), false);
+    }
+
     /**
      * Creates a new License.
      * @param license the License object to create
@@ -113,6 +146,7 @@ final class LicenseQueryManager extends QueryManager implements IQueryManager {
      */
     private License createLicense(License license, boolean commitIndex) {
         final License result = persist(license);
+        LicenseLookupTable.invalidate();
         Event.dispatch(new IndexEvent(IndexEvent.Action.CREATE, result));
         commitSearchIndex(commitIndex, License.class);
         return result;
@@ -145,6 +179,7 @@ final class LicenseQueryManager extends QueryManager implements IQueryManager {
             license.setSeeAlso(transientLicense.getSeeAlso());
 
             final License result = persist(license);
+            LicenseLookupTable.invalidate();
             Event.dispatch(new IndexEvent(IndexEvent.Action.UPDATE, result));
             commitSearchIndex(commitIndex, License.class);
             return result;
@@ -175,6 +210,7 @@ final class LicenseQueryManager extends QueryManager implements IQueryManager {
     public License createCustomLicense(License license, boolean commitIndex) {
         license.setCustomLicense(true);
         final License result = persist(license);
+        LicenseLookupTable.invalidate();
         Event.dispatch(new IndexEvent(IndexEvent.Action.CREATE, result));
         commitSearchIndex(commitIndex, License.class);
         return result;
@@ -190,6 +226,7 @@ final class LicenseQueryManager extends QueryManager implements IQueryManager {
         List<PolicyCondition> policyConditions = (List<PolicyCondition>)query.execute(PolicyCondition.Subject.LICENSE ,license.getUuid().toString());
         commitSearchIndex(commitIndex, License.class);
         delete(license);
+        LicenseLookupTable.invalidate();
         for (PolicyCondition policyCondition : policyConditions) {
             deletePolicyCondition(policyCondition);
         }
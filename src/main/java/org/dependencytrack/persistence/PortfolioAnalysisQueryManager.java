@@ -0,0 +1,320 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import alpine.common.logging.Logger;
+import alpine.resources.AlpineRequest;
+import org.dependencytrack.model.PortfolioAnalysisShard;
+import org.dependencytrack.model.Project;
+
+import javax.jdo.JDOException;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+import javax.jdo.Transaction;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class PortfolioAnalysisQueryManager extends QueryManager implements IQueryManager {
+
+    private static final Logger LOGGER = Logger.getLogger(PortfolioAnalysisQueryManager.class);
+
+    /**
+     * Constructs a new QueryManager.
+     * @param pm a PersistenceManager object
+     */
+    PortfolioAnalysisQueryManager(final PersistenceManager pm) {
+        super(pm);
+    }
+
+    /**
+     * Constructs a new QueryManager.
+     * @param pm a PersistenceManager object
+     * @param request an AlpineRequest object
+     */
+    PortfolioAnalysisQueryManager(final PersistenceManager pm, final AlpineRequest request) {
+        super(pm, request);
+    }
+
+    /**
+     * Determines whether a portfolio analysis is in progress, or has been interrupted.
+     * @return true if any {@link PortfolioAnalysisShard} has not been completed yet
+     * @since 4.11.0
+     */
+    public boolean hasUnfinishedPortfolioAnalysisShards() {
+        final Query<PortfolioAnalysisShard> query = pm.newQuery(PortfolioAnalysisShard.class, "status != :completed");
+        query.setNamedParameters(Map.of("completed", PortfolioAnalysisShard.Status.COMPLETED));
+        query.setResult("count(this)");
+        try {
+            return query.executeResultUnique(Long.class) > 0;
+        } finally {
+            query.closeAll();
+        }
+    }
+
+    /**
+     * Determines whether the current portfolio analysis includes a deduplicated internal analysis.
+     * @return true if a {@link PortfolioAnalysisShard} with {@link PortfolioAnalysisShard#DEDUPLICATION_SHARD_INDEX} exists
+     * @since 4.11.0
+     */
+    public boolean hasPortfolioDeduplicationShard() {
+        return countPortfolioDeduplicationShards(false) > 0;
+    }
+
+    /**
+     * Determines whether the deduplicated internal analysis of the current portfolio analysis has yet to complete.
+     * While it is pending, no other {@link PortfolioAnalysisShard} can be claimed.
+     * @return true if the deduplication shard exists, and has not been completed yet
+     * @since 4.11.0
+     */
+    public boolean isPortfolioDeduplicationPending() {
+        return countPortfolioDeduplicationShards(true) > 0;
+    }
+
+    private long countPortfolioDeduplicationShards(final boolean unfinishedOnly) {
+        final Query<PortfolioAnalysisShard> query = pm.newQuery(PortfolioAnalysisShard.class,
+                unfinishedOnly ? "shardIndex == :shardIndex && status != :completed" : "shardIndex == :shardIndex");
+        final var params = new HashMap<String, Object>();
+        params.put("shardIndex", PortfolioAnalysisShard.DEDUPLICATION_SHARD_INDEX);
+        if (unfinishedOnly) {
+            params.put("completed", PortfolioAnalysisShard.Status.COMPLETED);
+        }
+        query.setNamedParameters(params);
+        query.setResult("count(this)");
+        try {
+            return query.executeResultUnique(Long.class);
+        } finally {
+            query.closeAll();
+        }
+    }
+
+    /**
+     * Splits all active projects of the portfolio into {@link PortfolioAnalysisShard}s, replacing the
+     * shards of the previous portfolio analysis.
+     * <p>
+     * Shards are only created when no portfolio analysis is in progress. Should shards be created
+     * concurrently, e.g. by another instance, the unique shard index causes all but one attempt to fail.
+     *
+     * @param shardSize   the maximum number of projects per shard
+     * @param deduplicate whether to additionally create a shard for the deduplicated internal analysis
+     *                    of the entire portfolio, which must complete before any other shard can be claimed
+     * @return the number of shards created, or {@code 0} when shards already existed
+     * @since 4.11.0
+     */
+    public int createPortfolioAnalysisShards(final int shardSize, final boolean deduplicate) {
+        final Query<Project> projectQuery = pm.newQuery(Project.class, "active == true || active == null");
+        projectQuery.setResult("id");
+        projectQuery.setOrdering("id asc");
+        final List<Long> projectIds;
+        try {
+            projectIds = new ArrayList<>(projectQuery.executeResultList(Long.class));
+        } finally {
+            projectQuery.closeAll();
+        }
+
+        final Transaction trx = pm.currentTransaction();
+        try {
+            trx.begin();
+            if (hasUnfinishedPortfolioAnalysisShards()) {
+                return 0;
+            }
+            final Query<PortfolioAnalysisShard> deleteQuery = pm.newQuery(PortfolioAnalysisShard.class);
+            deleteQuery.deletePersistentAll();
+            final List<PortfolioAnalysisShard> shards = new ArrayList<>();
+            if (deduplicate) {
+                // Covers no projects. Its worker analyzes the entire portfolio instead.
+                final var shard = new PortfolioAnalysisShard();
+                shard.setShardIndex(PortfolioAnalysisShard.DEDUPLICATION_SHARD_INDEX);
+                shard.setFirstProjectId(0);
+                shard.setLastProjectId(-1);
+                shard.setStatus(PortfolioAnalysisShard.Status.PENDING);
+                shards.add(shard);
+            }
+            for (int i = 0; i < projectIds.size(); i += shardSize) {
+                final List<Long> projectIdChunk = projectIds.subList(i, Math.min(i + shardSize, projectIds.size()));
+                final var shard = new PortfolioAnalysisShard();
+                shard.setShardIndex(i / shardSize);
+                shard.setFirstProjectId(projectIdChunk.get(0));
+                shard.setLastProjectId(projectIdChunk.get(projectIdChunk.size() - 1));
+                shard.setStatus(PortfolioAnalysisShard.Status.PENDING);
+                shards.add(shard);
+            }
+            pm.makePersistentAll(shards);
+            trx.commit();
+            return shards.size();
+        } catch (JDOException e) {
+            LOGGER.warn("Failed to create portfolio analysis shards; Assuming they have been created concurrently", e);
+            return 0;
+        } finally {
+            if (trx.isActive()) {
+                trx.rollback();
+            }
+        }
+    }
+
+    /**
+     * Claims the next {@link PortfolioAnalysisShard} to be analyzed. Shards that have been claimed
+     * by another worker, but whose last claim or checkpoint is older than the given lease duration,
+     * are assumed to be abandoned and may be claimed again.
+     * <p>
+     * While the deduplicated internal analysis of the portfolio is pending, only its shard can be claimed.
+     *
+     * @param workerId      identifier of the claiming worker
+     * @param leaseDuration duration after which claims are considered to be abandoned
+     * @return the claimed shard, or {@code null} when no shard is left to be claimed
+     * @since 4.11.0
+     */
+    public PortfolioAnalysisShard claimPortfolioAnalysisShard(final String workerId, final Duration leaseDuration) {
+        final var now = new Date();
+        final Transaction trx = pm.currentTransaction();
+        try {
+            trx.begin();
+            final boolean deduplicationPending = isPortfolioDeduplicationPending();
+            final Query<PortfolioAnalysisShard> query = pm.newQuery(PortfolioAnalysisShard.class,
+                    "(status == :pending || (status == :claimed && claimedAt < :leaseExpiry))"
+                            + (deduplicationPending ? " && shardIndex == :shardIndex" : ""));
+            final var params = new HashMap<String, Object>();
+            if (deduplicationPending) {
+                params.put("shardIndex", PortfolioAnalysisShard.DEDUPLICATION_SHARD_INDEX);
+            }
+            params.put("pending", PortfolioAnalysisShard.Status.PENDING);
+            params.put("claimed", PortfolioAnalysisShard.Status.CLAIMED);
+            params.put("leaseExpiry", new Date(now.getTime() - leaseDuration.toMillis()));
+            query.setNamedParameters(params);
+            query.setOrdering("shardIndex asc");
+            query.setRange(0, 1);
+            // Lock the selected shard, so that it can not be claimed by multiple workers at once.
+            query.serializeRead(true);
+            final PortfolioAnalysisShard shard = query.executeUnique();
+            if (shard == null) {
+                return null;
+            }
+            if (shard.getStatus() == PortfolioAnalysisShard.Status.CLAIMED) {
+                LOGGER.warn("Reclaiming portfolio analysis shard #%d, abandoned by %s".formatted(shard.getShardIndex(), shard.getClaimedBy()));
+            }
+            shard.setStatus(PortfolioAnalysisShard.Status.CLAIMED);
+            shard.setClaimedBy(workerId);
+            shard.setClaimedAt(now);
+            trx.commit();
+            return shard;
+        } finally {
+            if (trx.isActive()) {
+                trx.rollback();
+            }
+        }
+    }
+
+    /**
+     * Records that the analysis of all projects of a {@link PortfolioAnalysisShard}, up to and including the
+     * given project, has completed. This also renews the claim of the worker.
+     *
+     * @param shard     the shard to checkpoint
+     * @param workerId  identifier of the worker that claimed the shard
+     * @param projectId ID of the last project analyzed
+     * @return false if the shard has been claimed by another worker in the meantime
+     * @since 4.11.0
+     */
+    public boolean checkpointPortfolioAnalysisShard(final PortfolioAnalysisShard shard, final String workerId, final long projectId) {
+        return updateClaimedPortfolioAnalysisShard(shard.getId(), workerId, claimedShard -> {
+            claimedShard.setCheckpointProjectId(projectId);
+            claimedShard.setClaimedAt(new Date());
+        });
+    }
+
+    /**
+     * Renews the claim of a worker on a {@link PortfolioAnalysisShard}, without recording progress.
+     * Allows workers to hold on to shards while analyzing projects that take longer than the lease duration.
+     *
+     * @param shardId  ID of the shard to renew the claim on
+     * @param workerId identifier of the worker that claimed the shard
+     * @return false if the shard has been claimed by another worker in the meantime
+     * @since 4.11.0
+     */
+    public boolean renewPortfolioAnalysisShardLease(final long shardId, final String workerId) {
+        return updateClaimedPortfolioAnalysisShard(shardId, workerId, claimedShard -> claimedShard.setClaimedAt(new Date()));
+    }
+
+    /**
+     * Marks a {@link PortfolioAnalysisShard} as completed.
+     *
+     * @param shard    the shard to complete
+     * @param workerId identifier of the worker that claimed the shard
+     * @return false if the shard has been claimed by another worker in the meantime
+     * @since 4.11.0
+     */
+    public boolean completePortfolioAnalysisShard(final PortfolioAnalysisShard shard, final String workerId) {
+        return updateClaimedPortfolioAnalysisShard(shard.getId(), workerId, claimedShard -> {
+            claimedShard.setStatus(PortfolioAnalysisShard.Status.COMPLETED);
+            claimedShard.setCompletedAt(new Date());
+        });
+    }
+
+    private boolean updateClaimedPortfolioAnalysisShard(final long shardId, final String workerId,
+                                                        final Consumer<PortfolioAnalysisShard> update) {
+        final Transaction trx = pm.currentTransaction();
+        try {
+            trx.begin();
+            final Query<PortfolioAnalysisShard> query = pm.newQuery(PortfolioAnalysisShard.class, "id == :id");
+            query.setNamedParameters(Map.of("id", shardId));
+            query.serializeRead(true);
+            final PortfolioAnalysisShard claimedShard = query.executeUnique();
+            if (claimedShard == null
+                    || claimedShard.getStatus() != PortfolioAnalysisShard.Status.CLAIMED
+                    || !workerId.equals(claimedShard.getClaimedBy())) {
+                return false;
+            }
+            update.accept(claimedShard);
+            trx.commit();
+            return true;
+        } finally {
+            if (trx.isActive()) {
+                trx.rollback();
+            }
+        }
+    }
+
+    /**
+     * Returns the IDs of all active projects of a {@link PortfolioAnalysisShard} that have not been analyzed yet,
+     * i.e. that come after the shard's checkpoint.
+     *
+     * @param shard the shard to get the project IDs for
+     * @return a List of project IDs, in ascending order
+     * @since 4.11.0
+     */
+    public List<Long> getPortfolioAnalysisShardProjectIds(final PortfolioAnalysisShard shard) {
+        final long firstProjectId = shard.getCheckpointProjectId() != null
+                ? shard.getCheckpointProjectId() + 1
+                : shard.getFirstProjectId();
+        final Query<Project> query = pm.newQuery(Project.class,
+                "id >= :firstProjectId && id <= :lastProjectId && (active == true || active == null)");
+        query.setNamedParameters(Map.of("firstProjectId", firstProjectId, "lastProjectId", shard.getLastProjectId()));
+        query.setResult("id");
+        query.setOrdering("id asc");
+        try {
+            return new ArrayList<>(query.executeResultList(Long.class));
+        } finally {
+            query.closeAll();
+        }
+    }
+
+}
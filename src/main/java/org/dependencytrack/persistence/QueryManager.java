@@ -30,6 +30,7 @@ import alpine.persistence.PaginatedResult;
 import alpine.resources.AlpineRequest;
 import com.github.packageurl.PackageURL;
 import com.google.common.collect.Lists;
+import org.apache.commons.lang3.tuple.Pair;
 import org.datanucleus.PropertyNames;
 import org.datanucleus.api.jdo.JDOQuery;
 import org.dependencytrack.event.IndexEvent;
@@ -55,6 +56,7 @@ import org.dependencytrack.model.NotificationRule;
 import org.dependencytrack.model.Policy;
 import org.dependencytrack.model.PolicyCondition;
 import org.dependencytrack.model.PolicyViolation;
+import org.dependencytrack.model.PortfolioAnalysisShard;
 import org.dependencytrack.model.PortfolioMetrics;
 import org.dependencytrack.model.Project;
 import org.dependencytrack.model.ProjectMetrics;
@@ -84,7 +86,9 @@ import javax.jdo.Query;
 import javax.jdo.Transaction;
 import javax.json.JsonObject;
 import java.security.Principal;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -113,6 +117,7 @@ public class QueryManager extends AlpineQueryManager {
     private MetricsQueryManager metricsQueryManager;
     private NotificationQueryManager notificationQueryManager;
     private PolicyQueryManager policyQueryManager;
+    private PortfolioAnalysisQueryManager portfolioAnalysisQueryManager;
     private ProjectQueryManager projectQueryManager;
     private RepositoryQueryManager repositoryQueryManager;
     private ServiceComponentQueryManager serviceComponentQueryManager;
@@ -320,6 +325,17 @@ public class QueryManager extends AlpineQueryManager {
         return cacheQueryManager;
     }
 
+    /**
+     * Lazy instantiation of PortfolioAnalysisQueryManager.
+     * @return a PortfolioAnalysisQueryManager object
+     */
+    private PortfolioAnalysisQueryManager getPortfolioAnalysisQueryManager() {
+        if (portfolioAnalysisQueryManager == null) {
+            portfolioAnalysisQueryManager = (request == null) ? new PortfolioAnalysisQueryManager(getPersistenceManager()) : new PortfolioAnalysisQueryManager(getPersistenceManager(), request);
+        }
+        return portfolioAnalysisQueryManager;
+    }
+
     /**
      * Disables the second level cache for this {@link QueryManager} instance.
      * <p>
@@ -476,6 +492,10 @@ public class QueryManager extends AlpineQueryManager {
         return getBomQueryManager().getAllBoms(project);
     }
 
+    public Bom getLatestBom(Project project) {
+        return getBomQueryManager().getLatestBom(project);
+    }
+
     public void deleteBoms(Project project) {
         getBomQueryManager().deleteBoms(project);
     }
@@ -524,6 +544,10 @@ public class QueryManager extends AlpineQueryManager {
         return getComponentQueryManager().createComponent(component, commitIndex);
     }
 
+    public List<Component> bulkUpsertComponents(final List<Component> components, final boolean commitIndex) {
+        return getComponentQueryManager().bulkUpsertComponents(components, commitIndex);
+    }
+
     public Component cloneComponent(Component sourceComponent, Project destinationProject, boolean commitIndex) {
         return getComponentQueryManager().cloneComponent(sourceComponent, destinationProject, commitIndex);
     }
@@ -560,6 +584,14 @@ public class QueryManager extends AlpineQueryManager {
         return getLicenseQueryManager().getCustomLicense(licenseName);
     }
 
+    public License resolveLicense(final String licenseId) {
+        return getLicenseQueryManager().resolveLicense(licenseId);
+    }
+
+    public License resolveCustomLicense(final String licenseName) {
+        return getLicenseQueryManager().resolveCustomLicense(licenseName);
+    }
+
     License synchronizeLicense(License license, boolean commitIndex) {
         return getLicenseQueryManager().synchronizeLicense(license, commitIndex);
     }
@@ -731,6 +763,10 @@ public class QueryManager extends AlpineQueryManager {
         return getVulnerabilityQueryManager().getVulnerabilitiesForNpmModule(module);
     }
 
+    public List<Vulnerability> getVulnerabilitiesByVulnerableSoftware(Collection<Long> vulnerableSoftwareIds) {
+        return getVulnerabilityQueryManager().getVulnerabilitiesByVulnerableSoftware(vulnerableSoftwareIds);
+    }
+
     public void addVulnerability(Vulnerability vulnerability, Component component, AnalyzerIdentity analyzerIdentity) {
         getVulnerabilityQueryManager().addVulnerability(vulnerability, component, analyzerIdentity);
     }
@@ -740,6 +776,14 @@ public class QueryManager extends AlpineQueryManager {
         getVulnerabilityQueryManager().addVulnerability(vulnerability, component, analyzerIdentity, alternateIdentifier, referenceUrl);
     }
 
+    public Set<Pair<Long, Long>> getExistingFindings(Collection<Long> componentIds, Collection<Long> vulnerabilityIds) {
+        return getVulnerabilityQueryManager().getExistingFindings(componentIds, vulnerabilityIds);
+    }
+
+    public void addFindings(Collection<FindingAttribution> attributions) {
+        getVulnerabilityQueryManager().addFindings(attributions);
+    }
+
     public void removeVulnerability(Vulnerability vulnerability, Component component) {
         getVulnerabilityQueryManager().removeVulnerability(vulnerability, component);
     }
@@ -858,8 +902,20 @@ public class QueryManager extends AlpineQueryManager {
         return getComponentQueryManager().matchIdentity(cid);
     }
 
-    public void reconcileComponents(Project project, List<Component> existingProjectComponents, List<Component> components) {
-        getComponentQueryManager().reconcileComponents(project, existingProjectComponents, components);
+    public Map<ComponentIdentity, Set<Long>> getProjectIdsByIdentity(final Collection<ComponentIdentity> identities) {
+        return getComponentQueryManager().getProjectIdsByIdentity(identities);
+    }
+
+    public ComponentDiff reconcileComponents(Project project, List<Component> existingProjectComponents, List<Component> components) {
+        return getComponentQueryManager().reconcileComponents(project, existingProjectComponents, components);
+    }
+
+    public void reconcileComponents(final Project project, final Collection<Long> retainedComponentIds) {
+        getComponentQueryManager().reconcileComponents(project, retainedComponentIds);
+    }
+
+    public List<Component> getComponentsById(final Collection<Long> componentIds) {
+        return getComponentQueryManager().getComponentsById(componentIds);
     }
 
     public List<Component> getAllComponents(Project project) {
@@ -994,6 +1050,10 @@ public class QueryManager extends AlpineQueryManager {
         return getVulnerabilityQueryManager().getVulnerabilityAliases(vulnerability);
     }
 
+    public Map<Long, List<VulnerabilityAlias>> getVulnerabilityAliases(Collection<Vulnerability> vulnerabilities) {
+        return getVulnerabilityQueryManager().getVulnerabilityAliases(vulnerabilities);
+    }
+
     List<Analysis> getAnalyses(Project project) {
         return getFindingsQueryManager().getAnalyses(project);
     }
@@ -1185,7 +1245,11 @@ public class QueryManager extends AlpineQueryManager {
         return getCacheQueryManager().getComponentAnalysisCache(cacheType, targetType, target);
     }
 
-    public synchronized void updateComponentAnalysisCache(ComponentAnalysisCache.CacheType cacheType, String targetHost, String targetType, String target, Date lastOccurrence, JsonObject result) {
+    public Map<String, ComponentAnalysisCache> getComponentAnalysisCaches(ComponentAnalysisCache.CacheType cacheType, String targetHost, String targetType, Collection<String> targets) {
+        return getCacheQueryManager().getComponentAnalysisCaches(cacheType, targetHost, targetType, targets);
+    }
+
+    public void updateComponentAnalysisCache(ComponentAnalysisCache.CacheType cacheType, String targetHost, String targetType, String target, Date lastOccurrence, JsonObject result) {
         getCacheQueryManager().updateComponentAnalysisCache(cacheType, targetHost, targetType, target, lastOccurrence,  result);
     }
 
@@ -1197,6 +1261,42 @@ public class QueryManager extends AlpineQueryManager {
         getCacheQueryManager().clearComponentAnalysisCache(threshold);
     }
 
+    public boolean hasUnfinishedPortfolioAnalysisShards() {
+        return getPortfolioAnalysisQueryManager().hasUnfinishedPortfolioAnalysisShards();
+    }
+
+    public int createPortfolioAnalysisShards(final int shardSize, final boolean deduplicate) {
+        return getPortfolioAnalysisQueryManager().createPortfolioAnalysisShards(shardSize, deduplicate);
+    }
+
+    public boolean hasPortfolioDeduplicationShard() {
+        return getPortfolioAnalysisQueryManager().hasPortfolioDeduplicationShard();
+    }
+
+    public boolean isPortfolioDeduplicationPending() {
+        return getPortfolioAnalysisQueryManager().isPortfolioDeduplicationPending();
+    }
+
+    public PortfolioAnalysisShard claimPortfolioAnalysisShard(final String workerId, final Duration leaseDuration) {
+        return getPortfolioAnalysisQueryManager().claimPortfolioAnalysisShard(workerId, leaseDuration);
+    }
+
+    public boolean checkpointPortfolioAnalysisShard(final PortfolioAnalysisShard shard, final String workerId, final long projectId) {
+        return getPortfolioAnalysisQueryManager().checkpointPortfolioAnalysisShard(shard, workerId, projectId);
+    }
+
+    public boolean renewPortfolioAnalysisShardLease(final long shardId, final String workerId) {
+        return getPortfolioAnalysisQueryManager().renewPortfolioAnalysisShardLease(shardId, workerId);
+    }
+
+    public boolean completePortfolioAnalysisShard(final PortfolioAnalysisShard shard, final String workerId) {
+        return getPortfolioAnalysisQueryManager().completePortfolioAnalysisShard(shard, workerId);
+    }
+
+    public List<Long> getPortfolioAnalysisShardProjectIds(final PortfolioAnalysisShard shard) {
+        return getPortfolioAnalysisQueryManager().getPortfolioAnalysisShardProjectIds(shard);
+    }
+
     public void bind(Project project, List<Tag> tags) {
         getProjectQueryManager().bind(project, tags);
     }
@@ -1339,6 +1439,26 @@ public class QueryManager extends AlpineQueryManager {
         });
     }
 
+    /**
+     * Convenience method to execute a given {@link Runnable} within the context of a {@link Transaction},
+     * deferring all flushes until commit.
+     * <p>
+     * Deferring flushes allows DataNucleus to batch JDBC statements, rather than executing
+     * them one by one for each modified object.
+     *
+     * @param runnable The {@link Runnable} to execute
+     * @since 4.11.0
+     */
+    public void runInBulkTransaction(final Runnable runnable) {
+        final Object previousFlushMode = pm.getProperties().get(PropertyNames.PROPERTY_FLUSH_MODE);
+        pm.setProperty(PropertyNames.PROPERTY_FLUSH_MODE, "MANUAL");
+        try {
+            runInTransaction(runnable);
+        } finally {
+            pm.setProperty(PropertyNames.PROPERTY_FLUSH_MODE, previousFlushMode != null ? previousFlushMode : "AUTO");
+        }
+    }
+
     /**
      * Convenience method to execute a given {@link Supplier} within the context of a {@link Transaction}.
      * <p>
@@ -22,6 +22,7 @@ import alpine.event.framework.Event;
 import alpine.persistence.PaginatedResult;
 import alpine.resources.AlpineRequest;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.dependencytrack.event.IndexEvent;
 import org.dependencytrack.model.AffectedVersionAttribution;
 import org.dependencytrack.model.Analysis;
@@ -42,13 +43,17 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.UUID;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 final class VulnerabilityQueryManager extends QueryManager implements IQueryManager {
 
+    private static final int FINDING_BATCH_SIZE = 500;
+
     /**
      * Constructs a new QueryManager.
      * @param pm a PersistenceManager object
@@ -192,6 +197,28 @@ final class VulnerabilityQueryManager extends QueryManager implements IQueryMana
         return (List<Vulnerability>) query.execute(Vulnerability.Source.NPM.name(), module);
     }
 
+    /**
+     * Returns the distinct vulnerabilities associated with any of the specified {@link VulnerableSoftware}s.
+     * @param vulnerableSoftwareIds the IDs of the {@link VulnerableSoftware}s
+     * @return a list of Vulnerability objects
+     * @since 4.11.0
+     */
+    public List<Vulnerability> getVulnerabilitiesByVulnerableSoftware(final Collection<Long> vulnerableSoftwareIds) {
+        if (vulnerableSoftwareIds == null || vulnerableSoftwareIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Query<Vulnerability> query = pm.newQuery(Vulnerability.class);
+        query.setFilter("vulnerableSoftware.contains(vs) && :ids.contains(vs.id)");
+        query.declareVariables("org.dependencytrack.model.VulnerableSoftware vs");
+        query.setParameters(vulnerableSoftwareIds);
+        query.setResult("distinct this");
+        try {
+            return List.copyOf(query.executeResultList(Vulnerability.class));
+        } finally {
+            query.closeAll();
+        }
+    }
+
     /**
      * Adds a vulnerability to a component.
      * @param vulnerability the vulnerability to add
@@ -219,6 +246,63 @@ final class VulnerabilityQueryManager extends QueryManager implements IQueryMana
         }
     }
 
+    /**
+     * Returns the pairs of component and vulnerability IDs for which a finding already exists,
+     * using a single query per chunk of components rather than one query per pair.
+     * @param componentIds the IDs of the components to check
+     * @param vulnerabilityIds the IDs of the vulnerabilities to check
+     * @return a Set of component ID and vulnerability ID pairs
+     * @since 4.11.0
+     */
+    public Set<Pair<Long, Long>> getExistingFindings(final Collection<Long> componentIds, final Collection<Long> vulnerabilityIds) {
+        if (componentIds.isEmpty() || vulnerabilityIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final List<Long> componentIdList = List.copyOf(componentIds);
+        final List<Long> vulnerabilityIdList = List.copyOf(vulnerabilityIds);
+        final Set<Pair<Long, Long>> existingFindings = new HashSet<>();
+        for (int i = 0; i < componentIdList.size(); i += FINDING_BATCH_SIZE) {
+            final List<Long> componentIdChunk = componentIdList.subList(i, Math.min(i + FINDING_BATCH_SIZE, componentIdList.size()));
+            for (int j = 0; j < vulnerabilityIdList.size(); j += FINDING_BATCH_SIZE) {
+                final List<Long> vulnerabilityIdChunk = vulnerabilityIdList.subList(j, Math.min(j + FINDING_BATCH_SIZE, vulnerabilityIdList.size()));
+                final Query<Component> query = pm.newQuery(Component.class);
+                query.setFilter(":componentIds.contains(id) && vulnerabilities.contains(vuln) && :vulnIds.contains(vuln.id)");
+                query.declareVariables("org.dependencytrack.model.Vulnerability vuln");
+                query.setParameters(componentIdChunk, vulnerabilityIdChunk);
+                query.setResult("id, vuln.id");
+                try {
+                    for (final Object[] row : query.executeResultList(Object[].class)) {
+                        existingFindings.add(Pair.of((Long) row[0], (Long) row[1]));
+                    }
+                } finally {
+                    query.closeAll();
+                }
+            }
+        }
+        return existingFindings;
+    }
+
+    /**
+     * Adds findings to their components within a single transaction, allowing the
+     * inserts of all findings and their {@link FindingAttribution}s to be batched.
+     * <p>
+     * Callers are responsible for ensuring that none of the findings exist yet,
+     * see {@link #getExistingFindings(Collection, Collection)}.
+     * @param attributions the attributions of the findings to add
+     * @since 4.11.0
+     */
+    public void addFindings(final Collection<FindingAttribution> attributions) {
+        if (attributions.isEmpty()) {
+            return;
+        }
+        runInBulkTransaction(() -> {
+            for (final FindingAttribution attribution : attributions) {
+                attribution.getComponent().addVulnerability(attribution.getVulnerability());
+                pm.makePersistent(attribution);
+            }
+        });
+    }
+
     /**
      * Removes a vulnerability from a component.
      * @param vulnerability the vulnerabillity to remove
@@ -644,6 +728,85 @@ final class VulnerabilityQueryManager extends QueryManager implements IQueryMana
             return (List<VulnerabilityAlias>)query.execute(vulnerability.getVulnId());
     }
 
+    /**
+     * Returns the aliases of multiple vulnerabilities, using a single query per batch of vulnerabilities.
+     * <p>
+     * Aliases are resolved following the same rules as {@link #getVulnerabilityAliases(Vulnerability)}.
+     * @param vulnerabilities the vulnerabilities to retrieve aliases of
+     * @return the aliases of all vulnerabilities that have any, keyed by the vulnerabilities' IDs
+     * @since 4.11.0
+     */
+    public Map<Long, List<VulnerabilityAlias>> getVulnerabilityAliases(final Collection<Vulnerability> vulnerabilities) {
+        final Map<Long, List<VulnerabilityAlias>> aliasesByVulnId = new HashMap<>();
+        final List<Vulnerability> vulnerabilityList = List.copyOf(vulnerabilities);
+        for (int i = 0; i < vulnerabilityList.size(); i += FINDING_BATCH_SIZE) {
+            // Alias field name -> identifier of the vulnerability in that field -> IDs of the vulnerabilities
+            final Map<String, Map<String, List<Long>>> vulnIdsByAliasField = new HashMap<>();
+            for (final Vulnerability vulnerability : vulnerabilityList.subList(i, Math.min(i + FINDING_BATCH_SIZE, vulnerabilityList.size()))) {
+                if (vulnerability.getVulnId() != null) {
+                    vulnIdsByAliasField
+                            .computeIfAbsent(getAliasField(vulnerability.getSource()), ignored -> new HashMap<>())
+                            .computeIfAbsent(vulnerability.getVulnId(), ignored -> new ArrayList<>())
+                            .add(vulnerability.getId());
+                }
+            }
+            if (vulnIdsByAliasField.isEmpty()) {
+                continue;
+            }
+
+            final var filterParts = new ArrayList<String>();
+            final var params = new HashMap<String, Object>();
+            for (final Map.Entry<String, Map<String, List<Long>>> entry : vulnIdsByAliasField.entrySet()) {
+                filterParts.add(":%ss.contains(%s)".formatted(entry.getKey(), entry.getKey()));
+                params.put(entry.getKey() + "s", entry.getValue().keySet());
+            }
+            final Query<VulnerabilityAlias> query = pm.newQuery(VulnerabilityAlias.class, String.join(" || ", filterParts));
+            query.setNamedParameters(params);
+            try {
+                for (final VulnerabilityAlias alias : query.executeList()) {
+                    for (final Map.Entry<String, Map<String, List<Long>>> entry : vulnIdsByAliasField.entrySet()) {
+                        final String identifier = getAliasIdentifier(alias, entry.getKey());
+                        for (final Long vulnId : entry.getValue().getOrDefault(identifier, Collections.emptyList())) {
+                            aliasesByVulnId.computeIfAbsent(vulnId, ignored -> new ArrayList<>()).add(alias);
+                        }
+                    }
+                }
+            } finally {
+                query.closeAll();
+            }
+        }
+        return aliasesByVulnId;
+    }
+
+    private static String getAliasField(final String source) {
+        if (Vulnerability.Source.NVD.name().equals(source)) {
+            return "cveId";
+        } else if (Vulnerability.Source.OSSINDEX.name().equals(source)) {
+            return "sonatypeId";
+        } else if (Vulnerability.Source.GITHUB.name().equals(source)) {
+            return "ghsaId";
+        } else if (Vulnerability.Source.OSV.name().equals(source)) {
+            return "osvId";
+        } else if (Vulnerability.Source.SNYK.name().equals(source)) {
+            return "snykId";
+        } else if (Vulnerability.Source.VULNDB.name().equals(source)) {
+            return "vulnDbId";
+        }
+        return "internalId";
+    }
+
+    private static String getAliasIdentifier(final VulnerabilityAlias alias, final String field) {
+        return switch (field) {
+            case "cveId" -> alias.getCveId();
+            case "sonatypeId" -> alias.getSonatypeId();
+            case "ghsaId" -> alias.getGhsaId();
+            case "osvId" -> alias.getOsvId();
+            case "snykId" -> alias.getSnykId();
+            case "vulnDbId" -> alias.getVulnDbId();
+            default -> alias.getInternalId();
+        };
+    }
+
     /**
      * Reconcile {@link VulnerableSoftware} for a given {@link Vulnerability}.
      * <p>
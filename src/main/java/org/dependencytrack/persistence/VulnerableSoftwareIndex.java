@@ -0,0 +1,351 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import alpine.common.logging.Logger;
+import com.github.packageurl.PackageURL;
+import org.dependencytrack.model.VulnerableSoftware;
+import org.dependencytrack.util.ComponentVersion;
+import org.dependencytrack.util.VersionRangeTree;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.PersistenceManagerFactory;
+import javax.jdo.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Process-wide in-memory index of {@link VulnerableSoftware} records, keyed by CPE part, vendor, and product,
+ * and by Package URL type, namespace, and name respectively.
+ * <p>
+ * The index serves the same candidates as {@link VulnerableSoftwareQueryManager#getAllVulnerableSoftware(String, String, String, PackageURL)},
+ * without querying the database for every component being analyzed. Only the attributes required for matching
+ * are retained; the {@link org.dependencytrack.model.Vulnerability}s of a candidate must be resolved separately,
+ * once a candidate is confirmed to match.
+ * <p>
+ * {@link VulnerableSoftware} records are never modified nor deleted once they have been created.
+ * The index is thus built once, and updated incrementally by loading records that are new since
+ * the last {@link #refresh()}. Mirror tasks report the records they persisted via {@link #update(Collection)},
+ * such that those are loaded even when they were committed out of order with regard to their ID.
+ *
+ * @since 4.11.0
+ */
+public final class VulnerableSoftwareIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(VulnerableSoftwareIndex.class);
+    private static final VulnerableSoftwareIndex INSTANCE = new VulnerableSoftwareIndex();
+    private static final int BATCH_SIZE = 5000;
+    private static final String RESULT = """
+            id, cpe23, part, vendor, product, version, this.update, edition, language, swEdition, targetSw, targetHw,
+            other, purlType, purlNamespace, purlName, versionEndExcluding, versionEndIncluding, versionStartExcluding,
+            versionStartIncluding""";
+
+    private record CpeKey(String part, String vendor, String product) {
+    }
+
+    private record PurlKey(String type, String namespace, String name) {
+    }
+
+    /**
+     * State of the index for a given {@link PersistenceManagerFactory}.
+     * <p>
+     * The {@link VersionRangeTree}s in the maps are immutable, and replaced as a whole when records are added.
+     */
+    private static final class State {
+
+        private final PersistenceManagerFactory pmf;
+        private final Map<CpeKey, VersionRangeTree<VulnerableSoftware>> entriesByCpeKey = new ConcurrentHashMap<>();
+        private final Map<PurlKey, VersionRangeTree<VulnerableSoftware>> entriesByPurlKey = new ConcurrentHashMap<>();
+        private final Set<Long> indexedIds = ConcurrentHashMap.newKeySet();
+        private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+        private long highestIndexedId;
+        private volatile boolean ready;
+
+        private State(final PersistenceManagerFactory pmf) {
+            this.pmf = pmf;
+        }
+
+    }
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile State state;
+
+    private VulnerableSoftwareIndex() { }
+
+    public static VulnerableSoftwareIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Determines whether the index has been built for the database a given {@link QueryManager} operates on.
+     *
+     * @param qm The {@link QueryManager} to check
+     * @return {@code true} when the index has been built, otherwise {@code false}
+     */
+    public boolean isReady(final QueryManager qm) {
+        final State currentState = state;
+        return currentState != null && currentState.ready
+                && currentState.pmf == qm.getPersistenceManager().getPersistenceManagerFactory();
+    }
+
+    /**
+     * Reports {@link VulnerableSoftware}s that have been persisted, such that they are added to the index
+     * upon the next {@link #refresh()}. Records that are already indexed are ignored.
+     *
+     * @param vsList The persistent {@link VulnerableSoftware}s
+     */
+    public void update(final Collection<VulnerableSoftware> vsList) {
+        final State currentState = state;
+        if (currentState == null || vsList == null) {
+            return;
+        }
+        for (final VulnerableSoftware vs : vsList) {
+            if (vs != null && vs.getId() > 0 && !currentState.indexedIds.contains(vs.getId())) {
+                currentState.pendingIds.add(vs.getId());
+            }
+        }
+    }
+
+    /**
+     * Builds the index if it has not been built yet, or adds all {@link VulnerableSoftware}s to it that
+     * have been created since the last refresh.
+     * <p>
+     * Concurrent refreshes are serialized. Lookups may be performed while a refresh is in progress.
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try (final var qm = new QueryManager()) {
+            final PersistenceManager pm = qm.getPersistenceManager();
+            State currentState = state;
+            if (currentState == null || currentState.pmf != pm.getPersistenceManagerFactory()) {
+                LOGGER.info("Building vulnerable software index");
+                currentState = new State(pm.getPersistenceManagerFactory());
+                state = currentState;
+            }
+
+            int loaded = loadPending(pm, currentState);
+            List<Object[]> rows;
+            do {
+                final Query<VulnerableSoftware> query = pm.newQuery(VulnerableSoftware.class, "id > :highestIndexedId");
+                query.setParameters(currentState.highestIndexedId);
+                query.setResult(RESULT);
+                query.setOrdering("id asc");
+                query.setRange(0, BATCH_SIZE);
+                try {
+                    rows = List.copyOf(query.executeResultList(Object[].class));
+                } finally {
+                    query.closeAll();
+                }
+                add(currentState, rows, true);
+                loaded += rows.size();
+            } while (rows.size() == BATCH_SIZE);
+
+            if (!currentState.ready) {
+                currentState.ready = true;
+                LOGGER.info("Vulnerable software index built with %d record(s)".formatted(currentState.indexedIds.size()));
+            } else if (loaded > 0) {
+                LOGGER.debug("Added %d record(s) to the vulnerable software index".formatted(loaded));
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Finds candidate {@link VulnerableSoftware}s for a given CPE and Package URL, following the
+     * semantics of {@link VulnerableSoftwareQueryManager#getAllVulnerableSoftware(String, String, String, PackageURL)}.
+     * <p>
+     * When a target version is provided, candidates whose version range can not possibly contain it are omitted.
+     * Remaining candidates must still be evaluated against the target version.
+     * <p>
+     * The returned {@link VulnerableSoftware}s are transient, and shared between callers. They must not be modified.
+     *
+     * @param cpePart       The part attribute of the target CPE
+     * @param cpeVendor     The vendor attribute of the target CPE
+     * @param cpeProduct    The product attribute of the target CPE
+     * @param purl          The Package URL
+     * @param targetVersion The version of the target, or {@code null} to return candidates regardless of version
+     * @return A {@link List} of all candidate {@link VulnerableSoftware}s, or {@code null} when the index
+     * is not ready, or can not answer the lookup because any of the CPE attributes is {@code ANY}
+     */
+    public List<VulnerableSoftware> find(final String cpePart, final String cpeVendor, final String cpeProduct,
+                                         final PackageURL purl, final ComponentVersion targetVersion) {
+        final State currentState = state;
+        if (currentState == null || !currentState.ready) {
+            return null;
+        }
+
+        final var candidatesById = new LinkedHashMap<Long, VulnerableSoftware>();
+        if (cpePart != null && cpeVendor != null && cpeProduct != null) {
+            final List<String> parts = sourceValuesFor(cpePart);
+            final List<String> vendors = sourceValuesFor(cpeVendor);
+            final List<String> products = sourceValuesFor(cpeProduct);
+            if (parts == null || vendors == null || products == null) {
+                // Matching a target of ANY would require a scan of the entire index.
+                return null;
+            }
+            for (final String part : parts) {
+                for (final String vendor : vendors) {
+                    for (final String product : products) {
+                        addAll(candidatesById, currentState.entriesByCpeKey.get(new CpeKey(part, vendor, product)), targetVersion);
+                    }
+                }
+            }
+        }
+        if (purl != null) {
+            addAll(candidatesById, currentState.entriesByPurlKey.get(new PurlKey(purl.getType(), purl.getNamespace(), purl.getName())), targetVersion);
+        }
+        return List.copyOf(candidatesById.values());
+    }
+
+    /**
+     * Discards the index. Intended for testing.
+     */
+    void clear() {
+        refreshLock.lock();
+        try {
+            state = null;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Determines the source values of a CPE attribute that are not {@code DISJOINT} with a given target value.
+     *
+     * @param target The target value
+     * @return The source values, or {@code null} if the target value is {@code ANY}
+     * @see VulnerableSoftwareQueryManager#getAllVulnerableSoftware(String, String, String, PackageURL)
+     */
+    private static List<String> sourceValuesFor(final String target) {
+        if ("*".equals(target)) {
+            return null;
+        } else if ("-".equals(target)) {
+            return List.of("*", "-");
+        }
+        return List.of("*", target);
+    }
+
+    private static void addAll(final Map<Long, VulnerableSoftware> candidatesById,
+                               final VersionRangeTree<VulnerableSoftware> tree, final ComponentVersion targetVersion) {
+        if (tree != null) {
+            final List<VulnerableSoftware> vsList = targetVersion != null ? tree.find(targetVersion) : tree.getItems();
+            vsList.forEach(vs -> candidatesById.putIfAbsent(vs.getId(), vs));
+        }
+    }
+
+    private static int loadPending(final PersistenceManager pm, final State state) {
+        final List<Long> pendingIds = state.pendingIds.stream()
+                .filter(id -> !state.indexedIds.contains(id))
+                .toList();
+        state.pendingIds.removeAll(pendingIds);
+
+        int loaded = 0;
+        for (int i = 0; i < pendingIds.size(); i += BATCH_SIZE) {
+            final Query<VulnerableSoftware> query = pm.newQuery(VulnerableSoftware.class, ":ids.contains(id)");
+            query.setParameters(pendingIds.subList(i, Math.min(i + BATCH_SIZE, pendingIds.size())));
+            query.setResult(RESULT);
+            try {
+                final List<Object[]> rows = List.copyOf(query.executeResultList(Object[].class));
+                add(state, rows, false);
+                loaded += rows.size();
+            } finally {
+                query.closeAll();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * @param advanceHighestIndexedId Whether {@code rows} were loaded in order of their ID, starting
+     *                                after the highest ID that has been indexed so far
+     */
+    private static void add(final State state, final List<Object[]> rows, final boolean advanceHighestIndexedId) {
+        final var batchByCpeKey = new HashMap<CpeKey, List<VulnerableSoftware>>();
+        final var batchByPurlKey = new HashMap<PurlKey, List<VulnerableSoftware>>();
+        for (final Object[] row : rows) {
+            final VulnerableSoftware vs = toVulnerableSoftware(row);
+            if (advanceHighestIndexedId) {
+                state.highestIndexedId = Math.max(state.highestIndexedId, vs.getId());
+            }
+            if (!state.indexedIds.add(vs.getId())) {
+                continue;
+            }
+            if (vs.getPart() != null && vs.getVendor() != null && vs.getProduct() != null) {
+                batchByCpeKey.computeIfAbsent(new CpeKey(vs.getPart(), vs.getVendor(), vs.getProduct()), key -> new ArrayList<>()).add(vs);
+            }
+            if (vs.getPurlType() != null || vs.getPurlNamespace() != null || vs.getPurlName() != null) {
+                batchByPurlKey.computeIfAbsent(new PurlKey(vs.getPurlType(), vs.getPurlNamespace(), vs.getPurlName()), key -> new ArrayList<>()).add(vs);
+            }
+        }
+        batchByCpeKey.forEach((key, vsList) -> state.entriesByCpeKey.merge(key, newTree(vsList), VulnerableSoftwareIndex::concat));
+        batchByPurlKey.forEach((key, vsList) -> state.entriesByPurlKey.merge(key, newTree(vsList), VulnerableSoftwareIndex::concat));
+    }
+
+    private static VersionRangeTree<VulnerableSoftware> newTree(final List<VulnerableSoftware> vsList) {
+        return new VersionRangeTree<>(vsList, VulnerableSoftware::getVersionRange);
+    }
+
+    private static VersionRangeTree<VulnerableSoftware> concat(final VersionRangeTree<VulnerableSoftware> existing,
+                                                               final VersionRangeTree<VulnerableSoftware> added) {
+        return newTree(Stream.concat(existing.getItems().stream(), added.getItems().stream()).toList());
+    }
+
+    private static VulnerableSoftware toVulnerableSoftware(final Object[] row) {
+        final var vs = new VulnerableSoftware();
+        vs.setId((Long) row[0]);
+        vs.setCpe23((String) row[1]);
+        vs.setPart(intern(row[2]));
+        vs.setVendor(intern(row[3]));
+        vs.setProduct(intern(row[4]));
+        vs.setVersion(intern(row[5]));
+        vs.setUpdate(intern(row[6]));
+        vs.setEdition(intern(row[7]));
+        vs.setLanguage(intern(row[8]));
+        vs.setSwEdition(intern(row[9]));
+        vs.setTargetSw(intern(row[10]));
+        vs.setTargetHw(intern(row[11]));
+        vs.setOther(intern(row[12]));
+        vs.setPurlType(intern(row[13]));
+        vs.setPurlNamespace(intern(row[14]));
+        vs.setPurlName(intern(row[15]));
+        vs.setVersionEndExcluding((String) row[16]);
+        vs.setVersionEndIncluding((String) row[17]);
+        vs.setVersionStartExcluding((String) row[18]);
+        vs.setVersionStartIncluding((String) row[19]);
+        return vs;
+    }
+
+    /**
+     * CPE attributes and Package URL coordinates are highly repetitive across records,
+     * intern them to keep the footprint of the index low.
+     */
+    private static String intern(final Object value) {
+        return value != null ? ((String) value).intern() : null;
+    }
+
+}
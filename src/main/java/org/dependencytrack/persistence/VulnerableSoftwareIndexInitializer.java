@@ -0,0 +1,75 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import alpine.Config;
+import alpine.common.logging.Logger;
+import alpine.event.framework.LoggableUncaughtExceptionHandler;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.dependencytrack.RequirementsVerifier;
+import org.dependencytrack.common.ConfigKey;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the {@link VulnerableSoftwareIndex} in the background, if enabled.
+ * <p>
+ * The internal analyzer falls back to querying the database until the index is built.
+ *
+ * @since 4.11.0
+ */
+public class VulnerableSoftwareIndexInitializer implements ServletContextListener {
+
+    private static final Logger LOGGER = Logger.getLogger(VulnerableSoftwareIndexInitializer.class);
+
+    private ExecutorService executor;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void contextInitialized(final ServletContextEvent event) {
+        if (RequirementsVerifier.failedValidation()
+                || !Config.getInstance().getPropertyAsBoolean(ConfigKey.VULNERABLE_SOFTWARE_INDEX_ENABLED)) {
+            return;
+        }
+
+        final var threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern("VulnerableSoftwareIndex-%d")
+                .uncaughtExceptionHandler(new LoggableUncaughtExceptionHandler())
+                .build();
+        executor = Executors.newSingleThreadExecutor(threadFactory);
+        executor.execute(VulnerableSoftwareIndex.getInstance()::refresh);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void contextDestroyed(final ServletContextEvent event) {
+        if (executor != null) {
+            LOGGER.info("Shutting down vulnerable software index builder");
+            executor.shutdownNow();
+        }
+    }
+
+}
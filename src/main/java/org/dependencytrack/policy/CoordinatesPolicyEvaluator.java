@@ -126,8 +126,8 @@ public class CoordinatesPolicyEvaluator extends AbstractPolicyEvaluator {
             return false;
         }
 
-        final var componentVersion = new ComponentVersion(part);
-        final var conditionVersion = new ComponentVersion(VERSION_OPERATOR_PATTERN.split(conditionValue)[1]);
+        final var componentVersion = ComponentVersion.of(part);
+        final var conditionVersion = ComponentVersion.of(VERSION_OPERATOR_PATTERN.split(conditionValue)[1]);
 
         final boolean versionMatches = VersionPolicyEvaluator.matches(componentVersion, conditionVersion, versionOperator);
         if (PolicyCondition.Operator.NO_MATCH == conditionOperator) {
@@ -50,12 +50,12 @@ public class VersionPolicyEvaluator extends AbstractPolicyEvaluator {
             return violations;
         }
 
-        final var componentVersion = new ComponentVersion(component.getVersion());
+        final var componentVersion = ComponentVersion.of(component.getVersion());
 
         for (final PolicyCondition condition : super.extractSupportedConditions(policy)) {
             LOGGER.debug("Evaluating component (" + component.getUuid() + ") against policy condition (" + condition.getUuid() + ")");
 
-            final var conditionVersion = new ComponentVersion(condition.getValue());
+            final var conditionVersion = ComponentVersion.of(condition.getValue());
             if (conditionVersion.getVersionParts().isEmpty()) {
                 LOGGER.warn("Unable to parse version (" + condition.getValue() + " provided by condition");
                 continue;
@@ -26,6 +26,7 @@ import alpine.security.crypto.DataEncryption;
 import alpine.server.resources.AlpineResource;
 import org.dependencytrack.model.ConfigPropertyConstants;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.util.InternalComponentIdentificationUtil;
 
 import javax.ws.rs.core.Response;
 import java.math.BigDecimal;
@@ -47,6 +48,9 @@ abstract class AbstractConfigPropertyResource extends AlpineResource {
                 return check;
             }
             property = qm.persist(property);
+            if (ConfigPropertyConstants.INTERNAL_COMPONENTS_GROUPS_REGEX.getGroupName().equals(property.getGroupName())) {
+                InternalComponentIdentificationUtil.invalidate();
+            }
             IConfigProperty detached = qm.detach(property.getClass(), property.getId());
             if (IConfigProperty.PropertyType.ENCRYPTEDSTRING == detached.getPropertyType()) {
                 detached.setPropertyValue(ENCRYPTED_PLACEHOLDER);
@@ -18,8 +18,9 @@
  */
 package org.dependencytrack.resources.v1;
 
+import alpine.Config;
 import alpine.common.logging.Logger;
-import alpine.event.framework.Event;
+import alpine.common.util.UuidUtil;
 import alpine.server.auth.PermissionRequired;
 import alpine.server.resources.AlpineResource;
 import io.swagger.annotations.Api;
@@ -28,19 +29,24 @@ import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.Authorization;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.BOMInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.cyclonedx.CycloneDxMediaType;
 import org.cyclonedx.exception.GeneratorException;
 import org.dependencytrack.auth.Permissions;
+import org.dependencytrack.common.ConfigKey;
+import org.dependencytrack.event.BomSpoolService;
 import org.dependencytrack.event.BomUploadEvent;
+import org.dependencytrack.event.BomUploadEventService;
+import org.dependencytrack.event.BomUploadSession;
+import org.dependencytrack.exception.SizeLimitExceededException;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.Project;
 import org.dependencytrack.parser.cyclonedx.CycloneDXExporter;
 import org.dependencytrack.persistence.QueryManager;
 import org.dependencytrack.resources.v1.vo.BomSubmitRequest;
 import org.dependencytrack.resources.v1.vo.BomUploadResponse;
+import org.dependencytrack.resources.v1.vo.BomUploadSessionResponse;
 import org.dependencytrack.resources.v1.vo.IsTokenBeingProcessedResponse;
 import org.glassfish.jersey.media.multipart.BodyPartEntity;
 import org.glassfish.jersey.media.multipart.FormDataBodyPart;
@@ -49,17 +55,21 @@ import org.glassfish.jersey.media.multipart.FormDataParam;
 
 import javax.validation.Validator;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.Principal;
@@ -67,6 +77,8 @@ import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * JAX-RS resources for processing bill-of-material (bom) documents.
@@ -78,6 +90,11 @@ import java.util.UUID;
 @Api(value = "bom", authorizations = @Authorization(value = "X-Api-Key"))
 public class BomResource extends AlpineResource {
 
+    /**
+     * Matches Content-Range headers of the forms {@code bytes <first>-<last>/<total>},
+     * {@code bytes <first>-<last>/*}, and {@code bytes *&#47;<total>}.
+     */
+    private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("^bytes (?:(\\d+)-(\\d+)|\\*)/(\\d+|\\*)$");
     private static final Logger LOGGER = Logger.getLogger(BomResource.class);
 
     @GET
@@ -197,11 +214,14 @@ public class BomResource extends AlpineResource {
     @PUT
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    @ApiOperation(value = "Upload a supported bill of material format document", notes = "Expects CycloneDX along and a valid project UUID. If a UUID is not specified, then the projectName and projectVersion must be specified. Optionally, if autoCreate is specified and 'true' and the project does not exist, the project will be created. In this scenario, the principal making the request will additionally need the PORTFOLIO_MANAGEMENT or PROJECT_CREATION_UPLOAD permission.", response = BomUploadResponse.class, nickname = "UploadBomBase64Encoded")
+    @ApiOperation(value = "Upload a supported bill of material format document", notes = "Expects CycloneDX along and a valid project UUID. If a UUID is not specified, then the projectName and projectVersion must be specified. Optionally, if autoCreate is specified and 'true' and the project does not exist, the project will be created. In this scenario, the principal making the request will additionally need the PORTFOLIO_MANAGEMENT or PROJECT_CREATION_UPLOAD permission. BOMs that are identical to the last BOM processed for the project are not processed again, unless forceReprocessing is specified and 'true'.", response = BomUploadResponse.class, nickname = "UploadBomBase64Encoded")
     @ApiResponses(value = {
             @ApiResponse(code = 401, message = "Unauthorized"),
             @ApiResponse(code = 403, message = "Access to the specified project is forbidden"),
-            @ApiResponse(code = 404, message = "The project could not be found")
+            @ApiResponse(code = 404, message = "The project could not be found"),
+            @ApiResponse(code = 413, message = "The BOM exceeds the maximum size"),
+            @ApiResponse(code = 429, message = "Too many BOMs are pending processing"),
+            @ApiResponse(code = 503, message = "BOM processing is unavailable")
     })
     @PermissionRequired(Permissions.Constants.BOM_UPLOAD)
     public Response uploadBom(BomSubmitRequest request) {
@@ -213,7 +233,7 @@ public class BomResource extends AlpineResource {
             );
             try (QueryManager qm = new QueryManager()) {
                 final Project project = qm.getObjectByUuid(Project.class, request.getProject());
-                return process(qm, project, request.getBom());
+                return process(qm, project, request.getBom(), request.isForceReprocessing());
             }
         } else { // additional behavior added in v3.1.0
             failOnValidationError(
@@ -254,7 +274,7 @@ public class BomResource extends AlpineResource {
                         return Response.status(Response.Status.UNAUTHORIZED).entity("The principal does not have permission to create project.").build();
                     }
                 }
-                return process(qm, project, request.getBom());
+                return process(qm, project, request.getBom(), request.isForceReprocessing());
             }
         }
     }
@@ -262,11 +282,14 @@ public class BomResource extends AlpineResource {
     @POST
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     @Produces(MediaType.APPLICATION_JSON)
-    @ApiOperation(value = "Upload a supported bill of material format document", notes = "Expects CycloneDX along and a valid project UUID. If a UUID is not specified, then the projectName and projectVersion must be specified. Optionally, if autoCreate is specified and 'true' and the project does not exist, the project will be created. In this scenario, the principal making the request will additionally need the PORTFOLIO_MANAGEMENT or PROJECT_CREATION_UPLOAD permission.", response = BomUploadResponse.class, nickname = "UploadBom")
+    @ApiOperation(value = "Upload a supported bill of material format document", notes = "Expects CycloneDX along and a valid project UUID. If a UUID is not specified, then the projectName and projectVersion must be specified. Optionally, if autoCreate is specified and 'true' and the project does not exist, the project will be created. In this scenario, the principal making the request will additionally need the PORTFOLIO_MANAGEMENT or PROJECT_CREATION_UPLOAD permission. BOMs that are identical to the last BOM processed for the project are not processed again, unless forceReprocessing is specified and 'true'.", response = BomUploadResponse.class, nickname = "UploadBom")
     @ApiResponses(value = {
             @ApiResponse(code = 401, message = "Unauthorized"),
             @ApiResponse(code = 403, message = "Access to the specified project is forbidden"),
-            @ApiResponse(code = 404, message = "The project could not be found")
+            @ApiResponse(code = 404, message = "The project could not be found"),
+            @ApiResponse(code = 413, message = "The BOM exceeds the maximum size"),
+            @ApiResponse(code = 429, message = "Too many BOMs are pending processing"),
+            @ApiResponse(code = 503, message = "BOM processing is unavailable")
     })
     @PermissionRequired(Permissions.Constants.BOM_UPLOAD)
     public Response uploadBom(@FormDataParam("project") String projectUuid,
@@ -276,13 +299,14 @@ public class BomResource extends AlpineResource {
                                @FormDataParam("parentName") String parentName,
                                @FormDataParam("parentVersion") String parentVersion,
                                @FormDataParam("parentUUID") String parentUUID,
+                               @DefaultValue("false") @FormDataParam("forceReprocessing") boolean forceReprocessing,
                                final FormDataMultiPart multiPart) {
 
         final List<FormDataBodyPart> artifactParts = multiPart.getFields("bom");
         if (projectUuid != null) { // behavior in v3.0.0
             try (QueryManager qm = new QueryManager()) {
                 final Project project = qm.getObjectByUuid(Project.class, projectUuid);
-                return process(qm, project, artifactParts);
+                return process(qm, project, artifactParts, forceReprocessing);
             }
         } else { // additional behavior added in v3.1.0
             try (QueryManager qm = new QueryManager()) {
@@ -315,9 +339,168 @@ public class BomResource extends AlpineResource {
                         return Response.status(Response.Status.UNAUTHORIZED).entity("The principal does not have permission to create project.").build();
                     }
                 }
-                return process(qm, project, artifactParts);
+                return process(qm, project, artifactParts, forceReprocessing);
+            }
+        }
+    }
+
+    @POST
+    @Path("/session")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Starts a resumable upload of a supported bill of material format document", notes = "The BOM is transferred in one or more consecutive ranges using PUT /v1/bom/session/{uuid}. Sessions that are not modified for the configured session timeout expire. BOMs that are identical to the last BOM processed for the project are not processed again, unless forceReprocessing is specified and 'true'.", response = BomUploadSessionResponse.class, code = 201)
+    @ApiResponses(value = {
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Access to the specified project is forbidden"),
+            @ApiResponse(code = 404, message = "The project could not be found")
+    })
+    @PermissionRequired(Permissions.Constants.BOM_UPLOAD)
+    public Response createUploadSession(
+            @ApiParam(value = "The UUID of the project to upload the BOM to", required = true)
+            @QueryParam("project") String projectUuid,
+            @DefaultValue("false") @QueryParam("forceReprocessing") boolean forceReprocessing) {
+        try (QueryManager qm = new QueryManager()) {
+            final Project project = UuidUtil.isValidUUID(projectUuid) ? qm.getObjectByUuid(Project.class, projectUuid) : null;
+            if (project == null) {
+                return Response.status(Response.Status.NOT_FOUND).entity("The project could not be found.").build();
+            }
+            if (! qm.hasAccess(super.getPrincipal(), project)) {
+                return Response.status(Response.Status.FORBIDDEN).entity("Access to the specified project is forbidden").build();
+            }
+            try {
+                final BomUploadSession session = BomSpoolService.getInstance().createUploadSession(project.getUuid(), forceReprocessing);
+                return Response.status(Response.Status.CREATED).entity(createUploadSessionResponse(session)).build();
+            } catch (IOException e) {
+                LOGGER.error("Failed to create upload session for project " + project.getUuid(), e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+            }
+        }
+    }
+
+    @PUT
+    @Path("/session/{uuid}")
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Transfers a range of a resumable bill of material upload", notes = "The request body is streamed to disk. The range is specified using the Content-Range header, e.g. 'bytes 0-1048575/5242880'. A Content-Range of 'bytes */5242880' with an empty body queries the status of the upload. The Content-Range header is required, and the upload only completes once the total size it declares was received. While the upload is incomplete, status 308 is returned, with a Range header indicating the bytes received so far. Once all bytes were received, the BOM is decompressed if necessary, and submitted for processing. Uploads exceeding the configured maximum size are aborted.", response = BomUploadResponse.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 308, message = "The upload is incomplete"),
+            @ApiResponse(code = 400, message = "The Content-Range header is missing, invalid, or does not match the request body"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Access to the specified project is forbidden"),
+            @ApiResponse(code = 404, message = "The upload session or project could not be found"),
+            @ApiResponse(code = 413, message = "The BOM exceeds the maximum size"),
+            @ApiResponse(code = 416, message = "The range does not start at the number of bytes received so far"),
+            @ApiResponse(code = 429, message = "Too many BOMs are pending processing"),
+            @ApiResponse(code = 503, message = "BOM processing is unavailable")
+    })
+    @PermissionRequired(Permissions.Constants.BOM_UPLOAD)
+    public Response uploadBomRange(
+            @ApiParam(value = "The UUID of the upload session", required = true)
+            @PathParam("uuid") String uuid,
+            @HeaderParam("Content-Range") String contentRange,
+            final InputStream inputStream) {
+        final BomSpoolService spoolService = BomSpoolService.getInstance();
+        final BomUploadSession session = UuidUtil.isValidUUID(uuid) ? spoolService.getUploadSession(UUID.fromString(uuid)) : null;
+        if (session == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("The upload session could not be found.").build();
+        }
+        try (QueryManager qm = new QueryManager()) {
+            final Project project = qm.getObjectByUuid(Project.class, session.getProjectUuid());
+            if (project == null) {
+                spoolService.abortUploadSession(session);
+                return Response.status(Response.Status.NOT_FOUND).entity("The project could not be found.").build();
+            }
+            if (! qm.hasAccess(super.getPrincipal(), project)) {
+                return Response.status(Response.Status.FORBIDDEN).entity("Access to the specified project is forbidden").build();
+            }
+        }
+
+        // The total size is required to tell a complete upload apart from a truncated one.
+        if (contentRange == null) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("The Content-Range header is required.").build();
+        }
+        final Matcher matcher = CONTENT_RANGE_PATTERN.matcher(contentRange.trim());
+        if (!matcher.matches()) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("Invalid Content-Range header.").build();
+        }
+        final long maxSize = Config.getInstance().getPropertyAsLong(ConfigKey.BOM_UPLOAD_MAX_SIZE);
+        final long firstByte = matcher.group(1) != null ? Long.parseLong(matcher.group(1)) : session.getReceivedBytes();
+        final long lastByte = matcher.group(2) != null ? Long.parseLong(matcher.group(2)) : -1;
+        final long totalBytes = "*".equals(matcher.group(3)) ? -1 : Long.parseLong(matcher.group(3));
+        if ((lastByte >= 0 && lastByte < firstByte) || (totalBytes >= 0 && lastByte >= totalBytes)) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("Invalid Content-Range header.").build();
+        }
+        if (totalBytes > maxSize) {
+            spoolService.abortUploadSession(session);
+            return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE).entity("The BOM exceeds the maximum size of " + maxSize + " bytes.").build();
+        }
+
+        try {
+            if (!session.append(firstByte, inputStream, totalBytes >= 0 ? totalBytes : maxSize)) {
+                return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header("Content-Range", "bytes */" + session.getReceivedBytes())
+                        .entity(createUploadSessionResponse(session)).build();
             }
+        } catch (SizeLimitExceededException e) {
+            spoolService.abortUploadSession(session);
+            return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE).entity("The BOM exceeds the maximum size of " + e.getLimit() + " bytes.").build();
+        } catch (IOException e) {
+            // Most likely the client disconnected. All bytes received until then are retained.
+            LOGGER.warn("Transfer of BOM for upload session %s was interrupted after %d bytes"
+                    .formatted(session.getUuid(), session.getReceivedBytes()));
+            return incompleteUploadResponse(session, Response.Status.BAD_REQUEST.getStatusCode());
+        }
+
+        final long receivedBytes = session.getReceivedBytes();
+        if (lastByte >= 0 && receivedBytes != lastByte + 1) {
+            return incompleteUploadResponse(session, Response.Status.BAD_REQUEST.getStatusCode());
+        }
+        if (receivedBytes != totalBytes) {
+            return incompleteUploadResponse(session, 308);
+        }
+
+        final File spoolFile;
+        try {
+            spoolFile = spoolService.completeUploadSession(session, maxSize);
+        } catch (SizeLimitExceededException e) {
+            return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE).entity("The decompressed BOM exceeds the maximum size of " + e.getLimit() + " bytes.").build();
+        } catch (IOException e) {
+            LOGGER.error("Failed to complete upload session " + session.getUuid(), e);
+            return Response.status(Response.Status.BAD_REQUEST).entity("The BOM could not be decompressed.").build();
+        }
+        final BomUploadEvent bomUploadEvent = new BomUploadEvent(session.getProjectUuid(), spoolFile, session.isForceReprocessing());
+        if (!BomUploadEventService.getInstance().offer(bomUploadEvent)) {
+            return rejectedResponse();
         }
+        final var bomUploadResponse = new BomUploadResponse();
+        bomUploadResponse.setToken(bomUploadEvent.getChainIdentifier());
+        return Response.ok(bomUploadResponse).build();
+    }
+
+    @DELETE
+    @Path("/session/{uuid}")
+    @ApiOperation(value = "Aborts a resumable upload of a bill of material document", code = 204)
+    @ApiResponses(value = {
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Access to the specified project is forbidden"),
+            @ApiResponse(code = 404, message = "The upload session could not be found")
+    })
+    @PermissionRequired(Permissions.Constants.BOM_UPLOAD)
+    public Response abortUploadSession(
+            @ApiParam(value = "The UUID of the upload session", required = true)
+            @PathParam("uuid") String uuid) {
+        final BomSpoolService spoolService = BomSpoolService.getInstance();
+        final BomUploadSession session = UuidUtil.isValidUUID(uuid) ? spoolService.getUploadSession(UUID.fromString(uuid)) : null;
+        if (session == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("The upload session could not be found.").build();
+        }
+        try (QueryManager qm = new QueryManager()) {
+            final Project project = qm.getObjectByUuid(Project.class, session.getProjectUuid());
+            if (project != null && !qm.hasAccess(super.getPrincipal(), project)) {
+                return Response.status(Response.Status.FORBIDDEN).entity("Access to the specified project is forbidden").build();
+            }
+        }
+        spoolService.abortUploadSession(session);
+        return Response.status(Response.Status.NO_CONTENT).build();
     }
 
     @GET
@@ -332,30 +515,28 @@ public class BomResource extends AlpineResource {
     public Response isTokenBeingProcessed (
             @ApiParam(value = "The UUID of the token to query", required = true)
             @PathParam("uuid") String uuid) {
-
-        final boolean value = Event.isEventBeingProcessed(UUID.fromString(uuid));
-
-        IsTokenBeingProcessedResponse response = new IsTokenBeingProcessedResponse();
-
-        response.setProcessing(value);
-
-        return Response.ok(response).build();
+        return Response.ok(BomUploadEventService.getInstance().isTokenBeingProcessed(UUID.fromString(uuid))).build();
     }
 
     /**
      * Common logic that processes a BOM given a project and encoded payload.
      */
-    private Response process(QueryManager qm, Project project, String encodedBomData) {
+    private Response process(QueryManager qm, Project project, String encodedBomData, boolean forceReprocessing) {
         if (project != null) {
             if (! qm.hasAccess(super.getPrincipal(), project)) {
                 return Response.status(Response.Status.FORBIDDEN).entity("Access to the specified project is forbidden").build();
             }
             final byte[] decoded = Base64.getDecoder().decode(encodedBomData);
             try (final ByteArrayInputStream bain = new ByteArrayInputStream(decoded)) {
-                final byte[] content = IOUtils.toByteArray(new BOMInputStream((bain)));
-                final BomUploadEvent bomUploadEvent = new BomUploadEvent(project.getUuid(), content);
-                Event.dispatch(bomUploadEvent);
+                final File spoolFile = BomSpoolService.getInstance().spool(new BOMInputStream((bain)),
+                        Config.getInstance().getPropertyAsLong(ConfigKey.BOM_UPLOAD_MAX_SIZE));
+                final BomUploadEvent bomUploadEvent = new BomUploadEvent(project.getUuid(), spoolFile, forceReprocessing);
+                if (!BomUploadEventService.getInstance().offer(bomUploadEvent)) {
+                    return rejectedResponse();
+                }
                 return Response.ok(Collections.singletonMap("token", bomUploadEvent.getChainIdentifier())).build();
+            } catch (SizeLimitExceededException e) {
+                return bomTooLargeResponse(e);
             } catch (IOException e) {
                 return Response.status(Response.Status.BAD_REQUEST).build();
             }
@@ -367,7 +548,7 @@ public class BomResource extends AlpineResource {
     /**
      * Common logic that processes a BOM given a project and list of multi-party form objects containing decoded payloads.
      */
-    private Response process(QueryManager qm, Project project, List<FormDataBodyPart> artifactParts) {
+    private Response process(QueryManager qm, Project project, List<FormDataBodyPart> artifactParts, boolean forceReprocessing) {
         for (final FormDataBodyPart artifactPart: artifactParts) {
             final BodyPartEntity bodyPartEntity = (BodyPartEntity) artifactPart.getEntity();
             if (project != null) {
@@ -375,17 +556,22 @@ public class BomResource extends AlpineResource {
                     return Response.status(Response.Status.FORBIDDEN).entity("Access to the specified project is forbidden").build();
                 }
                 try (InputStream in = bodyPartEntity.getInputStream()) {
-                    final byte[] content = IOUtils.toByteArray(new BOMInputStream((in)));
+                    final File spoolFile = BomSpoolService.getInstance().spool(new BOMInputStream((in)),
+                            Config.getInstance().getPropertyAsLong(ConfigKey.BOM_UPLOAD_MAX_SIZE));
                     // todo: make option to combine all the bom data so components are reconciled in a single pass.
                     // todo: https://github.com/DependencyTrack/dependency-track/issues/130
-                    final BomUploadEvent bomUploadEvent = new BomUploadEvent(project.getUuid(), content);
-                    Event.dispatch(bomUploadEvent);
+                    final BomUploadEvent bomUploadEvent = new BomUploadEvent(project.getUuid(), spoolFile, forceReprocessing);
+                    if (!BomUploadEventService.getInstance().offer(bomUploadEvent)) {
+                        return rejectedResponse();
+                    }
 
                     BomUploadResponse bomUploadResponse = new BomUploadResponse();
 
                     bomUploadResponse.setToken(bomUploadEvent.getChainIdentifier());
 
                     return Response.ok(bomUploadResponse).build();
+                } catch (SizeLimitExceededException e) {
+                    return bomTooLargeResponse(e);
                 } catch (IOException e) {
                     return Response.status(Response.Status.BAD_REQUEST).build();
                 }
@@ -396,4 +582,48 @@ public class BomResource extends AlpineResource {
         return Response.ok().build();
     }
 
+    private static BomUploadSessionResponse createUploadSessionResponse(final BomUploadSession session) {
+        final var response = new BomUploadSessionResponse();
+        response.setSession(session.getUuid());
+        response.setReceivedBytes(session.getReceivedBytes());
+        return response;
+    }
+
+    /**
+     * Builds the response for resumable uploads that are not complete yet.
+     * The Range header indicates the bytes received so far, and is omitted when no bytes were received yet.
+     */
+    private static Response incompleteUploadResponse(final BomUploadSession session, final int status) {
+        final long receivedBytes = session.getReceivedBytes();
+        final Response.ResponseBuilder responseBuilder = Response.status(status);
+        if (receivedBytes > 0) {
+            responseBuilder.header("Range", "bytes=0-" + (receivedBytes - 1));
+        }
+        return responseBuilder.entity(createUploadSessionResponse(session)).build();
+    }
+
+    /**
+     * Builds the response for uploads that exceed {@link ConfigKey#BOM_UPLOAD_MAX_SIZE}.
+     */
+    private static Response bomTooLargeResponse(final SizeLimitExceededException e) {
+        return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                .entity("The BOM exceeds the maximum size of " + e.getLimit() + " bytes.").build();
+    }
+
+    /**
+     * Builds the response for uploads that could not be submitted for processing.
+     * Clients are asked to retry after {@link ConfigKey#BOM_PROCESSING_QUEUE_RETRY_AFTER_SECONDS}.
+     */
+    private static Response rejectedResponse() {
+        final int retryAfterSeconds = Config.getInstance().getPropertyAsInt(ConfigKey.BOM_PROCESSING_QUEUE_RETRY_AFTER_SECONDS);
+        if (BomUploadEventService.getInstance().isShutdown()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .entity("BOM processing is unavailable.").build();
+        }
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .entity("Too many BOMs are pending processing. Please retry later.").build();
+    }
+
 }
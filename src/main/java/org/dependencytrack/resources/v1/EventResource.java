@@ -18,7 +18,6 @@
  */
 package org.dependencytrack.resources.v1;
 
-import alpine.event.framework.Event;
 import alpine.server.resources.AlpineResource;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -26,6 +25,7 @@ import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.Authorization;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
+import org.dependencytrack.event.BomUploadEventService;
 import org.dependencytrack.resources.v1.vo.IsTokenBeingProcessedResponse;
 
 import javax.ws.rs.GET;
@@ -54,16 +54,16 @@ public class EventResource extends AlpineResource {
                     "The token can then be queried using this endpoint to determine if the task is complete. " +
                     "A value of true indicates processing is occurring. A value of false indicates that no processing is " +
                     "occurring for the specified token. However, a value of false also does not confirm the token is valid, " +
-                    "only that no processing is associated with the specified token.", response = IsTokenBeingProcessedResponse.class)
+                    "only that no processing is associated with the specified token. " +
+                    "If the BOM upload associated with the token was superseded by a later upload to the same project before " +
+                    "it was processed, the token of that upload is returned as supersededBy, and processing reflects its state.",
+            response = IsTokenBeingProcessedResponse.class)
     @ApiResponses(value = {
             @ApiResponse(code = 401, message = "Unauthorized")
     })
     public Response isTokenBeingProcessed (
             @ApiParam(value = "The UUID of the token to query", required = true)
             @PathParam("uuid") String uuid) {
-        final boolean value = Event.isEventBeingProcessed(UUID.fromString(uuid));
-        IsTokenBeingProcessedResponse response = new IsTokenBeingProcessedResponse();
-        response.setProcessing(value);
-        return Response.ok(response).build();
+        return Response.ok(BomUploadEventService.getInstance().isTokenBeingProcessed(UUID.fromString(uuid))).build();
     }
 }
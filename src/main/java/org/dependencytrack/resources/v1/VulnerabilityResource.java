@@ -37,6 +37,7 @@ import org.dependencytrack.model.Vulnerability;
 import org.dependencytrack.model.VulnerableSoftware;
 import org.dependencytrack.parser.common.resolver.CweResolver;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.persistence.VulnerableSoftwareIndex;
 import org.dependencytrack.resources.v1.vo.AffectedComponent;
 import org.dependencytrack.resources.v1.vo.AffectedProject;
 import org.dependencytrack.tasks.scanners.AnalyzerIdentity;
@@ -304,6 +305,7 @@ public class VulnerabilityResource extends AlpineResource {
                 qm.updateAffectedVersionAttributions(vulnerability, vsList, Vulnerability.Source.INTERNAL);
                 vulnerability.setVulnerableSoftware(vsList);
                 qm.persist(vulnerability);
+                VulnerableSoftwareIndex.getInstance().update(vsList);
                 return Response.status(Response.Status.CREATED).entity(vulnerability).build();
             } else {
                 return Response.status(Response.Status.CONFLICT).entity("A vulnerability with the specified vulnId already exists.").build();
@@ -378,6 +380,7 @@ public class VulnerabilityResource extends AlpineResource {
                 vsList = qm.reconcileVulnerableSoftware(vulnerability, vsListOld, vsList, Vulnerability.Source.INTERNAL);
                 vulnerability.setVulnerableSoftware(vsList);
                 qm.persist(vulnerability);
+                VulnerableSoftwareIndex.getInstance().update(vsList);
                 return Response.ok(vulnerability).build();
             } else {
                 return Response.status(Response.Status.NOT_FOUND).entity("The vulnerability could not be found.").build();
@@ -67,6 +67,8 @@ public final class BomSubmitRequest {
 
     private final boolean autoCreate;
 
+    private final boolean forceReprocessing;
+
     public BomSubmitRequest(String project,
                             String projectName,
                             String projectVersion,
@@ -75,6 +77,17 @@ public final class BomSubmitRequest {
         this(project, projectName, projectVersion, autoCreate, null, null, null, bom);
     }
 
+    public BomSubmitRequest(String project,
+                            String projectName,
+                            String projectVersion,
+                            boolean autoCreate,
+                            String parentUUID,
+                            String parentName,
+                            String parentVersion,
+                            String bom) {
+        this(project, projectName, projectVersion, autoCreate, parentUUID, parentName, parentVersion, bom, false);
+    }
+
     @JsonCreator
     public BomSubmitRequest(@JsonProperty(value = "project", required = false) String project,
                             @JsonProperty(value = "projectName", required = false) String projectName,
@@ -83,7 +96,8 @@ public final class BomSubmitRequest {
                             @JsonProperty(value = "parentUUID", required = false) String parentUUID,
                             @JsonProperty(value = "parentName", required = false) String parentName,
                             @JsonProperty(value = "parentVersion", required = false) String parentVersion,
-                            @JsonProperty(value = "bom", required = true) String bom) {
+                            @JsonProperty(value = "bom", required = true) String bom,
+                            @JsonProperty(value = "forceReprocessing", required = false) boolean forceReprocessing) {
         this.project = project;
         this.projectName = projectName;
         this.projectVersion = projectVersion;
@@ -92,6 +106,7 @@ public final class BomSubmitRequest {
         this.parentName = parentName;
         this.parentVersion = parentVersion;
         this.bom = bom;
+        this.forceReprocessing = forceReprocessing;
     }
 
     public String getProject() {
@@ -126,4 +141,8 @@ public final class BomSubmitRequest {
         return bom;
     }
 
+    public boolean isForceReprocessing() {
+        return forceReprocessing;
+    }
+
 }
@@ -0,0 +1,51 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.resources.v1.vo;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import io.swagger.annotations.ApiModelProperty;
+
+public class BomUploadSessionResponse implements Serializable {
+
+    private static final long serialVersionUID = 2961370415625153722L;
+
+    @ApiModelProperty(required = true, value = "Identifier of the upload session, used to transfer the BOM")
+    private UUID session;
+
+    @ApiModelProperty(required = true, value = "Number of bytes received for the upload session so far")
+    private long receivedBytes;
+
+    public void setSession(UUID session) {
+        this.session = session;
+    }
+
+    public UUID getSession() {
+        return this.session;
+    }
+
+    public void setReceivedBytes(long receivedBytes) {
+        this.receivedBytes = receivedBytes;
+    }
+
+    public long getReceivedBytes() {
+        return this.receivedBytes;
+    }
+}
@@ -19,7 +19,9 @@
 package org.dependencytrack.resources.v1.vo;
 
 import java.io.Serializable;
+import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.annotations.ApiModelProperty;
 
 public class IsTokenBeingProcessedResponse implements Serializable {
@@ -29,6 +31,10 @@ public class IsTokenBeingProcessedResponse implements Serializable {
     @ApiModelProperty(required = true)
     private Boolean processing;
 
+    @ApiModelProperty(value = "The token of the BOM upload that superseded the upload associated with the queried token")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID supersededBy;
+
     public void setProcessing(Boolean processing) {
         this.processing = processing;
     }
@@ -36,4 +42,12 @@ public class IsTokenBeingProcessedResponse implements Serializable {
     public Boolean getProcessing() {
         return this.processing;
     }
+
+    public void setSupersededBy(UUID supersededBy) {
+        this.supersededBy = supersededBy;
+    }
+
+    public UUID getSupersededBy() {
+        return this.supersededBy;
+    }
 }
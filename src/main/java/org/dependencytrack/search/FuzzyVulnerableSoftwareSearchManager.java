@@ -22,6 +22,8 @@ import alpine.common.logging.Logger;
 import alpine.event.framework.Event;
 import alpine.notification.Notification;
 import alpine.notification.NotificationLevel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.Sets;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.document.Document;
@@ -29,6 +31,7 @@ import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.IndexableField;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
@@ -50,19 +53,35 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 
+/**
+ * Performs fuzzy matching of components against the {@link VulnerableSoftware} search index.
+ * <p>
+ * Search results are cached for the lifetime of an instance, such that components sharing the same
+ * search terms do not hit the index (or the database) again. Instances are thus meant to be used
+ * for the duration of a single analysis, by a single thread, and with a single {@link QueryManager}.
+ * As an analysis may span the entire portfolio, the cache is bounded by the number of results it holds.
+ */
 public class FuzzyVulnerableSoftwareSearchManager {
 
     private static final Logger LOGGER = Logger.getLogger(FuzzyVulnerableSoftwareSearchManager.class);
     private static final Set<String> DO_NOT_FUZZ = Set.of("util", "utils", "url", "xml");
+    private static final Set<String> UUID_FIELD = Set.of(IndexConstants.VULNERABLESOFTWARE_UUID);
+    private static final int MAX_HITS = 1000;
+    private static final int MAX_CACHED_RESULTS = 50_000;
 
     private final boolean excludeComponentsWithPurl;
     private final Set<String> SKIP_LUCENE_FUZZING_FOR_TYPE = Sets.newHashSet("golang");
+    private final Cache<String, List<VulnerableSoftware>> resultCache = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHED_RESULTS)
+            .weigher((String luceneQuery, List<VulnerableSoftware> fuzzyList) -> 1 + fuzzyList.size())
+            .build();
+    private QueryParser queryParser;
     public FuzzyVulnerableSoftwareSearchManager(boolean excludeComponentsWithPurl) {
         this.excludeComponentsWithPurl = excludeComponentsWithPurl;
     }
@@ -165,14 +184,15 @@ public class FuzzyVulnerableSoftwareSearchManager {
         IndexManager indexManager = VulnerableSoftwareIndexer.getInstance();
         try {
             final Query query = indexManager.getQueryParser().parse(luceneQuery);
-            final TopDocs results = indexManager.getIndexSearcher().search(query,1000);
+            final IndexSearcher indexSearcher = indexManager.getIndexSearcher();
+            final TopDocs results = indexSearcher.search(query, MAX_HITS);
 
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Searching for: " + luceneQuery + " - Total Hits: " + results.totalHits);
             }
 
             for (final ScoreDoc scoreDoc: results.scoreDocs) {
-                final Document doc = indexManager.getIndexSearcher().doc(scoreDoc.doc);
+                final Document doc = indexSearcher.doc(scoreDoc.doc);
                 final Map<String, String> fields = new HashMap<>();
                 for (final IndexableField field: doc.getFields()) {
                     if (StringUtils.isNotBlank(field.stringValue())) {
@@ -182,7 +202,49 @@ public class FuzzyVulnerableSoftwareSearchManager {
                 resultSet.add(fields);
             }
             searchResult.addResultSet(indexManager.getIndexType().name().toLowerCase(), resultSet);
-        } catch (ParseException e) {
+        } catch (ParseException | IOException e) {
+            handleSearchException(indexManager, e);
+        }
+
+        indexManager.close();
+        return searchResult;
+    }
+
+    /**
+     * Searches the index for the UUIDs of matching {@link VulnerableSoftware}s.
+     * <p>
+     * Unlike {@link #searchIndex(String)}, only the UUID field of hits is loaded,
+     * and the {@link QueryParser} is reused across searches.
+     */
+    private List<UUID> searchUuids(final String luceneQuery) {
+        final IndexManager indexManager = VulnerableSoftwareIndexer.getInstance();
+        final List<UUID> uuids = new ArrayList<>();
+        try {
+            if (queryParser == null) {
+                queryParser = indexManager.getQueryParser();
+            }
+            final Query query = queryParser.parse(luceneQuery);
+            final IndexSearcher indexSearcher = indexManager.getIndexSearcher();
+            final TopDocs results = indexSearcher.search(query, MAX_HITS);
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Searching for: " + luceneQuery + " - Total Hits: " + results.totalHits);
+            }
+
+            for (final ScoreDoc scoreDoc : results.scoreDocs) {
+                final String uuid = indexSearcher.doc(scoreDoc.doc, UUID_FIELD).get(IndexConstants.VULNERABLESOFTWARE_UUID);
+                if (uuid != null) {
+                    uuids.add(UUID.fromString(uuid));
+                }
+            }
+        } catch (ParseException | IOException e) {
+            handleSearchException(indexManager, e);
+        }
+        return uuids;
+    }
+
+    private void handleSearchException(final IndexManager indexManager, final Exception e) {
+        if (e instanceof ParseException) {
             LOGGER.error("Failed to parse search string", e);
             Notification.dispatch(new Notification()
                     .scope(NotificationScope.SYSTEM)
@@ -191,7 +253,7 @@ public class FuzzyVulnerableSoftwareSearchManager {
                     .content("Failed to parse search string. Check log for details. " + e.getMessage())
                     .level(NotificationLevel.ERROR)
             );
-        } catch (CorruptIndexException e) {
+        } else if (e instanceof CorruptIndexException) {
             LOGGER.error("Corrupted Lucene index detected", e);
             Notification.dispatch(new Notification()
                     .scope(NotificationScope.SYSTEM)
@@ -202,7 +264,7 @@ public class FuzzyVulnerableSoftwareSearchManager {
             );
             LOGGER.info("Trying to rebuild the corrupted index "+indexManager.getIndexType().name());
             Event.dispatch(new IndexEvent(IndexEvent.Action.REINDEX, indexManager.getIndexType().getClazz()));
-        } catch (IOException e) {
+        } else {
             LOGGER.error("An I/O Exception occurred while searching Lucene index", e);
             Notification.dispatch(new Notification()
                     .scope(NotificationScope.SYSTEM)
@@ -212,22 +274,41 @@ public class FuzzyVulnerableSoftwareSearchManager {
                     .level(NotificationLevel.ERROR)
             );
         }
-
-        indexManager.close();
-        return searchResult;
     }
 
     private List<VulnerableSoftware> fuzzySearch(QueryManager qm, String luceneQuery) {
-        List<VulnerableSoftware>  fuzzyList = new LinkedList<>();
-        SearchResult sr = searchIndex(luceneQuery);
-        if (sr.getResults().containsKey("vulnerablesoftware")) {
-            for (Map<String, String> result : sr.getResults().get("vulnerablesoftware")) {
-                fuzzyList.add(qm.getObjectByUuid(VulnerableSoftware.class, result.get("uuid")));
-            }
+        // The query is derived from the part, vendor, and product being searched for,
+        // and thus uniquely identifies the search term.
+        final List<VulnerableSoftware> cachedResult = resultCache.getIfPresent(luceneQuery);
+        if (cachedResult != null) {
+            return cachedResult;
         }
+        final List<UUID> uuids = searchUuids(luceneQuery);
+        final List<VulnerableSoftware> fuzzyList = uuids.isEmpty()
+                ? Collections.emptyList()
+                : getVulnerableSoftwareByUuids(qm, uuids);
+        resultCache.put(luceneQuery, fuzzyList);
         return fuzzyList;
     }
 
+    /**
+     * Loads all hits with a single query, retaining the order in which they were ranked by the index.
+     */
+    private static List<VulnerableSoftware> getVulnerableSoftwareByUuids(final QueryManager qm, final List<UUID> uuids) {
+        final Map<UUID, VulnerableSoftware> vsByUuid = new HashMap<>();
+        for (final VulnerableSoftware vs : qm.getObjectsByUuids(VulnerableSoftware.class, uuids)) {
+            vsByUuid.put(vs.getUuid(), vs);
+        }
+        final List<VulnerableSoftware> fuzzyList = new ArrayList<>(uuids.size());
+        for (final UUID uuid : uuids) {
+            final VulnerableSoftware vs = vsByUuid.get(uuid);
+            if (vs != null) {
+                fuzzyList.add(vs);
+            }
+        }
+        return Collections.unmodifiableList(fuzzyList);
+    }
+
     public static String getLuceneCpeRegexp(String cpeString) {
         StringBuilder exp = new StringBuilder("cpe\\:");
         try {
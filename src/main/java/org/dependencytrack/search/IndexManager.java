@@ -85,6 +85,11 @@ public abstract class IndexManager implements AutoCloseable {
     private DirectoryReader searchReader;
     private final IndexType indexType;
 
+    /**
+     * {@link Analyzer}s are thread-safe, so a single instance is shared by all {@link QueryParser}s.
+     */
+    private final Analyzer queryAnalyzer = new StandardAnalyzer();
+
     /**
      * This methods should be overwritten.
      * @return an array of all fields that can be searched on
@@ -232,8 +237,7 @@ public abstract class IndexManager implements AutoCloseable {
      */
     protected QueryParser getQueryParser() {
         // DO NOT close (either manually or try-with-resource) the Analyzer
-        final Analyzer analyzer = new StandardAnalyzer();
-        MultiFieldQueryParser qparser = new MultiFieldQueryParser(getSearchFields(), analyzer, IndexConstants.getBoostMap());
+        MultiFieldQueryParser qparser = new MultiFieldQueryParser(getSearchFields(), queryAnalyzer, IndexConstants.getBoostMap());
         qparser.setAllowLeadingWildcard(true);
         return qparser;
     }
@@ -18,13 +18,18 @@
  */
 package org.dependencytrack.tasks;
 
+import alpine.Config;
 import alpine.common.logging.Logger;
+import alpine.event.framework.AbstractChainableEvent;
 import alpine.event.framework.Event;
 import alpine.event.framework.Subscriber;
 import alpine.notification.Notification;
 import alpine.notification.NotificationLevel;
 import org.cyclonedx.BomParserFactory;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
 import org.cyclonedx.parsers.Parser;
+import org.dependencytrack.common.ConfigKey;
 import org.dependencytrack.event.BomUploadEvent;
 import org.dependencytrack.event.NewVulnerableDependencyAnalysisEvent;
 import org.dependencytrack.event.PolicyEvaluationEvent;
@@ -33,6 +38,7 @@ import org.dependencytrack.event.VulnerabilityAnalysisEvent;
 import org.dependencytrack.model.Bom;
 import org.dependencytrack.model.Classifier;
 import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ComponentIdentity;
 import org.dependencytrack.model.ConfigPropertyConstants;
 import org.dependencytrack.model.Project;
 import org.dependencytrack.model.ProjectMetadata;
@@ -42,17 +48,39 @@ import org.dependencytrack.notification.NotificationGroup;
 import org.dependencytrack.notification.NotificationScope;
 import org.dependencytrack.notification.vo.BomConsumedOrProcessed;
 import org.dependencytrack.notification.vo.BomProcessingFailed;
+import org.dependencytrack.parser.cyclonedx.CycloneDXStreamingParser;
+import org.dependencytrack.parser.cyclonedx.util.BomFingerprint;
 import org.dependencytrack.parser.cyclonedx.util.ModelConverter;
+import org.dependencytrack.persistence.ComponentDiff;
 import org.dependencytrack.persistence.QueryManager;
 import org.dependencytrack.util.CompressUtil;
 import org.dependencytrack.util.InternalComponentIdentificationUtil;
 
+import org.json.JSONArray;
+
 import javax.jdo.FetchPlan;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -65,6 +93,27 @@ import java.util.stream.Collectors;
 public class BomUploadProcessingTask implements Subscriber {
 
     private static final Logger LOGGER = Logger.getLogger(BomUploadProcessingTask.class);
+    private static final int STREAMING_DETECTION_PREFIX_SIZE = 64 * 1024;
+    private static final String CYCLONEDX_XML_NAMESPACE = "http://cyclonedx.org/schema/bom/";
+    private static final Pattern CYCLONEDX_JSON_BOM_FORMAT_PATTERN = Pattern.compile("\"bomFormat\"\\s*:\\s*\"CycloneDX\"");
+
+    private final long streamingThreshold;
+    private final int streamingChunkSize;
+
+    public BomUploadProcessingTask() {
+        this(Config.getInstance().getPropertyAsLong(ConfigKey.BOM_PROCESSING_STREAMING_THRESHOLD),
+                Config.getInstance().getPropertyAsInt(ConfigKey.BOM_PROCESSING_STREAMING_CHUNK_SIZE));
+    }
+
+    /**
+     * @param streamingThreshold Size in bytes from which on BOMs are processed in streaming mode;
+     *                           A negative value disables streaming mode
+     * @param streamingChunkSize Number of top-level components to persist at once in streaming mode
+     */
+    BomUploadProcessingTask(final long streamingThreshold, final int streamingChunkSize) {
+        this.streamingThreshold = streamingThreshold;
+        this.streamingChunkSize = Math.max(1, streamingChunkSize);
+    }
 
     /**
      * {@inheritDoc}
@@ -76,7 +125,9 @@ public class BomUploadProcessingTask implements Subscriber {
             Bom.Format bomProcessingFailedBomFormat = null;
             String bomProcessingFailedBomVersion = null;
             final BomUploadEvent event = (BomUploadEvent) e;
-            final byte[] bomBytes = CompressUtil.optionallyDecompress(event.getBom());
+            BomSource bomSource = null;
+            // Only populated for BOMs that are not processed in streaming mode.
+            byte[] bomBytes = null;
             final QueryManager qm = new QueryManager();
             try {
                 final Project project =  qm.getObjectByUuid(Project.class, event.getProjectUuid(),
@@ -88,9 +139,36 @@ public class BomUploadProcessingTask implements Subscriber {
                     return;
                 }
 
+                // Failing to decompress the BOM, e.g. because it exceeds the maximum size,
+                // is reported like any other processing failure.
+                try {
+                    bomSource = openBom(event);
+                } finally {
+                    deleteSpooledBom(event);
+                }
+
+                final CycloneDXStreamingParser.Format streamingFormat = detectStreamingFormat(bomSource);
+                if (streamingFormat != null) {
+                    if (!qm.isEnabled(ConfigPropertyConstants.ACCEPT_ARTIFACT_CYCLONEDX)) {
+                        LOGGER.warn("A CycloneDX BOM was uploaded but accepting CycloneDX BOMs is disabled. Aborting");
+                        return;
+                    }
+                    bomProcessingFailedBomFormat = Bom.Format.CYCLONEDX;
+                    final var parser = new CycloneDXStreamingParser(streamingFormat);
+                    final CycloneDXStreamingParser.Header header;
+                    try (final InputStream inputStream = bomSource.open()) {
+                        header = parser.readHeader(inputStream);
+                    }
+                    bomProcessingFailedBomVersion = header.specVersion();
+                    processStreaming(qm.withL2CacheDisabled(), event, project, bomSource, parser, header);
+                    return;
+                }
+
+                bomBytes = bomSource.readAllBytes();
+
                 final List<Component> components;
                 final List<Component> newComponents = new ArrayList<>();
-                final List<Component> flattenedComponents = new ArrayList<>();
+                final List<Component> flattenedComponents;
                 final List<ServiceComponent> services;
                 final List<ServiceComponent> flattenedServices = new ArrayList<>();
 
@@ -101,7 +179,8 @@ public class BomUploadProcessingTask implements Subscriber {
                 final String bomSpecVersion;
                 final Integer bomVersion;
                 final String serialNumnber;
-                org.cyclonedx.model.Bom cycloneDxBom = null;
+                final String bomFingerprint;
+                final org.cyclonedx.model.Bom cycloneDxBom;
                 if (BomParserFactory.looksLikeCycloneDX(bomBytes)) {
                     if (qm.isEnabled(ConfigPropertyConstants.ACCEPT_ARTIFACT_CYCLONEDX)) {
                         LOGGER.info("Processing CycloneDX BOM uploaded to project: " + event.getProjectUuid());
@@ -112,47 +191,18 @@ public class BomUploadProcessingTask implements Subscriber {
                         bomSpecVersion = cycloneDxBom.getSpecVersion();
                         bomProcessingFailedBomVersion = bomSpecVersion;
                         bomVersion = cycloneDxBom.getVersion();
-                        if (cycloneDxBom.getMetadata() != null) {
-                            project.setManufacturer(ModelConverter.convert(cycloneDxBom.getMetadata().getManufacture()));
-
-                            final var projectMetadata = new ProjectMetadata();
-                            projectMetadata.setSupplier(ModelConverter.convert(cycloneDxBom.getMetadata().getSupplier()));
-                            projectMetadata.setAuthors(ModelConverter.convertCdxContacts(cycloneDxBom.getMetadata().getAuthors()));
-                            if (project.getMetadata() != null) {
-                                qm.runInTransaction(() -> {
-                                    project.getMetadata().setSupplier(projectMetadata.getSupplier());
-                                    project.getMetadata().setAuthors(projectMetadata.getAuthors());
-                                });
-                            } else {
-                                qm.runInTransaction(() -> {
-                                    projectMetadata.setProject(project);
-                                    qm.getPersistenceManager().makePersistent(projectMetadata);
-                                });
-                            }
-
-                            if (cycloneDxBom.getMetadata().getComponent() != null) {
-                                final org.cyclonedx.model.Component cdxMetadataComponent = cycloneDxBom.getMetadata().getComponent();
-                                if (cdxMetadataComponent.getType() != null && project.getClassifier() == null) {
-                                    try {
-                                        project.setClassifier(Classifier.valueOf(cdxMetadataComponent.getType().name()));
-                                    } catch (IllegalArgumentException ex) {
-                                        LOGGER.warn("""
-                                                The metadata.component element of the BOM is of unknown type %s. \
-                                                Known types are %s.""".formatted(cdxMetadataComponent.getType(),
-                                                Arrays.stream(Classifier.values()).map(Enum::name).collect(Collectors.joining(", "))));
-                                    }
-                                }
-                                if (cdxMetadataComponent.getSupplier() != null) {
-                                    project.setSupplier(ModelConverter.convert(cdxMetadataComponent.getSupplier()));
-                                }
-                            }
+                        serialNumnber = (cycloneDxBom.getSerialNumber() != null) ? cycloneDxBom.getSerialNumber().replaceFirst("urn:uuid:", "") : null;
+                        bomFingerprint = BomFingerprint.compute(cycloneDxBom);
+                        if (!event.isForceReprocessing() && isUnchanged(qm, project, bomFingerprint)) {
+                            recordUnchangedBom(qm, event, project, bomFormat, bomSpecVersion, bomVersion, serialNumnber, bomFingerprint);
+                            return;
                         }
+                        applyMetadata(qm, project, cycloneDxBom.getMetadata());
                         if (project.getClassifier() == null) {
                             project.setClassifier(Classifier.APPLICATION);
                         }
                         project.setExternalReferences(ModelConverter.convertBomMetadataExternalReferences(cycloneDxBom));
-                        serialNumnber = (cycloneDxBom.getSerialNumber() != null) ? cycloneDxBom.getSerialNumber().replaceFirst("urn:uuid:", "") : null;
-                        components = ModelConverter.convertComponents(qm, cycloneDxBom, project);
+                        components = ModelConverter.convertComponents(qm, cycloneDxBom, project, false);
                         services = ModelConverter.convertServices(qm, cycloneDxBom, project);
                     } else {
                         LOGGER.warn("A CycloneDX BOM was uploaded but accepting CycloneDX BOMs is disabled. Aborting");
@@ -169,50 +219,33 @@ public class BomUploadProcessingTask implements Subscriber {
                         .title(NotificationConstants.Title.BOM_CONSUMED)
                         .level(NotificationLevel.INFORMATIONAL)
                         .content("A " + bomFormat.getFormatShortName() + " BOM was consumed and will be processed")
-                        .subject(new BomConsumedOrProcessed(copyOfProject, Base64.getEncoder().encodeToString(bomBytes), bomFormat, bomSpecVersion)));
+                        .subject(new BomConsumedOrProcessed(copyOfProject, bomBytes, bomFormat, bomSpecVersion)));
                 final Date date = new Date();
                 final Bom bom = qm.createBom(project, date, bomFormat, bomSpecVersion, bomVersion, serialNumnber);
-                for (final Component component: components) {
-                    processComponent(qm, component, flattenedComponents, newComponents);
-                }
-                LOGGER.info("Identified " + newComponents.size() + " new components");
+                LOGGER.debug("Reconciling components for project " + event.getProjectUuid());
+                final ComponentDiff componentDiff = qm.reconcileComponents(project, existingProjectComponents, components);
+                flattenedComponents = componentDiff.components();
+                newComponents.addAll(qm.detach(componentDiff.added()));
+                LOGGER.info("Identified %d new, %d changed, %d unchanged, and %d removed components"
+                        .formatted(componentDiff.added().size(), componentDiff.changed().size(),
+                                componentDiff.unchanged().size(), componentDiff.removed().size()));
                 for (final ServiceComponent service: services) {
                     processService(qm, bom, service, flattenedServices);
                 }
                 if (Bom.Format.CYCLONEDX == bomFormat) {
                     LOGGER.info("Processing CycloneDX dependency graph for project: " + event.getProjectUuid());
-                    ModelConverter.generateDependencies(cycloneDxBom, project, components);
+                    qm.runInBulkTransaction(() -> ModelConverter.generateDependencies(cycloneDxBom, project, flattenedComponents));
                 }
-                LOGGER.debug("Reconciling components for project " + event.getProjectUuid());
-                qm.reconcileComponents(project, existingProjectComponents, flattenedComponents);
                 LOGGER.debug("Reconciling services for project " + event.getProjectUuid());
                 qm.reconcileServiceComponents(project, existingProjectServices, flattenedServices);
                 LOGGER.debug("Updating last import date for project " + event.getProjectUuid());
                 qm.updateLastBomImport(project, date, bomFormat.getFormatShortName() + " " + bomSpecVersion);
-                // Instead of firing off a new VulnerabilityAnalysisEvent, chain the VulnerabilityAnalysisEvent to
-                // the BomUploadEvent so that synchronous publishing mode (Jenkins) waits until vulnerability
-                // analysis has completed. If not chained, synchronous publishing mode will return immediately upon
-                // return from this method, resulting in inaccurate findings being returned in the response (since
-                // the vulnerability analysis hasn't taken place yet).
+                // Only record the fingerprint once processing succeeded, such that
+                // a failed BOM is processed again when it is uploaded another time.
+                qm.runInTransaction(() -> bom.setFingerprint(bomFingerprint));
                 final List<Component> detachedFlattenedComponent = qm.detach(flattenedComponents);
                 final Project detachedProject = qm.detach(Project.class, project.getId());
-                final VulnerabilityAnalysisEvent vae = new VulnerabilityAnalysisEvent(detachedFlattenedComponent).project(detachedProject);
-                vae.setChainIdentifier(event.getChainIdentifier());
-                if (!newComponents.isEmpty()) {
-                    // Whether a new dependency is vulnerable or not can only be determined after
-                    // vulnerability analysis completed.
-                    vae.onSuccess(new NewVulnerableDependencyAnalysisEvent(newComponents));
-                }
-                // Start PolicyEvaluationEvent when VulnerabilityAnalysisEvent is succesful
-                vae.onSuccess(new PolicyEvaluationEvent(detachedFlattenedComponent).project(detachedProject));
-                Event.dispatch(vae);
-
-                // Repository Metadata analysis
-                final var rme = new RepositoryMetaEvent(detachedFlattenedComponent);
-                // Start PolicyEvaluationEvent again when RepositoryMetaEvent is succesful,
-                // as it might trigger new violations
-                rme.onSuccess(new PolicyEvaluationEvent(detachedFlattenedComponent).project(detachedProject));
-                Event.dispatch(rme);
+                dispatchAnalysisEvents(event, detachedProject, detachedFlattenedComponent, newComponents);
 
                 LOGGER.info("Processed " + flattenedComponents.size() + " components and " + flattenedServices.size() + " services uploaded to project " + event.getProjectUuid());
                 Notification.dispatch(new Notification()
@@ -221,7 +254,7 @@ public class BomUploadProcessingTask implements Subscriber {
                         .title(NotificationConstants.Title.BOM_PROCESSED)
                         .level(NotificationLevel.INFORMATIONAL)
                         .content("A " + bomFormat.getFormatShortName() + " BOM was processed")
-                        .subject(new BomConsumedOrProcessed(detachedProject, Base64.getEncoder().encodeToString(bomBytes), bomFormat, bomSpecVersion)));
+                        .subject(new BomConsumedOrProcessed(detachedProject, bomBytes, bomFormat, bomSpecVersion)));
             } catch (Exception ex) {
                 LOGGER.error("Error while processing bom", ex);
                 if (bomProcessingFailedProject != null) {
@@ -233,31 +266,522 @@ public class BomUploadProcessingTask implements Subscriber {
                         .title(NotificationConstants.Title.BOM_PROCESSING_FAILED)
                         .level(NotificationLevel.ERROR)
                         .content("An error occurred while processing a BOM")
-                        .subject(new BomProcessingFailed(bomProcessingFailedProject, Base64.getEncoder().encodeToString(bomBytes), ex.getMessage(), bomProcessingFailedBomFormat, bomProcessingFailedBomVersion)));
+                        .subject(new BomProcessingFailed(bomProcessingFailedProject, bomBytes, ex.getMessage(), bomProcessingFailedBomFormat, bomProcessingFailedBomVersion)));
             } finally {
                 qm.commitSearchIndex(true, Component.class);
                 qm.commitSearchIndex(true, ServiceComponent.class);
                 qm.close();
+                deleteSpooledBom(event);
+                if (bomSource != null) {
+                    bomSource.close();
+                }
             }
         }
     }
 
-    private void processComponent(final QueryManager qm, Component component,
-                                  final List<Component> flattenedComponents,
-                                  final List<Component> newComponents) {
-        final boolean isNew = component.getUuid() == null;
-        component.setInternal(InternalComponentIdentificationUtil.isInternalComponent(component, qm));
-        component = qm.createComponent(component, false);
-        final long oid = component.getId();
-        // Refreshing the object by querying for it again is preventative
-        component = qm.getObjectById(Component.class, oid);
-        flattenedComponents.add(component);
-        if (isNew) {
-            newComponents.add(qm.detach(Component.class, component.getId()));
+    /**
+     * Decompresses the BOM of a given {@link BomUploadEvent}.
+     * <p>
+     * BOMs that were spooled to disk are decompressed into another file, without reading them into memory.
+     * BOMs that were uploaded in memory are decompressed in memory.
+     */
+    private static BomSource openBom(final BomUploadEvent event) throws IOException {
+        if (event.getFile() == null) {
+            return new BomSource(null, CompressUtil.optionallyDecompress(event.getBom()));
+        }
+        final Path spooledFile = event.getFile().toPath();
+        final Path decompressedFile = Files.createTempFile(spooledFile.toAbsolutePath().getParent(), "bom-", ".decompressed");
+        try (final InputStream inputStream = Files.newInputStream(spooledFile);
+             final OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(decompressedFile))) {
+            CompressUtil.optionallyDecompress(inputStream, outputStream,
+                    Config.getInstance().getPropertyAsLong(ConfigKey.BOM_UPLOAD_MAX_SIZE));
+        } catch (IOException e) {
+            Files.deleteIfExists(decompressedFile);
+            throw e;
+        }
+        return new BomSource(decompressedFile, null);
+    }
+
+    /**
+     * Deletes the spool file of a given {@link BomUploadEvent}, if any.
+     * The file is not needed anymore once the BOM was decompressed.
+     */
+    private static void deleteSpooledBom(final BomUploadEvent event) {
+        if (event.getFile() != null) {
+            try {
+                Files.deleteIfExists(event.getFile().toPath());
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to delete spooled BOM " + event.getFile(), ex);
+            }
+        }
+    }
+
+    /**
+     * Determines whether a BOM with the given fingerprint was the last BOM to be processed for {@code project}.
+     */
+    private static boolean isUnchanged(final QueryManager qm, final Project project, final String bomFingerprint) {
+        final Bom latestBom = qm.getLatestBom(project);
+        return latestBom != null && bomFingerprint.equals(latestBom.getFingerprint());
+    }
+
+    /**
+     * Records the upload of a BOM that is identical to the last BOM processed for {@code project},
+     * without processing it again.
+     */
+    private static void recordUnchangedBom(final QueryManager qm, final BomUploadEvent event, final Project project,
+                                           final Bom.Format bomFormat, final String bomSpecVersion, final Integer bomVersion,
+                                           final String serialNumber, final String bomFingerprint) {
+        LOGGER.info("The CycloneDX BOM uploaded to project " + event.getProjectUuid()
+                + " is identical to the last BOM processed for it; Skipping processing");
+        final Date date = new Date();
+        final Bom bom = qm.createBom(project, date, bomFormat, bomSpecVersion, bomVersion, serialNumber);
+        qm.runInTransaction(() -> bom.setFingerprint(bomFingerprint));
+        qm.updateLastBomImport(project, date, bomFormat.getFormatShortName() + " " + bomSpecVersion);
+    }
+
+    /**
+     * Determines whether a BOM is to be processed in streaming mode, and if so, which format it is in.
+     * <p>
+     * Only the beginning of the BOM is inspected, such that it does not have to be read into memory.
+     * BOMs that do not declare themselves as CycloneDX early on are processed as usual.
+     *
+     * @return The {@link CycloneDXStreamingParser.Format} of the BOM, or {@code null} when it is not to be streamed
+     */
+    private CycloneDXStreamingParser.Format detectStreamingFormat(final BomSource bomSource) throws IOException {
+        if (streamingThreshold < 0 || bomSource.size() < streamingThreshold) {
+            return null;
+        }
+        final String prefix = new String(bomSource.readPrefix(STREAMING_DETECTION_PREFIX_SIZE), StandardCharsets.UTF_8).stripLeading();
+        if (prefix.startsWith("<") && prefix.contains(CYCLONEDX_XML_NAMESPACE)) {
+            return CycloneDXStreamingParser.Format.XML;
+        } else if (prefix.startsWith("{") && CYCLONEDX_JSON_BOM_FORMAT_PATTERN.matcher(prefix).find()) {
+            return CycloneDXStreamingParser.Format.JSON;
+        }
+        return null;
+    }
+
+    /**
+     * Processes a CycloneDX BOM without parsing it into memory in its entirety.
+     * <p>
+     * The BOM is read from {@code bomSource} in multiple passes: The first pass (performed by the caller) verifies
+     * that the document is well-formed. The second pass computes the fingerprint of the BOM, such that processing
+     * of BOMs identical to the last BOM processed for the project can be skipped. The third pass converts and
+     * persists components in chunks of {@link #streamingChunkSize} top-level components. Only once all components
+     * are persisted, the fourth pass resolves the dependency graph, again in chunks. Besides the IDs of the processed
+     * components, and a mapping of their bom-refs to those IDs, nothing is held in memory across chunks.
+     * Components are finally loaded again by their IDs, in chunks, to dispatch their analysis.
+     * <p>
+     * Notifications of BOMs processed in streaming mode do not include the BOM itself.
+     */
+    private void processStreaming(final QueryManager qm, final BomUploadEvent event, final Project project,
+                                  final BomSource bomSource, final CycloneDXStreamingParser parser,
+                                  final CycloneDXStreamingParser.Header header) throws Exception {
+        LOGGER.info("Processing CycloneDX BOM uploaded to project %s in streaming mode (%d bytes)"
+                .formatted(event.getProjectUuid(), bomSource.size()));
+        final Bom.Format bomFormat = Bom.Format.CYCLONEDX;
+        final String serialNumber = (header.serialNumber() != null) ? header.serialNumber().replaceFirst("urn:uuid:", "") : null;
+        final String bomFingerprint;
+        try (final InputStream inputStream = bomSource.open()) {
+            bomFingerprint = BomFingerprint.compute(parser, inputStream, header.specVersion());
+        }
+        if (!event.isForceReprocessing() && isUnchanged(qm, project, bomFingerprint)) {
+            recordUnchangedBom(qm, event, project, bomFormat, header.specVersion(), header.version(), serialNumber, bomFingerprint);
+            return;
+        }
+
+        final Project copyOfProject = qm.detach(Project.class, project.getId());
+        Notification.dispatch(new Notification()
+                .scope(NotificationScope.PORTFOLIO)
+                .group(NotificationGroup.BOM_CONSUMED)
+                .title(NotificationConstants.Title.BOM_CONSUMED)
+                .level(NotificationLevel.INFORMATIONAL)
+                .content("A " + bomFormat.getFormatShortName() + " BOM was consumed and will be processed")
+                .subject(new BomConsumedOrProcessed(copyOfProject, (byte[]) null, bomFormat, header.specVersion())));
+
+        final var ctx = new StreamingContext();
+        final List<ServiceComponent> services = new ArrayList<>();
+        final List<org.cyclonedx.model.Component> chunk = new ArrayList<>(streamingChunkSize);
+        try (final InputStream inputStream = bomSource.open()) {
+            parser.parse(inputStream,
+                    EnumSet.of(CycloneDXStreamingParser.Section.METADATA, CycloneDXStreamingParser.Section.COMPONENTS, CycloneDXStreamingParser.Section.SERVICES),
+                    new CycloneDXStreamingParser.Visitor() {
+                        @Override
+                        public void visitMetadata(final Metadata metadata) {
+                            applyMetadata(qm, project, metadata);
+                            project.setExternalReferences(ModelConverter.convertBomMetadataExternalReferences(metadata));
+                            if (metadata.getComponent() != null) {
+                                ctx.metadataComponentBomRef = metadata.getComponent().getBomRef();
+                            }
+                        }
+
+                        @Override
+                        public void visitComponent(final org.cyclonedx.model.Component component) {
+                            if (component == null) {
+                                return;
+                            }
+                            chunk.add(component);
+                            if (chunk.size() >= streamingChunkSize) {
+                                processComponentChunk(qm, project, chunk, ctx);
+                                chunk.clear();
+                            }
+                        }
+
+                        @Override
+                        public void visitService(final org.cyclonedx.model.Service service) {
+                            if (service != null) {
+                                services.add(ModelConverter.convert(qm, service, project));
+                            }
+                        }
+                    });
+        }
+        processComponentChunk(qm, project, chunk, ctx);
+        chunk.clear();
+        if (project.getClassifier() == null) {
+            project.setClassifier(Classifier.APPLICATION);
+        }
+        LOGGER.info("Identified " + ctx.newComponentIds.size() + " new components");
+
+        final Date date = new Date();
+        final Bom bom = qm.createBom(project, date, bomFormat, header.specVersion(), header.version(), serialNumber);
+        final List<ServiceComponent> flattenedServices = new ArrayList<>();
+        final List<ServiceComponent> existingProjectServices = qm.getAllServiceComponents(project);
+        for (final ServiceComponent service : services) {
+            processService(qm, bom, service, flattenedServices);
+        }
+
+        LOGGER.info("Processing CycloneDX dependency graph for project: " + event.getProjectUuid());
+        if (ctx.metadataComponentBomRef != null) {
+            qm.runInTransaction(() -> project.setDirectDependencies(null));
+        }
+        final List<Dependency> dependencyChunk = new ArrayList<>(streamingChunkSize);
+        try (final InputStream inputStream = bomSource.open()) {
+            parser.parse(inputStream, EnumSet.of(CycloneDXStreamingParser.Section.DEPENDENCIES),
+                    new CycloneDXStreamingParser.Visitor() {
+                        @Override
+                        public void visitDependency(final Dependency dependency) {
+                            if (dependency == null || dependency.getRef() == null) {
+                                return;
+                            }
+                            dependencyChunk.add(dependency);
+                            if (dependencyChunk.size() >= streamingChunkSize) {
+                                processDependencyChunk(qm, project, dependencyChunk, ctx);
+                                dependencyChunk.clear();
+                            }
+                        }
+                    });
+        }
+        processDependencyChunk(qm, project, dependencyChunk, ctx);
+        dependencyChunk.clear();
+
+        LOGGER.debug("Reconciling components for project " + event.getProjectUuid());
+        qm.reconcileComponents(project, ctx.componentIds);
+        LOGGER.debug("Reconciling services for project " + event.getProjectUuid());
+        qm.reconcileServiceComponents(project, existingProjectServices, flattenedServices);
+        LOGGER.debug("Updating last import date for project " + event.getProjectUuid());
+        qm.updateLastBomImport(project, date, bomFormat.getFormatShortName() + " " + header.specVersion());
+        qm.runInTransaction(() -> bom.setFingerprint(bomFingerprint));
+
+        final Project detachedProject = qm.detach(Project.class, project.getId());
+        dispatchAnalysisEventsInChunks(qm, event, detachedProject, ctx);
+
+        LOGGER.info("Processed " + ctx.componentIds.size() + " components and " + flattenedServices.size() + " services uploaded to project " + event.getProjectUuid());
+        Notification.dispatch(new Notification()
+                .scope(NotificationScope.PORTFOLIO)
+                .group(NotificationGroup.BOM_PROCESSED)
+                .title(NotificationConstants.Title.BOM_PROCESSED)
+                .level(NotificationLevel.INFORMATIONAL)
+                .content("A " + bomFormat.getFormatShortName() + " BOM was processed")
+                .subject(new BomConsumedOrProcessed(detachedProject, (byte[]) null, bomFormat, header.specVersion())));
+    }
+
+    private void processComponentChunk(final QueryManager qm, final Project project,
+                                       final List<org.cyclonedx.model.Component> cdxComponents,
+                                       final StreamingContext ctx) {
+        if (cdxComponents.isEmpty()) {
+            return;
         }
+        final List<Component> components = new ArrayList<>(cdxComponents.size());
+        for (final org.cyclonedx.model.Component cdxComponent : cdxComponents) {
+            final Component component = ModelConverter.convert(qm, cdxComponent, project);
+            resetDirectDependencies(component);
+            components.add(component);
+        }
+        final List<Component> flattenedComponents = processComponents(qm, components, ctx.newComponentIds);
+        for (final Component component : flattenedComponents) {
+            ctx.componentIds.add(component.getId());
+            if (component.getBomRef() != null) {
+                ctx.componentIdsByBomRef.put(component.getBomRef(), component.getId());
+            }
+        }
+
+        // Objects of previous chunks are not needed anymore. Evicting them
+        // from the persistence manager allows them to be garbage collected.
+        qm.getPersistenceManager().evictAll();
+    }
+
+    private static void resetDirectDependencies(final Component component) {
+        // The dependency graph is resolved in a separate pass once all components are known.
+        component.setDirectDependencies(null);
+        if (component.getChildren() != null) {
+            component.getChildren().forEach(BomUploadProcessingTask::resetDirectDependencies);
+        }
+    }
+
+    /**
+     * Resolves the direct dependencies of a chunk of dependency graph nodes. The components referenced
+     * by the chunk are loaded with a single query, and updated in a single transaction.
+     */
+    private static void processDependencyChunk(final QueryManager qm, final Project project,
+                                               final List<Dependency> dependencies, final StreamingContext ctx) {
+        if (dependencies.isEmpty()) {
+            return;
+        }
+        final Set<Long> componentIds = new HashSet<>();
+        for (final Dependency dependency : dependencies) {
+            addIfNotNull(componentIds, ctx.componentIdsByBomRef.get(dependency.getRef()));
+            if (dependency.getDependencies() != null) {
+                for (final Dependency directDependency : dependency.getDependencies()) {
+                    addIfNotNull(componentIds, ctx.componentIdsByBomRef.get(directDependency.getRef()));
+                }
+            }
+        }
+        final Map<Long, Component> componentsById = qm.getComponentsById(componentIds).stream()
+                .collect(Collectors.toMap(Component::getId, Function.identity()));
+
+        qm.runInTransaction(() -> {
+            for (final Dependency dependency : dependencies) {
+                final boolean isMetadataComponent = dependency.getRef().equals(ctx.metadataComponentBomRef);
+                final Component component = componentsById.get(ctx.componentIdsByBomRef.get(dependency.getRef()));
+                if (!isMetadataComponent && component == null) {
+                    continue;
+                }
+                final var jsonArray = new JSONArray();
+                if (dependency.getDependencies() != null) {
+                    for (final Dependency directDependency : dependency.getDependencies()) {
+                        final Component directDependencyComponent = componentsById.get(ctx.componentIdsByBomRef.get(directDependency.getRef()));
+                        if (directDependencyComponent != null) {
+                            jsonArray.put(new ComponentIdentity(directDependencyComponent).toJSON());
+                        }
+                    }
+                }
+                final String directDependencies = jsonArray.isEmpty() ? null : jsonArray.toString();
+                if (isMetadataComponent) {
+                    project.setDirectDependencies(directDependencies);
+                } else {
+                    component.setDirectDependencies(directDependencies);
+                }
+            }
+        });
+
+        qm.getPersistenceManager().evictAll();
+    }
+
+    private static void addIfNotNull(final Set<Long> ids, final Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private static void applyMetadata(final QueryManager qm, final Project project, final Metadata metadata) {
+        if (metadata == null) {
+            return;
+        }
+        project.setManufacturer(ModelConverter.convert(metadata.getManufacture()));
+
+        final var projectMetadata = new ProjectMetadata();
+        projectMetadata.setSupplier(ModelConverter.convert(metadata.getSupplier()));
+        projectMetadata.setAuthors(ModelConverter.convertCdxContacts(metadata.getAuthors()));
+        if (project.getMetadata() != null) {
+            qm.runInTransaction(() -> {
+                project.getMetadata().setSupplier(projectMetadata.getSupplier());
+                project.getMetadata().setAuthors(projectMetadata.getAuthors());
+            });
+        } else {
+            qm.runInTransaction(() -> {
+                projectMetadata.setProject(project);
+                qm.getPersistenceManager().makePersistent(projectMetadata);
+            });
+        }
+
+        if (metadata.getComponent() != null) {
+            final org.cyclonedx.model.Component cdxMetadataComponent = metadata.getComponent();
+            if (cdxMetadataComponent.getType() != null && project.getClassifier() == null) {
+                try {
+                    project.setClassifier(Classifier.valueOf(cdxMetadataComponent.getType().name()));
+                } catch (IllegalArgumentException ex) {
+                    LOGGER.warn("""
+                            The metadata.component element of the BOM is of unknown type %s. \
+                            Known types are %s.""".formatted(cdxMetadataComponent.getType(),
+                            Arrays.stream(Classifier.values()).map(Enum::name).collect(Collectors.joining(", "))));
+                }
+            }
+            if (cdxMetadataComponent.getSupplier() != null) {
+                project.setSupplier(ModelConverter.convert(cdxMetadataComponent.getSupplier()));
+            }
+        }
+    }
+
+    private static void dispatchAnalysisEvents(final BomUploadEvent event, final Project detachedProject,
+                                               final List<Component> detachedFlattenedComponent,
+                                               final List<Component> newComponents) {
+        // Instead of firing off a new VulnerabilityAnalysisEvent, chain the VulnerabilityAnalysisEvent to
+        // the BomUploadEvent so that synchronous publishing mode (Jenkins) waits until vulnerability
+        // analysis has completed. If not chained, synchronous publishing mode will return immediately upon
+        // return from this method, resulting in inaccurate findings being returned in the response (since
+        // the vulnerability analysis hasn't taken place yet).
+        final VulnerabilityAnalysisEvent vae = new VulnerabilityAnalysisEvent(detachedFlattenedComponent).project(detachedProject);
+        vae.setChainIdentifier(event.getChainIdentifier());
+        if (!newComponents.isEmpty()) {
+            // Whether a new dependency is vulnerable or not can only be determined after
+            // vulnerability analysis completed.
+            vae.onSuccess(new NewVulnerableDependencyAnalysisEvent(newComponents));
+        }
+        // Start PolicyEvaluationEvent when VulnerabilityAnalysisEvent is succesful
+        vae.onSuccess(new PolicyEvaluationEvent(detachedFlattenedComponent).project(detachedProject));
+        Event.dispatch(vae);
+
+        // Repository Metadata analysis
+        final var rme = new RepositoryMetaEvent(detachedFlattenedComponent);
+        // Start PolicyEvaluationEvent again when RepositoryMetaEvent is succesful,
+        // as it might trigger new violations
+        rme.onSuccess(new PolicyEvaluationEvent(detachedFlattenedComponent).project(detachedProject));
+        Event.dispatch(rme);
+    }
+
+    /**
+     * Dispatches the analysis of all components processed in streaming mode, in chunks of
+     * {@link #streamingChunkSize} components, such that they do not have to be held in memory all at once.
+     * <p>
+     * The chunks are analyzed one after another, by chaining the events of each chunk to the events of
+     * the previous chunk. Only the policy evaluation of the last chunk is scoped to the project, such that
+     * the metrics of the project are updated only once, after all chunks were analyzed.
+     */
+    private void dispatchAnalysisEventsInChunks(final QueryManager qm, final BomUploadEvent event,
+                                                final Project detachedProject, final StreamingContext ctx) {
+        final List<Long> componentIds = List.copyOf(ctx.componentIds);
+        if (componentIds.isEmpty()) {
+            dispatchAnalysisEvents(event, detachedProject, new ArrayList<>(), new ArrayList<>());
+            return;
+        }
+        VulnerabilityAnalysisEvent firstEvent = null;
+        PolicyEvaluationEvent previousEvent = null;
+        for (int i = 0; i < componentIds.size(); i += streamingChunkSize) {
+            final List<Long> componentIdChunk = componentIds.subList(i, Math.min(i + streamingChunkSize, componentIds.size()));
+            final List<Component> detachedComponents = qm.detach(qm.getComponentsById(componentIdChunk));
+            final List<Component> newComponents = detachedComponents.stream()
+                    .filter(component -> ctx.newComponentIds.contains(component.getId()))
+                    .collect(Collectors.toCollection(ArrayList::new));
+
+            final var vae = new VulnerabilityAnalysisEvent(detachedComponents);
+            vae.setChainIdentifier(event.getChainIdentifier());
+            if (!newComponents.isEmpty()) {
+                vae.onSuccess(new NewVulnerableDependencyAnalysisEvent(newComponents));
+            }
+            final var rme = new RepositoryMetaEvent(detachedComponents);
+            rme.setChainIdentifier(event.getChainIdentifier());
+            final var pee = new PolicyEvaluationEvent(detachedComponents);
+            pee.setChainIdentifier(event.getChainIdentifier());
+            if (i + streamingChunkSize >= componentIds.size()) {
+                pee.project(detachedProject);
+            }
+            continueWith(vae, rme);
+            continueWith(rme, pee);
+            if (previousEvent == null) {
+                firstEvent = vae;
+            } else {
+                continueWith(previousEvent, vae);
+            }
+            previousEvent = pee;
+            qm.getPersistenceManager().evictAll();
+        }
+        Event.dispatch(firstEvent);
+    }
+
+    /**
+     * Chains {@code next} to {@code event}, such that it is dispatched once {@code event} completed,
+     * regardless of whether it succeeded. A failing chunk must not prevent the remaining chunks from
+     * being analyzed.
+     */
+    private static void continueWith(final AbstractChainableEvent event, final Event next) {
+        event.onSuccess(next);
+        event.onFailure(next);
+    }
+
+    /**
+     * Holds the state that needs to be carried across chunks when processing a BOM in streaming mode.
+     */
+    private static final class StreamingContext {
+        private final Set<Long> componentIds = new HashSet<>();
+        private final Set<Long> newComponentIds = new HashSet<>();
+        private final Map<String, Long> componentIdsByBomRef = new HashMap<>();
+        private String metadataComponentBomRef;
+    }
+
+    /**
+     * The decompressed BOM of a {@link BomUploadEvent}, either held in memory,
+     * or, for BOMs that were spooled to disk, stored in a file.
+     */
+    private static final class BomSource implements AutoCloseable {
+        private final Path file;
+        private final byte[] bytes;
+
+        private BomSource(final Path file, final byte[] bytes) {
+            this.file = file;
+            this.bytes = bytes;
+        }
+
+        private long size() throws IOException {
+            return (file != null) ? Files.size(file) : bytes.length;
+        }
+
+        private InputStream open() throws IOException {
+            return (file != null) ? new BufferedInputStream(Files.newInputStream(file)) : new ByteArrayInputStream(bytes);
+        }
+
+        private byte[] readPrefix(final int length) throws IOException {
+            try (final InputStream inputStream = open()) {
+                return inputStream.readNBytes(length);
+            }
+        }
+
+        private byte[] readAllBytes() throws IOException {
+            return (file != null) ? Files.readAllBytes(file) : bytes;
+        }
+
+        @Override
+        public void close() {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ex) {
+                    LOGGER.warn("Failed to delete decompressed BOM " + file, ex);
+                }
+            }
+        }
+    }
+
+    private static List<Component> processComponents(final QueryManager qm, final List<Component> components,
+                                                     final Set<Long> newComponentIds) {
+        final Set<Component> newComponentSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Component component : components) {
+            prepareComponent(qm, component, newComponentSet);
+        }
+        final List<Component> flattenedComponents = qm.bulkUpsertComponents(components, false);
+        for (final Component component : newComponentSet) {
+            newComponentIds.add(component.getId());
+        }
+        return flattenedComponents;
+    }
+
+    private static void prepareComponent(final QueryManager qm, final Component component,
+                                         final Set<Component> newComponentSet) {
+        if (component.getUuid() == null) {
+            newComponentSet.add(component);
+        }
+        component.setInternal(InternalComponentIdentificationUtil.isInternalComponent(component, qm));
         if (component.getChildren() != null) {
             for (final Component child : component.getChildren()) {
-                processComponent(qm, child, flattenedComponents, newComponents);
+                prepareComponent(qm, child, newComponentSet);
             }
         }
     }
@@ -25,6 +25,7 @@ import alpine.model.ConfigProperty;
 import org.dependencytrack.event.ClearComponentAnalysisCacheEvent;
 import org.dependencytrack.model.ConfigPropertyConstants;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.tasks.scanners.VulnerabilityAnalysisCache;
 
 import java.time.Instant;
 import java.util.Date;
@@ -50,6 +51,7 @@ public class ClearComponentAnalysisCacheTask implements LoggableSubscriber {
                 long cacheValidityPeriodMs = Long.parseLong(cacheClearPeriod.getPropertyValue());
                 Date threshold = Date.from(Instant.now().minusMillis(cacheValidityPeriodMs));
                 qm.clearComponentAnalysisCache(threshold);
+                VulnerabilityAnalysisCache.invalidateAll();
             } catch (Exception ex) {
                 LOGGER.error("An unknown error occurred while clearing component analysis cache", ex);
             }
@@ -0,0 +1,317 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import alpine.common.logging.Logger;
+import alpine.event.framework.Event;
+import alpine.event.framework.Subscriber;
+import org.dependencytrack.event.DeltaVulnerabilityAnalysisEvent;
+import org.dependencytrack.event.InternalAnalysisEvent;
+import org.dependencytrack.event.ProjectMetricsUpdateEvent;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.VulnerabilityAnalysisLevel;
+import org.dependencytrack.model.VulnerableSoftware;
+import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.tasks.scanners.InternalAnalysisTask;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Subscriber task that performs an internal vulnerability analysis of only those components,
+ * that may be affected by {@link VulnerableSoftware} records that changed during mirroring.
+ * <p>
+ * Candidate components are selected by matching their CPE and Package URL against patterns
+ * derived from the changed records. Patterns are deliberately broad, as the actual matching
+ * is performed by the {@link InternalAnalysisTask}. To avoid scanning all components, only those
+ * whose CPE or Package URL start with a literal prefix derived from the same records are loaded
+ * from the (indexed) columns, and matched against the patterns afterwards.
+ *
+ * @since 4.11.0
+ */
+public class DeltaVulnerabilityAnalysisTask implements Subscriber {
+
+    private static final Logger LOGGER = Logger.getLogger(DeltaVulnerabilityAnalysisTask.class);
+
+    /**
+     * Maximum number of changed records, and of patterns derived from them, to look up candidate components for.
+     * Larger changes, e.g. when a vulnerability source is mirrored for the first time, are left to the next
+     * portfolio analysis.
+     */
+    static final int MAX_VULNERABLE_SOFTWARE_IDS = 10_000;
+    private static final int MAX_PATTERNS = 1_000;
+    private static final int QUERY_BATCH_SIZE = 100;
+    private static final String ANY_CPE_PATTERN = "cpe:.*";
+    private static final String ANY_CPE_PREFIX = "cpe:";
+    private static final List<String> CPE_PARTS = List.of("a", "o", "h");
+    private static final Pattern LITERAL_CPE_VALUE = Pattern.compile("[a-z0-9][a-z0-9._-]*");
+    private static final Pattern LITERAL_PURL_VALUE = Pattern.compile("[a-z0-9][a-z0-9./_-]*");
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void inform(final Event e) {
+        if (!(e instanceof final DeltaVulnerabilityAnalysisEvent event) || event.vulnerableSoftwareIds().isEmpty()) {
+            return;
+        }
+        if (event.vulnerableSoftwareIds().size() > MAX_VULNERABLE_SOFTWARE_IDS) {
+            logTooBroad(event.vulnerableSoftwareIds().size());
+            return;
+        }
+
+        try (final var qm = new QueryManager()) {
+            final Map<String, Set<String>> cpePatternsByPrefix = new LinkedHashMap<>();
+            final Map<String, Set<String>> purlPatternsByPrefix = new LinkedHashMap<>();
+            collectPatterns(qm.getPersistenceManager(), List.copyOf(event.vulnerableSoftwareIds()), cpePatternsByPrefix, purlPatternsByPrefix);
+            if (countPatterns(cpePatternsByPrefix) + countPatterns(purlPatternsByPrefix) > MAX_PATTERNS) {
+                logTooBroad(event.vulnerableSoftwareIds().size());
+                return;
+            }
+
+            final Map<UUID, Set<Long>> componentIdsByProject = new LinkedHashMap<>();
+            getCandidateComponents(qm.getPersistenceManager(), "cpe", cpePatternsByPrefix, componentIdsByProject);
+            getCandidateComponents(qm.getPersistenceManager(), "purl", purlPatternsByPrefix, componentIdsByProject);
+            LOGGER.info("Performing delta analysis of %d project(s) for %d changed vulnerable software record(s)"
+                    .formatted(componentIdsByProject.size(), event.vulnerableSoftwareIds().size()));
+
+            for (final Map.Entry<UUID, Set<Long>> entry : componentIdsByProject.entrySet()) {
+                final List<Component> components = getComponents(qm, List.copyOf(entry.getValue()));
+                if (components.isEmpty()) {
+                    continue;
+                }
+
+                final var analysisEvent = new InternalAnalysisEvent(components);
+                analysisEvent.setVulnerabilityAnalysisLevel(VulnerabilityAnalysisLevel.PERIODIC_ANALYSIS);
+                try {
+                    new InternalAnalysisTask().inform(analysisEvent);
+                } catch (Exception ex) {
+                    LOGGER.error("An unexpected error occurred performing a delta analysis of project " + entry.getKey(), ex);
+                    continue;
+                }
+                Event.dispatch(new ProjectMetricsUpdateEvent(entry.getKey()));
+            }
+        }
+    }
+
+    private static void logTooBroad(final int numChanged) {
+        LOGGER.info("Changes of %d vulnerable software records are too broad for a delta analysis; They will be considered by the next portfolio analysis"
+                .formatted(numChanged));
+    }
+
+    private static void collectPatterns(final PersistenceManager pm, final List<Long> vsIds,
+                                        final Map<String, Set<String>> cpePatternsByPrefix,
+                                        final Map<String, Set<String>> purlPatternsByPrefix) {
+        for (int i = 0; i < vsIds.size(); i += QUERY_BATCH_SIZE) {
+            final Query<VulnerableSoftware> query = pm.newQuery(VulnerableSoftware.class, ":ids.contains(id)");
+            query.setParameters(vsIds.subList(i, Math.min(i + QUERY_BATCH_SIZE, vsIds.size())));
+            query.setResult("cpe23, part, vendor, product, purlType, purlNamespace, purlName");
+            final List<Object[]> rows;
+            try {
+                rows = List.copyOf(query.executeResultList(Object[].class));
+            } finally {
+                query.closeAll();
+            }
+
+            for (final Object[] row : rows) {
+                if (row[0] != null) {
+                    final List<String> patterns = toCpePatterns((String) row[1], (String) row[2], (String) row[3]);
+                    for (final String prefix : toCpePrefixes((String) row[1], (String) row[2], (String) row[3])) {
+                        cpePatternsByPrefix.computeIfAbsent(prefix, ignored -> new LinkedHashSet<>()).addAll(patterns);
+                    }
+                }
+                if (row[4] != null && row[6] != null) {
+                    purlPatternsByPrefix.computeIfAbsent(toPurlPrefix((String) row[4], (String) row[5], (String) row[6]),
+                            ignored -> new LinkedHashSet<>()).add(toPurlPattern((String) row[4], (String) row[5], (String) row[6]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Derives patterns matching the CPE 2.2 and 2.3 representations of components
+     * that may be affected by a {@link VulnerableSoftware} with the given CPE attributes.
+     */
+    static List<String> toCpePatterns(final String part, final String vendor, final String product) {
+        if (!isConcrete(product)) {
+            // Any component with a CPE may be affected.
+            return List.of(ANY_CPE_PATTERN);
+        }
+        final String partPattern = isConcrete(part) && part.length() == 1 ? toPattern(part) : ".";
+        final String vendorPattern = isConcrete(vendor) ? toPattern(vendor) : ".*";
+        final String productPattern = toPattern(product);
+        return List.of(
+                "cpe:2.3:" + partPattern + ":" + vendorPattern + ":" + productPattern + ":.*",
+                "cpe:/" + partPattern + ":" + vendorPattern + ":" + productPattern + ".*"
+        );
+    }
+
+    /**
+     * Derives a pattern matching the Package URLs of components that may be
+     * affected by a {@link VulnerableSoftware} with the given Package URL attributes.
+     */
+    static String toPurlPattern(final String type, final String namespace, final String name) {
+        final var pattern = new StringBuilder("pkg:").append(toPattern(type)).append("/");
+        if (namespace != null) {
+            pattern.append(toPattern(namespace)).append("/");
+        }
+        return pattern.append(toPattern(name)).append(".*").toString();
+    }
+
+    /**
+     * Derives literal prefixes of the CPE 2.3 and 2.2 representations of components that may be affected
+     * by a {@link VulnerableSoftware} with the given CPE attributes. Attributes that may be encoded or
+     * escaped differently across representations end the prefix.
+     */
+    static List<String> toCpePrefixes(final String part, final String vendor, final String product) {
+        if (!isConcrete(product)) {
+            return List.of(ANY_CPE_PREFIX);
+        }
+        final List<String> parts = isConcrete(part) && part.length() == 1
+                ? List.of(part.toLowerCase(Locale.ROOT))
+                : CPE_PARTS;
+        final var prefixes = new ArrayList<String>();
+        for (final String partPrefix : parts) {
+            final var cpe23Prefix = new StringBuilder("cpe:2.3:").append(partPrefix).append(":");
+            final var cpe22Prefix = new StringBuilder("cpe:/").append(partPrefix).append(":");
+            if (isLiteral(vendor, LITERAL_CPE_VALUE)) {
+                cpe23Prefix.append(vendor).append(":");
+                cpe22Prefix.append(vendor).append(":");
+                if (isLiteral(product, LITERAL_CPE_VALUE)) {
+                    cpe23Prefix.append(product).append(":");
+                    cpe22Prefix.append(product);
+                }
+            }
+            prefixes.add(cpe23Prefix.toString());
+            prefixes.add(cpe22Prefix.toString());
+        }
+        return prefixes;
+    }
+
+    /**
+     * Derives a literal prefix of the Package URLs of components that may be affected by a
+     * {@link VulnerableSoftware} with the given Package URL attributes. Attributes that may be
+     * encoded differently, or differ in case, end the prefix.
+     */
+    static String toPurlPrefix(final String type, final String namespace, final String name) {
+        final var prefix = new StringBuilder("pkg:").append(type.toLowerCase(Locale.ROOT)).append("/");
+        if (namespace != null) {
+            if (!isLiteral(namespace, LITERAL_PURL_VALUE)) {
+                return prefix.toString();
+            }
+            prefix.append(namespace).append("/");
+        }
+        if (isLiteral(name, LITERAL_PURL_VALUE)) {
+            prefix.append(name);
+        }
+        return prefix.toString();
+    }
+
+    /**
+     * Replaces all characters that may be encoded or escaped differently across representations with wildcards.
+     */
+    private static String toPattern(final String value) {
+        return value.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", ".*");
+    }
+
+    private static boolean isConcrete(final String value) {
+        return value != null && !value.isEmpty() && !"*".equals(value) && !"-".equals(value);
+    }
+
+    private static boolean isLiteral(final String value, final Pattern literalPattern) {
+        return isConcrete(value) && literalPattern.matcher(value).matches();
+    }
+
+    private static int countPatterns(final Map<String, Set<String>> patternsByPrefix) {
+        return patternsByPrefix.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private static void getCandidateComponents(final PersistenceManager pm, final String field,
+                                               final Map<String, Set<String>> patternsByPrefix,
+                                               final Map<UUID, Set<Long>> componentIdsByProject) {
+        final Map<String, List<Pattern>> compiledPatternsByPrefix = new LinkedHashMap<>();
+        patternsByPrefix.forEach((prefix, patterns) -> compiledPatternsByPrefix.put(prefix,
+                patterns.stream().map(Pattern::compile).toList()));
+
+        final List<String> prefixes = List.copyOf(compiledPatternsByPrefix.keySet());
+        for (int i = 0; i < prefixes.size(); i += QUERY_BATCH_SIZE) {
+            final List<String> batch = prefixes.subList(i, Math.min(i + QUERY_BATCH_SIZE, prefixes.size()));
+            final var filterParts = new ArrayList<String>();
+            final Map<String, Object> params = new HashMap<>();
+            for (int j = 0; j < batch.size(); j++) {
+                filterParts.add(field + ".startsWith(:prefix" + j + ")");
+                params.put("prefix" + j, batch.get(j));
+            }
+
+            final Query<Component> query = pm.newQuery(Component.class);
+            query.setFilter("(project.active == null || project.active == true) && (" + String.join(" || ", filterParts) + ")");
+            query.setNamedParameters(params);
+            query.setResult("id, project.uuid, " + field);
+            final List<Object[]> rows;
+            try {
+                rows = List.copyOf(query.executeResultList(Object[].class));
+            } finally {
+                query.closeAll();
+            }
+
+            for (final Object[] row : rows) {
+                if (matchesAny((String) row[2], batch, compiledPatternsByPrefix)) {
+                    componentIdsByProject.computeIfAbsent((UUID) row[1], ignored -> new LinkedHashSet<>()).add((Long) row[0]);
+                }
+            }
+        }
+    }
+
+    private static boolean matchesAny(final String value, final List<String> prefixes,
+                                      final Map<String, List<Pattern>> patternsByPrefix) {
+        final String normalizedValue = value.toLowerCase(Locale.ROOT);
+        for (final String prefix : prefixes) {
+            if (!normalizedValue.startsWith(prefix.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            for (final Pattern pattern : patternsByPrefix.get(prefix)) {
+                if (pattern.matcher(normalizedValue).matches()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<Component> getComponents(final QueryManager qm, final List<Long> componentIds) {
+        final Query<Component> query = qm.getPersistenceManager().newQuery(Component.class, ":ids.contains(id)");
+        query.setParameters(componentIds);
+        try {
+            return qm.detach(List.copyOf(query.executeList()));
+        } finally {
+            query.closeAll();
+        }
+    }
+
+}
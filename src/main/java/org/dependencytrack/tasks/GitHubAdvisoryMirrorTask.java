@@ -52,6 +52,7 @@ import org.dependencytrack.parser.github.graphql.model.GitHubSecurityAdvisory;
 import org.dependencytrack.parser.github.graphql.model.GitHubVulnerability;
 import org.dependencytrack.parser.github.graphql.model.PageableList;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.persistence.VulnerableSoftwareIndex;
 import org.json.JSONObject;
 
 import java.io.IOException;
@@ -64,6 +65,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.dependencytrack.model.ConfigPropertyConstants.VULNERABILITY_SOURCE_GITHUB_ADVISORIES_ACCESS_TOKEN;
 import static org.dependencytrack.model.ConfigPropertyConstants.VULNERABILITY_SOURCE_GITHUB_ADVISORIES_ALIAS_SYNC_ENABLED;
@@ -80,6 +82,7 @@ public class GitHubAdvisoryMirrorTask implements LoggableSubscriber {
     private final boolean isAliasSyncEnabled;
     private String accessToken;
     private boolean mirroredWithoutErrors = true;
+    private final VulnerableSoftwareChangeTracker vsChangeTracker = new VulnerableSoftwareChangeTracker();
 
     public GitHubAdvisoryMirrorTask() {
         try (final QueryManager qm = new QueryManager()) {
@@ -109,6 +112,7 @@ public class GitHubAdvisoryMirrorTask implements LoggableSubscriber {
                 } catch (IOException ex) {
                     handleRequestException(LOGGER, ex);
                 }
+                vsChangeTracker.dispatchDeltaAnalysis();
                 final long end = System.currentTimeMillis();
                 LOGGER.info("GitHub Advisory mirroring complete");
                 LOGGER.info("Time spent (total): " + (end - start) + "ms");
@@ -218,6 +222,8 @@ public class GitHubAdvisoryMirrorTask implements LoggableSubscriber {
                 vsList = qm.reconcileVulnerableSoftware(synchronizedVulnerability, vsListOld, vsList, Vulnerability.Source.GITHUB);
                 synchronizedVulnerability.setVulnerableSoftware(vsList);
                 qm.persist(synchronizedVulnerability);
+                VulnerableSoftwareIndex.getInstance().update(vsList);
+                vsChangeTracker.recordAdded(vsListOld.stream().map(VulnerableSoftware::getId).collect(Collectors.toSet()), vsList);
             }
         }
         Event.dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Vulnerability.class));
@@ -34,7 +34,9 @@ import javax.jdo.Query;
 import javax.jdo.Transaction;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Subscriber task that identifies internal components throughout the entire portfolio.
@@ -72,6 +74,7 @@ public class InternalComponentIdentificationTask implements Subscriber {
 
             List<Component> components = fetchNextComponentsPage(pm, null);
             while (!components.isEmpty()) {
+                final Map<Component, Boolean> changedComponents = new LinkedHashMap<>();
                 for (final Component component : components) {
                     String coordinates = component.getName();
                     if (StringUtils.isNotBlank(component.getGroup())) {
@@ -91,18 +94,21 @@ public class InternalComponentIdentificationTask implements Subscriber {
                             LOGGER.info("Component " + coordinates + " (" + component.getUuid()
                                     + ") was previously identified as internal. It is no longer identified as internal.");
                         }
+                        changedComponents.put(component, internal);
                     }
+                }
 
-                    if (component.isInternal() != internal) {
-                        final Transaction trx = pm.currentTransaction();
-                        try {
-                            trx.begin();
-                            component.setInternal(internal);
-                            trx.commit();
-                        } finally {
-                            if (trx.isActive()) {
-                                trx.rollback();
-                            }
+                // Apply all changes of the page in a single transaction,
+                // instead of committing one transaction per changed component.
+                if (!changedComponents.isEmpty()) {
+                    final Transaction trx = pm.currentTransaction();
+                    try {
+                        trx.begin();
+                        changedComponents.forEach(Component::setInternal);
+                        trx.commit();
+                    } finally {
+                        if (trx.isActive()) {
+                            trx.rollback();
                         }
                     }
                 }
@@ -53,6 +53,7 @@ import org.dependencytrack.model.Vulnerability;
 import org.dependencytrack.model.Vulnerability.Source;
 import org.dependencytrack.model.VulnerableSoftware;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.persistence.VulnerableSoftwareIndex;
 import org.dependencytrack.util.PersistenceUtil.Diff;
 import org.dependencytrack.util.PersistenceUtil.Differ;
 
@@ -63,6 +64,7 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -159,6 +161,7 @@ public class NistApiMirrorTask implements Subscriber {
 
         final long startTimeNs = System.nanoTime();
         final var numMirrored = new AtomicInteger(0);
+        final var vsChangeTracker = new VulnerableSoftwareChangeTracker();
         ZonedDateTime lastModified;
         try (final NvdCveClient client = createApiClient(apiUrl, apiKey, lastModifiedEpochSeconds)) {
             try {
@@ -179,7 +182,7 @@ public class NistApiMirrorTask implements Subscriber {
                                 // Note: persistentVuln is in HOLLOW state (all fields except ID are unloaded).
                                 // https://www.datanucleus.org/products/accessplatform_6_0/jdo/persistence.html#lifecycle
                                 final Vulnerability persistentVuln = synchronizeVulnerability(qm, vuln);
-                                synchronizeVulnerableSoftware(qm, persistentVuln, vsList);
+                                synchronizeVulnerableSoftware(qm, persistentVuln, vsList, vsChangeTracker);
                             } catch (Exception ex) {
                                 LOGGER.error("An unexpected error occurred while processing %s".formatted(vuln.getVulnId()), ex);
                             } finally {
@@ -227,6 +230,7 @@ public class NistApiMirrorTask implements Subscriber {
         if (updateLastModified(lastModified)) {
             Event.dispatch(new IndexEvent(Action.COMMIT, Vulnerability.class));
         }
+        vsChangeTracker.dispatchDeltaAnalysis();
 
         Event.dispatch(new EpssMirrorEvent());
     }
@@ -261,8 +265,10 @@ public class NistApiMirrorTask implements Subscriber {
         return persistentVuln;
     }
 
-    private static void synchronizeVulnerableSoftware(final QueryManager qm, final Vulnerability persistentVuln, final List<VulnerableSoftware> vsList) {
-        qm.runInTransaction(tx -> {
+    private static void synchronizeVulnerableSoftware(final QueryManager qm, final Vulnerability persistentVuln,
+                                                      final List<VulnerableSoftware> vsList, final VulnerableSoftwareChangeTracker vsChangeTracker) {
+        final var vsOldIds = new HashSet<Long>();
+        final List<VulnerableSoftware> synchronizedVsList = qm.runInTransaction(tx -> {
             tx.setSerializeRead(false);
 
             // Get all VulnerableSoftware records that are currently associated with the vulnerability.
@@ -271,6 +277,7 @@ public class NistApiMirrorTask implements Subscriber {
             // NistMirrorTask. We thus have to deduplicate here.
             final List<VulnerableSoftware> vsOldList = persistentVuln.getVulnerableSoftware().stream().distinct().toList();
             LOGGER.trace("%s: Existing VS: %d".formatted(persistentVuln.getVulnId(), vsOldList.size()));
+            vsOldList.forEach(vsOld -> vsOldIds.add(vsOld.getId()));
 
             // Get attributions for all existing VulnerableSoftware records.
             final Map<Long, List<AffectedVersionAttribution>> attributionsByVsId =
@@ -365,7 +372,11 @@ public class NistApiMirrorTask implements Subscriber {
                 LOGGER.trace("%s: vsList has changed: %s".formatted(persistentVuln.getVulnId(), new Diff(persistentVuln.getVulnerableSoftware(), vsListToKeep)));
                 persistentVuln.setVulnerableSoftware(vsListToKeep);
             }
+
+            return vsListToKeep;
         });
+        VulnerableSoftwareIndex.getInstance().update(synchronizedVsList);
+        vsChangeTracker.recordAdded(vsOldIds, synchronizedVsList);
     }
 
     private static NvdCveClient createApiClient(final String apiUrl, final String apiKey, final long lastModifiedEpochSeconds) {
@@ -43,6 +43,7 @@ import org.dependencytrack.parser.osv.OsvAdvisoryParser;
 import org.dependencytrack.parser.osv.model.OsvAdvisory;
 import org.dependencytrack.parser.osv.model.OsvAffectedPackage;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.persistence.VulnerableSoftwareIndex;
 import org.json.JSONObject;
 import us.springett.cvss.Cvss;
 import us.springett.cvss.Score;
@@ -78,6 +79,7 @@ public class OsvDownloadTask implements LoggableSubscriber {
     private Set<String> ecosystems;
     private String osvBaseUrl;
     private boolean aliasSyncEnabled;
+    private final VulnerableSoftwareChangeTracker vsChangeTracker = new VulnerableSoftwareChangeTracker();
 
     public OsvDownloadTask() {
         try (final QueryManager qm = new QueryManager()) {
@@ -127,6 +129,7 @@ public class OsvDownloadTask implements LoggableSubscriber {
                         LOGGER.error("Exception while executing Http client request", ex);
                     }
                 }
+                vsChangeTracker.dispatchDeltaAnalysis();
             } else {
                 LOGGER.info("Google OSV mirroring is disabled. No ecosystem selected.");
             }
@@ -214,6 +217,8 @@ public class OsvDownloadTask implements LoggableSubscriber {
             vsList = qm.reconcileVulnerableSoftware(synchronizedVulnerability, vsListOld, vsList, Vulnerability.Source.OSV);
             synchronizedVulnerability.setVulnerableSoftware(vsList);
             qm.persist(synchronizedVulnerability);
+            VulnerableSoftwareIndex.getInstance().update(vsList);
+            vsChangeTracker.recordAdded(vsListOld.stream().map(VulnerableSoftware::getId).collect(Collectors.toSet()), vsList);
         }
         Event.dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Vulnerability.class));
     }
@@ -45,6 +45,10 @@ public class PolicyEvaluationTask implements Subscriber {
                 } else {
                     performPolicyEvaluation(event.getProject(), new ArrayList<>());
                 }
+            } else if (event.getComponents() != null && !event.getComponents().isEmpty()) {
+                // Components that are evaluated without their project, e.g. a chunk of a larger BOM,
+                // leave updating the metrics of the project to a later, project-scoped evaluation.
+                performPolicyEvaluation(null, event.getComponents());
             }
         }
     }
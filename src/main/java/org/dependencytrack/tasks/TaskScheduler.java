@@ -101,6 +101,13 @@ public final class TaskScheduler extends AlpineTaskScheduler {
             // Creates a new event that executes every 24 hours (86400000) by default after an initial 6 hour (21600000) delay
             scheduleEvent(new PortfolioVulnerabilityAnalysisEvent(), 21600000, getCadenceConfigPropertyValueInMilliseconds(qm, TASK_SCHEDULER_PORTFOLIO_VULNERABILITY_ANALYSIS_CADENCE));
 
+            // Resumes a portfolio vulnerability analysis that was interrupted, e.g. by a restart, right away.
+            // Otherwise, the next scheduled analysis would only complete the interrupted one, instead of
+            // analyzing the entire portfolio again.
+            if (qm.hasUnfinishedPortfolioAnalysisShards()) {
+                Event.dispatch(new PortfolioVulnerabilityAnalysisEvent());
+            }
+
             // Creates a new event that executes every 24 hours (86400000) by default after an initial 1 hour (3600000) delay
             scheduleEvent(new RepositoryMetaEvent(), 3600000, getCadenceConfigPropertyValueInMilliseconds(qm, TASK_SCHEDULER_REPOSITORY_METADATA_FETCH_CADENCE));
 
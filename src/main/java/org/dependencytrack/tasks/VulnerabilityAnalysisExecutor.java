@@ -0,0 +1,124 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import org.dependencytrack.model.VulnerabilityAnalysisLevel;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executes vulnerability analyses on a shared pool of threads, with a separate lane
+ * per {@link VulnerabilityAnalysisLevel}.
+ * <p>
+ * Whenever a thread becomes available, the next task is picked from the lanes using weighted
+ * round-robin: Within a round, each lane may run as many tasks as its weight, and lanes are
+ * served in the order of the levels they belong to. Lanes without pending tasks do not hold up
+ * a round. This way, analyses of uploaded BOMs are not stuck behind a portfolio analysis,
+ * while a steady stream of uploads does not starve the portfolio analysis either.
+ *
+ * @since 4.11.0
+ */
+final class VulnerabilityAnalysisExecutor {
+
+    private final ExecutorService delegate;
+    private final Map<VulnerabilityAnalysisLevel, Integer> weights = new EnumMap<>(VulnerabilityAnalysisLevel.class);
+    private final Map<VulnerabilityAnalysisLevel, Integer> credits = new EnumMap<>(VulnerabilityAnalysisLevel.class);
+    private final Map<VulnerabilityAnalysisLevel, Queue<FutureTask<?>>> lanes = new EnumMap<>(VulnerabilityAnalysisLevel.class);
+
+    /**
+     * @param delegate the {@link ExecutorService} providing the threads to execute tasks on
+     * @param weights  the number of tasks per round for each level; levels without weight default to {@code 1}
+     */
+    VulnerabilityAnalysisExecutor(final ExecutorService delegate, final Map<VulnerabilityAnalysisLevel, Integer> weights) {
+        this.delegate = delegate;
+        for (final VulnerabilityAnalysisLevel level : VulnerabilityAnalysisLevel.values()) {
+            // Lanes with a weight of zero would never be served.
+            this.weights.put(level, Math.max(1, weights.getOrDefault(level, 1)));
+            this.lanes.put(level, new ArrayDeque<>());
+        }
+        this.credits.putAll(this.weights);
+    }
+
+    /**
+     * Submits a task to the lane of a given level.
+     *
+     * @param level the {@link VulnerabilityAnalysisLevel} of the analysis performed by the task
+     * @param task  the task to execute
+     * @return a {@link Future} representing the pending completion of the task
+     * @throws RejectedExecutionException when the underlying {@link ExecutorService} has been shut down
+     */
+    Future<?> submit(final VulnerabilityAnalysisLevel level, final Runnable task) {
+        final var futureTask = new FutureTask<Void>(task, null);
+        synchronized (lanes) {
+            lanes.get(level).add(futureTask);
+        }
+        try {
+            // Every submission schedules exactly one execution, but which task it runs
+            // is only decided once a thread is available to run it.
+            delegate.execute(this::runNext);
+        } catch (RejectedExecutionException e) {
+            synchronized (lanes) {
+                lanes.get(level).remove(futureTask);
+            }
+            throw e;
+        }
+        return futureTask;
+    }
+
+    /**
+     * Initiates an orderly shutdown of the underlying {@link ExecutorService}.
+     * Tasks submitted before are still executed, but no new tasks are accepted.
+     */
+    void shutdown() {
+        delegate.shutdown();
+    }
+
+    private void runNext() {
+        final FutureTask<?> task;
+        synchronized (lanes) {
+            task = pollNext();
+        }
+        if (task != null) {
+            task.run();
+        }
+    }
+
+    private FutureTask<?> pollNext() {
+        // If no lane with pending tasks has credits left, a new round is started.
+        for (int attempt = 0; attempt < 2; attempt++) {
+            for (final Map.Entry<VulnerabilityAnalysisLevel, Queue<FutureTask<?>>> lane : lanes.entrySet()) {
+                final int laneCredits = credits.get(lane.getKey());
+                if (laneCredits > 0 && !lane.getValue().isEmpty()) {
+                    credits.put(lane.getKey(), laneCredits - 1);
+                    return lane.getValue().poll();
+                }
+            }
+            credits.putAll(weights);
+        }
+        return null;
+    }
+
+}
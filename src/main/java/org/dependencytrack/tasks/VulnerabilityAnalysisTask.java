@@ -18,10 +18,15 @@
  */
 package org.dependencytrack.tasks;
 
+import alpine.Config;
 import alpine.common.logging.Logger;
+import alpine.common.metrics.Metrics;
 import alpine.event.framework.Event;
+import alpine.event.framework.LoggableUncaughtExceptionHandler;
 import alpine.event.framework.Subscriber;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.dependencytrack.common.ConfigKey;
 import org.dependencytrack.event.InternalAnalysisEvent;
 import org.dependencytrack.event.OssIndexAnalysisEvent;
 import org.dependencytrack.event.PortfolioVulnerabilityAnalysisEvent;
@@ -30,6 +35,7 @@ import org.dependencytrack.event.SnykAnalysisEvent;
 import org.dependencytrack.event.VulnDbAnalysisEvent;
 import org.dependencytrack.event.VulnerabilityAnalysisEvent;
 import org.dependencytrack.model.Component;
+import org.dependencytrack.model.PortfolioAnalysisShard;
 import org.dependencytrack.model.Project;
 import org.dependencytrack.model.VulnerabilityAnalysisLevel;
 import org.dependencytrack.persistence.QueryManager;
@@ -41,16 +47,80 @@ import org.dependencytrack.tasks.scanners.OssIndexAnalysisTask;
 import org.dependencytrack.tasks.scanners.ScanTask;
 import org.dependencytrack.tasks.scanners.SnykAnalysisTask;
 import org.dependencytrack.tasks.scanners.VulnDbAnalysisTask;
+
+import javax.jdo.JDOObjectNotFoundException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 public class VulnerabilityAnalysisTask implements Subscriber {
 
     private static final Logger LOGGER = Logger.getLogger(VulnerabilityAnalysisTask.class);
+    private static final VulnerabilityAnalysisExecutor EXECUTOR;
+    private static final ExecutorService PORTFOLIO_EXECUTOR;
+    private static final ScheduledExecutorService LEASE_RENEWAL_EXECUTOR;
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+    private static final Duration DEDUPLICATION_POLL_INTERVAL = Duration.ofSeconds(30);
+
+    static {
+        // Analyzers of all concurrently processed events share this thread pool,
+        // which thus bounds the number of analyzers being executed at any given time.
+        final int threadPoolSize = Config.getInstance().getPropertyAsInt(ConfigKey.VULNERABILITY_ANALYSIS_THREAD_POOL_SIZE);
+        final var threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern(VulnerabilityAnalysisTask.class.getSimpleName() + "-%d")
+                .uncaughtExceptionHandler(new LoggableUncaughtExceptionHandler())
+                .build();
+        final ExecutorService analyzerExecutor = Executors.newFixedThreadPool(Math.max(1, threadPoolSize), threadFactory);
+        Metrics.registerExecutorService(analyzerExecutor, VulnerabilityAnalysisTask.class.getSimpleName());
+
+        // Analyzers of BOM uploads and of periodic analyses are queued in separate lanes, such that
+        // interactive analyses are not stuck behind a portfolio analysis that is in progress.
+        final Map<VulnerabilityAnalysisLevel, Integer> laneWeights = new EnumMap<>(VulnerabilityAnalysisLevel.class);
+        laneWeights.put(VulnerabilityAnalysisLevel.BOM_UPLOAD_ANALYSIS, Config.getInstance().getPropertyAsInt(ConfigKey.VULNERABILITY_ANALYSIS_LANE_WEIGHT_BOM_UPLOAD));
+        laneWeights.put(VulnerabilityAnalysisLevel.PERIODIC_ANALYSIS, Config.getInstance().getPropertyAsInt(ConfigKey.VULNERABILITY_ANALYSIS_LANE_WEIGHT_PERIODIC));
+        EXECUTOR = new VulnerabilityAnalysisExecutor(analyzerExecutor, laneWeights);
+
+        // Workers claiming shards of portfolio analyses. Their analyzers are executed on the pool above.
+        final int workerCount = Config.getInstance().getPropertyAsInt(ConfigKey.VULNERABILITY_ANALYSIS_PORTFOLIO_WORKERS);
+        final var portfolioThreadFactory = new BasicThreadFactory.Builder()
+                .namingPattern(VulnerabilityAnalysisTask.class.getSimpleName() + "-Portfolio-%d")
+                .uncaughtExceptionHandler(new LoggableUncaughtExceptionHandler())
+                .build();
+        PORTFOLIO_EXECUTOR = Executors.newFixedThreadPool(Math.max(1, workerCount), portfolioThreadFactory);
+        Metrics.registerExecutorService(PORTFOLIO_EXECUTOR, VulnerabilityAnalysisTask.class.getSimpleName() + "-Portfolio");
+
+        // Renews the leases of claimed shards while their projects are being analyzed.
+        LEASE_RENEWAL_EXECUTOR = Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder()
+                .namingPattern(VulnerabilityAnalysisTask.class.getSimpleName() + "-LeaseRenewal")
+                .uncaughtExceptionHandler(new LoggableUncaughtExceptionHandler())
+                .daemon(true)
+                .build());
+    }
+
+    /**
+     * Shuts down the executors shared by all instances of this task.
+     * <p>
+     * Workers of a portfolio analysis are interrupted, leaving their shards to be resumed after a restart.
+     * Analyzers that have already been submitted are still executed.
+     *
+     * @since 4.11.0
+     */
+    public static void shutdown() {
+        PORTFOLIO_EXECUTOR.shutdownNow();
+        LEASE_RENEWAL_EXECUTOR.shutdownNow();
+        EXECUTOR.shutdown();
+    }
 
     /**
      * {@inheritDoc}
@@ -67,31 +137,148 @@ public class VulnerabilityAnalysisTask implements Subscriber {
                         // unexpected behavior.
                         components.add(qm.getObjectByUuid(Component.class, c.getUuid()));
                     }
-                    analyzeComponents(qm, components, e);
+                    analyzeComponents(qm, components, e, true);
                 }
             }
         } else if (e instanceof PortfolioVulnerabilityAnalysisEvent event) {
             LOGGER.info("Analyzing portfolio");
+            // The portfolio is split into persistent shards, which are claimed by workers. If shards of a
+            // previous analysis remain unfinished, that analysis is joined instead. This is the case when it
+            // is still in progress (e.g. on another instance), or when it was interrupted by a restart, in which
+            // case it is resumed at startup already (see TaskScheduler).
+            final boolean deduplicate;
             try (final QueryManager qm = new QueryManager()) {
-                final List<UUID> projectUuids = qm.getAllProjects(true)
-                        .stream()
-                        .map(Project::getUuid)
-                        .collect(Collectors.toList());
-                for (final UUID projectUuid : projectUuids) {
-                    final Project project = qm.getObjectByUuid(Project.class, projectUuid);
-                    if (project == null) continue;
-                    final List<Component> components = qm.getAllComponents(project);
-                    LOGGER.info("Analyzing " + components.size() + " components in project: " + project.getUuid());
-                    analyzeComponents(qm, components, e);
-                    performPolicyEvaluation(project, components);
-                    LOGGER.info("Completed scheduled analysis of " + components.size() + " components in project: " + project.getUuid());
+                if (qm.hasUnfinishedPortfolioAnalysisShards()) {
+                    LOGGER.info("Joining portfolio analysis that is in progress or was interrupted");
+                } else {
+                    // When deduplication is enabled, the internal analyzer matches each unique component
+                    // identity only once across the entire portfolio, instead of once per project. This
+                    // is performed by whichever worker claims the dedicated deduplication shard.
+                    final int shardSize = Config.getInstance().getPropertyAsInt(ConfigKey.VULNERABILITY_ANALYSIS_PORTFOLIO_SHARD_SIZE);
+                    final int shardCount = qm.createPortfolioAnalysisShards(Math.max(1, shardSize),
+                            Config.getInstance().getPropertyAsBoolean(ConfigKey.VULNERABILITY_ANALYSIS_PORTFOLIO_DEDUPLICATION_ENABLED));
+                    LOGGER.info("Split portfolio into " + shardCount + " shard(s)");
+                }
+                // Whether the analysis that is joined was started with deduplication enabled,
+                // which may differ from the current configuration when it was resumed.
+                deduplicate = qm.hasPortfolioDeduplicationShard();
+            }
+            final int workerCount = Math.max(1, Config.getInstance().getPropertyAsInt(ConfigKey.VULNERABILITY_ANALYSIS_PORTFOLIO_WORKERS));
+            final List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < workerCount; i++) {
+                final String workerId = INSTANCE_ID + "-" + i;
+                workers.add(PORTFOLIO_EXECUTOR.submit(() -> analyzePortfolioShards(e, workerId, deduplicate)));
+            }
+            for (final Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (InterruptedException ex) {
+                    LOGGER.warn("Interrupted while waiting for portfolio analysis to complete");
+                    Thread.currentThread().interrupt();
+                    workers.forEach(w -> w.cancel(true));
+                    return;
+                } catch (ExecutionException ex) {
+                    LOGGER.error("An unexpected error occurred performing a portfolio analysis", ex.getCause());
                 }
             }
             LOGGER.info("Portfolio analysis complete");
         }
     }
 
-    private void analyzeComponents(final QueryManager qm, final List<Component> components, final Event event) {
+    private void analyzePortfolioShards(final Event event, final String workerId, final boolean deduplicate) {
+        final Duration leaseDuration = Duration.ofMinutes(Config.getInstance().getPropertyAsInt(ConfigKey.VULNERABILITY_ANALYSIS_PORTFOLIO_SHARD_LEASE_MINUTES));
+        while (!Thread.currentThread().isInterrupted()) {
+            try (final QueryManager qm = new QueryManager()) {
+                final PortfolioAnalysisShard shard = qm.claimPortfolioAnalysisShard(workerId, leaseDuration);
+                if (shard == null) {
+                    // Shards of projects can only be claimed once the deduplicated analysis completed.
+                    // Should another worker be performing it, wait for it instead of leaving the analysis.
+                    if (!qm.isPortfolioDeduplicationPending()) {
+                        return;
+                    }
+                    try {
+                        Thread.sleep(DEDUPLICATION_POLL_INTERVAL.toMillis());
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    continue;
+                }
+                LOGGER.info("Analyzing portfolio shard #" + shard.getShardIndex() + " (worker: " + workerId + ")");
+                // Checkpoints renew the lease only once a project has been analyzed. Renew it in the background
+                // as well, such that analyzing a large project does not cause the shard to be reclaimed.
+                final long shardId = shard.getId();
+                final long renewalIntervalMillis = Math.max(1000, leaseDuration.toMillis() / 3);
+                final ScheduledFuture<?> leaseRenewal = LEASE_RENEWAL_EXECUTOR.scheduleAtFixedRate(
+                        () -> renewPortfolioAnalysisShardLease(shardId, workerId),
+                        renewalIntervalMillis, renewalIntervalMillis, TimeUnit.MILLISECONDS);
+                final boolean completed;
+                try {
+                    completed = (shard.isDeduplicationShard()
+                            ? analyzeDeduplicatedPortfolio()
+                            : analyzePortfolioShard(qm, shard, event, workerId, deduplicate))
+                            && qm.completePortfolioAnalysisShard(shard, workerId);
+                } finally {
+                    leaseRenewal.cancel(false);
+                }
+                if (completed) {
+                    LOGGER.info("Completed analysis of portfolio shard #" + shard.getShardIndex() + " (worker: " + workerId + ")");
+                } else {
+                    LOGGER.warn("Portfolio shard #" + shard.getShardIndex() + " has been claimed by another worker; Abandoning it (worker: " + workerId + ")");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return always true, as the deduplicated analysis does not record checkpoints
+     */
+    private static boolean analyzeDeduplicatedPortfolio() {
+        try {
+            new InternalAnalysisTask().analyzePortfolio(VulnerabilityAnalysisLevel.PERIODIC_ANALYSIS);
+        } catch (Exception ex) {
+            LOGGER.error("An unexpected error occurred performing a vulnerability analysis task", ex);
+        }
+        return true;
+    }
+
+    private static void renewPortfolioAnalysisShardLease(final long shardId, final String workerId) {
+        // Exceptions must not escape, as they would prevent subsequent renewals.
+        try (final QueryManager qm = new QueryManager()) {
+            if (!qm.renewPortfolioAnalysisShardLease(shardId, workerId)) {
+                LOGGER.warn("Failed to renew lease of portfolio shard " + shardId + "; It has been completed or claimed by another worker (worker: " + workerId + ")");
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.error("An unexpected error occurred renewing the lease of portfolio shard " + shardId + " (worker: " + workerId + ")", ex);
+        }
+    }
+
+    /**
+     * @return false if the shard has been claimed by another worker while it was being analyzed
+     */
+    private boolean analyzePortfolioShard(final QueryManager qm, final PortfolioAnalysisShard shard, final Event event,
+                                          final String workerId, final boolean deduplicate) {
+        for (final Long projectId : qm.getPortfolioAnalysisShardProjectIds(shard)) {
+            try {
+                final Project project = qm.getObjectById(Project.class, projectId);
+                final List<Component> components = qm.getAllComponents(project);
+                LOGGER.info("Analyzing " + components.size() + " components in project: " + project.getUuid());
+                analyzeComponents(qm, components, event, !deduplicate);
+                performPolicyEvaluation(project, components);
+                LOGGER.info("Completed scheduled analysis of " + components.size() + " components in project: " + project.getUuid());
+            } catch (JDOObjectNotFoundException ex) {
+                LOGGER.debug("Project " + projectId + " has been deleted since the portfolio was sharded; Skipping");
+            } catch (RuntimeException ex) {
+                LOGGER.error("An unexpected error occurred analyzing project " + projectId, ex);
+            }
+            if (!qm.checkpointPortfolioAnalysisShard(shard, workerId, projectId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void analyzeComponents(final QueryManager qm, final List<Component> components, final Event event,
+                                   final boolean includeInternalAnalysis) {
         /*
           When this task is processing events that specify the components to scan,
           separate them out into 'candidates' so that we can fire off multiple events
@@ -106,21 +293,46 @@ public class VulnerabilityAnalysisTask implements Subscriber {
         final List<Component> vulnDbCandidates = new ArrayList<>();
         final List<Component> snykCandidates = new ArrayList<>();
         for (final Component component : components) {
-            inspectComponentReadiness(component, internalAnalysisTask, internalCandidates);
+            if (includeInternalAnalysis) {
+                inspectComponentReadiness(component, internalAnalysisTask, internalCandidates);
+            }
             inspectComponentReadiness(component, ossIndexAnalysisTask, ossIndexCandidates);
             inspectComponentReadiness(component, vulnDbAnalysisTask, vulnDbCandidates);
             inspectComponentReadiness(component, snykAnalysisTask, snykCandidates);
         }
 
-        qm.detach(components);
+        // Each analyzer operates on its own detached copies of the components, such that the
+        // transient cache results of analyzers running concurrently do not interfere with each other.
+        final VulnerabilityAnalysisLevel analysisLevel = (event instanceof VulnerabilityAnalysisEvent)
+                ? VulnerabilityAnalysisLevel.BOM_UPLOAD_ANALYSIS
+                : VulnerabilityAnalysisLevel.PERIODIC_ANALYSIS;
+        final List<Future<?>> futures = new ArrayList<>();
+        futures.add(submitAnalysis(internalAnalysisTask, new InternalAnalysisEvent(qm.detach(internalCandidates)), internalAnalysisTask.getAnalyzerIdentity(), analysisLevel));
+        futures.add(submitAnalysis(ossIndexAnalysisTask, new OssIndexAnalysisEvent(qm.detach(ossIndexCandidates)), ossIndexAnalysisTask.getAnalyzerIdentity(), analysisLevel));
+        futures.add(submitAnalysis(snykAnalysisTask, new SnykAnalysisEvent(qm.detach(snykCandidates)), snykAnalysisTask.getAnalyzerIdentity(), analysisLevel));
+        futures.add(submitAnalysis(vulnDbAnalysisTask, new VulnDbAnalysisEvent(qm.detach(vulnDbCandidates)), vulnDbAnalysisTask.getAnalyzerIdentity(), analysisLevel));
 
-        // Do not call individual async events when processing a known list of components.
-        // Call each analyzer task sequentially and catch any exceptions as to prevent one analyzer
-        // from interrupting the successful execution of all analyzers.
-        performAnalysis(internalAnalysisTask, new InternalAnalysisEvent(internalCandidates), internalAnalysisTask.getAnalyzerIdentity(), event);
-        performAnalysis(ossIndexAnalysisTask, new OssIndexAnalysisEvent(ossIndexCandidates), ossIndexAnalysisTask.getAnalyzerIdentity(), event);
-        performAnalysis(snykAnalysisTask, new SnykAnalysisEvent(snykCandidates), snykAnalysisTask.getAnalyzerIdentity(), event);
-        performAnalysis(vulnDbAnalysisTask, new VulnDbAnalysisEvent(vulnDbCandidates), vulnDbAnalysisTask.getAnalyzerIdentity(), event);
+        // Do not return before all analyzers completed, as events chained to this
+        // task (e.g. policy evaluation) rely on the results of the analysis.
+        for (final Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                LOGGER.warn("Interrupted while waiting for vulnerability analysis to complete");
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                return;
+            } catch (ExecutionException ex) {
+                LOGGER.error("An unexpected error occurred performing a vulnerability analysis task", ex.getCause());
+            }
+        }
+    }
+
+    private Future<?> submitAnalysis(final Subscriber scanTask, final VulnerabilityAnalysisEvent event,
+                                     final AnalyzerIdentity analyzerIdentity, final VulnerabilityAnalysisLevel analysisLevel) {
+        // Analyzers are executed concurrently, and exceptions are caught in performAnalysis
+        // as to prevent one analyzer from interrupting the successful execution of all analyzers.
+        return EXECUTOR.submit(analysisLevel, () -> performAnalysis(scanTask, event, analyzerIdentity, analysisLevel));
     }
 
     private void performPolicyEvaluation(Project project, List<Component> components) {
@@ -148,12 +360,9 @@ public class VulnerabilityAnalysisTask implements Subscriber {
     }
 
     private void performAnalysis(final Subscriber scanTask, final VulnerabilityAnalysisEvent event,
-                                 final AnalyzerIdentity analyzerIdentity, final Event eventType) {
+                                 final AnalyzerIdentity analyzerIdentity, final VulnerabilityAnalysisLevel analysisLevel) {
         Instant start = Instant.now();
-        event.setVulnerabilityAnalysisLevel(VulnerabilityAnalysisLevel.PERIODIC_ANALYSIS);
-        if (eventType instanceof VulnerabilityAnalysisEvent) {
-            event.setVulnerabilityAnalysisLevel(VulnerabilityAnalysisLevel.BOM_UPLOAD_ANALYSIS);
-        }
+        event.setVulnerabilityAnalysisLevel(analysisLevel);
         if (CollectionUtils.isNotEmpty(event.getComponents())) {
             // Clear the transient cache result for each component.
             // Each analyzer will have its own result. Therefore, we do not want to mix them.
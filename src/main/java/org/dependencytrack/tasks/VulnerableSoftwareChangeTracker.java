@@ -0,0 +1,80 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import alpine.common.logging.Logger;
+import alpine.event.framework.Event;
+import org.dependencytrack.event.DeltaVulnerabilityAnalysisEvent;
+import org.dependencytrack.model.VulnerableSoftware;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks {@link VulnerableSoftware} records that mirror tasks newly associate with vulnerabilities,
+ * such that components affected by them can be analyzed once mirroring completed.
+ * <p>
+ * Tracking stops once more records changed than a {@link DeltaVulnerabilityAnalysisTask} would analyze,
+ * e.g. when a vulnerability source is mirrored for the first time. Such changes are left to the next
+ * portfolio analysis. Instances are safe for use by multiple threads.
+ *
+ * @since 4.11.0
+ */
+final class VulnerableSoftwareChangeTracker {
+
+    private static final Logger LOGGER = Logger.getLogger(VulnerableSoftwareChangeTracker.class);
+
+    private final Set<Long> addedIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean exceeded;
+
+    /**
+     * Records all records of {@code vsList} that are not contained in {@code vsOldIds}.
+     *
+     * @param vsOldIds IDs of the records associated with a vulnerability before it was mirrored
+     * @param vsList   the records associated with the vulnerability after it was mirrored
+     */
+    void recordAdded(final Set<Long> vsOldIds, final Collection<VulnerableSoftware> vsList) {
+        if (exceeded) {
+            return;
+        }
+        for (final VulnerableSoftware vs : vsList) {
+            if (!vsOldIds.contains(vs.getId())) {
+                addedIds.add(vs.getId());
+            }
+        }
+        if (addedIds.size() > DeltaVulnerabilityAnalysisTask.MAX_VULNERABLE_SOFTWARE_IDS) {
+            exceeded = true;
+            addedIds.clear();
+        }
+    }
+
+    /**
+     * Dispatches a {@link DeltaVulnerabilityAnalysisEvent} for all recorded records, if any.
+     */
+    void dispatchDeltaAnalysis() {
+        if (exceeded) {
+            LOGGER.info("More than %d vulnerable software records changed, which is too broad for a delta analysis; They will be considered by the next portfolio analysis"
+                    .formatted(DeltaVulnerabilityAnalysisTask.MAX_VULNERABLE_SOFTWARE_IDS));
+        } else if (!addedIds.isEmpty()) {
+            Event.dispatch(new DeltaVulnerabilityAnalysisEvent(addedIds));
+        }
+    }
+
+}
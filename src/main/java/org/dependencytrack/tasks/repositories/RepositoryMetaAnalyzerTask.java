@@ -28,6 +28,7 @@ import alpine.security.crypto.DataEncryption;
 import io.micrometer.core.instrument.Timer;
 import org.apache.commons.lang3.StringUtils;
 import org.dependencytrack.common.ConfigKey;
+import org.dependencytrack.common.UpstreamRequestExecutor;
 import org.dependencytrack.event.RepositoryMetaEvent;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.ComponentAnalysisCache;
@@ -86,9 +87,13 @@ public class RepositoryMetaAnalyzerTask implements Subscriber {
                     final List<Component> components = event.getComponents().get();
                     // Refreshing the object by querying for it again is preventative
                     LOGGER.info("Performing component repository metadata analysis against " + components.size() + " components");
-                    for (final Component component : components) {
-                        qm.ensureNoActiveTransaction(); // Workaround for https://github.com/DependencyTrack/dependency-track/issues/2677
-                        analyze(qm, qm.getObjectById(Component.class, component.getId()));
+                    if (UpstreamRequestExecutor.isEnabled()) {
+                        analyzeConcurrently(components);
+                    } else {
+                        for (final Component component : components) {
+                            qm.ensureNoActiveTransaction(); // Workaround for https://github.com/DependencyTrack/dependency-track/issues/2677
+                            analyze(qm, qm.getObjectById(Component.class, component.getId()));
+                        }
                     }
                     LOGGER.info("Completed component repository metadata analysis against " + components.size() + " components");
                 }
@@ -99,9 +104,13 @@ public class RepositoryMetaAnalyzerTask implements Subscriber {
                     for (final Project project : projects) {
                         final List<Component> components = qm.getAllComponents(project);
                         LOGGER.debug("Performing component repository metadata analysis against " + components.size() + " components in project: " + project.getUuid());
-                        for (final Component component : components) {
-                            qm.ensureNoActiveTransaction(); // Workaround for https://github.com/DependencyTrack/dependency-track/issues/2677
-                            analyze(qm, component);
+                        if (UpstreamRequestExecutor.isEnabled()) {
+                            analyzeConcurrently(components);
+                        } else {
+                            for (final Component component : components) {
+                                qm.ensureNoActiveTransaction(); // Workaround for https://github.com/DependencyTrack/dependency-track/issues/2677
+                                analyze(qm, component);
+                            }
                         }
                         LOGGER.debug("Completed component repository metadata analysis against " + components.size() + " components in project: " + project.getUuid());
                     }
@@ -113,6 +122,23 @@ public class RepositoryMetaAnalyzerTask implements Subscriber {
         }
     }
 
+    /**
+     * Analyzes components concurrently on the {@link UpstreamRequestExecutor}.
+     * As {@link QueryManager}s must not be shared across threads, each component
+     * is analyzed using its own.
+     */
+    private void analyzeConcurrently(final List<Component> components) {
+        final List<Long> componentIds = components.stream().map(Component::getId).toList();
+        UpstreamRequestExecutor.forEach(componentIds, componentId -> {
+            try (final QueryManager qm = new QueryManager()) {
+                final Component component = qm.getObjectById(Component.class, componentId);
+                if (component != null) {
+                    analyze(qm, component);
+                }
+            }
+        });
+    }
+
     private void analyze(final QueryManager qm, final Component component) {
         LOGGER.debug("Analyzing component: " + component.getUuid());
         final IMetaAnalyzer analyzer = IMetaAnalyzer.build(component);
@@ -174,7 +200,9 @@ public class RepositoryMetaAnalyzerTask implements Subscriber {
                         }
                     }
                     analyzer.setRepositoryBaseUrl(repository.getUrl());
-                    model = analyzer.analyze(component);
+                    try (final UpstreamRequestExecutor.Permit ignored = UpstreamRequestExecutor.acquirePermit(repository.getUrl())) {
+                        model = analyzer.analyze(component);
+                    }
                     qm.updateComponentAnalysisCache(ComponentAnalysisCache.CacheType.REPOSITORY, repository.getUrl(), repository.getType().name(), PurlUtil.silentPurlCoordinatesOnly(component.getPurl()).toString(), new Date(), buildRepositoryComponentAnalysisCacheResult(model));
                 }
 
@@ -25,10 +25,12 @@ import org.dependencytrack.model.VulnerabilityAnalysisLevel;
 import org.dependencytrack.model.VulnerableSoftware;
 import org.dependencytrack.persistence.QueryManager;
 import org.dependencytrack.util.ComponentVersion;
-import org.dependencytrack.util.NotificationUtil;
+import org.dependencytrack.util.VersionRange;
 import us.springett.parsers.cpe.Cpe;
 import us.springett.parsers.cpe.util.Relation;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 /**
@@ -53,19 +55,53 @@ public abstract class AbstractVulnerableSoftwareAnalysisTask extends BaseCompone
     protected void analyzeVersionRange(final QueryManager qm, final List<VulnerableSoftware> vsList,
                                        final Cpe targetCpe, final String targetVersion, final Component component,
                                        final VulnerabilityAnalysisLevel vulnerabilityAnalysisLevel) {
+        final var accumulator = new FindingAccumulator(qm, getAnalyzerIdentity(), vulnerabilityAnalysisLevel);
+        for (final Vulnerability vulnerability : getMatchingVulnerabilities(vsList, targetCpe, targetVersion)) {
+            accumulator.add(component, vulnerability);
+        }
+        accumulator.flush();
+    }
+
+    /**
+     * Analyzes the targetVersion against a list of VulnerableSoftware objects which may contain
+     * specific versions or version ranges, and collects the vulnerabilities of all matches.
+     *
+     * @param vsList        a list of VulnerableSoftware objects
+     * @param targetCpe     the CPE of the component, or <code>null</code> if the component has none
+     * @param targetVersion the version of the component
+     * @return the distinct vulnerabilities associated with matching VulnerableSoftware objects
+     * @since 4.11.0
+     */
+    protected List<Vulnerability> getMatchingVulnerabilities(final List<VulnerableSoftware> vsList, final Cpe targetCpe,
+                                                             final String targetVersion) {
+        final var parsedTargetVersion = ComponentVersion.of(targetVersion);
+        final var vulnerabilities = new LinkedHashSet<Vulnerability>();
         for (final VulnerableSoftware vs : vsList) {
-            final Boolean isCpeMatch = maybeMatchCpe(vs, targetCpe, targetVersion);
-            if ((isCpeMatch == null || isCpeMatch) && compareVersions(vs, targetVersion)) {
+            if (isMatch(vs, targetCpe, targetVersion, parsedTargetVersion)) {
                 if (vs.getVulnerabilities() != null) {
-                    for (final Vulnerability vulnerability : vs.getVulnerabilities()) {
-                        NotificationUtil.analyzeNotificationCriteria(qm, vulnerability, component, vulnerabilityAnalysisLevel);
-                        qm.addVulnerability(vulnerability, component, this.getAnalyzerIdentity());
-                    }
+                    vulnerabilities.addAll(vs.getVulnerabilities());
                 }
             }
         }
+        return new ArrayList<>(vulnerabilities);
+    }
+
+    /**
+     * Determines whether a VulnerableSoftware object matches the target CPE and version.
+     *
+     * @param vs                  the VulnerableSoftware object to evaluate
+     * @param targetCpe           the CPE of the component, or <code>null</code> if the component has none
+     * @param targetVersion       the version of the component
+     * @param parsedTargetVersion the version of the component, parsed as {@link ComponentVersion}
+     * @return <code>true</code> if the VulnerableSoftware object matches; otherwise <code>false</code>
+     * @since 4.11.0
+     */
+    protected boolean isMatch(final VulnerableSoftware vs, final Cpe targetCpe, final String targetVersion,
+                              final ComponentVersion parsedTargetVersion) {
+        final Boolean isCpeMatch = maybeMatchCpe(vs, targetCpe, targetVersion);
+        return (isCpeMatch == null || isCpeMatch) && compareVersions(vs, targetVersion, parsedTargetVersion);
     }
-    
+
     private Boolean maybeMatchCpe(final VulnerableSoftware vs, final Cpe targetCpe, final String targetVersion) {
         if (targetCpe == null || vs.getCpe23() == null) {
             return null;
@@ -108,48 +144,28 @@ public abstract class AbstractVulnerableSoftwareAnalysisTask extends BaseCompone
      * Evaluates the target against the version and version range checks:
      * versionEndExcluding, versionStartExcluding versionEndIncluding, and
      * versionStartIncluding.
+     * <p>
+     * The version range of the VulnerableSoftware is parsed only once, see {@link VulnerableSoftware#getVersionRange()}.
      *
-     * @param vs            a reference to the vulnerable software to compare
-     * @param targetVersion the version to compare
+     * @param vs                  a reference to the vulnerable software to compare
+     * @param targetVersion       the version to compare
+     * @param parsedTargetVersion the version to compare, parsed as {@link ComponentVersion}
      * @return <code>true</code> if the target version is matched; otherwise
      * <code>false</code>
      * <p>
      * Ported from Dependency-Check v5.2.1
      */
-    private static boolean compareVersions(VulnerableSoftware vs, String targetVersion) {
-        //if any of the four conditions will be evaluated - then true;
-        boolean result = (vs.getVersionEndExcluding() != null && !vs.getVersionEndExcluding().isEmpty())
-                || (vs.getVersionStartExcluding() != null && !vs.getVersionStartExcluding().isEmpty())
-                || (vs.getVersionEndIncluding() != null && !vs.getVersionEndIncluding().isEmpty())
-                || (vs.getVersionStartIncluding() != null && !vs.getVersionStartIncluding().isEmpty());
+    private static boolean compareVersions(final VulnerableSoftware vs, final String targetVersion,
+                                           final ComponentVersion parsedTargetVersion) {
+        final VersionRange versionRange = vs.getVersionRange();
 
         // Modified from original by Steve Springett
         // Added null check: vs.getVersion() != null as purl sources that use version ranges may not have version populated.
-        if (!result && vs.getVersion() != null && Cpe.compareAttribute(vs.getVersion(), targetVersion) != Relation.DISJOINT) {
-            return true;
+        if (!versionRange.hasBounds()) {
+            return vs.getVersion() != null && Cpe.compareAttribute(vs.getVersion(), targetVersion) != Relation.DISJOINT;
         }
 
-        final ComponentVersion target = new ComponentVersion(targetVersion);
-        if (target.getVersionParts().isEmpty()) {
-            return false;
-        }
-        if (result && vs.getVersionEndExcluding() != null && !vs.getVersionEndExcluding().isEmpty()) {
-            final ComponentVersion endExcluding = new ComponentVersion(vs.getVersionEndExcluding());
-            result = endExcluding.compareTo(target) > 0;
-        }
-        if (result && vs.getVersionStartExcluding() != null && !vs.getVersionStartExcluding().isEmpty()) {
-            final ComponentVersion startExcluding = new ComponentVersion(vs.getVersionStartExcluding());
-            result = startExcluding.compareTo(target) < 0;
-        }
-        if (result && vs.getVersionEndIncluding() != null && !vs.getVersionEndIncluding().isEmpty()) {
-            final ComponentVersion endIncluding = new ComponentVersion(vs.getVersionEndIncluding());
-            result &= endIncluding.compareTo(target) >= 0;
-        }
-        if (result && vs.getVersionStartIncluding() != null && !vs.getVersionStartIncluding().isEmpty()) {
-            final ComponentVersion startIncluding = new ComponentVersion(vs.getVersionStartIncluding());
-            result &= startIncluding.compareTo(target) <= 0;
-        }
-        return result;
+        return versionRange.contains(parsedTargetVersion);
     }
 
 }
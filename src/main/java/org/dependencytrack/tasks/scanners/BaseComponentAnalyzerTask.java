@@ -24,7 +24,6 @@ import alpine.model.ConfigProperty;
 import alpine.notification.Notification;
 import alpine.notification.NotificationLevel;
 import org.dependencytrack.model.Component;
-import org.dependencytrack.model.ComponentAnalysisCache;
 import org.dependencytrack.model.ConfigPropertyConstants;
 import org.dependencytrack.model.Vulnerability;
 import org.dependencytrack.model.VulnerabilityAnalysisLevel;
@@ -32,14 +31,16 @@ import org.dependencytrack.notification.NotificationConstants;
 import org.dependencytrack.notification.NotificationGroup;
 import org.dependencytrack.notification.NotificationScope;
 import org.dependencytrack.persistence.QueryManager;
-import org.dependencytrack.util.NotificationUtil;
 
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonNumber;
 import javax.json.JsonObject;
-import java.util.Date;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * A base class that has logic common or useful to all classes that extend it.
@@ -64,55 +65,70 @@ public abstract class BaseComponentAnalyzerTask implements ScanTask {
     }
 
     protected boolean isCacheCurrent(Vulnerability.Source source, String targetHost, String target) {
+        return getCurrentTargets(source, targetHost, List.of(target)).contains(target);
+    }
+
+    /**
+     * Determines which of the given targets have a current analysis result,
+     * using a single lookup for all of them.
+     *
+     * @param source     the {@link Vulnerability.Source} of the analyzer
+     * @param targetHost the host the targets are analyzed against
+     * @param targets    the targets to check
+     * @return the targets with a current analysis result
+     * @since 4.11.0
+     */
+    protected Set<String> getCurrentTargets(Vulnerability.Source source, String targetHost, Collection<String> targets) {
         try (QueryManager qm = new QueryManager()) {
-            boolean isCacheCurrent = false;
-            ConfigProperty cacheClearPeriod = qm.getConfigProperty(ConfigPropertyConstants.SCANNER_ANALYSIS_CACHE_VALIDITY_PERIOD.getGroupName(), ConfigPropertyConstants.SCANNER_ANALYSIS_CACHE_VALIDITY_PERIOD.getPropertyName());
-            long cacheValidityPeriod = Long.parseLong(cacheClearPeriod.getPropertyValue());
-            ComponentAnalysisCache cac = qm.getComponentAnalysisCache(ComponentAnalysisCache.CacheType.VULNERABILITY, targetHost, source.name(), target);
-            if (cac != null) {
-                final Date now = new Date();
-                if (now.getTime() > cac.getLastOccurrence().getTime()) {
-                    final long delta = now.getTime() - cac.getLastOccurrence().getTime();
-                    isCacheCurrent = delta <= cacheValidityPeriod;
-                }
-            }
-            if (isCacheCurrent) {
-                LOGGER.debug("Cache is current. Skipping analysis. (source: " + source + " / targetHost: " + targetHost + " / target: " + target);
-            } else {
-                LOGGER.debug("Cache is not current. Analysis should be performed (source: " + source + " / targetHost: " + targetHost + " / target: " + target);
-            }
-            return isCacheCurrent;
+            final Set<String> currentTargets = VulnerabilityAnalysisCache.getCurrentTargets(qm, source, targetHost, targets);
+            LOGGER.debug("Cache is current for " + currentTargets.size() + " of " + targets.size() + " target(s). Analysis should be performed for the others (source: " + source + " / targetHost: " + targetHost + ")");
+            return currentTargets;
         }
     }
 
     protected void applyAnalysisFromCache(Vulnerability.Source source, String targetHost, String target, Component component,
                                           AnalyzerIdentity analyzerIdentity, VulnerabilityAnalysisLevel vulnerabilityAnalysisLevel) {
+        applyAnalysisFromCache(source, targetHost, List.of(component), ignored -> target, analyzerIdentity, vulnerabilityAnalysisLevel);
+    }
+
+    /**
+     * Applies the cached analysis results of multiple components, using a single
+     * {@link QueryManager} and recording all findings in bulk.
+     *
+     * @param source         the {@link Vulnerability.Source} of the analyzer
+     * @param targetHost     the host the components were analyzed against
+     * @param components     the components to apply cached results to
+     * @param targetFunction resolves the cache target of a component
+     * @since 4.11.0
+     */
+    protected void applyAnalysisFromCache(Vulnerability.Source source, String targetHost, List<Component> components,
+                                          Function<Component, String> targetFunction, AnalyzerIdentity analyzerIdentity,
+                                          VulnerabilityAnalysisLevel vulnerabilityAnalysisLevel) {
         try (QueryManager qm = new QueryManager()) {
-            final ComponentAnalysisCache cac = qm.getComponentAnalysisCache(ComponentAnalysisCache.CacheType.VULNERABILITY, targetHost, source.name(), target);
-            if (cac != null) {
-                final JsonObject result = cac.getResult();
+            final var accumulator = new FindingAccumulator(qm, analyzerIdentity, vulnerabilityAnalysisLevel);
+            for (final Component component : components) {
+                final JsonObject result = VulnerabilityAnalysisCache.getResult(qm, source, targetHost, targetFunction.apply(component));
                 if (result != null) {
                     final JsonArray vulns = result.getJsonArray("vulnIds");
-                    if (vulns != null) {
+                    final Component c = qm.getObjectByUuid(Component.class, component.getUuid());
+                    if (vulns != null && c != null) {
                         for (JsonNumber vulnId : vulns.getValuesAs(JsonNumber.class)) {
                             final Vulnerability vulnerability;
                             vulnerability = qm.getObjectById(Vulnerability.class, vulnId.longValue());
-                            final Component c = qm.getObjectByUuid(Component.class, component.getUuid());
-                            if (c == null) continue;
                             if (vulnerability != null) {
-                                NotificationUtil.analyzeNotificationCriteria(qm, vulnerability, component, vulnerabilityAnalysisLevel);
-                                qm.addVulnerability(vulnerability, c, analyzerIdentity);
+                                accumulator.add(c, vulnerability);
                             }
                         }
                     }
                 }
             }
+            accumulator.flush();
         }
     }
 
-    protected synchronized void updateAnalysisCacheStats(QueryManager qm, Vulnerability.Source source, String
+    protected void updateAnalysisCacheStats(QueryManager qm, Vulnerability.Source source, String
             targetHost, String target, JsonObject result) {
-        qm.updateComponentAnalysisCache(ComponentAnalysisCache.CacheType.VULNERABILITY, targetHost, source.name(), target, new Date(), result);
+        VulnerabilityAnalysisCache.update(qm, source, targetHost, target, result);
     }
 
     protected void addVulnerabilityToCache(Component component, Vulnerability vulnerability) {
@@ -0,0 +1,164 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.FindingAttribution;
+import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.model.VulnerabilityAnalysisLevel;
+import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.util.NotificationUtil;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects the findings of an analyzer, and applies them in bulk.
+ * <p>
+ * Rather than checking for the existence of, and persisting, every finding individually,
+ * existing findings are determined with a single set-based query when {@link #flush()} is called.
+ * Notifications are dispatched for new findings only, with their affected projects resolved in bulk,
+ * and all new findings are written within a single transaction.
+ * <p>
+ * Flushes of accumulators that share components are serialized, such that analyzers running concurrently
+ * (e.g. the internal analyzer and OSS Index both reporting the same NVD vulnerability) cannot both consider
+ * a finding to be new, and persist it twice.
+ * <p>
+ * All components and vulnerabilities must be attached to the {@link QueryManager} of the accumulator.
+ *
+ * @since 4.11.0
+ */
+public final class FindingAccumulator {
+
+    private static final int LOCK_STRIPES = 64;
+    private static final ReentrantLock[] LOCKS = new ReentrantLock[LOCK_STRIPES];
+
+    static {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            LOCKS[i] = new ReentrantLock();
+        }
+    }
+
+    private final QueryManager qm;
+    private final AnalyzerIdentity analyzerIdentity;
+    private final VulnerabilityAnalysisLevel vulnerabilityAnalysisLevel;
+    private final Map<Pair<Long, Long>, FindingAttribution> findings = new LinkedHashMap<>();
+
+    public FindingAccumulator(final QueryManager qm, final AnalyzerIdentity analyzerIdentity,
+                              final VulnerabilityAnalysisLevel vulnerabilityAnalysisLevel) {
+        this.qm = qm;
+        this.analyzerIdentity = analyzerIdentity;
+        this.vulnerabilityAnalysisLevel = vulnerabilityAnalysisLevel;
+    }
+
+    /**
+     * Adds a finding to the accumulator. Findings that were already added are ignored.
+     *
+     * @param component     the component affected by the vulnerability
+     * @param vulnerability the vulnerability
+     */
+    public void add(final Component component, final Vulnerability vulnerability) {
+        add(component, vulnerability, null, null);
+    }
+
+    /**
+     * Adds a finding to the accumulator. Findings that were already added are ignored.
+     *
+     * @param component           the component affected by the vulnerability
+     * @param vulnerability       the vulnerability
+     * @param alternateIdentifier the optional identifier if the analyzer refers to the vulnerability by an alternative identifier
+     * @param referenceUrl        the optional URL that references the occurrence of the vulnerability if uniquely identified
+     */
+    public void add(final Component component, final Vulnerability vulnerability,
+                    final String alternateIdentifier, final String referenceUrl) {
+        findings.putIfAbsent(Pair.of(component.getId(), vulnerability.getId()),
+                new FindingAttribution(component, vulnerability, analyzerIdentity, alternateIdentifier, referenceUrl));
+    }
+
+    /**
+     * @return the number of findings that have not been flushed yet
+     */
+    public int size() {
+        return findings.size();
+    }
+
+    /**
+     * Applies all accumulated findings that do not exist yet, and resets the accumulator.
+     *
+     * @return the number of new findings
+     */
+    public int flush() {
+        if (findings.isEmpty()) {
+            return 0;
+        }
+
+        final Set<Long> componentIds = new HashSet<>();
+        final Set<Long> vulnerabilityIds = new HashSet<>();
+        for (final Pair<Long, Long> key : findings.keySet()) {
+            componentIds.add(key.getLeft());
+            vulnerabilityIds.add(key.getRight());
+        }
+
+        // Stripes are acquired in ascending order, which prevents deadlocks between
+        // accumulators whose components map to overlapping sets of stripes.
+        final SortedSet<Integer> stripes = new TreeSet<>();
+        for (final Long componentId : componentIds) {
+            stripes.add(Math.floorMod(Long.hashCode(componentId), LOCK_STRIPES));
+        }
+        final List<ReentrantLock> acquiredLocks = new ArrayList<>(stripes.size());
+        try {
+            for (final Integer stripe : stripes) {
+                LOCKS[stripe].lock();
+                acquiredLocks.add(LOCKS[stripe]);
+            }
+            return flush(componentIds, vulnerabilityIds);
+        } finally {
+            acquiredLocks.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private int flush(final Set<Long> componentIds, final Set<Long> vulnerabilityIds) {
+        final Set<Pair<Long, Long>> existingFindings = qm.getExistingFindings(componentIds, vulnerabilityIds);
+
+        final List<FindingAttribution> newFindings = new ArrayList<>();
+        for (final Map.Entry<Pair<Long, Long>, FindingAttribution> entry : findings.entrySet()) {
+            if (!existingFindings.contains(entry.getKey())) {
+                newFindings.add(entry.getValue());
+            }
+        }
+        findings.clear();
+
+        final Map<Component, List<Vulnerability>> newVulnerabilitiesByComponent = new LinkedHashMap<>();
+        for (final FindingAttribution finding : newFindings) {
+            newVulnerabilitiesByComponent.computeIfAbsent(finding.getComponent(), ignored -> new ArrayList<>()).add(finding.getVulnerability());
+        }
+        NotificationUtil.dispatchNewVulnerabilityNotifications(qm, newVulnerabilitiesByComponent, vulnerabilityAnalysisLevel);
+        qm.addFindings(newFindings);
+        return newFindings.size();
+    }
+
+}
@@ -21,18 +21,30 @@ package org.dependencytrack.tasks.scanners;
 import alpine.common.logging.Logger;
 import alpine.event.framework.Event;
 import alpine.event.framework.Subscriber;
+import com.github.packageurl.PackageURL;
 import org.dependencytrack.event.InternalAnalysisEvent;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.ConfigPropertyConstants;
+import org.dependencytrack.model.Vulnerability;
 import org.dependencytrack.model.VulnerabilityAnalysisLevel;
 import org.dependencytrack.model.VulnerableSoftware;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.persistence.VulnerableSoftwareIndex;
 import org.dependencytrack.search.FuzzyVulnerableSoftwareSearchManager;
+import org.dependencytrack.util.ComponentVersion;
 import us.springett.parsers.cpe.CpeParser;
 import us.springett.parsers.cpe.exceptions.CpeParsingException;
 
+import javax.jdo.Query;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * Subscriber task that performs an analysis of component using internal CPE/PURL data.
@@ -43,12 +55,14 @@ import java.util.List;
 public class InternalAnalysisTask extends AbstractVulnerableSoftwareAnalysisTask implements Subscriber {
 
     private static final Logger LOGGER = Logger.getLogger(InternalAnalysisTask.class);
+    private static final int BATCH_SIZE = 500;
 
     public AnalyzerIdentity getAnalyzerIdentity() {
         return AnalyzerIdentity.INTERNAL_ANALYZER;
     }
 
     private VulnerabilityAnalysisLevel vulnerabilityAnalysisLevel;
+    private FuzzyVulnerableSoftwareSearchManager fuzzySearchManager;
 
     /**
      * {@inheritDoc}
@@ -80,23 +94,160 @@ public class InternalAnalysisTask extends AbstractVulnerableSoftwareAnalysisTask
 
     /**
      * Analyzes a list of Components.
+     * <p>
+     * Components sharing the same identity are matched only once.
      * @param components a list of Components
      */
     public void analyze(final List<Component> components) {
         try (QueryManager qm = new QueryManager()) {
             LOGGER.info("Analyzing " + components.size() + " component(s)");
+            final VulnerableSoftwareIndex index = getVulnerableSoftwareIndex(qm);
+            fuzzySearchManager = new FuzzyVulnerableSoftwareSearchManager(super.isEnabled(ConfigPropertyConstants.SCANNER_INTERNAL_FUZZY_EXCLUDE_PURL));
+            final Map<AnalysisIdentity, List<Component>> componentsByIdentity = new LinkedHashMap<>();
             for (final Component c : components) {
                 final Component component = qm.getObjectByUuid(Component.class, c.getUuid()); // Refresh component and attach to current pm.
                 if (component == null) continue;
-                versionRangeAnalysis(qm, component);
+                componentsByIdentity.computeIfAbsent(AnalysisIdentity.of(component), ignored -> new ArrayList<>()).add(component);
             }
+            final var accumulator = new FindingAccumulator(qm, getAnalyzerIdentity(), vulnerabilityAnalysisLevel);
+            for (final List<Component> identicalComponents : componentsByIdentity.values()) {
+                final List<Vulnerability> vulnerabilities = versionRangeAnalysis(qm, identicalComponents.get(0), index);
+                addFindings(accumulator, vulnerabilities, identicalComponents);
+            }
+            accumulator.flush();
+        }
+    }
+
+    /**
+     * Analyzes all components of active projects in the portfolio.
+     * <p>
+     * Components are grouped by their identity (CPE, Package URL coordinates, group, name and version),
+     * such that matching is performed only once per unique identity. Matches are then applied to
+     * all components sharing that identity.
+     * <p>
+     * Only unique identities are held in memory. Components of identities with matches are looked up
+     * in a second pass over the portfolio, and loaded in batches of {@value #BATCH_SIZE}.
+     *
+     * @param vulnerabilityAnalysisLevel the level of the analysis
+     * @since 4.11.0
+     */
+    public void analyzePortfolio(final VulnerabilityAnalysisLevel vulnerabilityAnalysisLevel) {
+        if (!super.isEnabled(ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED)) {
+            return;
+        }
+        this.vulnerabilityAnalysisLevel = vulnerabilityAnalysisLevel;
+        try (QueryManager qm = new QueryManager()) {
+            final Set<AnalysisIdentity> identities = new HashSet<>();
+            forEachPortfolioComponent(qm, (componentId, identity) -> identities.add(identity));
+            LOGGER.info("Analyzing %d unique component identities in the portfolio".formatted(identities.size()));
+            final VulnerableSoftwareIndex index = getVulnerableSoftwareIndex(qm);
+            fuzzySearchManager = new FuzzyVulnerableSoftwareSearchManager(super.isEnabled(ConfigPropertyConstants.SCANNER_INTERNAL_FUZZY_EXCLUDE_PURL));
+            final Map<AnalysisIdentity, List<Vulnerability>> vulnerabilitiesByIdentity = new HashMap<>();
+            int analyzedIdentities = 0;
+            for (final AnalysisIdentity identity : identities) {
+                final List<Vulnerability> vulnerabilities = versionRangeAnalysis(qm, identity.toComponent(), index);
+                if (!vulnerabilities.isEmpty()) {
+                    vulnerabilitiesByIdentity.put(identity, vulnerabilities);
+                }
+                if (++analyzedIdentities % BATCH_SIZE == 0) {
+                    // The same persistence manager is used for the entire portfolio. Evicting
+                    // objects it loaded so far allows them to be garbage collected.
+                    qm.getPersistenceManager().evictAll();
+                }
+            }
+            identities.clear();
+
+            final var accumulator = new FindingAccumulator(qm, getAnalyzerIdentity(), vulnerabilityAnalysisLevel);
+            final Map<Long, List<Vulnerability>> vulnerabilitiesByComponentId = new HashMap<>();
+            forEachPortfolioComponent(qm, (componentId, identity) -> {
+                final List<Vulnerability> vulnerabilities = vulnerabilitiesByIdentity.get(identity);
+                if (vulnerabilities != null) {
+                    vulnerabilitiesByComponentId.put(componentId, vulnerabilities);
+                    if (vulnerabilitiesByComponentId.size() >= BATCH_SIZE) {
+                        addFindings(qm, accumulator, vulnerabilitiesByComponentId);
+                    }
+                }
+            });
+            addFindings(qm, accumulator, vulnerabilitiesByComponentId);
+            LOGGER.info("Internal analysis of portfolio complete");
+        }
+    }
+
+    private static void addFindings(final FindingAccumulator accumulator, final List<Vulnerability> vulnerabilities,
+                                    final List<Component> components) {
+        for (final Component component : components) {
+            for (final Vulnerability vulnerability : vulnerabilities) {
+                accumulator.add(component, vulnerability);
+            }
+        }
+    }
+
+    /**
+     * Loads a batch of components, and records findings for them. Once the findings are flushed,
+     * the batch is cleared, and all objects loaded for it are evicted from the persistence manager.
+     */
+    private static void addFindings(final QueryManager qm, final FindingAccumulator accumulator,
+                                    final Map<Long, List<Vulnerability>> vulnerabilitiesByComponentId) {
+        if (vulnerabilitiesByComponentId.isEmpty()) {
+            return;
+        }
+        for (final Component component : getComponents(qm, List.copyOf(vulnerabilitiesByComponentId.keySet()))) {
+            addFindings(accumulator, vulnerabilitiesByComponentId.get(component.getId()), List.of(component));
+        }
+        vulnerabilitiesByComponentId.clear();
+        accumulator.flush();
+        qm.getPersistenceManager().evictAll();
+    }
+
+    private VulnerableSoftwareIndex getVulnerableSoftwareIndex(final QueryManager qm) {
+        final VulnerableSoftwareIndex index = VulnerableSoftwareIndex.getInstance();
+        if (!index.isReady(qm)) {
+            return null;
         }
+        index.refresh();
+        return index;
     }
 
-    private void versionRangeAnalysis(final QueryManager qm, final Component component) {
+    /**
+     * Pages through all analyzable components of active projects in the portfolio, in batches
+     * of {@value #BATCH_SIZE}. Only the fields making up their identity are loaded.
+     */
+    private static void forEachPortfolioComponent(final QueryManager qm, final BiConsumer<Long, AnalysisIdentity> consumer) {
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            final Query<Component> query = qm.getPersistenceManager().newQuery(Component.class);
+            query.setFilter("id > :lastId && (cpe != null || purl != null) && (project.active == null || project.active == true)");
+            query.setParameters(lastId);
+            query.setOrdering("id asc");
+            query.setRange(0, BATCH_SIZE);
+            query.setResult("id, cpe, purl, purlCoordinates, this.group, name, version, internal");
+            try {
+                rows = List.copyOf(query.executeResultList(Object[].class));
+            } finally {
+                query.closeAll();
+            }
+            for (final Object[] row : rows) {
+                lastId = (Long) row[0];
+                consumer.accept(lastId, new AnalysisIdentity((String) row[1], (String) (row[3] != null ? row[3] : row[2]),
+                        (String) row[4], (String) row[5], (String) row[6], Boolean.TRUE.equals(row[7])));
+            }
+        } while (rows.size() == BATCH_SIZE);
+    }
+
+    private static List<Component> getComponents(final QueryManager qm, final List<Long> componentIds) {
+        final Query<Component> query = qm.getPersistenceManager().newQuery(Component.class, ":ids.contains(id)");
+        query.setParameters(componentIds);
+        try {
+            return List.copyOf(query.executeList());
+        } finally {
+            query.closeAll();
+        }
+    }
+
+    private List<Vulnerability> versionRangeAnalysis(final QueryManager qm, final Component component, final VulnerableSoftwareIndex index) {
         final boolean fuzzyEnabled = super.isEnabled(ConfigPropertyConstants.SCANNER_INTERNAL_FUZZY_ENABLED) &&
                 (!component.isInternal() || !super.isEnabled(ConfigPropertyConstants.SCANNER_INTERNAL_FUZZY_EXCLUDE_INTERNAL));
-        final boolean excludeComponentsWithPurl = super.isEnabled(ConfigPropertyConstants.SCANNER_INTERNAL_FUZZY_EXCLUDE_PURL);
         us.springett.parsers.cpe.Cpe parsedCpe = null;
         if (component.getCpe() != null) {
             try {
@@ -115,11 +266,11 @@ public class InternalAnalysisTask extends AbstractVulnerableSoftwareAnalysisTask
             // Catch cases where the CPE couldn't be parsed and no PURL exists.
             // Should be rare, but could lead to NPEs later.
             LOGGER.debug("Neither CPE nor PURL of component " + component.getUuid() + " provide a version - skipping analysis");
-            return;
+            return Collections.emptyList();
         }
         // In some cases, componentVersion may be null, such as when a Package URL does not have a version specified
         if (componentVersion == null) {
-            return;
+            return Collections.emptyList();
         }
         // https://github.com/DependencyTrack/dependency-track/issues/1574
         // Some ecosystems use the "v" version prefix (e.g. v1.2.3) for their components.
@@ -135,17 +286,63 @@ public class InternalAnalysisTask extends AbstractVulnerableSoftwareAnalysisTask
             }
         }
 
-        if (parsedCpe != null) {
-            vsList = qm.getAllVulnerableSoftware(parsedCpe.getPart().getAbbreviation(), parsedCpe.getVendor(), parsedCpe.getProduct(), component.getPurl());
+        final String cpePart = parsedCpe != null ? parsedCpe.getPart().getAbbreviation() : null;
+        final String cpeVendor = parsedCpe != null ? parsedCpe.getVendor() : null;
+        final String cpeProduct = parsedCpe != null ? parsedCpe.getProduct() : null;
+        final var parsedComponentVersion = ComponentVersion.of(componentVersion);
+        final List<VulnerableSoftware> indexedVsList = index != null
+                ? index.find(cpePart, cpeVendor, cpeProduct, component.getPurl(), parsedComponentVersion)
+                : null;
+        if (indexedVsList != null) {
+            vsList = indexedVsList;
         } else {
-            vsList = qm.getAllVulnerableSoftware(null, null, null, component.getPurl());
+            vsList = qm.getAllVulnerableSoftware(cpePart, cpeVendor, cpeProduct, component.getPurl());
         }
 
         if (fuzzyEnabled && vsList.isEmpty()) {
-            FuzzyVulnerableSoftwareSearchManager fm = new FuzzyVulnerableSoftwareSearchManager(excludeComponentsWithPurl);
-            vsList = fm.fuzzyAnalysis(qm, component, parsedCpe);
+            vsList = fuzzySearchManager.fuzzyAnalysis(qm, component, parsedCpe);
+        } else if (indexedVsList != null) {
+            return analyzeIndexedVersionRange(qm, indexedVsList, parsedCpe, componentVersion, parsedComponentVersion);
         }
-        super.analyzeVersionRange(qm, vsList, parsedCpe, componentVersion, component, vulnerabilityAnalysisLevel);
+        return super.getMatchingVulnerabilities(vsList, parsedCpe, componentVersion);
+    }
+
+    /**
+     * Candidates served by the {@link VulnerableSoftwareIndex} do not carry their vulnerabilities.
+     * Match them in-memory, and only resolve the vulnerabilities of actual matches from the database.
+     */
+    private List<Vulnerability> analyzeIndexedVersionRange(final QueryManager qm, final List<VulnerableSoftware> vsList,
+                                                           final us.springett.parsers.cpe.Cpe parsedCpe, final String componentVersion,
+                                                           final ComponentVersion parsedComponentVersion) {
+        final List<Long> matchedVsIds = vsList.stream()
+                .filter(vs -> isMatch(vs, parsedCpe, componentVersion, parsedComponentVersion))
+                .map(VulnerableSoftware::getId)
+                .toList();
+        return qm.getVulnerabilitiesByVulnerableSoftware(matchedVsIds);
+    }
+
+    /**
+     * The attributes of a {@link Component} that determine the outcome of its analysis.
+     */
+    private record AnalysisIdentity(String cpe, String purl, String group, String name, String version, boolean internal) {
+
+        private static AnalysisIdentity of(final Component component) {
+            final PackageURL purl = component.getPurlCoordinates() != null ? component.getPurlCoordinates() : component.getPurl();
+            return new AnalysisIdentity(component.getCpe(), purl != null ? purl.canonicalize() : null,
+                    component.getGroup(), component.getName(), component.getVersion(), component.isInternal());
+        }
+
+        private Component toComponent() {
+            final var component = new Component();
+            component.setCpe(cpe);
+            component.setPurl(purl);
+            component.setGroup(group);
+            component.setName(name);
+            component.setVersion(version);
+            component.setInternal(internal);
+            return component;
+        }
+
     }
 
 }
@@ -23,17 +23,23 @@ import alpine.common.logging.Logger;
 import alpine.common.metrics.Metrics;
 import alpine.common.util.Pageable;
 import alpine.event.framework.Event;
+import alpine.event.framework.LoggableUncaughtExceptionHandler;
 import alpine.event.framework.Subscriber;
 import alpine.model.ConfigProperty;
 import alpine.security.crypto.DataEncryption;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedRateLimiterMetrics;
 import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 import io.github.resilience4j.retry.RetryRegistry;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
@@ -44,6 +50,7 @@ import org.apache.http.util.EntityUtils;
 import org.dependencytrack.common.ConfigKey;
 import org.dependencytrack.common.HttpClientPool;
 import org.dependencytrack.common.ManagedHttpClientFactory;
+import org.dependencytrack.common.UpstreamRequestExecutor;
 import org.dependencytrack.event.OssIndexAnalysisEvent;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.ConfigPropertyConstants;
@@ -57,7 +64,6 @@ import org.dependencytrack.parser.ossindex.model.ComponentReport;
 import org.dependencytrack.parser.ossindex.model.ComponentReportVulnerability;
 import org.dependencytrack.persistence.QueryManager;
 import org.dependencytrack.util.HttpUtil;
-import org.dependencytrack.util.NotificationUtil;
 import org.json.JSONObject;
 import us.springett.cvss.Cvss;
 import us.springett.cvss.CvssV2;
@@ -66,9 +72,17 @@ import us.springett.cvss.Score;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /**
@@ -79,14 +93,17 @@ import java.util.stream.Collectors;
  */
 public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements CacheableScanTask, Subscriber {
 
-    private static final String API_BASE_URL = "https://ossindex.sonatype.org/api/v3/component-report";
+    private static final String DEFAULT_API_BASE_URL = "https://ossindex.sonatype.org/api/v3/component-report";
     private static final Logger LOGGER = Logger.getLogger(OssIndexAnalysisTask.class);
+    private final String apiBaseUrl;
     private String apiUsername;
     private String apiToken;
     private boolean aliasSyncEnabled;
     private VulnerabilityAnalysisLevel vulnerabilityAnalysisLevel;
 
     private static Retry ossIndexRetryer;
+    private static final RateLimiter RATE_LIMITER;
+    private static final ExecutorService EXECUTOR;
 
     static {
         IntervalFunction intervalWithCustomExponentialBackoff = IntervalFunction
@@ -108,6 +125,49 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements C
         TaggedRetryMetrics
                 .ofRetryRegistry(registry)
                 .bindTo(Metrics.getRegistry());
+
+        // Every attempt, including retries, has to acquire a permit. The limit is shared
+        // by all analyses, so that concurrent analyses do not exceed it collectively.
+        final RateLimiterRegistry rateLimiterRegistry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(Config.getInstance().getPropertyAsInt(ConfigKey.OSSINDEX_REQUEST_RATE_LIMIT))
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofMinutes(5))
+                .build());
+        RATE_LIMITER = rateLimiterRegistry.rateLimiter("ossIndexRateLimiter");
+        TaggedRateLimiterMetrics
+                .ofRateLimiterRegistry(rateLimiterRegistry)
+                .bindTo(Metrics.getRegistry());
+
+        final var threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern(OssIndexAnalysisTask.class.getSimpleName() + "-%d")
+                .uncaughtExceptionHandler(new LoggableUncaughtExceptionHandler())
+                .build();
+        EXECUTOR = Executors.newFixedThreadPool(Config.getInstance().getPropertyAsInt(ConfigKey.OSSINDEX_REQUEST_MAX_CONCURRENCY), threadFactory);
+        Metrics.registerExecutorService(EXECUTOR, OssIndexAnalysisTask.class.getSimpleName());
+    }
+
+    /**
+     * A request to OSS Index that is in flight, along with the components it covers.
+     */
+    private record PendingRequest(List<Component> components, CompletableFuture<List<ComponentReport>> reports) {
+    }
+
+    public OssIndexAnalysisTask() {
+        this(DEFAULT_API_BASE_URL);
+    }
+
+    OssIndexAnalysisTask(final String apiBaseUrl) {
+        this.apiBaseUrl = apiBaseUrl;
+    }
+
+    /**
+     * Shuts down the executor that performs requests to OSS Index for all instances of this task.
+     * Requests that have already been submitted are still performed.
+     *
+     * @since 4.11.0
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdown();
     }
 
     public AnalyzerIdentity getAnalyzerIdentity() {
@@ -174,7 +234,7 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements C
      * @return true if OssIndexAnalysisTask should analyze, false if not
      */
     public boolean shouldAnalyze(final PackageURL purl) {
-        return !isCacheCurrent(Vulnerability.Source.OSSINDEX, API_BASE_URL, purl.toString());
+        return !isCacheCurrent(Vulnerability.Source.OSSINDEX, apiBaseUrl, purl.toString());
     }
 
     /**
@@ -183,7 +243,7 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements C
      * @param component component the Component to analyze from cache
      */
     public void applyAnalysisFromCache(final Component component) {
-        applyAnalysisFromCache(Vulnerability.Source.OSSINDEX, API_BASE_URL, component.getPurl().toString(), component, getAnalyzerIdentity(), vulnerabilityAnalysisLevel);
+        applyAnalysisFromCache(Vulnerability.Source.OSSINDEX, apiBaseUrl, component.getPurl().toString(), component, getAnalyzerIdentity(), vulnerabilityAnalysisLevel);
     }
 
     /**
@@ -192,31 +252,54 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements C
      * @param components a list of Components
      */
     public void analyze(final List<Component> components) {
-        Map<Boolean, List<Component>> componentsPartitionByCacheValidity = components.stream()
+        final List<Component> capableComponents = components.stream()
                 .filter(component -> !component.isInternal() && isCapable(component))
-                .collect(Collectors.partitioningBy(component -> isCacheCurrent(Vulnerability.Source.OSSINDEX, API_BASE_URL, component.getPurl().toString())));
+                .toList();
+        final Set<String> currentTargets = getCurrentTargets(Vulnerability.Source.OSSINDEX, apiBaseUrl,
+                capableComponents.stream().map(component -> component.getPurl().toString()).toList());
+        Map<Boolean, List<Component>> componentsPartitionByCacheValidity = capableComponents.stream()
+                .collect(Collectors.partitioningBy(component -> currentTargets.contains(component.getPurl().toString())));
         List<Component> componentWithValidAnalysisFromCache = componentsPartitionByCacheValidity.get(true);
-        componentWithValidAnalysisFromCache.forEach(component -> applyAnalysisFromCache(Vulnerability.Source.OSSINDEX, API_BASE_URL, component.getPurl().toString(), component, getAnalyzerIdentity(), vulnerabilityAnalysisLevel));
+        applyAnalysisFromCache(Vulnerability.Source.OSSINDEX, apiBaseUrl, componentWithValidAnalysisFromCache, component -> component.getPurl().toString(), getAnalyzerIdentity(), vulnerabilityAnalysisLevel);
         List<Component> componentWithInvalidAnalysisFromCache = componentsPartitionByCacheValidity.get(false);
         final Pageable<Component> paginatedComponents = new Pageable<>(Config.getInstance().getPropertyAsInt(ConfigKey.OSSINDEX_REQUEST_MAX_PURL), componentWithInvalidAnalysisFromCache);
-        while (!paginatedComponents.isPaginationComplete()) {
-            final List<String> coordinates = new ArrayList<>();
-            final List<Component> paginatedList = paginatedComponents.getPaginatedList();
-            paginatedList.forEach(component -> coordinates.add(minimizePurl(component.getPurl())));
-            if (!CollectionUtils.isEmpty(coordinates)) {
-                final JSONObject json = new JSONObject();
-                json.put("coordinates", coordinates);
-                try {
-                    final List<ComponentReport> report = ossIndexRetryer.executeCheckedSupplier(() -> submit(json));
-                    processResults(report, paginatedList);
-                } catch (Throwable ex) {
-                    handleRequestException(LOGGER, ex);
-                    return;
+        final int maxConcurrency = Config.getInstance().getPropertyAsInt(ConfigKey.OSSINDEX_REQUEST_MAX_CONCURRENCY);
+        final Deque<PendingRequest> pendingRequests = new ArrayDeque<>();
+        while (!paginatedComponents.isPaginationComplete() || !pendingRequests.isEmpty()) {
+            // Keep up to maxConcurrency requests in flight, so that the results of one request
+            // are processed while the subsequent ones are still being performed.
+            while (!paginatedComponents.isPaginationComplete() && pendingRequests.size() < maxConcurrency) {
+                final List<String> coordinates = new ArrayList<>();
+                final List<Component> paginatedList = paginatedComponents.getPaginatedList();
+                paginatedList.forEach(component -> coordinates.add(minimizePurl(component.getPurl())));
+                if (!CollectionUtils.isEmpty(coordinates)) {
+                    final JSONObject json = new JSONObject();
+                    json.put("coordinates", coordinates);
+                    pendingRequests.add(new PendingRequest(paginatedList, CompletableFuture.supplyAsync(() -> requestComponentReports(json), UpstreamRequestExecutor.isEnabled() ? UpstreamRequestExecutor.getExecutor() : EXECUTOR)));
                 }
-
-                LOGGER.info("Analyzing " + coordinates.size() + " component(s)");
+                paginatedComponents.nextPage();
+            }
+            if (pendingRequests.isEmpty()) {
+                break;
             }
-            paginatedComponents.nextPage();
+            final PendingRequest pendingRequest = pendingRequests.poll();
+            try {
+                processResults(pendingRequest.reports().join(), pendingRequest.components());
+            } catch (Throwable ex) {
+                pendingRequests.forEach(request -> request.reports().cancel(false));
+                handleRequestException(LOGGER, ex instanceof CompletionException ? ex.getCause() : ex);
+                return;
+            }
+
+            LOGGER.info("Analyzing " + pendingRequest.components().size() + " component(s)");
+        }
+    }
+
+    private List<ComponentReport> requestComponentReports(final JSONObject payload) {
+        try {
+            return ossIndexRetryer.executeCheckedSupplier(RateLimiter.decorateCheckedSupplier(RATE_LIMITER, () -> submit(payload)));
+        } catch (Throwable e) {
+            throw new CompletionException(e);
         }
     }
 
@@ -257,7 +340,7 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements C
      * Submits the payload to the Sonatype OSS Index service
      */
     private List<ComponentReport> submit(final JSONObject payload) throws IOException {
-        HttpPost request = new HttpPost(API_BASE_URL);
+        HttpPost request = new HttpPost(apiBaseUrl);
         request.addHeader(HttpHeaders.ACCEPT, "application/json");
         request.addHeader(HttpHeaders.CONTENT_TYPE, "application/json");
         request.addHeader(HttpHeaders.USER_AGENT, ManagedHttpClientFactory.getUserAgent());
@@ -265,14 +348,15 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements C
         if (apiUsername != null && apiToken != null) {
             request.addHeader("Authorization", HttpUtil.basicAuthHeaderValue(apiUsername, apiToken));
         }
-        try (final CloseableHttpResponse response = HttpClientPool.getClient().execute(request)) {
+        try (final UpstreamRequestExecutor.Permit ignored = UpstreamRequestExecutor.acquirePermit(apiBaseUrl);
+             final CloseableHttpResponse response = HttpClientPool.getClient().execute(request)) {
             HttpEntity responseEntity = response.getEntity();
             String responseString = EntityUtils.toString(responseEntity);
             if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
                 final OssIndexParser parser = new OssIndexParser();
                 return parser.parse(responseString);
             } else {
-                handleUnexpectedHttpResponse(LOGGER, API_BASE_URL, response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase());
+                handleUnexpectedHttpResponse(LOGGER, apiBaseUrl, response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase());
             }
         }
         return new ArrayList<>();
@@ -281,6 +365,7 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements C
 
     private void processResults(final List<ComponentReport> report, final List<Component> componentsScanned) {
         try (QueryManager qm = new QueryManager()) {
+            final var accumulator = new FindingAccumulator(qm, getAnalyzerIdentity(), vulnerabilityAnalysisLevel);
             for (final ComponentReport componentReport : report) {
                 for (final Component c : componentsScanned) {
                     //final String componentPurl = component.getPurl().canonicalize(); // todo: put this back when minimizePurl() is removed
@@ -299,8 +384,7 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements C
                                 Vulnerability vulnerability = qm.getVulnerabilityByVulnId(
                                         Vulnerability.Source.NVD, reportedVuln.getCve());
                                 if (vulnerability != null) {
-                                    NotificationUtil.analyzeNotificationCriteria(qm, vulnerability, component, vulnerabilityAnalysisLevel);
-                                    qm.addVulnerability(vulnerability, component, this.getAnalyzerIdentity(), reportedVuln.getId(), reportedVuln.getReference());
+                                    accumulator.add(component, vulnerability, reportedVuln.getId(), reportedVuln.getReference());
                                     addVulnerabilityToCache(component, vulnerability);
                                 } else {
                                     /*
@@ -309,8 +393,7 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements C
                                     through traditional feeds. Regardless, the vuln needs to be added to the database.
                                      */
                                     vulnerability = qm.createVulnerability(generateVulnerability(qm, reportedVuln), false);
-                                    NotificationUtil.analyzeNotificationCriteria(qm, vulnerability, component, vulnerabilityAnalysisLevel);
-                                    qm.addVulnerability(vulnerability, component, this.getAnalyzerIdentity(), reportedVuln.getId(), reportedVuln.getReference());
+                                    accumulator.add(component, vulnerability, reportedVuln.getId(), reportedVuln.getReference());
                                     addVulnerabilityToCache(component, vulnerability);
                                 }
                             } else {
@@ -333,15 +416,15 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements C
                                     alias.setCveId(reportedVuln.getCve());
                                     qm.synchronizeVulnerabilityAlias(alias);
                                 }
-                                NotificationUtil.analyzeNotificationCriteria(qm, vulnerability, component, vulnerabilityAnalysisLevel);
-                                qm.addVulnerability(vulnerability, component, this.getAnalyzerIdentity(), reportedVuln.getId(), reportedVuln.getReference());
+                                accumulator.add(component, vulnerability, reportedVuln.getId(), reportedVuln.getReference());
                                 addVulnerabilityToCache(component, vulnerability);
                             }
                         }
-                        updateAnalysisCacheStats(qm, Vulnerability.Source.OSSINDEX, API_BASE_URL, component.getPurl().toString(), component.getCacheResult());
+                        updateAnalysisCacheStats(qm, Vulnerability.Source.OSSINDEX, apiBaseUrl, component.getPurl().toString(), component.getCacheResult());
                     }
                 }
             }
+            accumulator.flush();
         }
     }
 
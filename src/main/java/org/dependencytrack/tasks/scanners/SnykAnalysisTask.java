@@ -47,6 +47,7 @@ import org.apache.http.util.EntityUtils;
 import org.dependencytrack.common.ConfigKey;
 import org.dependencytrack.common.HttpClientPool;
 import org.dependencytrack.common.ManagedHttpClientFactory;
+import org.dependencytrack.common.UpstreamRequestExecutor;
 import org.dependencytrack.event.IndexEvent;
 import org.dependencytrack.event.SnykAnalysisEvent;
 import org.dependencytrack.model.Component;
@@ -58,7 +59,6 @@ import org.dependencytrack.notification.NotificationScope;
 import org.dependencytrack.parser.snyk.SnykParser;
 import org.dependencytrack.parser.snyk.model.SnykError;
 import org.dependencytrack.persistence.QueryManager;
-import org.dependencytrack.util.NotificationUtil;
 import org.dependencytrack.util.RoundRobinAccessor;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -66,6 +66,7 @@ import org.json.JSONObject;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -230,16 +231,19 @@ public class SnykAnalysisTask extends BaseComponentAnalyzerTask implements Cache
      */
     @Override
     public void analyze(final List<Component> components) {
+        final Set<String> currentTargets = getCurrentTargets(Vulnerability.Source.SNYK, apiBaseUrl,
+                components.stream().map(component -> component.getPurl().getCoordinates()).toList());
+        final List<Component> componentsWithValidAnalysisFromCache = new ArrayList<>();
         final var countDownLatch = new CountDownLatch(components.size());
         for (final Component component : components) {
-            if (isCacheCurrent(Vulnerability.Source.SNYK, apiBaseUrl, component.getPurl().getCoordinates())) {
-                applyAnalysisFromCache(component);
+            if (currentTargets.contains(component.getPurl().getCoordinates())) {
+                componentsWithValidAnalysisFromCache.add(component);
                 countDownLatch.countDown();
                 continue;
             }
 
             CompletableFuture
-                    .runAsync(() -> analyzeComponent(component), EXECUTOR)
+                    .runAsync(() -> analyzeComponent(component), UpstreamRequestExecutor.isEnabled() ? UpstreamRequestExecutor.getExecutor() : EXECUTOR)
                     .whenComplete((result, exception) -> {
                         countDownLatch.countDown();
 
@@ -249,6 +253,9 @@ public class SnykAnalysisTask extends BaseComponentAnalyzerTask implements Cache
                     });
         }
 
+        applyAnalysisFromCache(Vulnerability.Source.SNYK, apiBaseUrl, componentsWithValidAnalysisFromCache,
+                component -> component.getPurl().getCoordinates(), getAnalyzerIdentity(), vulnerabilityAnalysisLevel);
+
         try {
             if (!countDownLatch.await(60, TimeUnit.MINUTES)) {
                 // Depending on the system load, it may take a while for the queued events
@@ -307,7 +314,12 @@ public class SnykAnalysisTask extends BaseComponentAnalyzerTask implements Cache
             request.setHeader(HttpHeaders.USER_AGENT, ManagedHttpClientFactory.getUserAgent());
             request.setHeader(HttpHeaders.AUTHORIZATION, "token " + apiTokenSupplier.get());
             request.setHeader(HttpHeaders.ACCEPT, "application/vnd.api+json");
-            try (final CloseableHttpResponse response = RETRY.executeCheckedSupplier(() -> HttpClientPool.getClient().execute(request))) {
+            // A permit is acquired for every attempt, such that no permit is held while backing off between attempts.
+            try (final CloseableHttpResponse response = RETRY.executeCheckedSupplier(() -> {
+                try (final UpstreamRequestExecutor.Permit ignored = UpstreamRequestExecutor.acquirePermit(apiBaseUrl)) {
+                    return HttpClientPool.getClient().execute(request);
+                }
+            })) {
                 Header header = response.getFirstHeader("Sunset");
                 if (header != null) {
                     apiVersionSunset = StringUtils.trimToNull(header.getValue());
@@ -352,17 +364,18 @@ public class SnykAnalysisTask extends BaseComponentAnalyzerTask implements Cache
             final JSONArray data = object.optJSONArray("data");
             if (data != null && !data.isEmpty()) {
                 final var snykParser = new SnykParser();
+                final var accumulator = new FindingAccumulator(qm, getAnalyzerIdentity(), vulnerabilityAnalysisLevel);
                 for (int count = 0; count < data.length(); count++) {
                     Vulnerability synchronizedVulnerability = snykParser.parse(data, qm, purl, count, aliasSyncEnabled);
                     addVulnerabilityToCache(component, synchronizedVulnerability);
                     final Component componentPersisted = qm.getObjectByUuid(Component.class, component.getUuid());
                     if (componentPersisted != null && synchronizedVulnerability.getVulnId() != null) {
-                        NotificationUtil.analyzeNotificationCriteria(qm, synchronizedVulnerability, componentPersisted, vulnerabilityAnalysisLevel);
-                        qm.addVulnerability(synchronizedVulnerability, componentPersisted, this.getAnalyzerIdentity());
+                        accumulator.add(componentPersisted, synchronizedVulnerability);
                         LOGGER.debug("Snyk vulnerability added : " + synchronizedVulnerability.getVulnId() + " to component " + component.getName());
                     }
                     Event.dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Vulnerability.class));
                 }
+                accumulator.flush();
             } else {
                 addNoVulnerabilityToCache(component);
             }
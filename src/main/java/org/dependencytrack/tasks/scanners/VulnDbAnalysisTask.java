@@ -26,6 +26,7 @@ import alpine.security.crypto.DataEncryption;
 import oauth.signpost.exception.OAuthCommunicationException;
 import oauth.signpost.exception.OAuthExpectationFailedException;
 import oauth.signpost.exception.OAuthMessageSignerException;
+import org.dependencytrack.common.UpstreamRequestExecutor;
 import org.dependencytrack.event.VulnDbAnalysisEvent;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.ConfigPropertyConstants;
@@ -35,10 +36,10 @@ import org.dependencytrack.parser.vulndb.ModelConverter;
 import org.dependencytrack.parser.vulndb.VulnDbClient;
 import org.dependencytrack.parser.vulndb.model.Results;
 import org.dependencytrack.persistence.QueryManager;
-import org.dependencytrack.util.NotificationUtil;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Subscriber task that performs an analysis of component using VulnDB REST API.
@@ -138,40 +139,65 @@ public class VulnDbAnalysisTask extends BaseComponentAnalyzerTask implements Sub
     @Override
     public void analyze(final List<Component> components) {
         final var api = new VulnDbClient(this.apiConsumerKey, this.apiConsumerSecret, this.apiBaseUrl);
+        if (UpstreamRequestExecutor.isEnabled()) {
+            final var aborted = new AtomicBoolean();
+            UpstreamRequestExecutor.forEach(components, component -> {
+                if (!aborted.get() && !analyze(api, component)) {
+                    aborted.set(true);
+                }
+            });
+            return;
+        }
         for (final Component component : components) {
-            if (isCacheCurrent(Vulnerability.Source.VULNDB, apiBaseUrl, component.getCpe())) {
-                applyAnalysisFromCache(Vulnerability.Source.VULNDB, apiBaseUrl, component.getCpe(), component, AnalyzerIdentity.VULNDB_ANALYZER, vulnerabilityAnalysisLevel);
-            } else if (!component.isInternal() && isCapable(component)
+            if (!analyze(api, component)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Analyzes a single Component.
+     *
+     * @return false if the analysis of all remaining components should be aborted
+     */
+    private boolean analyze(final VulnDbClient api, final Component component) {
+        if (isCacheCurrent(Vulnerability.Source.VULNDB, apiBaseUrl, component.getCpe())) {
+            applyAnalysisFromCache(Vulnerability.Source.VULNDB, apiBaseUrl, component.getCpe(), component, AnalyzerIdentity.VULNDB_ANALYZER, vulnerabilityAnalysisLevel);
+        } else if (!component.isInternal() && isCapable(component)
+                && !isCacheCurrent(Vulnerability.Source.VULNDB, apiBaseUrl, component.getCpe())) {
+            if (!component.isInternal() && isCapable(component)
                     && !isCacheCurrent(Vulnerability.Source.VULNDB, apiBaseUrl, component.getCpe())) {
-                if (!component.isInternal() && isCapable(component)
-                        && !isCacheCurrent(Vulnerability.Source.VULNDB, apiBaseUrl, component.getCpe())) {
-                    int page = 1;
-                    boolean more = true;
-                    while (more) {
-                        try {
-                            final Results results = api.getVulnerabilitiesByCpe(component.getCpe(), PAGE_SIZE, page);
-                            if (results.isSuccessful()) {
-                                more = processResults(results, component);
-                                page++;
-                            } else {
-                                LOGGER.warn(results.getErrorCondition());
-                                handleRequestException(LOGGER, new Exception(results.getErrorCondition()));
-                                return;
-                            }
-                        } catch (IOException | OAuthMessageSignerException | OAuthExpectationFailedException |
-                                 URISyntaxException | OAuthCommunicationException ex) {
-                            handleRequestException(LOGGER, ex);
+                int page = 1;
+                boolean more = true;
+                while (more) {
+                    try {
+                        final Results results;
+                        try (final UpstreamRequestExecutor.Permit ignored = UpstreamRequestExecutor.acquirePermit(apiBaseUrl)) {
+                            results = api.getVulnerabilitiesByCpe(component.getCpe(), PAGE_SIZE, page);
+                        }
+                        if (results.isSuccessful()) {
+                            more = processResults(results, component);
+                            page++;
+                        } else {
+                            LOGGER.warn(results.getErrorCondition());
+                            handleRequestException(LOGGER, new Exception(results.getErrorCondition()));
+                            return false;
                         }
+                    } catch (IOException | OAuthMessageSignerException | OAuthExpectationFailedException |
+                             URISyntaxException | OAuthCommunicationException ex) {
+                        handleRequestException(LOGGER, ex);
                     }
                 }
             }
         }
+        return true;
     }
 
     @SuppressWarnings("unchecked")
     private boolean processResults(final Results results, final Component component) {
         try (final QueryManager qm = new QueryManager()) {
             final Component vulnerableComponent = qm.getObjectByUuid(Component.class, component.getUuid()); // Refresh component and attach to current pm.
+            final var accumulator = new FindingAccumulator(qm, getAnalyzerIdentity(), vulnerabilityAnalysisLevel);
             for (org.dependencytrack.parser.vulndb.model.Vulnerability vulnDbVuln : (List<org.dependencytrack.parser.vulndb.model.Vulnerability>) results.getResults()) {
                 Vulnerability vulnerability = qm.getVulnerabilityByVulnId(Vulnerability.Source.VULNDB, String.valueOf(vulnDbVuln.id()));
                 if (vulnerability == null) {
@@ -179,10 +205,10 @@ public class VulnDbAnalysisTask extends BaseComponentAnalyzerTask implements Sub
                 } else {
                     vulnerability = qm.synchronizeVulnerability(ModelConverter.convert(qm, vulnDbVuln), false);
                 }
-                NotificationUtil.analyzeNotificationCriteria(qm, vulnerability, vulnerableComponent, vulnerabilityAnalysisLevel);
-                qm.addVulnerability(vulnerability, vulnerableComponent, this.getAnalyzerIdentity());
+                accumulator.add(vulnerableComponent, vulnerability);
                 addVulnerabilityToCache(vulnerableComponent, vulnerability);
             }
+            accumulator.flush();
             updateAnalysisCacheStats(qm, Vulnerability.Source.VULNDB, apiBaseUrl, vulnerableComponent.getCpe(), vulnerableComponent.getCacheResult());
             return results.getPage() * PAGE_SIZE < results.getTotal();
         }
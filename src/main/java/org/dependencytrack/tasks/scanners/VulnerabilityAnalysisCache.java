@@ -0,0 +1,171 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import alpine.Config;
+import alpine.model.ConfigProperty;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.dependencytrack.common.ConfigKey;
+import org.dependencytrack.model.ComponentAnalysisCache;
+import org.dependencytrack.model.ConfigPropertyConstants;
+import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.persistence.QueryManager;
+
+import javax.json.JsonObject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An in-process tier in front of the {@link ComponentAnalysisCache} of vulnerability analyzers.
+ * <p>
+ * Entries are populated whenever cache entries are read from, or written to, the database.
+ * Lookups of multiple targets only query the database for targets that are not held in memory,
+ * and do so with a single query. Entries are subject to the same validity period as their
+ * persistent counterparts.
+ *
+ * @since 4.11.0
+ */
+public final class VulnerabilityAnalysisCache {
+
+    private static final Cache<Key, Entry> CACHE = Caffeine.newBuilder()
+            .maximumSize(Config.getInstance().getPropertyAsInt(ConfigKey.VULNERABILITY_ANALYSIS_CACHE_MEMORY_MAX_SIZE))
+            .build();
+
+    private record Key(String targetHost, String targetType, String target) {
+    }
+
+    private record Entry(Date lastOccurrence, JsonObject result) {
+    }
+
+    private VulnerabilityAnalysisCache() {
+    }
+
+    /**
+     * Determines which of the given targets have a current analysis result.
+     *
+     * @param qm         the {@link QueryManager} to use
+     * @param source     the {@link Vulnerability.Source} of the analyzer
+     * @param targetHost the host the targets are analyzed against
+     * @param targets    the targets to check
+     * @return the targets with a current analysis result
+     */
+    public static Set<String> getCurrentTargets(final QueryManager qm, final Vulnerability.Source source,
+                                                final String targetHost, final Collection<String> targets) {
+        final long validityPeriod = getValidityPeriod(qm);
+        final Date now = new Date();
+        final Set<String> currentTargets = new HashSet<>();
+        final List<String> uncachedTargets = new ArrayList<>();
+        for (final String target : new HashSet<>(targets)) {
+            final Entry entry = CACHE.getIfPresent(new Key(targetHost, source.name(), target));
+            if (entry == null) {
+                uncachedTargets.add(target);
+            } else if (isCurrent(entry.lastOccurrence(), now, validityPeriod)) {
+                currentTargets.add(target);
+            }
+        }
+        if (!uncachedTargets.isEmpty()) {
+            final Map<String, ComponentAnalysisCache> cacheByTarget = qm.getComponentAnalysisCaches(
+                    ComponentAnalysisCache.CacheType.VULNERABILITY, targetHost, source.name(), uncachedTargets);
+            for (final ComponentAnalysisCache cac : cacheByTarget.values()) {
+                CACHE.put(new Key(targetHost, source.name(), cac.getTarget()), new Entry(cac.getLastOccurrence(), cac.getResult()));
+                if (isCurrent(cac.getLastOccurrence(), now, validityPeriod)) {
+                    currentTargets.add(cac.getTarget());
+                }
+            }
+        }
+        return currentTargets;
+    }
+
+    /**
+     * Retrieves the cached analysis result of a given target.
+     *
+     * @param qm         the {@link QueryManager} to use
+     * @param source     the {@link Vulnerability.Source} of the analyzer
+     * @param targetHost the host the target was analyzed against
+     * @param target     the target to retrieve the result for
+     * @return the cached result, or {@code null} when no result is cached
+     */
+    public static JsonObject getResult(final QueryManager qm, final Vulnerability.Source source,
+                                       final String targetHost, final String target) {
+        final var key = new Key(targetHost, source.name(), target);
+        final Entry entry = CACHE.getIfPresent(key);
+        if (entry != null) {
+            return entry.result();
+        }
+        final ComponentAnalysisCache cac = qm.getComponentAnalysisCache(
+                ComponentAnalysisCache.CacheType.VULNERABILITY, targetHost, source.name(), target);
+        if (cac == null) {
+            return null;
+        }
+        CACHE.put(key, new Entry(cac.getLastOccurrence(), cac.getResult()));
+        return cac.getResult();
+    }
+
+    /**
+     * Records the analysis result of a given target, in both the database and memory.
+     *
+     * @param qm         the {@link QueryManager} to use
+     * @param source     the {@link Vulnerability.Source} of the analyzer
+     * @param targetHost the host the target was analyzed against
+     * @param target     the analyzed target
+     * @param result     the analysis result; {@code null} retains the previously recorded result
+     */
+    public static void update(final QueryManager qm, final Vulnerability.Source source,
+                              final String targetHost, final String target, final JsonObject result) {
+        final var lastOccurrence = new Date();
+        qm.updateComponentAnalysisCache(ComponentAnalysisCache.CacheType.VULNERABILITY, targetHost, source.name(), target, lastOccurrence, result);
+        final var key = new Key(targetHost, source.name(), target);
+        if (result != null) {
+            CACHE.put(key, new Entry(lastOccurrence, result));
+        } else {
+            // The previous result is retained in the database, but may not be known here.
+            CACHE.asMap().computeIfPresent(key, (ignored, entry) -> new Entry(lastOccurrence, entry.result()));
+        }
+    }
+
+    /**
+     * Discards all entries held in memory.
+     * <p>
+     * Must be called whenever entries are removed from the database.
+     */
+    public static void invalidateAll() {
+        CACHE.invalidateAll();
+    }
+
+    private static long getValidityPeriod(final QueryManager qm) {
+        final ConfigProperty cacheClearPeriod = qm.getConfigProperty(
+                ConfigPropertyConstants.SCANNER_ANALYSIS_CACHE_VALIDITY_PERIOD.getGroupName(),
+                ConfigPropertyConstants.SCANNER_ANALYSIS_CACHE_VALIDITY_PERIOD.getPropertyName());
+        return Long.parseLong(cacheClearPeriod.getPropertyValue());
+    }
+
+    private static boolean isCurrent(final Date lastOccurrence, final Date now, final long validityPeriod) {
+        if (now.getTime() > lastOccurrence.getTime()) {
+            return now.getTime() - lastOccurrence.getTime() <= validityPeriod;
+        }
+        return false;
+    }
+
+}
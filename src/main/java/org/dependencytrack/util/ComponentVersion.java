@@ -18,11 +18,14 @@
  */
 package org.dependencytrack.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
-import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.Immutable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -39,35 +42,74 @@ import java.util.regex.Pattern;
  * Note, the parser contained in this class expects the version numbers to be
  * separated by periods. If a different separator is used the parser will likely
  * fail.</p>
+ * <p>
+ * Instances are immutable, and may thus be shared between threads. Use {@link #of(String)}
+ * to obtain instances from a bounded cache of recently parsed versions.</p>
  *
  * @author Jeremy Long
  *
  * Ported from DependencyVersion in Dependency-Check v5.2.1
  */
-@NotThreadSafe
-public class ComponentVersion implements Iterable<String>, Comparable<ComponentVersion> {
+@Immutable
+public final class ComponentVersion implements Iterable<String>, Comparable<ComponentVersion> {
+
+    // https://github.com/DependencyTrack/dependency-track/issues/1374
+    // handle deb versions
+    private static final Pattern DEB_VERSION_PATTERN = Pattern.compile("^([0-9]+:)?(.*)(-[^-]+ubuntu[^-]+)$");
+    private static final Pattern VERSION_PART_PATTERN = Pattern.compile("(\\d+[a-z]{1,3}$|[a-z]{1,3}[_-]?\\d+|\\d+|(rc|release|snapshot|beta|alpha)$)",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Marker for version parts that are not numeric, or exceed the range of an int.
+     */
+    private static final long NOT_NUMERIC = Long.MIN_VALUE;
+
+    private static final ComponentVersion EMPTY = new ComponentVersion(null);
+    private static final Cache<String, ComponentVersion> CACHE = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
 
     /**
      * A list of the version parts.
      */
-    private List<String> versionParts;
+    private final List<String> versionParts;
 
     /**
-     * Constructor for a empty DependencyVersion.
+     * The numeric values of the version parts, or {@link #NOT_NUMERIC}.
      */
-    public ComponentVersion() {
-    }
+    private final long[] numericParts;
 
     /**
      * Constructor for a DependencyVersion that will parse a version string.
      * <b>Note</b>, this should only be used when the version passed in is
      * already known to be a well formatted version number. Otherwise,
      * DependencyVersionUtil.parseVersion() should be used instead.
+     * <p>
+     * Prefer {@link #of(String)} for versions that are likely to be parsed repeatedly.
      *
      * @param version the well formatted version number to parse
      */
     public ComponentVersion(String version) {
-        parseVersion(version);
+        this.versionParts = parseVersion(version);
+        this.numericParts = new long[versionParts.size()];
+        for (int i = 0; i < versionParts.size(); i++) {
+            numericParts[i] = toNumeric(versionParts.get(i));
+        }
+    }
+
+    /**
+     * Returns the parsed representation of a version string, using a bounded cache
+     * of recently parsed versions.
+     *
+     * @param version the version string to parse
+     * @return the parsed version
+     * @since 4.11.0
+     */
+    public static ComponentVersion of(String version) {
+        if (version == null) {
+            return EMPTY;
+        }
+        return CACHE.get(version, ComponentVersion::new);
     }
 
     /**
@@ -77,46 +119,61 @@ public class ComponentVersion implements Iterable<String>, Comparable<ComponentV
      *
      * @param version the version string to parse
      */
-    public final void parseVersion(String version) {
-        versionParts = new ArrayList<>();
-        if (version != null) {
-            // https://github.com/DependencyTrack/dependency-track/issues/1374
-            // handle deb versions
-            String lcVersion = version.toLowerCase();
-            final Pattern debrx = Pattern.compile("^([0-9]+:)?(.*)(-[^-]+ubuntu[^-]+)$");
-            final Matcher debmatcher = debrx.matcher(lcVersion);
-            if (debmatcher.matches()) {
-                lcVersion = debmatcher.group(2);
-            }
+    private static List<String> parseVersion(String version) {
+        if (version == null) {
+            return Collections.emptyList();
+        }
+        String lcVersion = version.toLowerCase();
+        final Matcher debmatcher = DEB_VERSION_PATTERN.matcher(lcVersion);
+        if (debmatcher.matches()) {
+            lcVersion = debmatcher.group(2);
+        }
 
-            final Pattern rx = Pattern.compile("(\\d+[a-z]{1,3}$|[a-z]{1,3}[_-]?\\d+|\\d+|(rc|release|snapshot|beta|alpha)$)",
-                    Pattern.CASE_INSENSITIVE);
-            final Matcher matcher = rx.matcher(lcVersion);
-            while (matcher.find()) {
-                versionParts.add(matcher.group());
-            }
-            if (versionParts.isEmpty()) {
-                versionParts.add(version);
-            }
+        final List<String> versionParts = new ArrayList<>(4);
+        final Matcher matcher = VERSION_PART_PATTERN.matcher(lcVersion);
+        while (matcher.find()) {
+            versionParts.add(matcher.group());
         }
+        if (versionParts.isEmpty()) {
+            versionParts.add(version);
+        }
+        return Collections.unmodifiableList(versionParts);
     }
 
     /**
-     * Get the value of versionParts.
-     *
-     * @return the value of versionParts
+     * Determines the numeric value of a version part, as {@link Integer#parseInt(String)} would.
      */
-    public List<String> getVersionParts() {
-        return versionParts;
+    private static long toNumeric(final String part) {
+        final int length = part.length();
+        if (length > 0 && length < 10) {
+            int value = 0;
+            for (int i = 0; i < length; i++) {
+                final char c = part.charAt(i);
+                if (c < '0' || c > '9') {
+                    return parseInt(part);
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+        return parseInt(part);
+    }
+
+    private static long parseInt(final String part) {
+        try {
+            return Integer.parseInt(part);
+        } catch (NumberFormatException e) {
+            return NOT_NUMERIC;
+        }
     }
 
     /**
-     * Set the value of versionParts.
+     * Get the value of versionParts.
      *
-     * @param versionParts new value of versionParts
+     * @return the value of versionParts, as unmodifiable list
      */
-    public void setVersionParts(List<String> versionParts) {
-        this.versionParts = versionParts;
+    public List<String> getVersionParts() {
+        return versionParts;
     }
 
     /**
@@ -249,31 +306,26 @@ public class ComponentVersion implements Iterable<String>, Comparable<ComponentV
         if (version == null) {
             return 1;
         }
-        final List<String> left = this.getVersionParts();
-        final List<String> right = version.getVersionParts();
+        final List<String> left = this.versionParts;
+        final List<String> right = version.versionParts;
         final int max = left.size() < right.size() ? left.size() : right.size();
 
         for (int i = 0; i < max; i++) {
-            final String lStr = left.get(i);
-            final String rStr = right.get(i);
-            if (lStr.equals(rStr)) {
-                continue;
-            }
-            try {
-                final int l = Integer.parseInt(lStr);
-                final int r = Integer.parseInt(rStr);
+            final long l = this.numericParts[i];
+            final long r = version.numericParts[i];
+            if (l != NOT_NUMERIC && r != NOT_NUMERIC) {
                 if (l < r) {
                     return -1;
                 } else if (l > r) {
                     return 1;
                 }
-            } catch (NumberFormatException ex) {
-                final int comp = left.get(i).compareTo(right.get(i));
-                if (comp < 0) {
-                    return -1;
-                } else if (comp > 0) {
-                    return 1;
-                }
+                continue;
+            }
+            final int comp = left.get(i).compareTo(right.get(i));
+            if (comp < 0) {
+                return -1;
+            } else if (comp > 0) {
+                return 1;
             }
         }
         // Modified from original by Steve Springett
@@ -22,10 +22,16 @@ import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.apache.commons.io.IOUtils;
+import org.dependencytrack.exception.SizeLimitExceededException;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 public final class CompressUtil {
 
@@ -52,4 +58,77 @@ public final class CompressUtil {
         return input;
     }
 
+    /**
+     * Streaming counterpart of {@link #optionallyDecompress(byte[])}.
+     * <p>
+     * If {@code input} is an archive, the contents of its first entry are copied to {@code output}.
+     * If {@code input} is compressed (e.g. using gzip or bzip2), it is decompressed while being copied.
+     * Otherwise, {@code input} is copied as-is. Only a small, fixed amount of data is buffered at any time.
+     *
+     * @param input   The {@link InputStream} to read from
+     * @param output  The {@link OutputStream} to write the (decompressed) contents to
+     * @param maxSize The maximum number of bytes that may be written to {@code output}
+     * @return The number of bytes written to {@code output}
+     * @throws SizeLimitExceededException When more than {@code maxSize} bytes would be written to {@code output}
+     * @throws IOException                When reading from {@code input} or writing to {@code output} failed
+     * @since 4.11.0
+     */
+    public static long optionallyDecompress(final InputStream input, final OutputStream output, final long maxSize) throws IOException {
+        // Format detection requires mark / reset support.
+        final var bis = new BufferedInputStream(input);
+        final String archiveFormat = detectArchiveFormat(bis);
+        if (archiveFormat != null) {
+            try (final ArchiveInputStream ais = new ArchiveStreamFactory().createArchiveInputStream(archiveFormat, bis)) {
+                final ArchiveEntry entry = ais.getNextEntry();
+                if (entry != null && ais.canReadEntryData(entry)) {
+                    return copy(ais, output, maxSize);
+                }
+                return 0;
+            } catch (ArchiveException e) {
+                throw new IOException(e);
+            }
+        }
+
+        final String compressorFormat = detectCompressorFormat(bis);
+        if (compressorFormat != null) {
+            try (final InputStream cis = new CompressorStreamFactory().createCompressorInputStream(compressorFormat, bis)) {
+                return copy(cis, output, maxSize);
+            } catch (CompressorException e) {
+                throw new IOException(e);
+            }
+        }
+
+        return copy(bis, output, maxSize);
+    }
+
+    private static String detectArchiveFormat(final BufferedInputStream input) {
+        try {
+            return ArchiveStreamFactory.detect(input);
+        } catch (ArchiveException e) {
+            return null;
+        }
+    }
+
+    private static String detectCompressorFormat(final BufferedInputStream input) {
+        try {
+            return CompressorStreamFactory.detect(input);
+        } catch (CompressorException e) {
+            return null;
+        }
+    }
+
+    private static long copy(final InputStream input, final OutputStream output, final long maxSize) throws IOException {
+        final var buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+        long bytesCopied = 0;
+        int bytesRead;
+        while ((bytesRead = input.read(buffer)) != IOUtils.EOF) {
+            bytesCopied += bytesRead;
+            if (bytesCopied > maxSize) {
+                throw new SizeLimitExceededException(maxSize);
+            }
+            output.write(buffer, 0, bytesRead);
+        }
+        return bytesCopied;
+    }
+
 }
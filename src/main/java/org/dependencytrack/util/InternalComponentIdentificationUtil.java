@@ -24,6 +24,8 @@ import org.dependencytrack.model.Component;
 import org.dependencytrack.model.ConfigPropertyConstants;
 import org.dependencytrack.persistence.QueryManager;
 
+import javax.jdo.PersistenceManager;
+import java.time.Duration;
 import java.util.regex.Pattern;
 
 /**
@@ -32,43 +34,63 @@ import java.util.regex.Pattern;
  */
 public final class InternalComponentIdentificationUtil {
 
+    /**
+     * An immutable snapshot of the compiled regular expressions used to identify internal components.
+     *
+     * @param groupsPattern The compiled {@link ConfigPropertyConstants#INTERNAL_COMPONENTS_GROUPS_REGEX}, if any
+     * @param namesPattern  The compiled {@link ConfigPropertyConstants#INTERNAL_COMPONENTS_NAMES_REGEX}, if any
+     */
+    private record Snapshot(Pattern groupsPattern, Pattern namesPattern) {
+
+        private boolean isInternal(final Component component) {
+            return matches(groupsPattern, component.getGroup()) || matches(namesPattern, component.getName());
+        }
+
+        private static boolean matches(final Pattern pattern, final String value) {
+            return pattern != null && StringUtils.trimToNull(value) != null && pattern.matcher(value).matches();
+        }
+
+    }
+
+    private static final SnapshotCache<Snapshot> SNAPSHOT_CACHE = new SnapshotCache<>(Duration.ofMinutes(1));
+
     private InternalComponentIdentificationUtil() {
     }
 
     public static boolean isInternalComponent(final Component component, final QueryManager qm) {
-        return isInternalGroup(component.getGroup(), qm) || isInternalName(component.getName(), qm);
+        return getSnapshot(qm).isInternal(component);
     }
 
-    private static boolean isInternalGroup(final String group, final QueryManager qm) {
-        if (StringUtils.trimToNull(group) == null) {
-            return false;
-        }
-
-        final ConfigProperty internalGroupsRegexProperty = qm.getConfigProperty(
-                ConfigPropertyConstants.INTERNAL_COMPONENTS_GROUPS_REGEX.getGroupName(),
-                ConfigPropertyConstants.INTERNAL_COMPONENTS_GROUPS_REGEX.getPropertyName()
-        );
-        if (internalGroupsRegexProperty == null || StringUtils.trimToNull(internalGroupsRegexProperty.getPropertyValue()) == null) {
-            return false;
-        }
-
-        return Pattern.matches(StringUtils.trimToNull(internalGroupsRegexProperty.getPropertyValue()), group);
+    /**
+     * Invalidates the cached regular expressions, causing them to be reloaded upon their next use.
+     * <p>
+     * Must be called whenever {@link ConfigPropertyConstants#INTERNAL_COMPONENTS_GROUPS_REGEX}
+     * or {@link ConfigPropertyConstants#INTERNAL_COMPONENTS_NAMES_REGEX} are modified.
+     * Modifications performed by other instances are picked up after at most one minute.
+     *
+     * @since 4.11.0
+     */
+    public static void invalidate() {
+        SNAPSHOT_CACHE.invalidate();
     }
 
-    private static boolean isInternalName(final String name, final QueryManager qm) {
-        if (StringUtils.trimToNull(name) == null) {
-            return false;
-        }
+    private static Snapshot getSnapshot(final QueryManager qm) {
+        final PersistenceManager pm = qm.getPersistenceManager();
+        return SNAPSHOT_CACHE.get(pm != null ? pm.getPersistenceManagerFactory() : null, () -> new Snapshot(
+                compilePattern(qm, ConfigPropertyConstants.INTERNAL_COMPONENTS_GROUPS_REGEX),
+                compilePattern(qm, ConfigPropertyConstants.INTERNAL_COMPONENTS_NAMES_REGEX)));
+    }
 
-        final ConfigProperty internalNamesRegexProperty = qm.getConfigProperty(
-                ConfigPropertyConstants.INTERNAL_COMPONENTS_NAMES_REGEX.getGroupName(),
-                ConfigPropertyConstants.INTERNAL_COMPONENTS_NAMES_REGEX.getPropertyName()
+    private static Pattern compilePattern(final QueryManager qm, final ConfigPropertyConstants propertyConstant) {
+        final ConfigProperty regexProperty = qm.getConfigProperty(
+                propertyConstant.getGroupName(),
+                propertyConstant.getPropertyName()
         );
-        if (internalNamesRegexProperty == null || StringUtils.trimToNull(internalNamesRegexProperty.getPropertyValue()) == null) {
-            return false;
+        if (regexProperty == null || StringUtils.trimToNull(regexProperty.getPropertyValue()) == null) {
+            return null;
         }
 
-        return Pattern.matches(StringUtils.trimToNull(internalNamesRegexProperty.getPropertyValue()), name);
+        return Pattern.compile(StringUtils.trimToNull(regexProperty.getPropertyValue()));
     }
 
 }
@@ -37,6 +37,7 @@ import org.dependencytrack.model.Tag;
 import org.dependencytrack.model.ViolationAnalysis;
 import org.dependencytrack.model.ViolationAnalysisState;
 import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.model.VulnerabilityAlias;
 import org.dependencytrack.model.VulnerabilityAnalysisLevel;
 import org.dependencytrack.notification.NotificationConstants;
 import org.dependencytrack.notification.NotificationGroup;
@@ -63,11 +64,15 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URLDecoder;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -83,26 +88,66 @@ public final class NotificationUtil {
             // Component did not previously contain this vulnerability. It could be a newly discovered vulnerability
             // against an existing component, or it could be a newly added (and vulnerable) component. Either way,
             // it warrants a Notification be dispatched.
-            final Map<Long,Project> affectedProjects = new HashMap<>();
-            final List<Component> components = qm.matchIdentity(new ComponentIdentity(component));
-            for (final Component c : components) {
-                if(!affectedProjects.containsKey(c.getProject().getId())) {
-                    affectedProjects.put(c.getProject().getId(), qm.detach(Project.class, c.getProject().getId()));
-                }
+            dispatchNewVulnerabilityNotifications(qm, Map.of(component, List.of(vulnerability)), vulnerabilityAnalysisLevel);
+        }
+    }
+
+    /**
+     * Dispatches {@link NotificationGroup#NEW_VULNERABILITY} notifications for multiple new findings, without
+     * verifying whether the components were already affected by the vulnerabilities before.
+     * <p>
+     * Affected projects of all components are resolved in bulk, and every affected project, vulnerability,
+     * and component is detached only once, no matter how many notifications it is part of.
+     *
+     * @param qm                          the QueryManager to use
+     * @param newVulnerabilitiesByComponent the new vulnerabilities of each component
+     * @param vulnerabilityAnalysisLevel  the level of the analysis that identified the vulnerabilities
+     * @since 4.11.0
+     */
+    public static void dispatchNewVulnerabilityNotifications(final QueryManager qm,
+                                                             final Map<Component, List<Vulnerability>> newVulnerabilitiesByComponent,
+                                                             final VulnerabilityAnalysisLevel vulnerabilityAnalysisLevel) {
+        if (newVulnerabilitiesByComponent.isEmpty()) {
+            return;
+        }
+
+        final Map<Component, ComponentIdentity> identityByComponent = new IdentityHashMap<>();
+        final Map<Long, Vulnerability> vulnerabilitiesById = new LinkedHashMap<>();
+        for (final Map.Entry<Component, List<Vulnerability>> entry : newVulnerabilitiesByComponent.entrySet()) {
+            identityByComponent.put(entry.getKey(), new ComponentIdentity(entry.getKey()));
+            for (final Vulnerability vulnerability : entry.getValue()) {
+                vulnerabilitiesById.putIfAbsent(vulnerability.getId(), vulnerability);
             }
+        }
+        final Map<ComponentIdentity, Set<Long>> projectIdsByIdentity = qm.getProjectIdsByIdentity(identityByComponent.values());
+        final Map<Long, List<VulnerabilityAlias>> aliasesByVulnId = qm.getVulnerabilityAliases(vulnerabilitiesById.values());
 
-            final Vulnerability detachedVuln =  qm.detach(Vulnerability.class, vulnerability.getId());
-            detachedVuln.setAliases(qm.detach(qm.getVulnerabilityAliases(vulnerability))); // Aliases are lost during detach above
+        final Map<Long, Project> detachedProjects = new HashMap<>();
+        final Map<Long, Vulnerability> detachedVulns = new HashMap<>();
+        for (final Map.Entry<Component, List<Vulnerability>> entry : newVulnerabilitiesByComponent.entrySet()) {
+            final Component component = entry.getKey();
+            final Set<Project> affectedProjects = new HashSet<>();
+            for (final Long projectId : projectIdsByIdentity.getOrDefault(identityByComponent.get(component), Collections.emptySet())) {
+                affectedProjects.add(detachedProjects.computeIfAbsent(projectId, id -> qm.detach(Project.class, id)));
+            }
             final Component detachedComponent = qm.detach(Component.class, component.getId());
 
-            Notification.dispatch(new Notification()
-                    .scope(NotificationScope.PORTFOLIO)
-                    .group(NotificationGroup.NEW_VULNERABILITY)
-                    .title(generateNotificationTitle(NotificationConstants.Title.NEW_VULNERABILITY, component.getProject()))
-                    .level(NotificationLevel.INFORMATIONAL)
-                    .content(generateNotificationContent(detachedVuln))
-                    .subject(new NewVulnerabilityIdentified(detachedVuln, detachedComponent, new HashSet<>(affectedProjects.values()), vulnerabilityAnalysisLevel))
-            );
+            for (final Vulnerability vulnerability : entry.getValue()) {
+                final Vulnerability detachedVuln = detachedVulns.computeIfAbsent(vulnerability.getId(), id -> {
+                    final Vulnerability vuln = qm.detach(Vulnerability.class, id);
+                    vuln.setAliases(qm.detach(aliasesByVulnId.getOrDefault(id, Collections.emptyList()))); // Aliases are lost during detach above
+                    return vuln;
+                });
+
+                Notification.dispatch(new Notification()
+                        .scope(NotificationScope.PORTFOLIO)
+                        .group(NotificationGroup.NEW_VULNERABILITY)
+                        .title(generateNotificationTitle(NotificationConstants.Title.NEW_VULNERABILITY, component.getProject()))
+                        .level(NotificationLevel.INFORMATIONAL)
+                        .content(generateNotificationContent(detachedVuln))
+                        .subject(new NewVulnerabilityIdentified(detachedVuln, detachedComponent, affectedProjects, vulnerabilityAnalysisLevel))
+                );
+            }
         }
     }
 
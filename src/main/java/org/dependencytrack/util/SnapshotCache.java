@@ -0,0 +1,85 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.util;
+
+import javax.jdo.PersistenceManagerFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches an immutable snapshot of data loaded from the database, such that it can be served from memory.
+ * <p>
+ * The snapshot is reloaded upon its next use when it was {@link #invalidate() invalidated}, when it was
+ * loaded from a different {@link PersistenceManagerFactory}, or when it is older than its maximum age.
+ * Invalidation only affects the local instance. The maximum age bounds for how long modifications
+ * performed by other instances sharing the same database remain unnoticed.
+ *
+ * @param <T> Type of the snapshot
+ * @since 4.11.0
+ */
+public final class SnapshotCache<T> {
+
+    private record Entry<T>(PersistenceManagerFactory pmf, long generation, long loadedAtNanos, T value) {
+    }
+
+    private final AtomicLong generation = new AtomicLong();
+    private final long maxAgeNanos;
+    private volatile Entry<T> entry;
+
+    /**
+     * @param maxAge Duration after which the snapshot is reloaded, even if it was not invalidated
+     */
+    public SnapshotCache(final Duration maxAge) {
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * Returns the cached snapshot, or loads a new one if the cached snapshot is stale.
+     *
+     * @param pmf    The {@link PersistenceManagerFactory} the snapshot is loaded from
+     * @param loader The {@link Supplier} to load the snapshot with
+     * @return The snapshot
+     */
+    public T get(final PersistenceManagerFactory pmf, final Supplier<T> loader) {
+        final Entry<T> currentEntry = entry;
+        if (currentEntry != null
+                && currentEntry.pmf() == pmf
+                && currentEntry.generation() == generation.get()
+                && System.nanoTime() - currentEntry.loadedAtNanos() < maxAgeNanos) {
+            return currentEntry.value();
+        }
+
+        // Capture the generation before loading, so that invalidations happening
+        // while loading cause the loaded snapshot to be considered stale.
+        final long loadedGeneration = generation.get();
+        final long loadedAtNanos = System.nanoTime();
+        final T value = loader.get();
+        entry = new Entry<>(pmf, loadedGeneration, loadedAtNanos, value);
+        return value;
+    }
+
+    /**
+     * Invalidates the snapshot, causing it to be reloaded upon its next use.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+}
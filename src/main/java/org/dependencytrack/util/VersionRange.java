@@ -0,0 +1,202 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable, pre-parsed range of versions, as expressed by the {@code versionStartIncluding},
+ * {@code versionStartExcluding}, {@code versionEndIncluding}, and {@code versionEndExcluding}
+ * attributes of a {@link org.dependencytrack.model.VulnerableSoftware}.
+ * <p>
+ * Parsing the bounds of a range once, rather than for every comparison, avoids repeatedly
+ * parsing the same range strings when many components are matched against it.
+ * <p>
+ * Ranges whose bounds consist of numeric parts only additionally expose normalized {@link #getLowerKey() lower}
+ * and {@link #getUpperKey() upper} keys, which allow them to be ordered, see {@link VersionRangeTree}.
+ *
+ * @since 4.11.0
+ */
+public final class VersionRange {
+
+    private static final VersionRange UNBOUNDED = new VersionRange(null, null, null, null);
+
+    private final ComponentVersion startIncluding;
+    private final ComponentVersion startExcluding;
+    private final ComponentVersion endIncluding;
+    private final ComponentVersion endExcluding;
+    private final boolean numeric;
+    private final int[] lowerKey;
+    private final int[] upperKey;
+
+    private VersionRange(final ComponentVersion startIncluding, final ComponentVersion startExcluding,
+                         final ComponentVersion endIncluding, final ComponentVersion endExcluding) {
+        this.startIncluding = startIncluding;
+        this.startExcluding = startExcluding;
+        this.endIncluding = endIncluding;
+        this.endExcluding = endExcluding;
+
+        final int[] startIncludingKey = toKey(startIncluding);
+        final int[] startExcludingKey = toKey(startExcluding);
+        final int[] endIncludingKey = toKey(endIncluding);
+        final int[] endExcludingKey = toKey(endExcluding);
+        this.numeric = (startIncluding == null || startIncludingKey != null)
+                && (startExcluding == null || startExcludingKey != null)
+                && (endIncluding == null || endIncludingKey != null)
+                && (endExcluding == null || endExcludingKey != null);
+        this.lowerKey = numeric ? min(startIncludingKey, startExcludingKey) : null;
+        this.upperKey = numeric ? max(endIncludingKey, endExcludingKey) : null;
+    }
+
+    /**
+     * Creates a {@link VersionRange} from its bounds. Bounds that are {@code null} or empty are ignored.
+     *
+     * @param startIncluding The inclusive lower bound
+     * @param startExcluding The exclusive lower bound
+     * @param endIncluding   The inclusive upper bound
+     * @param endExcluding   The exclusive upper bound
+     * @return A {@link VersionRange}
+     */
+    public static VersionRange of(final String startIncluding, final String startExcluding,
+                                  final String endIncluding, final String endExcluding) {
+        if (isEmpty(startIncluding) && isEmpty(startExcluding) && isEmpty(endIncluding) && isEmpty(endExcluding)) {
+            return UNBOUNDED;
+        }
+        return new VersionRange(parse(startIncluding), parse(startExcluding), parse(endIncluding), parse(endExcluding));
+    }
+
+    /**
+     * @return {@code true} when at least one bound is defined, otherwise {@code false}
+     */
+    public boolean hasBounds() {
+        return this != UNBOUNDED;
+    }
+
+    /**
+     * Determines whether a given version is within this range.
+     * <p>
+     * Ported from {@code compareVersions} of Dependency-Check v5.2.1.
+     *
+     * @param version The version to evaluate
+     * @return {@code true} when this range has bounds, and {@code version} satisfies all of them, otherwise {@code false}
+     */
+    public boolean contains(final ComponentVersion version) {
+        if (!hasBounds() || version == null || version.getVersionParts().isEmpty()) {
+            return false;
+        }
+        return (endExcluding == null || endExcluding.compareTo(version) > 0)
+                && (startExcluding == null || startExcluding.compareTo(version) < 0)
+                && (endIncluding == null || endIncluding.compareTo(version) >= 0)
+                && (startIncluding == null || startIncluding.compareTo(version) <= 0);
+    }
+
+    /**
+     * @return {@code true} when all bounds of this range consist of numeric parts only, otherwise {@code false}
+     */
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    /**
+     * @return The normalized key of the lowest lower bound, or {@code null} if this range is not numeric,
+     * or has no lower bound
+     */
+    public int[] getLowerKey() {
+        return lowerKey;
+    }
+
+    /**
+     * @return The normalized key of the highest upper bound, or {@code null} if this range is not numeric,
+     * or has no upper bound
+     */
+    public int[] getUpperKey() {
+        return upperKey;
+    }
+
+    /**
+     * Converts a {@link ComponentVersion} into a normalized key of its numeric parts, with trailing zeros removed.
+     * <p>
+     * Keys are ordered by {@link #compareKeys(int[], int[])}. Whenever {@link ComponentVersion#compareTo(ComponentVersion)}
+     * considers a version less than or equal to another, the same holds true for their keys. The reverse is not
+     * guaranteed, as e.g. {@code 1.0} and {@code 1.0.0.0} have the same key. Keys are thus suitable to narrow down
+     * candidates, but not to replace {@link #contains(ComponentVersion)}.
+     *
+     * @param version The {@link ComponentVersion} to convert
+     * @return The key, or {@code null} when {@code version} is {@code null}, or contains non-numeric parts
+     */
+    public static int[] toKey(final ComponentVersion version) {
+        if (version == null) {
+            return null;
+        }
+        final List<String> parts = version.getVersionParts();
+        if (parts == null || parts.isEmpty()) {
+            return null;
+        }
+        final var key = new int[parts.size()];
+        int length = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            final String part = parts.get(i);
+            if (part.isEmpty() || part.length() > 9) {
+                // Longer parts could exceed the range of int.
+                return null;
+            }
+            for (int j = 0; j < part.length(); j++) {
+                if (!Character.isDigit(part.charAt(j))) {
+                    return null;
+                }
+            }
+            key[i] = Integer.parseInt(part);
+            if (key[i] != 0) {
+                length = i + 1;
+            }
+        }
+        return Arrays.copyOf(key, length);
+    }
+
+    /**
+     * Compares two keys lexicographically, where a key that is a prefix of another is considered less.
+     */
+    public static int compareKeys(final int[] left, final int[] right) {
+        return Arrays.compare(left, right);
+    }
+
+    private static int[] min(final int[] left, final int[] right) {
+        if (left == null || right == null) {
+            return left != null ? left : right;
+        }
+        return compareKeys(left, right) <= 0 ? left : right;
+    }
+
+    private static int[] max(final int[] left, final int[] right) {
+        if (left == null || right == null) {
+            return left != null ? left : right;
+        }
+        return compareKeys(left, right) >= 0 ? left : right;
+    }
+
+    private static ComponentVersion parse(final String version) {
+        return isEmpty(version) ? null : ComponentVersion.of(version);
+    }
+
+    private static boolean isEmpty(final String version) {
+        return version == null || version.isEmpty();
+    }
+
+}
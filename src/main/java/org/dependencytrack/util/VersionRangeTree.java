@@ -0,0 +1,165 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An immutable, interval-tree-like structure of items with a {@link VersionRange}, that allows for finding
+ * the items whose range may contain a given version in logarithmic time, rather than evaluating every item.
+ * <p>
+ * Only items with {@link VersionRange#isNumeric() numeric} ranges can be ordered, and are organized in the tree.
+ * Items with other ranges, and items without any range, are always returned as candidates.
+ * <p>
+ * The tree is backed by an array of items sorted by the lower key of their range. The array is treated as
+ * an implicit balanced binary search tree, in which every node is augmented with the highest upper key
+ * of its subtree. Subtrees whose highest upper key is below the version, and nodes whose lower key is above
+ * the version, are skipped entirely.
+ *
+ * @param <T> Type of the items
+ * @since 4.11.0
+ */
+public final class VersionRangeTree<T> {
+
+    private record Node<T>(T item, int[] lowerKey, int[] upperKey) {
+    }
+
+    private final List<T> items;
+    private final List<T> unorderedItems;
+    private final List<T> orderedItems;
+    private final int[][] lowerKeys;
+    private final int[][] upperKeys;
+    private final int[][] maxUpperKeys;
+
+    /**
+     * @param items         The items to organize
+     * @param rangeFunction {@link Function} to determine the {@link VersionRange} of an item
+     */
+    public VersionRangeTree(final Collection<T> items, final Function<T, VersionRange> rangeFunction) {
+        this.items = List.copyOf(items);
+
+        final var unordered = new ArrayList<T>();
+        final var ordered = new ArrayList<Node<T>>();
+        for (final T item : items) {
+            final VersionRange range = rangeFunction.apply(item);
+            if (range != null && range.hasBounds() && range.isNumeric()) {
+                ordered.add(new Node<>(item, range.getLowerKey(), range.getUpperKey()));
+            } else {
+                unordered.add(item);
+            }
+        }
+        ordered.sort(Comparator.comparing(Node::lowerKey, VersionRangeTree::compareLowerKeys));
+
+        this.unorderedItems = List.copyOf(unordered);
+        this.orderedItems = ordered.stream().map(Node::item).toList();
+        this.lowerKeys = ordered.stream().map(Node::lowerKey).toArray(int[][]::new);
+        this.upperKeys = ordered.stream().map(Node::upperKey).toArray(int[][]::new);
+        this.maxUpperKeys = new int[ordered.size()][];
+        augment(0, ordered.size());
+    }
+
+    /**
+     * Finds all items whose range may contain a given version.
+     * <p>
+     * The result is a superset of the matching items; candidates must still be evaluated
+     * using {@link VersionRange#contains(ComponentVersion)}.
+     *
+     * @param version The version
+     * @return The candidate items
+     */
+    public List<T> find(final ComponentVersion version) {
+        final int[] key = VersionRange.toKey(version);
+        if (key == null) {
+            // The version can not be ordered relative to the ranges in the tree.
+            return items;
+        }
+
+        final var candidates = new ArrayList<>(unorderedItems);
+        collect(0, orderedItems.size(), key, candidates);
+        return candidates;
+    }
+
+    /**
+     * @return All items of the tree
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    private void collect(final int from, final int to, final int[] key, final List<T> candidates) {
+        if (from >= to) {
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        if (compareUpperKeys(maxUpperKeys[mid], key) < 0) {
+            // No range in this subtree reaches up to the version.
+            return;
+        }
+        collect(from, mid, key, candidates);
+        if (compareLowerKeys(lowerKeys[mid], key) > 0) {
+            // This range, and all ranges to the right of it, start above the version.
+            return;
+        }
+        if (compareUpperKeys(upperKeys[mid], key) >= 0) {
+            candidates.add(orderedItems.get(mid));
+        }
+        collect(mid + 1, to, key, candidates);
+    }
+
+    private int[] augment(final int from, final int to) {
+        if (from >= to) {
+            return new int[0];
+        }
+        final int mid = (from + to) >>> 1;
+        int[] maxUpperKey = upperKeys[mid];
+        maxUpperKey = maxUpperKey(maxUpperKey, augment(from, mid));
+        maxUpperKey = maxUpperKey(maxUpperKey, augment(mid + 1, to));
+        maxUpperKeys[mid] = maxUpperKey;
+        return maxUpperKey;
+    }
+
+    private static int[] maxUpperKey(final int[] left, final int[] right) {
+        return compareUpperKeys(left, right) >= 0 ? left : right;
+    }
+
+    /**
+     * Compares lower keys, where {@code null} represents a missing lower bound, and thus sorts first.
+     */
+    private static int compareLowerKeys(final int[] left, final int[] right) {
+        if (left == null || right == null) {
+            return left == right ? 0 : (left == null ? -1 : 1);
+        }
+        return VersionRange.compareKeys(left, right);
+    }
+
+    /**
+     * Compares upper keys, where {@code null} represents a missing upper bound, and thus sorts last.
+     */
+    private static int compareUpperKeys(final int[] left, final int[] right) {
+        if (left == null || right == null) {
+            return left == right ? 0 : (left == null ? 1 : -1);
+        }
+        return VersionRange.compareKeys(left, right);
+    }
+
+}
@@ -21,6 +21,7 @@ package org.dependencytrack;
 import alpine.Config;
 import alpine.server.persistence.PersistenceManagerFactory;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.tasks.scanners.VulnerabilityAnalysisCache;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -37,6 +38,7 @@ public abstract class PersistenceCapableTest {
     @Before
     public void before() throws Exception {
         this.qm = new QueryManager();
+        VulnerabilityAnalysisCache.invalidateAll();
     }
 
     @After
@@ -0,0 +1,75 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.common;
+
+import alpine.Config;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UpstreamRequestExecutorTest {
+
+    @BeforeClass
+    public static void setUpClass() {
+        Config.enableUnitTests();
+    }
+
+    @Test
+    public void testForEach() {
+        final List<Integer> items = IntStream.range(0, 100).boxed().toList();
+        final Set<Integer> processedItems = ConcurrentHashMap.newKeySet();
+        final var concurrency = new AtomicInteger();
+        final var maxConcurrency = new AtomicInteger();
+
+        UpstreamRequestExecutor.forEach(items, item -> {
+            maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrency.decrementAndGet();
+            if (item % 10 == 0) {
+                throw new IllegalStateException("Failed to process " + item);
+            }
+            processedItems.add(item);
+        });
+
+        // Failures must not prevent the remaining items from being processed.
+        assertThat(processedItems).hasSize(90);
+        assertThat(maxConcurrency.get()).isBetween(1, Config.getInstance().getPropertyAsInt(ConfigKey.UPSTREAM_REQUEST_MAX_CONCURRENCY_PER_HOST));
+    }
+
+    @Test
+    public void testAcquirePermitWhenDisabled() {
+        // The executor is disabled by default, in which case no limit must be enforced.
+        final int maxConcurrencyPerHost = Config.getInstance().getPropertyAsInt(ConfigKey.UPSTREAM_REQUEST_MAX_CONCURRENCY_PER_HOST);
+        for (int i = 0; i <= maxConcurrencyPerHost; i++) {
+            assertThat(UpstreamRequestExecutor.acquirePermit("https://example.com/foo")).isNotNull();
+        }
+    }
+
+}
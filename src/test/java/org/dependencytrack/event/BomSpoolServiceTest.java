@@ -0,0 +1,95 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.event;
+
+import org.dependencytrack.exception.SizeLimitExceededException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class BomSpoolServiceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BomSpoolService spoolService;
+
+    @Before
+    public void setUp() {
+        spoolService = new BomSpoolService(temporaryFolder.getRoot().toPath(), Duration.ofMinutes(5));
+    }
+
+    @After
+    public void tearDown() {
+        spoolService.stop();
+    }
+
+    @Test
+    public void testStartPurgesStaleSpoolFiles() throws Exception {
+        final File spoolFile = spoolService.spool(new ByteArrayInputStream("a".getBytes(StandardCharsets.UTF_8)), Long.MAX_VALUE);
+        assertThat(spoolFile).exists().hasContent("a");
+
+        spoolService.start();
+        assertThat(spoolFile).doesNotExist();
+    }
+
+    @Test
+    public void testSpoolExceedingMaxSize() {
+        assertThatExceptionOfType(SizeLimitExceededException.class)
+                .isThrownBy(() -> spoolService.spool(new ByteArrayInputStream("abcdef".getBytes(StandardCharsets.UTF_8)), 5));
+        assertThat(temporaryFolder.getRoot().listFiles()).isEmpty();
+    }
+
+    @Test
+    public void testCompleteUploadSession() throws Exception {
+        final BomUploadSession session = spoolService.createUploadSession(UUID.randomUUID(), false);
+        assertThat(session.append(0, new ByteArrayInputStream("ab".getBytes(StandardCharsets.UTF_8)), Long.MAX_VALUE)).isTrue();
+        assertThat(session.append(2, new ByteArrayInputStream("cd".getBytes(StandardCharsets.UTF_8)), Long.MAX_VALUE)).isTrue();
+
+        final File spoolFile = spoolService.completeUploadSession(session, Long.MAX_VALUE);
+        assertThat(spoolFile).hasContent("abcd");
+        assertThat(session.getFile()).doesNotExist();
+        assertThat(spoolService.getUploadSession(session.getUuid())).isNull();
+    }
+
+    @Test
+    public void testAbortExpiredUploadSessions() throws Exception {
+        spoolService = new BomSpoolService(temporaryFolder.getRoot().toPath(), Duration.ZERO);
+        final BomUploadSession session = spoolService.createUploadSession(UUID.randomUUID(), false);
+        assertThat(Files.exists(session.getFile())).isTrue();
+
+        Thread.sleep(10);
+        spoolService.abortExpiredUploadSessions();
+        assertThat(spoolService.getUploadSession(session.getUuid())).isNull();
+        assertThat(Files.exists(session.getFile())).isFalse();
+    }
+
+}
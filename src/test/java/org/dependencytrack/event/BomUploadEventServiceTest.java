@@ -0,0 +1,242 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.event;
+
+import alpine.event.framework.Event;
+import alpine.event.framework.Subscriber;
+import org.dependencytrack.resources.v1.vo.IsTokenBeingProcessedResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+public class BomUploadEventServiceTest {
+
+    public static class BlockingSubscriber implements Subscriber {
+
+        private static final List<BomUploadEvent> STARTED_EVENTS = new CopyOnWriteArrayList<>();
+        private static final List<BomUploadEvent> COMPLETED_EVENTS = new CopyOnWriteArrayList<>();
+        private static volatile CountDownLatch releaseLatch;
+
+        @Override
+        public void inform(final Event event) {
+            STARTED_EVENTS.add((BomUploadEvent) event);
+            try {
+                releaseLatch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            COMPLETED_EVENTS.add((BomUploadEvent) event);
+        }
+
+    }
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BomUploadEventService eventService;
+
+    @Before
+    public void setUp() {
+        BlockingSubscriber.STARTED_EVENTS.clear();
+        BlockingSubscriber.COMPLETED_EVENTS.clear();
+        BlockingSubscriber.releaseLatch = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        BlockingSubscriber.releaseLatch.countDown();
+        if (eventService != null) {
+            eventService.shutdown(Duration.ofSeconds(5));
+        }
+    }
+
+    @Test
+    public void testEventsOfSameProjectAreProcessedSequentially() {
+        eventService = new BomUploadEventService(2, 10);
+        eventService.subscribe(BomUploadEvent.class, BlockingSubscriber.class);
+
+        final UUID projectUuidA = UUID.randomUUID();
+        final UUID projectUuidB = UUID.randomUUID();
+        final var eventA1 = new BomUploadEvent(projectUuidA, new byte[0]);
+        final var eventA2 = new BomUploadEvent(projectUuidA, new byte[0]);
+        final var eventB1 = new BomUploadEvent(projectUuidB, new byte[0]);
+        assertThat(eventService.offer(eventA1)).isTrue();
+        assertThat(eventService.offer(eventA2)).isTrue();
+        assertThat(eventService.offer(eventB1)).isTrue();
+
+        // Different projects are processed in parallel, while the second event
+        // for project A must wait for the first one to complete.
+        await("Processing started")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(BlockingSubscriber.STARTED_EVENTS).containsExactlyInAnyOrder(eventA1, eventB1));
+        assertThat(eventService.isEventBeingProcessed(eventA2.getChainIdentifier())).isTrue();
+
+        BlockingSubscriber.releaseLatch.countDown();
+
+        await("Processing completed")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(BlockingSubscriber.COMPLETED_EVENTS).hasSize(3));
+        assertThat(BlockingSubscriber.COMPLETED_EVENTS.indexOf(eventA1))
+                .isLessThan(BlockingSubscriber.STARTED_EVENTS.indexOf(eventA2));
+        await("Events untracked")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> {
+                    assertThat(eventService.isEventBeingProcessed(eventA1)).isFalse();
+                    assertThat(eventService.isEventBeingProcessed(eventA2)).isFalse();
+                    assertThat(eventService.isEventBeingProcessed(eventB1)).isFalse();
+                });
+    }
+
+    @Test
+    public void testQueuedEventsOfSameProjectAreCoalesced() {
+        eventService = new BomUploadEventService(1, 2);
+        eventService.subscribe(BomUploadEvent.class, BlockingSubscriber.class);
+
+        final UUID projectUuid = UUID.randomUUID();
+        final var eventA = new BomUploadEvent(projectUuid, new byte[0]);
+        final var eventB = new BomUploadEvent(projectUuid, new byte[0]);
+        final var eventC = new BomUploadEvent(projectUuid, new byte[0]);
+        assertThat(eventService.offer(eventA)).isTrue();
+        await("Processing started")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(BlockingSubscriber.STARTED_EVENTS).containsExactly(eventA));
+        assertThat(eventService.offer(eventB)).isTrue();
+
+        // The capacity is exhausted at this point, but superseding eventB
+        // does not increase the number of pending events.
+        assertThat(eventService.offer(eventC)).isTrue();
+        assertThat(eventService.isEventBeingProcessed(eventB)).isFalse();
+        assertThat(eventService.isEventBeingProcessed(eventC)).isTrue();
+        assertThat(eventService.offer(new BomUploadEvent(UUID.randomUUID(), new byte[0]))).isFalse();
+
+        BlockingSubscriber.releaseLatch.countDown();
+
+        await("Processing completed")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(BlockingSubscriber.COMPLETED_EVENTS).containsExactly(eventA, eventC));
+    }
+
+    @Test
+    public void testSupersededEventsAreResolvedAsCoalesced() {
+        eventService = new BomUploadEventService(1, 10);
+        eventService.subscribe(BomUploadEvent.class, BlockingSubscriber.class);
+
+        final UUID projectUuid = UUID.randomUUID();
+        final var eventA = new BomUploadEvent(projectUuid, new byte[0]);
+        final var eventB = new BomUploadEvent(projectUuid, new byte[0], true);
+        final var eventC = new BomUploadEvent(projectUuid, new byte[0]);
+        final var eventD = new BomUploadEvent(projectUuid, new byte[0]);
+        assertThat(eventService.offer(eventA)).isTrue();
+        await("Processing started")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(BlockingSubscriber.STARTED_EVENTS).containsExactly(eventA));
+        assertThat(eventService.offer(eventB)).isTrue();
+        assertThat(eventService.offer(eventC)).isTrue();
+        assertThat(eventService.offer(eventD)).isTrue();
+
+        // Tokens of superseded events resolve to the latest event that superseded them.
+        assertThat(eventService.getSupersedingChainIdentifier(eventA.getChainIdentifier())).isNull();
+        assertThat(eventService.getSupersedingChainIdentifier(eventB.getChainIdentifier())).isEqualTo(eventD.getChainIdentifier());
+        assertThat(eventService.getSupersedingChainIdentifier(eventC.getChainIdentifier())).isEqualTo(eventD.getChainIdentifier());
+        assertThat(eventService.getSupersedingChainIdentifier(eventD.getChainIdentifier())).isNull();
+
+        // Tokens of superseded events are being processed for as long as the superseding event is.
+        final IsTokenBeingProcessedResponse response = eventService.isTokenBeingProcessed(eventB.getChainIdentifier());
+        assertThat(response.getProcessing()).isTrue();
+        assertThat(response.getSupersededBy()).isEqualTo(eventD.getChainIdentifier());
+
+        // The request of eventB to reprocess identical BOMs is carried over.
+        assertThat(eventC.isForceReprocessing()).isTrue();
+        assertThat(eventD.isForceReprocessing()).isTrue();
+
+        BlockingSubscriber.releaseLatch.countDown();
+
+        await("Processing completed")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(BlockingSubscriber.COMPLETED_EVENTS).containsExactly(eventA, eventD));
+    }
+
+    @Test
+    public void testSpoolFilesOfSupersededEventsAreDeleted() throws Exception {
+        eventService = new BomUploadEventService(1, 10);
+        eventService.subscribe(BomUploadEvent.class, BlockingSubscriber.class);
+        final var spoolService = new BomSpoolService(temporaryFolder.getRoot().toPath(), Duration.ofMinutes(5));
+
+        final UUID projectUuid = UUID.randomUUID();
+        final File spoolFileA = spoolService.spool(new ByteArrayInputStream("a".getBytes(StandardCharsets.UTF_8)), Long.MAX_VALUE);
+        final File spoolFileB = spoolService.spool(new ByteArrayInputStream("b".getBytes(StandardCharsets.UTF_8)), Long.MAX_VALUE);
+        final File spoolFileC = spoolService.spool(new ByteArrayInputStream("c".getBytes(StandardCharsets.UTF_8)), Long.MAX_VALUE);
+
+        final var eventA = new BomUploadEvent(projectUuid, spoolFileA, false);
+        assertThat(eventService.offer(eventA)).isTrue();
+        await("Processing started")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(BlockingSubscriber.STARTED_EVENTS).containsExactly(eventA));
+        assertThat(eventService.offer(new BomUploadEvent(projectUuid, spoolFileB, false))).isTrue();
+        assertThat(eventService.offer(new BomUploadEvent(projectUuid, spoolFileC, false))).isTrue();
+
+        assertThat(spoolFileB).doesNotExist();
+        assertThat(spoolFileC).exists();
+    }
+
+    @Test
+    public void testOfferWhenCapacityIsExhausted() {
+        eventService = new BomUploadEventService(1, 1);
+        eventService.subscribe(BomUploadEvent.class, BlockingSubscriber.class);
+
+        final var eventA = new BomUploadEvent(UUID.randomUUID(), new byte[0]);
+        final var eventB = new BomUploadEvent(UUID.randomUUID(), new byte[0]);
+        assertThat(eventService.offer(eventA)).isTrue();
+        assertThat(eventService.offer(eventB)).isFalse();
+        assertThat(eventService.isEventBeingProcessed(eventB)).isFalse();
+
+        BlockingSubscriber.releaseLatch.countDown();
+
+        await("Capacity released")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(eventService.isEventBeingProcessed(eventA)).isFalse());
+        assertThat(eventService.offer(eventB)).isTrue();
+    }
+
+    @Test
+    public void testOfferAfterShutdown() {
+        eventService = new BomUploadEventService(1, 1);
+        eventService.subscribe(BomUploadEvent.class, BlockingSubscriber.class);
+        eventService.shutdown(Duration.ofSeconds(1));
+
+        assertThat(eventService.isShutdown()).isTrue();
+        assertThat(eventService.offer(new BomUploadEvent(UUID.randomUUID(), new byte[0]))).isFalse();
+    }
+
+}
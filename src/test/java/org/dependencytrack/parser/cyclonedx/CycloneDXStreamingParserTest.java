@@ -0,0 +1,191 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.parser.cyclonedx;
+
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class CycloneDXStreamingParserTest {
+
+    private static final String JSON_BOM = """
+            {
+              "bomFormat": "CycloneDX",
+              "specVersion": "1.4",
+              "serialNumber": "urn:uuid:3e671687-395b-41f5-a30f-a58921a69b79",
+              "version": 2,
+              "metadata": {
+                "component": {
+                  "bom-ref": "app",
+                  "type": "application",
+                  "name": "acme-app"
+                }
+              },
+              "components": [
+                {
+                  "bom-ref": "a",
+                  "type": "library",
+                  "name": "acme-lib-a",
+                  "components": [
+                    {
+                      "bom-ref": "a-child",
+                      "type": "library",
+                      "name": "acme-lib-a-child"
+                    }
+                  ]
+                },
+                {
+                  "bom-ref": "b",
+                  "type": "library",
+                  "name": "acme-lib-b"
+                }
+              ],
+              "dependencies": [
+                {
+                  "ref": "a",
+                  "dependsOn": ["b", "a-child"]
+                }
+              ]
+            }
+            """;
+
+    private static final String XML_BOM = """
+            <?xml version="1.0"?>
+            <bom xmlns="http://cyclonedx.org/schema/bom/1.4" serialNumber="urn:uuid:3e671687-395b-41f5-a30f-a58921a69b79" version="2">
+              <metadata>
+                <component type="application" bom-ref="app">
+                  <name>acme-app</name>
+                </component>
+              </metadata>
+              <components>
+                <component type="library" bom-ref="a">
+                  <name>acme-lib-a</name>
+                  <components>
+                    <component type="library" bom-ref="a-child">
+                      <name>acme-lib-a-child</name>
+                    </component>
+                  </components>
+                </component>
+                <component type="library" bom-ref="b">
+                  <name>acme-lib-b</name>
+                </component>
+              </components>
+              <dependencies>
+                <dependency ref="a">
+                  <dependency ref="b"/>
+                  <dependency ref="a-child"/>
+                </dependency>
+              </dependencies>
+            </bom>
+            """;
+
+    @Test
+    public void testParseJson() throws Exception {
+        assertParsed(new CycloneDXStreamingParser(CycloneDXStreamingParser.Format.JSON), JSON_BOM);
+    }
+
+    @Test
+    public void testParseXml() throws Exception {
+        assertParsed(new CycloneDXStreamingParser(CycloneDXStreamingParser.Format.XML), XML_BOM);
+    }
+
+    @Test
+    public void testParseOnlyRequestedSections() throws Exception {
+        final var parser = new CycloneDXStreamingParser(CycloneDXStreamingParser.Format.JSON);
+        final var visitor = new CollectingVisitor();
+        parser.parse(stream(JSON_BOM), EnumSet.of(CycloneDXStreamingParser.Section.DEPENDENCIES), visitor);
+        assertThat(visitor.metadata).isEmpty();
+        assertThat(visitor.components).isEmpty();
+        assertThat(visitor.dependencies).hasSize(1);
+    }
+
+    @Test
+    public void testReadHeaderWithTruncatedBom() {
+        final String truncatedJson = JSON_BOM.substring(0, JSON_BOM.indexOf("\"dependencies\""));
+        assertThatExceptionOfType(ParseException.class)
+                .isThrownBy(() -> new CycloneDXStreamingParser(CycloneDXStreamingParser.Format.JSON).readHeader(stream(truncatedJson)))
+                .withMessage("Unable to parse BOM from byte array");
+
+        final String truncatedXml = XML_BOM.substring(0, XML_BOM.indexOf("<dependencies>"));
+        assertThatExceptionOfType(ParseException.class)
+                .isThrownBy(() -> new CycloneDXStreamingParser(CycloneDXStreamingParser.Format.XML).readHeader(stream(truncatedXml)))
+                .withMessage("Unable to parse BOM from byte array");
+    }
+
+    private static void assertParsed(final CycloneDXStreamingParser parser, final String bom) throws Exception {
+        final CycloneDXStreamingParser.Header header = parser.readHeader(stream(bom));
+        assertThat(header.specVersion()).isEqualTo("1.4");
+        assertThat(header.version()).isEqualTo(2);
+        assertThat(header.serialNumber()).isEqualTo("urn:uuid:3e671687-395b-41f5-a30f-a58921a69b79");
+
+        final var visitor = new CollectingVisitor();
+        parser.parse(stream(bom), EnumSet.allOf(CycloneDXStreamingParser.Section.class), visitor);
+        assertThat(visitor.metadata).satisfiesExactly(metadata ->
+                assertThat(metadata.getComponent().getBomRef()).isEqualTo("app"));
+        assertThat(visitor.components).satisfiesExactly(
+                component -> {
+                    assertThat(component.getBomRef()).isEqualTo("a");
+                    assertThat(component.getComponents()).extracting(Component::getBomRef).containsExactly("a-child");
+                },
+                component -> assertThat(component.getBomRef()).isEqualTo("b"));
+        assertThat(visitor.dependencies).satisfiesExactly(dependency -> {
+            assertThat(dependency.getRef()).isEqualTo("a");
+            assertThat(dependency.getDependencies()).extracting(Dependency::getRef).containsExactly("b", "a-child");
+        });
+    }
+
+    private static ByteArrayInputStream stream(final String bom) {
+        return new ByteArrayInputStream(bom.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class CollectingVisitor implements CycloneDXStreamingParser.Visitor {
+
+        private final List<Metadata> metadata = new ArrayList<>();
+        private final List<Component> components = new ArrayList<>();
+        private final List<Dependency> dependencies = new ArrayList<>();
+
+        @Override
+        public void visitMetadata(final Metadata metadata) {
+            this.metadata.add(metadata);
+        }
+
+        @Override
+        public void visitComponent(final Component component) {
+            components.add(component);
+        }
+
+        @Override
+        public void visitDependency(final Dependency dependency) {
+            dependencies.add(dependency);
+        }
+
+    }
+
+}
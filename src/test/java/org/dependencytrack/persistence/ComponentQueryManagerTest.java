@@ -0,0 +1,216 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import com.github.packageurl.PackageURL;
+import org.dependencytrack.PersistenceCapableTest;
+import org.dependencytrack.model.Analysis;
+import org.dependencytrack.model.AnalysisState;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ComponentIdentity;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.Vulnerability;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class ComponentQueryManagerTest extends PersistenceCapableTest {
+
+    @Test
+    public void testBulkUpsertComponents() {
+        final Project project = qm.createProject("acme-app", null, "1.0.0", null, null, null, true, false);
+
+        final var existingComponent = new Component();
+        existingComponent.setProject(project);
+        existingComponent.setName("acme-lib-a");
+        existingComponent.setVersion("1.0.0");
+        qm.persist(existingComponent);
+
+        existingComponent.setVersion("1.0.1");
+
+        final var newComponent = new Component();
+        newComponent.setProject(project);
+        newComponent.setName("acme-lib-b");
+        newComponent.setVersion("2.0.0");
+
+        final var newChildComponent = new Component();
+        newChildComponent.setProject(project);
+        newChildComponent.setParent(newComponent);
+        newChildComponent.setName("acme-lib-b-child");
+        newChildComponent.setVersion("2.0.0");
+        newComponent.setChildren(List.of(newChildComponent));
+
+        final List<Component> persistedComponents = qm.bulkUpsertComponents(List.of(existingComponent, newComponent), false);
+        assertThat(persistedComponents).satisfiesExactly(
+                component -> {
+                    assertThat(component.getId()).isEqualTo(existingComponent.getId());
+                    assertThat(component.getVersion()).isEqualTo("1.0.1");
+                },
+                component -> {
+                    assertThat(component.getUuid()).isNotNull();
+                    assertThat(component.getName()).isEqualTo("acme-lib-b");
+                },
+                component -> {
+                    assertThat(component.getUuid()).isNotNull();
+                    assertThat(component.getName()).isEqualTo("acme-lib-b-child");
+                    assertThat(component.getParent().getName()).isEqualTo("acme-lib-b");
+                }
+        );
+
+        qm.getPersistenceManager().evictAll();
+        assertThat(qm.getAllComponents(project)).extracting(Component::getName, Component::getVersion)
+                .containsExactlyInAnyOrder(
+                        tuple("acme-lib-a", "1.0.1"),
+                        tuple("acme-lib-b", "2.0.0"),
+                        tuple("acme-lib-b-child", "2.0.0")
+                );
+    }
+
+    @Test
+    public void testBulkUpsertComponentsWithEmptyList() {
+        assertThat(qm.bulkUpsertComponents(List.of(), false)).isEmpty();
+    }
+
+    @Test
+    public void testReconcileComponents() {
+        final Project project = qm.createProject("acme-app", null, "1.0.0", null, null, null, true, false);
+
+        final Component unchangedComponent = createComponent(project, "acme-lib-a", "1.0.0", null);
+        unchangedComponent.setDescription("foo");
+        qm.persist(unchangedComponent);
+        final Component changedComponent = createComponent(project, "acme-lib-b", "1.0.0", null);
+        final Component removedComponent = createComponent(project, "acme-lib-c", "1.0.0", null);
+        final Component removedChildComponent = createComponent(project, "acme-lib-c-child", "1.0.0", removedComponent);
+
+        final var vulnerability = new Vulnerability();
+        vulnerability.setVulnId("INT-001");
+        vulnerability.setSource(Vulnerability.Source.INTERNAL);
+        qm.createVulnerability(vulnerability, false);
+        qm.makeAnalysis(removedChildComponent, vulnerability, AnalysisState.NOT_AFFECTED, null, null, null, false);
+
+        final var incomingUnchangedComponent = new Component();
+        incomingUnchangedComponent.setProject(project);
+        incomingUnchangedComponent.setName("acme-lib-a");
+        incomingUnchangedComponent.setVersion("1.0.0");
+        incomingUnchangedComponent.setDescription("foo");
+        incomingUnchangedComponent.setBomRef("a");
+
+        final var incomingChangedComponent = new Component();
+        incomingChangedComponent.setProject(project);
+        incomingChangedComponent.setName("acme-lib-b");
+        incomingChangedComponent.setVersion("1.0.0");
+        incomingChangedComponent.setDescription("bar");
+
+        final var incomingAddedComponent = new Component();
+        incomingAddedComponent.setProject(project);
+        incomingAddedComponent.setName("acme-lib-d");
+        incomingAddedComponent.setVersion("1.0.0");
+
+        final var incomingAddedChildComponent = new Component();
+        incomingAddedChildComponent.setProject(project);
+        incomingAddedChildComponent.setName("acme-lib-d-child");
+        incomingAddedChildComponent.setVersion("1.0.0");
+        incomingAddedComponent.setChildren(List.of(incomingAddedChildComponent));
+
+        final ComponentDiff diff = qm.reconcileComponents(project, qm.getAllComponents(project),
+                List.of(incomingUnchangedComponent, incomingChangedComponent, incomingAddedComponent));
+
+        assertThat(diff.components()).extracting(Component::getName)
+                .containsExactly("acme-lib-a", "acme-lib-b", "acme-lib-d", "acme-lib-d-child");
+        assertThat(diff.unchanged()).extracting(Component::getName).containsExactly("acme-lib-a");
+        assertThat(diff.changed()).extracting(Component::getName).containsExactly("acme-lib-b");
+        assertThat(diff.added()).extracting(Component::getName).containsExactlyInAnyOrder("acme-lib-d", "acme-lib-d-child");
+        assertThat(diff.removed()).extracting(Component::getName).containsExactlyInAnyOrder("acme-lib-c", "acme-lib-c-child");
+        assertThat(diff.components().get(0).getId()).isEqualTo(unchangedComponent.getId());
+        assertThat(diff.components().get(0).getBomRef()).isEqualTo("a");
+
+        qm.getPersistenceManager().evictAll();
+        assertThat(qm.getAllComponents(project)).satisfiesExactlyInAnyOrder(
+                component -> assertThat(component.getName()).isEqualTo("acme-lib-a"),
+                component -> {
+                    assertThat(component.getName()).isEqualTo("acme-lib-b");
+                    assertThat(component.getDescription()).isEqualTo("bar");
+                },
+                component -> assertThat(component.getName()).isEqualTo("acme-lib-d"),
+                component -> {
+                    assertThat(component.getName()).isEqualTo("acme-lib-d-child");
+                    assertThat(component.getParent().getName()).isEqualTo("acme-lib-d");
+                }
+        );
+        assertThat(qm.getPersistenceManager().newQuery(Analysis.class).executeList()).isEmpty();
+    }
+
+    @Test
+    public void testReconcileComponentsByIds() {
+        final Project project = qm.createProject("acme-app", null, "1.0.0", null, null, null, true, false);
+        final Component retainedComponent = createComponent(project, "acme-lib-a", "1.0.0", null);
+        final Component removedComponent = createComponent(project, "acme-lib-b", "1.0.0", null);
+        createComponent(project, "acme-lib-b-child", "1.0.0", removedComponent);
+
+        qm.reconcileComponents(project, List.of(retainedComponent.getId()));
+
+        qm.getPersistenceManager().evictAll();
+        assertThat(qm.getAllComponents(project)).extracting(Component::getName).containsExactly("acme-lib-a");
+    }
+
+    @Test
+    public void testGetProjectIdsByIdentity() throws Exception {
+        final Project projectA = qm.createProject("acme-app-a", null, "1.0.0", null, null, null, true, false);
+        final Project projectB = qm.createProject("acme-app-b", null, "1.0.0", null, null, null, true, false);
+        final Project projectC = qm.createProject("acme-app-c", null, "1.0.0", null, null, null, true, false);
+        final Component componentA = createComponent(projectA, "acme-lib-a", "1.0.0", null);
+        componentA.setPurl("pkg:maven/com.acme/acme-lib-a@1.0.0?type=jar");
+        componentA.setPurlCoordinates("pkg:maven/com.acme/acme-lib-a@1.0.0");
+        qm.persist(componentA);
+        final Component componentB = createComponent(projectB, "acme-lib-a-renamed", "1.0.0", null);
+        componentB.setPurl("pkg:maven/com.acme/acme-lib-a@1.0.0");
+        qm.persist(componentB);
+        createComponent(projectC, "acme-lib-a", "1.0.0", null);
+        createComponent(projectC, "acme-lib-b", "2.0.0", null);
+
+        final var purlIdentity = new ComponentIdentity(new PackageURL("pkg:maven/com.acme/acme-lib-a@1.0.0"), null, null, "foo", "bar", "baz");
+        final var coordinatesIdentity = new ComponentIdentity(null, null, null, null, "acme-lib-b", "2.0.0");
+        final var unknownIdentity = new ComponentIdentity(null, null, null, null, "acme-lib-c", "1.0.0");
+
+        final Map<ComponentIdentity, Set<Long>> projectIdsByIdentity =
+                qm.getProjectIdsByIdentity(List.of(purlIdentity, coordinatesIdentity, unknownIdentity));
+        assertThat(projectIdsByIdentity.get(purlIdentity)).containsExactlyInAnyOrder(projectA.getId(), projectB.getId());
+        assertThat(projectIdsByIdentity.get(coordinatesIdentity)).containsExactly(projectC.getId());
+        assertThat(projectIdsByIdentity.get(unknownIdentity)).isEmpty();
+
+        // Results must be consistent with matchIdentity.
+        assertThat(qm.matchIdentity(purlIdentity)).extracting(component -> component.getProject().getId())
+                .containsExactlyInAnyOrderElementsOf(projectIdsByIdentity.get(purlIdentity));
+    }
+
+    private Component createComponent(final Project project, final String name, final String version, final Component parent) {
+        final var component = new Component();
+        component.setProject(project);
+        component.setName(name);
+        component.setVersion(version);
+        component.setParent(parent);
+        return qm.persist(component);
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import org.dependencytrack.PersistenceCapableTest;
+import org.dependencytrack.model.License;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LicenseQueryManagerTest extends PersistenceCapableTest {
+
+    @Test
+    public void testResolveLicense() {
+        final var license = new License();
+        license.setLicenseId("Apache-2.0");
+        license.setName("Apache License 2.0");
+        qm.synchronizeLicense(license, false);
+
+        assertThat(qm.resolveLicense("Apache-2.0")).satisfies(resolvedLicense -> {
+            assertThat(resolvedLicense.getLicenseId()).isEqualTo("Apache-2.0");
+            assertThat(resolvedLicense.getName()).isEqualTo("Apache License 2.0");
+        });
+        assertThat(qm.resolveLicense(" apache-2.0 ")).isNotNull();
+        assertThat(qm.resolveLicense("MIT")).isNull();
+        assertThat(qm.resolveLicense(null)).isNull();
+        assertThat(qm.resolveCustomLicense("Apache License 2.0")).isNull();
+    }
+
+    @Test
+    public void testResolveCustomLicense() {
+        assertThat(qm.resolveCustomLicense("Acme License")).isNull();
+
+        final var license = new License();
+        license.setName("Acme License");
+        final License customLicense = qm.createCustomLicense(license, false);
+
+        assertThat(qm.resolveCustomLicense("Acme License")).satisfies(resolvedLicense ->
+                assertThat(resolvedLicense.getId()).isEqualTo(customLicense.getId()));
+        assertThat(qm.resolveCustomLicense("acme license")).isNotNull();
+
+        qm.deleteLicense(customLicense, false);
+        assertThat(qm.resolveCustomLicense("Acme License")).isNull();
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import org.dependencytrack.PersistenceCapableTest;
+import org.dependencytrack.model.PortfolioAnalysisShard;
+import org.dependencytrack.model.Project;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PortfolioAnalysisQueryManagerTest extends PersistenceCapableTest {
+
+    @Test
+    public void testCreatePortfolioAnalysisShards() {
+        final Project projectA = qm.createProject("Project A", null, "1.0", null, null, null, true, false);
+        final Project projectB = qm.createProject("Project B", null, "1.0", null, null, null, true, false);
+        final Project projectC = qm.createProject("Project C", null, "1.0", null, null, null, false, false);
+        final Project projectD = qm.createProject("Project D", null, "1.0", null, null, null, true, false);
+
+        assertThat(qm.hasUnfinishedPortfolioAnalysisShards()).isFalse();
+        assertThat(qm.createPortfolioAnalysisShards(2, false)).isEqualTo(2);
+        assertThat(qm.hasUnfinishedPortfolioAnalysisShards()).isTrue();
+
+        // Shards must not be replaced while an analysis is in progress.
+        assertThat(qm.createPortfolioAnalysisShards(2, false)).isZero();
+
+        final PortfolioAnalysisShard shardA = qm.claimPortfolioAnalysisShard("worker-a", Duration.ofMinutes(5));
+        assertThat(shardA.getShardIndex()).isZero();
+        assertThat(qm.getPortfolioAnalysisShardProjectIds(shardA)).containsExactly(projectA.getId(), projectB.getId());
+
+        // Inactive projects are not analyzed.
+        final PortfolioAnalysisShard shardB = qm.claimPortfolioAnalysisShard("worker-b", Duration.ofMinutes(5));
+        assertThat(shardB.getShardIndex()).isEqualTo(1);
+        assertThat(qm.getPortfolioAnalysisShardProjectIds(shardB)).containsExactly(projectD.getId());
+        assertThat(projectC.getId()).isBetween(projectA.getId(), projectD.getId());
+
+        assertThat(qm.claimPortfolioAnalysisShard("worker-c", Duration.ofMinutes(5))).isNull();
+
+        assertThat(qm.completePortfolioAnalysisShard(shardA, "worker-a")).isTrue();
+        assertThat(qm.completePortfolioAnalysisShard(shardB, "worker-b")).isTrue();
+        assertThat(qm.hasUnfinishedPortfolioAnalysisShards()).isFalse();
+
+        // Once the previous analysis completed, its shards are replaced.
+        assertThat(qm.createPortfolioAnalysisShards(10, false)).isEqualTo(1);
+    }
+
+    @Test
+    public void testClaimAbandonedPortfolioAnalysisShard() {
+        final Project projectA = qm.createProject("Project A", null, "1.0", null, null, null, true, false);
+        final Project projectB = qm.createProject("Project B", null, "1.0", null, null, null, true, false);
+        assertThat(qm.createPortfolioAnalysisShards(10, false)).isEqualTo(1);
+
+        final PortfolioAnalysisShard shard = qm.claimPortfolioAnalysisShard("worker-a", Duration.ofMinutes(5));
+        assertThat(qm.checkpointPortfolioAnalysisShard(shard, "worker-a", projectA.getId())).isTrue();
+        assertThat(qm.claimPortfolioAnalysisShard("worker-b", Duration.ofMinutes(5))).isNull();
+
+        // Simulate worker-a not having recorded a checkpoint within the lease duration.
+        qm.runInTransaction(() -> shard.setClaimedAt(new Date(System.currentTimeMillis() - Duration.ofMinutes(10).toMillis())));
+
+        final PortfolioAnalysisShard reclaimedShard = qm.claimPortfolioAnalysisShard("worker-b", Duration.ofMinutes(5));
+        assertThat(reclaimedShard).isNotNull();
+        assertThat(reclaimedShard.getClaimedBy()).isEqualTo("worker-b");
+
+        // Analysis is resumed from the checkpoint recorded by worker-a.
+        final List<Long> projectIds = qm.getPortfolioAnalysisShardProjectIds(reclaimedShard);
+        assertThat(projectIds).containsExactly(projectB.getId());
+
+        // worker-a lost its claim, and must not be able to record progress anymore.
+        assertThat(qm.checkpointPortfolioAnalysisShard(shard, "worker-a", projectB.getId())).isFalse();
+        assertThat(qm.completePortfolioAnalysisShard(shard, "worker-a")).isFalse();
+        assertThat(qm.completePortfolioAnalysisShard(reclaimedShard, "worker-b")).isTrue();
+    }
+
+    @Test
+    public void testRenewPortfolioAnalysisShardLease() {
+        final Project project = qm.createProject("Project A", null, "1.0", null, null, null, true, false);
+        assertThat(qm.createPortfolioAnalysisShards(10, false)).isEqualTo(1);
+
+        final PortfolioAnalysisShard shard = qm.claimPortfolioAnalysisShard("worker-a", Duration.ofMinutes(5));
+        qm.runInTransaction(() -> shard.setClaimedAt(new Date(System.currentTimeMillis() - Duration.ofMinutes(10).toMillis())));
+
+        // Renewing the lease prevents the shard from being reclaimed, without recording progress.
+        assertThat(qm.renewPortfolioAnalysisShardLease(shard.getId(), "worker-a")).isTrue();
+        assertThat(qm.claimPortfolioAnalysisShard("worker-b", Duration.ofMinutes(5))).isNull();
+        assertThat(qm.getPortfolioAnalysisShardProjectIds(shard)).containsExactly(project.getId());
+
+        // Only the worker holding the claim can renew it.
+        assertThat(qm.renewPortfolioAnalysisShardLease(shard.getId(), "worker-b")).isFalse();
+    }
+
+    @Test
+    public void testClaimPortfolioAnalysisShardsWithDeduplication() {
+        final Project project = qm.createProject("Project A", null, "1.0", null, null, null, true, false);
+        assertThat(qm.createPortfolioAnalysisShards(10, true)).isEqualTo(2);
+        assertThat(qm.hasPortfolioDeduplicationShard()).isTrue();
+        assertThat(qm.isPortfolioDeduplicationPending()).isTrue();
+
+        // The deduplication shard is claimed first, and covers no projects.
+        final PortfolioAnalysisShard deduplicationShard = qm.claimPortfolioAnalysisShard("worker-a", Duration.ofMinutes(5));
+        assertThat(deduplicationShard.isDeduplicationShard()).isTrue();
+        assertThat(qm.getPortfolioAnalysisShardProjectIds(deduplicationShard)).isEmpty();
+
+        // No other shard can be claimed before it completed.
+        assertThat(qm.claimPortfolioAnalysisShard("worker-b", Duration.ofMinutes(5))).isNull();
+
+        assertThat(qm.completePortfolioAnalysisShard(deduplicationShard, "worker-a")).isTrue();
+        assertThat(qm.isPortfolioDeduplicationPending()).isFalse();
+
+        final PortfolioAnalysisShard shard = qm.claimPortfolioAnalysisShard("worker-b", Duration.ofMinutes(5));
+        assertThat(shard.getShardIndex()).isZero();
+        assertThat(qm.getPortfolioAnalysisShardProjectIds(shard)).containsExactly(project.getId());
+    }
+
+}
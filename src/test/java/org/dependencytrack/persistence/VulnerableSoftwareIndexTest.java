@@ -0,0 +1,156 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import com.github.packageurl.PackageURL;
+import org.dependencytrack.PersistenceCapableTest;
+import org.dependencytrack.model.VulnerableSoftware;
+import org.dependencytrack.util.ComponentVersion;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VulnerableSoftwareIndexTest extends PersistenceCapableTest {
+
+    private final VulnerableSoftwareIndex index = VulnerableSoftwareIndex.getInstance();
+
+    @Before
+    public void setUp() {
+        index.clear();
+    }
+
+    @After
+    public void tearDown() {
+        index.clear();
+    }
+
+    @Test
+    public void testFindByCpe() {
+        final VulnerableSoftware vsExact = createCpeVulnerableSoftware("a", "acme", "foo");
+        final VulnerableSoftware vsAnyVendor = createCpeVulnerableSoftware("a", "*", "foo");
+        final VulnerableSoftware vsNaProduct = createCpeVulnerableSoftware("a", "acme", "-");
+        createCpeVulnerableSoftware("a", "acme", "bar");
+        createCpeVulnerableSoftware("o", "acme", "foo");
+
+        assertThat(index.find("a", "acme", "foo", null, null)).isNull();
+        assertThat(index.isReady(qm)).isFalse();
+
+        index.refresh();
+        assertThat(index.isReady(qm)).isTrue();
+
+        assertThat(index.find("a", "acme", "foo", null, null))
+                .extracting(VulnerableSoftware::getId)
+                .containsExactlyInAnyOrder(vsExact.getId(), vsAnyVendor.getId());
+        assertThat(index.find("a", "acme", "-", null, null))
+                .extracting(VulnerableSoftware::getId)
+                .containsExactly(vsNaProduct.getId());
+        assertThat(index.find("a", "other", "other", null, null)).isEmpty();
+
+        // Targets of ANY can not be served from the index.
+        assertThat(index.find("a", "*", "foo", null, null)).isNull();
+    }
+
+    @Test
+    public void testFindByPurl() throws Exception {
+        final VulnerableSoftware vsNpm = createPurlVulnerableSoftware("npm", null, "foo");
+        final VulnerableSoftware vsMaven = createPurlVulnerableSoftware("maven", "com.acme", "foo");
+        final VulnerableSoftware vsCpe = createCpeVulnerableSoftware("a", "acme", "foo");
+
+        index.refresh();
+
+        assertThat(index.find(null, null, null, new PackageURL("pkg:npm/foo@1.0.0"), null))
+                .extracting(VulnerableSoftware::getId)
+                .containsExactly(vsNpm.getId());
+        assertThat(index.find(null, null, null, new PackageURL("pkg:maven/com.acme/foo@1.0.0"), null))
+                .extracting(VulnerableSoftware::getId)
+                .containsExactly(vsMaven.getId());
+        assertThat(index.find("a", "acme", "foo", new PackageURL("pkg:maven/com.acme/foo@1.0.0"), null))
+                .extracting(VulnerableSoftware::getId)
+                .containsExactlyInAnyOrder(vsMaven.getId(), vsCpe.getId());
+        assertThat(index.find(null, null, null, new PackageURL("pkg:maven/com.acme/bar@1.0.0"), null)).isEmpty();
+    }
+
+    @Test
+    public void testFindWithTargetVersion() {
+        final VulnerableSoftware vsOld = createCpeVulnerableSoftware("a", "acme", "foo");
+        final VulnerableSoftware vsNew = createCpeVulnerableSoftware("a", "acme", "foo");
+        vsNew.setVersionStartIncluding("2.0.0");
+        vsNew.setVersionEndExcluding("2.5.0");
+        qm.persist(vsNew);
+
+        index.refresh();
+
+        assertThat(index.find("a", "acme", "foo", null, new ComponentVersion("1.0.0")))
+                .extracting(VulnerableSoftware::getId)
+                .containsExactly(vsOld.getId());
+        assertThat(index.find("a", "acme", "foo", null, new ComponentVersion("2.1.0")))
+                .extracting(VulnerableSoftware::getId)
+                .containsExactly(vsNew.getId());
+        assertThat(index.find("a", "acme", "foo", null, new ComponentVersion("3.0.0"))).isEmpty();
+    }
+
+    @Test
+    public void testRefreshAddsNewRecords() {
+        createCpeVulnerableSoftware("a", "acme", "foo");
+        index.refresh();
+        assertThat(index.find("a", "acme", "foo", null, null)).hasSize(1);
+
+        final VulnerableSoftware vs = createCpeVulnerableSoftware("a", "acme", "foo");
+        index.update(List.of(vs));
+        assertThat(index.find("a", "acme", "foo", null, null)).hasSize(1);
+
+        index.refresh();
+        assertThat(index.find("a", "acme", "foo", null, null))
+                .extracting(VulnerableSoftware::getId)
+                .contains(vs.getId())
+                .hasSize(2);
+
+        // Records must not be indexed twice.
+        index.update(List.of(vs));
+        index.refresh();
+        assertThat(index.find("a", "acme", "foo", null, null)).hasSize(2);
+    }
+
+    private VulnerableSoftware createCpeVulnerableSoftware(final String part, final String vendor, final String product) {
+        final var vs = new VulnerableSoftware();
+        vs.setCpe23("cpe:2.3:%s:%s:%s:*:*:*:*:*:*:*:*".formatted(part, vendor, product));
+        vs.setPart(part);
+        vs.setVendor(vendor);
+        vs.setProduct(product);
+        vs.setVersion("*");
+        vs.setVersionEndExcluding("1.2.3");
+        vs.setVulnerable(true);
+        return qm.persist(vs);
+    }
+
+    private VulnerableSoftware createPurlVulnerableSoftware(final String type, final String namespace, final String name) {
+        final var vs = new VulnerableSoftware();
+        vs.setPurlType(type);
+        vs.setPurlNamespace(namespace);
+        vs.setPurlName(name);
+        vs.setVersionEndExcluding("1.2.3");
+        vs.setVulnerable(true);
+        return qm.persist(vs);
+    }
+
+}
@@ -25,10 +25,13 @@ import org.apache.commons.io.FileUtils;
 import org.apache.http.HttpStatus;
 import org.dependencytrack.ResourceTest;
 import org.dependencytrack.auth.Permissions;
+import org.dependencytrack.event.BomSpoolService;
+import org.dependencytrack.event.BomUploadSession;
 import org.dependencytrack.model.AnalysisResponse;
 import org.dependencytrack.model.AnalysisState;
 import org.dependencytrack.model.Classifier;
 import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ConfigPropertyConstants;
 import org.dependencytrack.model.OrganizationalContact;
 import org.dependencytrack.model.OrganizationalEntity;
 import org.dependencytrack.model.Project;
@@ -37,6 +40,7 @@ import org.dependencytrack.model.Severity;
 import org.dependencytrack.model.Vulnerability;
 import org.dependencytrack.resources.v1.vo.BomSubmitRequest;
 import org.dependencytrack.tasks.scanners.AnalyzerIdentity;
+import org.glassfish.jersey.client.ClientProperties;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.servlet.ServletContainer;
@@ -50,6 +54,7 @@ import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.File;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
@@ -707,6 +712,103 @@ public class BomResourceTest extends ResourceTest {
         Assert.assertTrue(UuidUtil.isValidUUID(json.getString("token")));
     }
 
+    @Test
+    public void uploadBomInRangesTest() throws Exception {
+        initializeWithPermissions(Permissions.BOM_UPLOAD);
+        Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+        File file = new File(Thread.currentThread().getContextClassLoader().getResource("bom-1.xml").toURI());
+        byte[] bomBytes = FileUtils.readFileToByteArray(file);
+        int splitIndex = bomBytes.length / 2;
+
+        Response response = target(V1_BOM + "/session").queryParam("project", project.getUuid().toString()).request()
+                .header(X_API_KEY, apiKey)
+                .post(Entity.entity("", MediaType.APPLICATION_OCTET_STREAM));
+        Assert.assertEquals(201, response.getStatus(), 0);
+        String session = parseJsonObject(response).getString("session");
+        Assert.assertTrue(UuidUtil.isValidUUID(session));
+
+        response = target(V1_BOM + "/session/" + session)
+                .property(ClientProperties.FOLLOW_REDIRECTS, false).request()
+                .header(X_API_KEY, apiKey)
+                .header("Content-Range", "bytes 0-%d/%d".formatted(splitIndex - 1, bomBytes.length))
+                .put(Entity.entity(Arrays.copyOfRange(bomBytes, 0, splitIndex), MediaType.APPLICATION_OCTET_STREAM));
+        Assert.assertEquals(308, response.getStatus(), 0);
+        Assert.assertEquals("bytes=0-" + (splitIndex - 1), response.getHeaderString("Range"));
+
+        // Without Content-Range, a truncated remainder could not be told apart from a complete one.
+        response = target(V1_BOM + "/session/" + session).request()
+                .header(X_API_KEY, apiKey)
+                .put(Entity.entity(Arrays.copyOfRange(bomBytes, splitIndex, bomBytes.length - 1), MediaType.APPLICATION_OCTET_STREAM));
+        Assert.assertEquals(400, response.getStatus(), 0);
+
+        // Resuming from an offset other than the number of received bytes must fail.
+        response = target(V1_BOM + "/session/" + session).request()
+                .header(X_API_KEY, apiKey)
+                .header("Content-Range", "bytes 1-%d/%d".formatted(bomBytes.length - 1, bomBytes.length))
+                .put(Entity.entity(Arrays.copyOfRange(bomBytes, 1, bomBytes.length), MediaType.APPLICATION_OCTET_STREAM));
+        Assert.assertEquals(416, response.getStatus(), 0);
+        Assert.assertEquals(splitIndex, parseJsonObject(response).getJsonNumber("receivedBytes").longValue());
+
+        response = target(V1_BOM + "/session/" + session).request()
+                .header(X_API_KEY, apiKey)
+                .header("Content-Range", "bytes %d-%d/%d".formatted(splitIndex, bomBytes.length - 1, bomBytes.length))
+                .put(Entity.entity(Arrays.copyOfRange(bomBytes, splitIndex, bomBytes.length), MediaType.APPLICATION_OCTET_STREAM));
+        Assert.assertEquals(200, response.getStatus(), 0);
+        Assert.assertTrue(UuidUtil.isValidUUID(parseJsonObject(response).getString("token")));
+
+        // The session is gone once the upload completed.
+        response = target(V1_BOM + "/session/" + session).request()
+                .header(X_API_KEY, apiKey)
+                .put(Entity.entity(new byte[0], MediaType.APPLICATION_OCTET_STREAM));
+        Assert.assertEquals(404, response.getStatus(), 0);
+    }
+
+    @Test
+    public void uploadBomInRangesExceedingMaxSizeTest() throws Exception {
+        initializeWithPermissions(Permissions.BOM_UPLOAD);
+        Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+
+        Response response = target(V1_BOM + "/session").queryParam("project", project.getUuid().toString()).request()
+                .header(X_API_KEY, apiKey)
+                .post(Entity.entity("", MediaType.APPLICATION_OCTET_STREAM));
+        Assert.assertEquals(201, response.getStatus(), 0);
+        String session = parseJsonObject(response).getString("session");
+
+        response = target(V1_BOM + "/session/" + session).request()
+                .header(X_API_KEY, apiKey)
+                .header("Content-Range", "bytes 0-0/%d".formatted(Long.MAX_VALUE))
+                .put(Entity.entity(new byte[1], MediaType.APPLICATION_OCTET_STREAM));
+        Assert.assertEquals(413, response.getStatus(), 0);
+
+        response = target(V1_BOM + "/session/" + session).request()
+                .header(X_API_KEY, apiKey)
+                .delete();
+        Assert.assertEquals(404, response.getStatus(), 0);
+    }
+
+    @Test
+    public void abortUploadSessionWithoutProjectAccessTest() throws Exception {
+        initializeWithPermissions(Permissions.BOM_UPLOAD);
+        qm.createConfigProperty(
+                ConfigPropertyConstants.ACCESS_MANAGEMENT_ACL_ENABLED.getGroupName(),
+                ConfigPropertyConstants.ACCESS_MANAGEMENT_ACL_ENABLED.getPropertyName(),
+                "true",
+                ConfigPropertyConstants.ACCESS_MANAGEMENT_ACL_ENABLED.getPropertyType(),
+                null
+        );
+        // The current principal's team has no access to the project.
+        Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+        BomUploadSession session = BomSpoolService.getInstance().createUploadSession(project.getUuid(), false);
+
+        Response response = target(V1_BOM + "/session/" + session.getUuid()).request()
+                .header(X_API_KEY, apiKey)
+                .delete();
+        Assert.assertEquals(403, response.getStatus(), 0);
+        Assert.assertNotNull(BomSpoolService.getInstance().getUploadSession(session.getUuid()));
+
+        BomSpoolService.getInstance().abortUploadSession(session);
+    }
+
     @Test
     public void uploadBomInvalidProjectTest() throws Exception {
         initializeWithPermissions(Permissions.BOM_UPLOAD);
@@ -28,9 +28,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class FuzzyVulnerableSoftwareSearchManagerTest {
@@ -38,6 +40,7 @@ public class FuzzyVulnerableSoftwareSearchManagerTest {
     private static final File INDEX_TEMP_DIRECTORY;
     private FuzzyVulnerableSoftwareSearchManager toTest = new FuzzyVulnerableSoftwareSearchManager(true);
     private QueryManager qm;
+    private static final UUID VALUE_TO_MATCH_UUID = UUID.randomUUID();
     private final VulnerableSoftware VALUE_TO_MATCH = new VulnerableSoftware();
     static {
         INDEX_DIRECTORY = new File(
@@ -56,7 +59,7 @@ public class FuzzyVulnerableSoftwareSearchManagerTest {
             INDEX_DIRECTORY.renameTo(INDEX_TEMP_DIRECTORY);
         }
         VulnerableSoftware vs = new VulnerableSoftware();
-        vs.setUuid(UUID.randomUUID());
+        vs.setUuid(VALUE_TO_MATCH_UUID);
         vs.setCpe23("cpe:2.3:a:libexpat_project:libexpat:2.2.2:*:*:*:*:*:*:*");
         vs.setProduct("libexpat");
         VulnerableSoftwareIndexer.getInstance().add(new VulnerableSoftwareDocument(vs));
@@ -75,8 +78,9 @@ public class FuzzyVulnerableSoftwareSearchManagerTest {
 
     @Before
     public void setUp() throws Exception {
+        VALUE_TO_MATCH.setUuid(VALUE_TO_MATCH_UUID);
         qm = mock(QueryManager.class);
-        when(qm.getObjectByUuid(any(), anyString())).thenReturn(VALUE_TO_MATCH);
+        when(qm.getObjectsByUuids(eq(VulnerableSoftware.class), anyList())).thenReturn(List.of(VALUE_TO_MATCH));
     }
 
     @Test
@@ -97,6 +101,9 @@ public class FuzzyVulnerableSoftwareSearchManagerTest {
         assertFalse(vs.isEmpty());
         assertSame(VALUE_TO_MATCH, vs.get(0));
 
+        // Results of identical search terms are served from the cache.
+        assertSame(vs, toTest.fuzzyAnalysis(qm, component, cpe));
+        verify(qm, times(1)).getObjectsByUuids(eq(VulnerableSoftware.class), anyList());
     }
 
     @Test
@@ -42,18 +42,33 @@ import org.dependencytrack.model.VulnerabilityAnalysisLevel;
 import org.dependencytrack.model.VulnerableSoftware;
 import org.dependencytrack.notification.NotificationGroup;
 import org.dependencytrack.notification.NotificationScope;
+import org.dependencytrack.notification.vo.BomConsumedOrProcessed;
 import org.dependencytrack.notification.vo.BomProcessingFailed;
 import org.dependencytrack.notification.vo.NewVulnerabilityIdentified;
+import org.json.JSONArray;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNoException;
@@ -245,6 +260,412 @@ public class BomUploadProcessingTaskTest extends PersistenceCapableTest {
         assertThat(project.getLastBomImport()).isNull();
     }
 
+    @Test
+    public void informWithDependencyGraphTest() throws Exception {
+        final Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+
+        final byte[] bomBytes = """
+                {
+                  "bomFormat": "CycloneDX",
+                  "specVersion": "1.4",
+                  "version": 1,
+                  "metadata": {
+                    "component": {
+                      "bom-ref": "app",
+                      "type": "application",
+                      "name": "acme-app"
+                    }
+                  },
+                  "components": [
+                    {
+                      "bom-ref": "a",
+                      "type": "library",
+                      "name": "acme-lib-a",
+                      "version": "1.0.0",
+                      "components": [
+                        {
+                          "bom-ref": "a-child",
+                          "type": "library",
+                          "name": "acme-lib-a-child",
+                          "version": "1.0.0"
+                        }
+                      ]
+                    },
+                    {
+                      "bom-ref": "b",
+                      "type": "library",
+                      "name": "acme-lib-b",
+                      "version": "2.0.0"
+                    }
+                  ],
+                  "dependencies": [
+                    {
+                      "ref": "app",
+                      "dependsOn": ["a", "unknown"]
+                    },
+                    {
+                      "ref": "a",
+                      "dependsOn": ["b", "a-child"]
+                    },
+                    {
+                      "ref": "a-child",
+                      "dependsOn": ["b"]
+                    }
+                  ]
+                }
+                """.getBytes(StandardCharsets.UTF_8);
+
+        new BomUploadProcessingTask().inform(new BomUploadEvent(project.getUuid(), bomBytes));
+        assertConditionWithTimeout(() -> NOTIFICATIONS.size() >= 3, Duration.ofSeconds(5));
+
+        qm.getPersistenceManager().evictAll();
+        final Project refreshedProject = qm.getObjectByUuid(Project.class, project.getUuid());
+        final Map<String, Component> componentsByName = qm.getAllComponents(refreshedProject).stream()
+                .collect(Collectors.toMap(Component::getName, Function.identity()));
+        assertThat(componentsByName).containsOnlyKeys("acme-lib-a", "acme-lib-a-child", "acme-lib-b");
+        final Component componentA = componentsByName.get("acme-lib-a");
+        final Component componentAChild = componentsByName.get("acme-lib-a-child");
+        final Component componentB = componentsByName.get("acme-lib-b");
+
+        assertThat(new JSONArray(refreshedProject.getDirectDependencies())).hasSize(1);
+        assertThat(refreshedProject.getDirectDependencies()).contains("\"uuid\":\"" + componentA.getUuid() + "\"");
+        assertThat(new JSONArray(componentA.getDirectDependencies())).hasSize(2);
+        assertThat(componentA.getDirectDependencies())
+                .contains("\"uuid\":\"" + componentAChild.getUuid() + "\"")
+                .contains("\"uuid\":\"" + componentB.getUuid() + "\"");
+        assertThat(new JSONArray(componentAChild.getDirectDependencies())).hasSize(1);
+        assertThat(componentAChild.getDirectDependencies()).contains("\"uuid\":\"" + componentB.getUuid() + "\"");
+        assertThat(componentB.getDirectDependencies()).isNull();
+    }
+
+    @Test
+    public void informWithStreamingModeTest() throws Exception {
+        final Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+
+        final byte[] bomBytes = Files.readAllBytes(Paths.get(getClass().getClassLoader().getResource("bom-1.xml").toURI()));
+
+        new BomUploadProcessingTask(0, 1).inform(new BomUploadEvent(project.getUuid(), bomBytes));
+        assertConditionWithTimeout(() -> NOTIFICATIONS.size() >= 3, Duration.ofSeconds(5));
+
+        assertThat(NOTIFICATIONS).satisfiesExactly(
+                n -> assertThat(n.getGroup()).isEqualTo(NotificationGroup.PROJECT_CREATED.name()),
+                n -> assertThat(n.getGroup()).isEqualTo(NotificationGroup.BOM_CONSUMED.name()),
+                n -> assertThat(n.getGroup()).isEqualTo(NotificationGroup.BOM_PROCESSED.name())
+        );
+
+        qm.getPersistenceManager().refresh(project);
+        assertThat(project.getClassifier()).isEqualTo(Classifier.APPLICATION);
+        assertThat(project.getLastBomImport()).isNotNull();
+        assertThat(project.getLastBomImportFormat()).isEqualTo("CycloneDX 1.4");
+        assertThat(project.getExternalReferences()).hasSize(4);
+        assertThat(project.getManufacturer().getName()).isEqualTo("Foo Incorporated");
+        assertThat(project.getMetadata().getAuthors()).hasSize(1);
+
+        final List<Component> components = qm.getAllComponents(project);
+        assertThat(components).satisfiesExactly(component -> {
+            assertThat(component.getGroup()).isEqualTo("com.example");
+            assertThat(component.getName()).isEqualTo("xmlutil");
+            assertThat(component.getVersion()).isEqualTo("1.0.0");
+            assertThat(component.getPurl().canonicalize()).isEqualTo("pkg:maven/com.example/xmlutil@1.0.0?packaging=jar");
+        });
+    }
+
+    @Test
+    public void informWithStreamingModeDependencyGraphTest() throws Exception {
+        final Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+
+        final var existingComponent = new Component();
+        existingComponent.setProject(project);
+        existingComponent.setName("obsolete");
+        qm.persist(existingComponent);
+
+        final byte[] bomBytes = """
+                {
+                  "bomFormat": "CycloneDX",
+                  "specVersion": "1.4",
+                  "version": 1,
+                  "metadata": {
+                    "component": {
+                      "bom-ref": "app",
+                      "type": "application",
+                      "name": "acme-app"
+                    }
+                  },
+                  "components": [
+                    {
+                      "bom-ref": "a",
+                      "type": "library",
+                      "name": "acme-lib-a",
+                      "version": "1.0.0",
+                      "components": [
+                        {
+                          "bom-ref": "a-child",
+                          "type": "library",
+                          "name": "acme-lib-a-child",
+                          "version": "1.0.0"
+                        }
+                      ]
+                    },
+                    {
+                      "bom-ref": "b",
+                      "type": "library",
+                      "name": "acme-lib-b",
+                      "version": "2.0.0"
+                    }
+                  ],
+                  "dependencies": [
+                    {
+                      "ref": "app",
+                      "dependsOn": ["a"]
+                    },
+                    {
+                      "ref": "a",
+                      "dependsOn": ["b", "a-child"]
+                    }
+                  ]
+                }
+                """.getBytes(StandardCharsets.UTF_8);
+
+        new BomUploadProcessingTask(0, 1).inform(new BomUploadEvent(project.getUuid(), bomBytes));
+        assertConditionWithTimeout(() -> NOTIFICATIONS.size() >= 3, Duration.ofSeconds(5));
+
+        qm.getPersistenceManager().evictAll();
+        final Project refreshedProject = qm.getObjectByUuid(Project.class, project.getUuid());
+        assertThat(refreshedProject.getClassifier()).isEqualTo(Classifier.APPLICATION);
+        assertThat(refreshedProject.getLastBomImportFormat()).isEqualTo("CycloneDX 1.4");
+        assertThat(refreshedProject.getDirectDependencies()).contains("acme-lib-a").doesNotContain("acme-lib-b");
+
+        final List<Component> components = qm.getAllComponents(refreshedProject);
+        assertThat(components).extracting(Component::getName)
+                .containsExactlyInAnyOrder("acme-lib-a", "acme-lib-a-child", "acme-lib-b");
+        assertThat(components).anySatisfy(component -> {
+            assertThat(component.getName()).isEqualTo("acme-lib-a");
+            assertThat(component.getDirectDependencies()).contains("acme-lib-b", "acme-lib-a-child");
+        });
+        assertThat(components).anySatisfy(component -> {
+            assertThat(component.getName()).isEqualTo("acme-lib-b");
+            assertThat(component.getDirectDependencies()).isNull();
+        });
+    }
+
+    @Test
+    public void informWithStreamingModeAndInvalidCycloneDxBomTest() throws Exception {
+        final Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+
+        final byte[] bomBytes = """
+                {
+                  "bomFormat": "CycloneDX",
+                  "specVersion": "1.4",
+                  "components": [
+                    {
+                      "name": "acme-lib-a"
+                    },
+                """.getBytes(StandardCharsets.UTF_8);
+
+        new BomUploadProcessingTask(0, 1).inform(new BomUploadEvent(project.getUuid(), bomBytes));
+        assertConditionWithTimeout(() -> NOTIFICATIONS.size() >= 2, Duration.ofSeconds(5));
+
+        assertThat(NOTIFICATIONS).satisfiesExactly(
+                notification -> assertThat(notification.getGroup()).isEqualTo(NotificationGroup.PROJECT_CREATED.name()),
+                notification -> {
+                    assertThat(notification.getGroup()).isEqualTo(NotificationGroup.BOM_PROCESSING_FAILED.name());
+                    final var subject = (BomProcessingFailed) notification.getSubject();
+                    assertThat(subject.getFormat()).isEqualTo(Bom.Format.CYCLONEDX);
+                    assertThat(subject.getCause()).isEqualTo("Unable to parse BOM from byte array");
+                }
+        );
+
+        qm.getPersistenceManager().refresh(project);
+        assertThat(project.getLastBomImport()).isNull();
+        assertThat(qm.getAllComponents(project)).isEmpty();
+    }
+
+    @Test
+    public void informWithSpooledBomTest() throws Exception {
+        final Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+
+        final File spoolFile = File.createTempFile("bom-", ".upload");
+        Files.copy(Paths.get(getClass().getClassLoader().getResource("bom-1.xml").toURI()),
+                spoolFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        new BomUploadProcessingTask().inform(new BomUploadEvent(project.getUuid(), spoolFile, false));
+        assertConditionWithTimeout(() -> NOTIFICATIONS.size() >= 3, Duration.ofSeconds(5));
+
+        assertThat(spoolFile).doesNotExist();
+        qm.getPersistenceManager().refresh(project);
+        assertThat(project.getLastBomImport()).isNotNull();
+        assertThat(qm.getAllComponents(project)).isNotEmpty();
+    }
+
+    @Test
+    public void informWithStreamingModeAndSpooledCompressedBomTest() throws Exception {
+        final Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+
+        final Path spoolDir = Files.createTempDirectory("bom-spool-");
+        final Path spoolFile = spoolDir.resolve("bom.upload");
+        try (final OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(spoolFile))) {
+            Files.copy(Paths.get(getClass().getClassLoader().getResource("bom-1.xml").toURI()), outputStream);
+        }
+
+        new BomUploadProcessingTask(0, 1).inform(new BomUploadEvent(project.getUuid(), spoolFile.toFile(), false));
+        assertConditionWithTimeout(() -> NOTIFICATIONS.size() >= 3, Duration.ofSeconds(5));
+
+        assertThat(NOTIFICATIONS).satisfiesExactly(
+                n -> assertThat(n.getGroup()).isEqualTo(NotificationGroup.PROJECT_CREATED.name()),
+                n -> assertThat(n.getGroup()).isEqualTo(NotificationGroup.BOM_CONSUMED.name()),
+                n -> {
+                    assertThat(n.getGroup()).isEqualTo(NotificationGroup.BOM_PROCESSED.name());
+                    // The BOM is not held in memory, and thus not included in notifications.
+                    assertThat(((BomConsumedOrProcessed) n.getSubject()).getBom()).isNull();
+                }
+        );
+
+        // Neither the spooled, nor the decompressed BOM must be left behind.
+        try (final Stream<Path> remainingFiles = Files.list(spoolDir)) {
+            assertThat(remainingFiles).isEmpty();
+        }
+        Files.delete(spoolDir);
+
+        qm.getPersistenceManager().refresh(project);
+        assertThat(project.getLastBomImportFormat()).isEqualTo("CycloneDX 1.4");
+        assertThat(qm.getAllComponents(project)).extracting(Component::getName).containsExactly("xmlutil");
+    }
+
+    @Test
+    public void informWithSpooledCorruptCompressedBomTest() throws Exception {
+        final Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+
+        final Path spoolDir = Files.createTempDirectory("bom-spool-");
+        final Path spoolFile = spoolDir.resolve("bom.upload");
+        final var compressedBom = new ByteArrayOutputStream();
+        try (final OutputStream outputStream = new GZIPOutputStream(compressedBom)) {
+            Files.copy(Paths.get(getClass().getClassLoader().getResource("bom-1.xml").toURI()), outputStream);
+        }
+        // Truncate the compressed BOM, such that it can not be decompressed.
+        Files.write(spoolFile, Arrays.copyOf(compressedBom.toByteArray(), compressedBom.size() / 2));
+
+        new BomUploadProcessingTask().inform(new BomUploadEvent(project.getUuid(), spoolFile.toFile(), false));
+        assertConditionWithTimeout(() -> NOTIFICATIONS.size() >= 2, Duration.ofSeconds(5));
+
+        assertThat(NOTIFICATIONS).satisfiesExactly(
+                n -> assertThat(n.getGroup()).isEqualTo(NotificationGroup.PROJECT_CREATED.name()),
+                n -> {
+                    assertThat(n.getGroup()).isEqualTo(NotificationGroup.BOM_PROCESSING_FAILED.name());
+                    final var subject = (BomProcessingFailed) n.getSubject();
+                    assertThat(subject.getProject().getUuid()).isEqualTo(project.getUuid());
+                    assertThat(subject.getBom()).isNull();
+                }
+        );
+
+        // Neither the spooled, nor the partially decompressed BOM must be left behind.
+        try (final Stream<Path> remainingFiles = Files.list(spoolDir)) {
+            assertThat(remainingFiles).isEmpty();
+        }
+        Files.delete(spoolDir);
+
+        qm.getPersistenceManager().refresh(project);
+        assertThat(project.getLastBomImport()).isNull();
+    }
+
+    @Test
+    public void informWithIdenticalBomTest() throws Exception {
+        final Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+
+        final String bomTemplate = """
+                {
+                  "bomFormat": "CycloneDX",
+                  "specVersion": "1.4",
+                  "serialNumber": "urn:uuid:%s",
+                  "version": 1,
+                  "metadata": {
+                    "timestamp": "%s"
+                  },
+                  "components": [
+                    {
+                      "type": "library",
+                      "name": "acme-lib",
+                      "version": "1.0.0"
+                    }
+                  ]
+                }
+                """;
+
+        new BomUploadProcessingTask().inform(new BomUploadEvent(project.getUuid(),
+                bomTemplate.formatted(UUID.randomUUID(), "2023-01-01T00:00:00Z").getBytes(StandardCharsets.UTF_8)));
+        assertConditionWithTimeout(() -> NOTIFICATIONS.size() >= 3, Duration.ofSeconds(5));
+
+        qm.getPersistenceManager().refresh(project);
+        final Date firstBomImport = project.getLastBomImport();
+        assertThat(firstBomImport).isNotNull();
+
+        // Modify the component, so that it can be detected whether it was processed again.
+        final Component component = qm.getAllComponents(project).get(0);
+        qm.runInTransaction(() -> component.setName("acme-lib-modified"));
+
+        // Upload the same BOM again, but with a different serial number and timestamp.
+        NOTIFICATIONS.clear();
+        new BomUploadProcessingTask().inform(new BomUploadEvent(project.getUuid(),
+                bomTemplate.formatted(UUID.randomUUID(), "2023-01-02T00:00:00Z").getBytes(StandardCharsets.UTF_8)));
+        assertThat(NOTIFICATIONS).isEmpty();
+
+        qm.getPersistenceManager().refresh(project);
+        assertThat(project.getLastBomImport()).isAfterOrEqualTo(firstBomImport);
+        assertThat(qm.getAllBoms(project)).hasSize(2);
+        qm.getPersistenceManager().refresh(component);
+        assertThat(component.getName()).isEqualTo("acme-lib-modified");
+
+        // Upload the same BOM again, but enforce reprocessing.
+        new BomUploadProcessingTask().inform(new BomUploadEvent(project.getUuid(),
+                bomTemplate.formatted(UUID.randomUUID(), "2023-01-03T00:00:00Z").getBytes(StandardCharsets.UTF_8), true));
+        assertConditionWithTimeout(() -> NOTIFICATIONS.size() >= 2, Duration.ofSeconds(5));
+
+        qm.getPersistenceManager().evictAll();
+        assertThat(qm.getAllComponents(project)).extracting(Component::getName).containsExactly("acme-lib");
+        assertThat(qm.getAllBoms(project)).hasSize(3);
+    }
+
+    @Test
+    public void informWithStreamingModeAndIdenticalBomTest() throws Exception {
+        final Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
+
+        final String bomTemplate = """
+                {
+                  "bomFormat": "CycloneDX",
+                  "specVersion": "1.4",
+                  "serialNumber": "urn:uuid:%s",
+                  "version": 1,
+                  "metadata": {
+                    "timestamp": "%s"
+                  },
+                  "components": [
+                    {
+                      "type": "library",
+                      "name": "acme-lib",
+                      "version": "1.0.0"
+                    }
+                  ]
+                }
+                """;
+
+        new BomUploadProcessingTask(0, 1).inform(new BomUploadEvent(project.getUuid(),
+                bomTemplate.formatted(UUID.randomUUID(), "2023-01-01T00:00:00Z").getBytes(StandardCharsets.UTF_8)));
+        assertConditionWithTimeout(() -> NOTIFICATIONS.size() >= 3, Duration.ofSeconds(5));
+        assertThat(qm.getLatestBom(project).getFingerprint()).isNotNull();
+
+        final Component component = qm.getAllComponents(project).get(0);
+        qm.runInTransaction(() -> component.setName("acme-lib-modified"));
+
+        // Upload the same BOM again, but with a different serial number and timestamp.
+        NOTIFICATIONS.clear();
+        new BomUploadProcessingTask(0, 1).inform(new BomUploadEvent(project.getUuid(),
+                bomTemplate.formatted(UUID.randomUUID(), "2023-01-02T00:00:00Z").getBytes(StandardCharsets.UTF_8)));
+        assertThat(NOTIFICATIONS).isEmpty();
+
+        qm.getPersistenceManager().evictAll();
+        assertThat(qm.getAllBoms(project)).hasSize(2);
+        assertThat(qm.getAllComponents(project)).extracting(Component::getName).containsExactly("acme-lib-modified");
+    }
+
     @Test // https://github.com/DependencyTrack/dependency-track/issues/2859
     public void informIssue2859Test() throws Exception {
         final Project project = qm.createProject("Acme Example", null, "1.0", null, null, null, true, false);
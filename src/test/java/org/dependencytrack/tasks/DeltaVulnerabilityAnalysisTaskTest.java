@@ -0,0 +1,176 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import org.dependencytrack.PersistenceCapableTest;
+import org.dependencytrack.event.DeltaVulnerabilityAnalysisEvent;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ConfigPropertyConstants;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.model.VulnerableSoftware;
+import org.dependencytrack.parser.nvd.ModelConverter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeltaVulnerabilityAnalysisTaskTest extends PersistenceCapableTest {
+
+    @Before
+    public void setUp() {
+        qm.createConfigProperty(ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getGroupName(),
+                ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getPropertyName(), "true",
+                ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getPropertyType(),
+                ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getDescription());
+    }
+
+    @Test
+    public void testAnalyzesComponentsAffectedByChangedVulnerableSoftware() throws Exception {
+        final Project projectA = qm.createProject("Project A", null, "1.0", null, null, null, true, false);
+        final Project projectB = qm.createProject("Project B", null, "1.0", null, null, null, true, false);
+        final Component componentPurl = createComponent(projectA, "gjson", "v1.6.0", null, "pkg:golang/github.com/tidwall/gjson@v1.6.0?type=module");
+        final Component componentCpe22 = createComponent(projectB, "speex", "1.2", "cpe:/a:xiph:speex:1.2", null);
+        final Component componentOther = createComponent(projectB, "foo", "1.2", "cpe:2.3:a:acme:foo:1.2:*:*:*:*:*:*:*", "pkg:golang/github.com/acme/foo@1.2");
+
+        var vsPurl = new VulnerableSoftware();
+        vsPurl.setPurlType("golang");
+        vsPurl.setPurlNamespace("github.com/tidwall");
+        vsPurl.setPurlName("gjson");
+        vsPurl.setVersionEndExcluding("1.6.5");
+        vsPurl.setVulnerable(true);
+        vsPurl = qm.persist(vsPurl);
+        createVulnerability("GHSA-wjm3-fq3r-5x46", Vulnerability.Source.GITHUB, vsPurl);
+
+        var vsCpe = ModelConverter.convertCpe23UriToVulnerableSoftware("cpe:2.3:a:xiph:speex:1.2:*:*:*:*:*:*:*");
+        vsCpe.setVulnerable(true);
+        vsCpe = qm.persist(vsCpe);
+        createVulnerability("CVE-2020-23904", Vulnerability.Source.NVD, vsCpe);
+
+        // Would affect componentOther, but did not change.
+        var vsUnchanged = ModelConverter.convertCpe23UriToVulnerableSoftware("cpe:2.3:a:acme:foo:1.2:*:*:*:*:*:*:*");
+        vsUnchanged.setVulnerable(true);
+        vsUnchanged = qm.persist(vsUnchanged);
+        createVulnerability("CVE-2020-00001", Vulnerability.Source.NVD, vsUnchanged);
+
+        new DeltaVulnerabilityAnalysisTask().inform(new DeltaVulnerabilityAnalysisEvent(Set.of(vsPurl.getId(), vsCpe.getId())));
+
+        assertThat(qm.getAllVulnerabilities(componentPurl)).satisfiesExactly(
+                vuln -> assertThat(vuln.getVulnId()).isEqualTo("GHSA-wjm3-fq3r-5x46"));
+        assertThat(qm.getAllVulnerabilities(componentCpe22)).satisfiesExactly(
+                vuln -> assertThat(vuln.getVulnId()).isEqualTo("CVE-2020-23904"));
+        assertThat(qm.getAllVulnerabilities(componentOther)).isEmpty();
+    }
+
+    @Test
+    public void testAnalyzesComponentsWithMixedCasePurl() throws Exception {
+        final Project project = qm.createProject("Project A", null, "1.0", null, null, null, true, false);
+        final Component component = createComponent(project, "Newtonsoft.Json", "12.0.1", null, "pkg:nuget/Newtonsoft.Json@12.0.1");
+
+        var vs = new VulnerableSoftware();
+        vs.setPurlType("nuget");
+        vs.setPurlName("Newtonsoft.Json");
+        vs.setVersionEndExcluding("13.0.1");
+        vs.setVulnerable(true);
+        vs = qm.persist(vs);
+        createVulnerability("GHSA-5crp-9r3c-p9vr", Vulnerability.Source.GITHUB, vs);
+
+        new DeltaVulnerabilityAnalysisTask().inform(new DeltaVulnerabilityAnalysisEvent(Set.of(vs.getId())));
+
+        assertThat(qm.getAllVulnerabilities(component)).satisfiesExactly(
+                vuln -> assertThat(vuln.getVulnId()).isEqualTo("GHSA-5crp-9r3c-p9vr"));
+    }
+
+    @Test
+    public void testSkipsTooBroadChanges() throws Exception {
+        final Project project = qm.createProject("Project A", null, "1.0", null, null, null, true, false);
+        final Component component = createComponent(project, "speex", "1.2", "cpe:/a:xiph:speex:1.2", null);
+
+        var vs = ModelConverter.convertCpe23UriToVulnerableSoftware("cpe:2.3:a:xiph:speex:1.2:*:*:*:*:*:*:*");
+        vs.setVulnerable(true);
+        vs = qm.persist(vs);
+        createVulnerability("CVE-2020-23904", Vulnerability.Source.NVD, vs);
+
+        final Set<Long> vsIds = LongStream.rangeClosed(1, DeltaVulnerabilityAnalysisTask.MAX_VULNERABLE_SOFTWARE_IDS)
+                .map(i -> -i).boxed().collect(Collectors.toSet());
+        vsIds.add(vs.getId());
+        new DeltaVulnerabilityAnalysisTask().inform(new DeltaVulnerabilityAnalysisEvent(vsIds));
+
+        // Left to the next portfolio analysis.
+        assertThat(qm.getAllVulnerabilities(component)).isEmpty();
+    }
+
+    @Test
+    public void testToCpePatterns() {
+        assertThat(DeltaVulnerabilityAnalysisTask.toCpePatterns("a", "xiph", "speex")).containsExactly(
+                "cpe:2.3:a:xiph:speex:.*", "cpe:/a:xiph:speex.*");
+        assertThat(DeltaVulnerabilityAnalysisTask.toCpePatterns("*", "*", "node.js")).containsExactly(
+                "cpe:2.3:.:.*:node.*js:.*", "cpe:/.:.*:node.*js.*");
+        assertThat(DeltaVulnerabilityAnalysisTask.toCpePatterns("a", "acme", "*")).containsExactly("cpe:.*");
+    }
+
+    @Test
+    public void testToPurlPattern() {
+        assertThat(DeltaVulnerabilityAnalysisTask.toPurlPattern("npm", "@angular", "core")).isEqualTo("pkg:npm/.*angular/core.*");
+        assertThat(DeltaVulnerabilityAnalysisTask.toPurlPattern("pypi", null, "Django")).isEqualTo("pkg:pypi/django.*");
+    }
+
+    @Test
+    public void testToCpePrefixes() {
+        assertThat(DeltaVulnerabilityAnalysisTask.toCpePrefixes("a", "xiph", "speex")).containsExactly(
+                "cpe:2.3:a:xiph:speex:", "cpe:/a:xiph:speex");
+        assertThat(DeltaVulnerabilityAnalysisTask.toCpePrefixes("a", "acme", "foo!bar")).containsExactly(
+                "cpe:2.3:a:acme:", "cpe:/a:acme:");
+        assertThat(DeltaVulnerabilityAnalysisTask.toCpePrefixes("*", "*", "node.js")).containsExactly(
+                "cpe:2.3:a:", "cpe:/a:", "cpe:2.3:o:", "cpe:/o:", "cpe:2.3:h:", "cpe:/h:");
+        assertThat(DeltaVulnerabilityAnalysisTask.toCpePrefixes("a", "acme", "*")).containsExactly("cpe:");
+    }
+
+    @Test
+    public void testToPurlPrefix() {
+        assertThat(DeltaVulnerabilityAnalysisTask.toPurlPrefix("golang", "github.com/tidwall", "gjson")).isEqualTo("pkg:golang/github.com/tidwall/gjson");
+        assertThat(DeltaVulnerabilityAnalysisTask.toPurlPrefix("npm", "@angular", "core")).isEqualTo("pkg:npm/");
+        assertThat(DeltaVulnerabilityAnalysisTask.toPurlPrefix("pypi", null, "Django")).isEqualTo("pkg:pypi/");
+    }
+
+    private Component createComponent(final Project project, final String name, final String version,
+                                      final String cpe, final String purl) {
+        final var component = new Component();
+        component.setProject(project);
+        component.setName(name);
+        component.setVersion(version);
+        component.setCpe(cpe);
+        component.setPurl(purl);
+        return qm.createComponent(component, false);
+    }
+
+    private void createVulnerability(final String vulnId, final Vulnerability.Source source, final VulnerableSoftware vs) {
+        final var vulnerability = new Vulnerability();
+        vulnerability.setVulnId(vulnId);
+        vulnerability.setSource(source);
+        vulnerability.setVulnerableSoftware(List.of(vs));
+        qm.createVulnerability(vulnerability, false);
+    }
+
+}
@@ -18,12 +18,14 @@
  */
 package org.dependencytrack.tasks;
 
+import alpine.model.ConfigProperty;
 import alpine.model.IConfigProperty.PropertyType;
 import org.dependencytrack.PersistenceCapableTest;
 import org.dependencytrack.event.InternalComponentIdentificationEvent;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.ConfigPropertyConstants;
 import org.dependencytrack.model.Project;
+import org.dependencytrack.util.InternalComponentIdentificationUtil;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -69,6 +71,22 @@ public class InternalComponentIdentificationTaskTest extends PersistenceCapableT
         assertThat(getInternalComponentCount()).isEqualTo(30);
     }
 
+    @Test
+    public void testWithModifiedConfigProperty() throws Exception {
+        new InternalComponentIdentificationTask().inform(new InternalComponentIdentificationEvent());
+        assertThat(getInternalComponentCount()).isEqualTo(30);
+
+        // No longer identify components with names starting with "foobar-" as internal.
+        final ConfigProperty namesRegexProperty = qm.getConfigProperty(
+                ConfigPropertyConstants.INTERNAL_COMPONENTS_NAMES_REGEX.getGroupName(),
+                ConfigPropertyConstants.INTERNAL_COMPONENTS_NAMES_REGEX.getPropertyName());
+        qm.runInTransaction(() -> namesRegexProperty.setPropertyValue(null));
+        InternalComponentIdentificationUtil.invalidate();
+
+        new InternalComponentIdentificationTask().inform(new InternalComponentIdentificationEvent());
+        assertThat(getInternalComponentCount()).isEqualTo(20);
+    }
+
     private void createComponent(final String group, final String name, final Project project) {
         final var component = new Component();
         component.setGroup(group);
@@ -0,0 +1,121 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import org.dependencytrack.model.VulnerabilityAnalysisLevel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.dependencytrack.model.VulnerabilityAnalysisLevel.BOM_UPLOAD_ANALYSIS;
+import static org.dependencytrack.model.VulnerabilityAnalysisLevel.PERIODIC_ANALYSIS;
+
+public class VulnerabilityAnalysisExecutorTest {
+
+    private ExecutorService delegate;
+
+    @Before
+    public void setUp() {
+        delegate = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        delegate.shutdownNow();
+    }
+
+    @Test
+    public void testWeightedRoundRobin() throws Exception {
+        final var executor = new VulnerabilityAnalysisExecutor(delegate, Map.of(BOM_UPLOAD_ANALYSIS, 2, PERIODIC_ANALYSIS, 1));
+        final List<String> executionOrder = Collections.synchronizedList(new ArrayList<>());
+
+        // Occupy the only thread, such that all following tasks are queued.
+        final var blockerStartedLatch = new CountDownLatch(1);
+        final var blockerLatch = new CountDownLatch(1);
+        executor.submit(PERIODIC_ANALYSIS, () -> {
+            blockerStartedLatch.countDown();
+            try {
+                blockerLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(blockerStartedLatch.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            futures.add(submit(executor, executionOrder, PERIODIC_ANALYSIS, "P" + i));
+        }
+        for (int i = 1; i <= 6; i++) {
+            futures.add(submit(executor, executionOrder, BOM_UPLOAD_ANALYSIS, "B" + i));
+        }
+        blockerLatch.countDown();
+        for (final Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        // The blocker consumed the credit of the periodic lane for the first round.
+        assertThat(executionOrder).containsExactly("B1", "B2", "B3", "B4", "P1", "B5", "B6", "P2", "P3");
+    }
+
+    @Test
+    public void testSingleLaneIsNotThrottled() throws Exception {
+        final var executor = new VulnerabilityAnalysisExecutor(delegate, Map.of(BOM_UPLOAD_ANALYSIS, 4, PERIODIC_ANALYSIS, 1));
+        final List<String> executionOrder = Collections.synchronizedList(new ArrayList<>());
+
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            futures.add(submit(executor, executionOrder, PERIODIC_ANALYSIS, "P" + i));
+        }
+        for (final Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(executionOrder).containsExactly("P1", "P2", "P3", "P4", "P5");
+    }
+
+    @Test
+    public void testSubmitAfterShutdown() {
+        final var executor = new VulnerabilityAnalysisExecutor(delegate, Map.of());
+        delegate.shutdown();
+
+        assertThatExceptionOfType(RejectedExecutionException.class)
+                .isThrownBy(() -> executor.submit(BOM_UPLOAD_ANALYSIS, () -> {
+                }));
+    }
+
+    private static Future<?> submit(final VulnerabilityAnalysisExecutor executor, final List<String> executionOrder,
+                                    final VulnerabilityAnalysisLevel level, final String name) {
+        return executor.submit(level, () -> executionOrder.add(name));
+    }
+
+}
@@ -10,9 +10,14 @@ import java.util.List;
 import org.dependencytrack.PersistenceCapableTest;
 import org.dependencytrack.event.PortfolioVulnerabilityAnalysisEvent;
 import org.dependencytrack.event.ProjectMetricsUpdateEvent;
+import org.dependencytrack.event.VulnerabilityAnalysisEvent;
 import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ConfigPropertyConstants;
+import org.dependencytrack.model.PortfolioAnalysisShard;
 import org.dependencytrack.model.Project;
 import org.dependencytrack.model.ProjectMetrics;
+import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.model.VulnerableSoftware;
 import org.dependencytrack.tasks.metrics.ProjectMetricsUpdateTask;
 import org.junit.After;
 import org.junit.Before;
@@ -67,4 +72,65 @@ public class VulnerabilityAnalysisTaskTest extends PersistenceCapableTest {
 
     }
 
+    @Test
+    public void testPortfolioVulnerabilityAnalysisResumesInterruptedAnalysis() {
+        final Project projectA = qm.createProject("Project A", null, "1.0", null, null, null, true, false);
+        final Project projectB = qm.createProject("Project B", null, "1.0", null, null, null, true, false);
+        final Project projectC = qm.createProject("Project C", null, "1.0", null, null, null, true, false);
+
+        // Simulate an analysis that was interrupted after the first shard had been completed.
+        assertThat(qm.createPortfolioAnalysisShards(1, false)).isEqualTo(3);
+        final PortfolioAnalysisShard shard = qm.claimPortfolioAnalysisShard("crashed-worker", Duration.ofMinutes(5));
+        assertThat(qm.completePortfolioAnalysisShard(shard, "crashed-worker")).isTrue();
+
+        new VulnerabilityAnalysisTask().inform(new PortfolioVulnerabilityAnalysisEvent());
+
+        assertThat(qm.hasUnfinishedPortfolioAnalysisShards()).isFalse();
+        await("Metrics are updated")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> {
+                    assertThat(qm.getMostRecentProjectMetrics(projectB)).isNotNull();
+                    assertThat(qm.getMostRecentProjectMetrics(projectC)).isNotNull();
+                });
+
+        // The project of the completed shard must not have been analyzed again.
+        assertThat(qm.getMostRecentProjectMetrics(projectA)).isNull();
+    }
+
+    @Test
+    public void testVulnerabilityAnalysisWithComponents() {
+        qm.createConfigProperty(ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getGroupName(),
+                ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getPropertyName(), "true",
+                ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getPropertyType(),
+                ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getDescription());
+
+        final Project project = qm.createProject("Project A", null, "1.0", null, null, null, true, false);
+        var component = new Component();
+        component.setProject(project);
+        component.setName("gjson");
+        component.setVersion("v1.6.0");
+        component.setPurl("pkg:golang/github.com/tidwall/gjson@v1.6.0?type=module");
+        component = qm.createComponent(component, false);
+
+        var vulnerableSoftware = new VulnerableSoftware();
+        vulnerableSoftware.setPurlType("golang");
+        vulnerableSoftware.setPurlNamespace("github.com/tidwall");
+        vulnerableSoftware.setPurlName("gjson");
+        vulnerableSoftware.setVersionEndExcluding("1.6.5");
+        vulnerableSoftware.setVulnerable(true);
+        vulnerableSoftware = qm.persist(vulnerableSoftware);
+
+        var vulnerability = new Vulnerability();
+        vulnerability.setVulnId("GHSA-wjm3-fq3r-5x46");
+        vulnerability.setSource(Vulnerability.Source.GITHUB);
+        vulnerability.setVulnerableSoftware(List.of(vulnerableSoftware));
+        qm.createVulnerability(vulnerability, false);
+
+        new VulnerabilityAnalysisTask().inform(new VulnerabilityAnalysisEvent(List.of(component)));
+
+        // Analyzers are executed concurrently, but the task must not complete before all of them did.
+        assertThat(qm.getAllVulnerabilities(component)).satisfiesExactly(
+                vuln -> assertThat(vuln.getVulnId()).isEqualTo("GHSA-wjm3-fq3r-5x46"));
+    }
+
 }
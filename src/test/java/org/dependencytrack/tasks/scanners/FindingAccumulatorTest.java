@@ -0,0 +1,228 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import alpine.notification.Notification;
+import alpine.notification.NotificationService;
+import alpine.notification.Subscriber;
+import alpine.notification.Subscription;
+import org.dependencytrack.PersistenceCapableTest;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.FindingAttribution;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.model.VulnerabilityAlias;
+import org.dependencytrack.model.VulnerabilityAnalysisLevel;
+import org.dependencytrack.notification.NotificationGroup;
+import org.dependencytrack.notification.vo.NewVulnerabilityIdentified;
+import org.dependencytrack.persistence.QueryManager;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+public class FindingAccumulatorTest extends PersistenceCapableTest {
+
+    private static final ConcurrentLinkedQueue<Notification> NOTIFICATIONS = new ConcurrentLinkedQueue<>();
+
+    public static class NotificationSubscriber implements Subscriber {
+
+        @Override
+        public void inform(final Notification notification) {
+            NOTIFICATIONS.add(notification);
+        }
+
+    }
+
+    @BeforeClass
+    public static void beforeClass() {
+        NotificationService.getInstance().subscribe(new Subscription(NotificationSubscriber.class));
+    }
+
+    @After
+    public void tearDown() {
+        NOTIFICATIONS.clear();
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        NotificationService.getInstance().unsubscribe(new Subscription(NotificationSubscriber.class));
+    }
+
+    @Test
+    public void testFlush() {
+        final Project project = qm.createProject("acme-app", null, null, Collections.emptyList(), null, null, true, false);
+        final Component componentA = createComponent(project, "acme-lib-a");
+        final Component componentB = createComponent(project, "acme-lib-b");
+        final Vulnerability vulnA = createVulnerability("INT-001");
+        final Vulnerability vulnB = createVulnerability("INT-002");
+        qm.addVulnerability(vulnA, componentA, AnalyzerIdentity.OSSINDEX_ANALYZER);
+
+        final var accumulator = new FindingAccumulator(qm, AnalyzerIdentity.INTERNAL_ANALYZER, VulnerabilityAnalysisLevel.BOM_UPLOAD_ANALYSIS);
+        accumulator.add(componentA, vulnA);
+        accumulator.add(componentA, vulnB, "ALT-002", "https://example.com/INT-002");
+        accumulator.add(componentA, vulnB);
+        accumulator.add(componentB, vulnA);
+        assertThat(accumulator.size()).isEqualTo(3);
+
+        // The finding of vulnA in componentA already exists.
+        assertThat(accumulator.flush()).isEqualTo(2);
+        assertThat(accumulator.size()).isZero();
+
+        qm.getPersistenceManager().refreshAll();
+        assertThat(qm.getAllVulnerabilities(componentA)).extracting(Vulnerability::getVulnId)
+                .containsExactlyInAnyOrder("INT-001", "INT-002");
+        assertThat(qm.getAllVulnerabilities(componentB)).extracting(Vulnerability::getVulnId)
+                .containsExactly("INT-001");
+
+        final FindingAttribution existingAttribution = qm.getFindingAttribution(vulnA, componentA);
+        assertThat(existingAttribution.getAnalyzerIdentity()).isEqualTo(AnalyzerIdentity.OSSINDEX_ANALYZER);
+        final FindingAttribution newAttribution = qm.getFindingAttribution(vulnB, componentA);
+        assertThat(newAttribution.getAnalyzerIdentity()).isEqualTo(AnalyzerIdentity.INTERNAL_ANALYZER);
+        assertThat(newAttribution.getAlternateIdentifier()).isEqualTo("ALT-002");
+        assertThat(newAttribution.getReferenceUrl()).isEqualTo("https://example.com/INT-002");
+        assertThat(qm.getFindingAttribution(vulnA, componentB)).isNotNull();
+    }
+
+    @Test
+    public void testFlushNotifications() {
+        final Project projectA = qm.createProject("acme-app-a", null, null, Collections.emptyList(), null, null, true, false);
+        final Project projectB = qm.createProject("acme-app-b", null, null, Collections.emptyList(), null, null, true, false);
+        final Component componentA = createComponent(projectA, "acme-lib-a");
+        final Component componentB = createComponent(projectA, "acme-lib-b");
+        createComponent(projectB, "acme-lib-a");
+        final Vulnerability vulnA = createVulnerability("INT-001");
+        final Vulnerability vulnB = createVulnerability("INT-002");
+        final var alias = new VulnerabilityAlias();
+        alias.setInternalId("INT-001");
+        alias.setCveId("CVE-2023-0001");
+        qm.synchronizeVulnerabilityAlias(alias);
+        qm.addVulnerability(vulnB, componentB, AnalyzerIdentity.OSSINDEX_ANALYZER);
+
+        final var accumulator = new FindingAccumulator(qm, AnalyzerIdentity.INTERNAL_ANALYZER, VulnerabilityAnalysisLevel.BOM_UPLOAD_ANALYSIS);
+        accumulator.add(componentA, vulnA);
+        accumulator.add(componentA, vulnB);
+        accumulator.add(componentB, vulnA);
+        accumulator.add(componentB, vulnB);
+        assertThat(accumulator.flush()).isEqualTo(3);
+
+        await("Notifications")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(NOTIFICATIONS)
+                        .filteredOn(notification -> NotificationGroup.NEW_VULNERABILITY.name().equals(notification.getGroup()))
+                        .hasSize(3));
+        assertThat(NOTIFICATIONS)
+                .filteredOn(notification -> NotificationGroup.NEW_VULNERABILITY.name().equals(notification.getGroup()))
+                .extracting(notification -> (NewVulnerabilityIdentified) notification.getSubject())
+                .satisfiesExactlyInAnyOrder(
+                        subject -> {
+                            assertThat(subject.getComponent().getName()).isEqualTo("acme-lib-a");
+                            assertThat(subject.getVulnerability().getVulnId()).isEqualTo("INT-001");
+                            assertThat(subject.getVulnerability().getAliases()).extracting(VulnerabilityAlias::getCveId).containsExactly("CVE-2023-0001");
+                            assertThat(subject.getAffectedProjects()).extracting(Project::getName).containsExactlyInAnyOrder("acme-app-a", "acme-app-b");
+                        },
+                        subject -> {
+                            assertThat(subject.getComponent().getName()).isEqualTo("acme-lib-a");
+                            assertThat(subject.getVulnerability().getVulnId()).isEqualTo("INT-002");
+                            assertThat(subject.getVulnerability().getAliases()).isEmpty();
+                            assertThat(subject.getAffectedProjects()).extracting(Project::getName).containsExactlyInAnyOrder("acme-app-a", "acme-app-b");
+                        },
+                        subject -> {
+                            assertThat(subject.getComponent().getName()).isEqualTo("acme-lib-b");
+                            assertThat(subject.getVulnerability().getVulnId()).isEqualTo("INT-001");
+                            assertThat(subject.getAffectedProjects()).extracting(Project::getName).containsExactly("acme-app-a");
+                        }
+                );
+    }
+
+    @Test
+    public void testConcurrentFlushOfSameFinding() throws Exception {
+        final Project project = qm.createProject("acme-app", null, null, Collections.emptyList(), null, null, true, false);
+        final long componentId = createComponent(project, "acme-lib-a").getId();
+        final long vulnerabilityId = createVulnerability("INT-001").getId();
+
+        // Two analyzers, each with its own QueryManager, report the same finding at the same time.
+        final var barrier = new CyclicBarrier(2);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (final AnalyzerIdentity analyzerIdentity : List.of(AnalyzerIdentity.INTERNAL_ANALYZER, AnalyzerIdentity.OSSINDEX_ANALYZER)) {
+                futures.add(executor.submit(() -> {
+                    try (final var threadQm = new QueryManager()) {
+                        final var accumulator = new FindingAccumulator(threadQm, analyzerIdentity, VulnerabilityAnalysisLevel.BOM_UPLOAD_ANALYSIS);
+                        accumulator.add(threadQm.getObjectById(Component.class, componentId), threadQm.getObjectById(Vulnerability.class, vulnerabilityId));
+                        barrier.await(5, TimeUnit.SECONDS);
+                        return accumulator.flush();
+                    }
+                }));
+            }
+            int newFindings = 0;
+            for (final Future<Integer> future : futures) {
+                newFindings += future.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(newFindings).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        qm.getPersistenceManager().refreshAll();
+        assertThat(qm.getAllVulnerabilities(qm.getObjectById(Component.class, componentId))).hasSize(1);
+        await("Notifications")
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(NOTIFICATIONS)
+                        .filteredOn(notification -> NotificationGroup.NEW_VULNERABILITY.name().equals(notification.getGroup()))
+                        .hasSize(1));
+    }
+
+    @Test
+    public void testFlushWhenEmpty() {
+        final var accumulator = new FindingAccumulator(qm, AnalyzerIdentity.INTERNAL_ANALYZER, VulnerabilityAnalysisLevel.BOM_UPLOAD_ANALYSIS);
+        assertThat(accumulator.flush()).isZero();
+    }
+
+    private Component createComponent(final Project project, final String name) {
+        final var component = new Component();
+        component.setProject(project);
+        component.setName(name);
+        component.setVersion("1.0.0");
+        return qm.createComponent(component, false);
+    }
+
+    private Vulnerability createVulnerability(final String vulnId) {
+        final var vulnerability = new Vulnerability();
+        vulnerability.setVulnId(vulnId);
+        vulnerability.setSource(Vulnerability.Source.INTERNAL);
+        return qm.createVulnerability(vulnerability, false);
+    }
+
+}
@@ -3,10 +3,14 @@ package org.dependencytrack.tasks.scanners;
 import alpine.persistence.PaginatedResult;
 import org.dependencytrack.PersistenceCapableTest;
 import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ConfigPropertyConstants;
 import org.dependencytrack.model.Project;
 import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.model.VulnerabilityAnalysisLevel;
 import org.dependencytrack.model.VulnerableSoftware;
 import org.dependencytrack.parser.nvd.ModelConverter;
+import org.dependencytrack.persistence.VulnerableSoftwareIndex;
+import org.dependencytrack.util.PurlUtil;
 import org.junit.Test;
 import us.springett.parsers.cpe.exceptions.CpeEncodingException;
 import us.springett.parsers.cpe.exceptions.CpeParsingException;
@@ -80,4 +84,128 @@ public class InternalAnalysisTaskTest extends PersistenceCapableTest {
         assertThat(vulnerabilities.getList(Vulnerability.class).get(0).getVulnId()).isEqualTo("CVE-2020-23904");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testWithVulnerableSoftwareIndex() throws CpeParsingException, CpeEncodingException {
+        var project = new Project();
+        project.setName("acme-app");
+        project = qm.createProject(project, Collections.emptyList(), false);
+        var component = new Component();
+        component.setProject(project);
+        component.setGroup("xiph");
+        component.setName("speex");
+        component.setVersion("1.2");
+        component.setCpe("cpe:2.3:a:xiph:speex:1.2:-:*:*:*:*:*:*");
+        component.setPurl("pkg:generic/xiph/speex@1.2");
+        component = qm.createComponent(component, false);
+
+        var vsCpe = ModelConverter.convertCpe23UriToVulnerableSoftware("cpe:2.3:a:xiph:speex:1.2:-:*:*:*:*:*:*");
+        vsCpe = qm.persist(vsCpe);
+        var vsCpeOtherVersion = ModelConverter.convertCpe23UriToVulnerableSoftware("cpe:2.3:a:xiph:speex:1.3:-:*:*:*:*:*:*");
+        vsCpeOtherVersion = qm.persist(vsCpeOtherVersion);
+
+        var vulnerabilityA = new Vulnerability();
+        vulnerabilityA.setVulnId("CVE-2020-23904");
+        vulnerabilityA.setSource(Vulnerability.Source.NVD);
+        vulnerabilityA.setVulnerableSoftware(List.of(vsCpe));
+        qm.createVulnerability(vulnerabilityA, false);
+
+        var vulnerabilityB = new Vulnerability();
+        vulnerabilityB.setVulnId("CVE-2020-00001");
+        vulnerabilityB.setSource(Vulnerability.Source.NVD);
+        vulnerabilityB.setVulnerableSoftware(List.of(vsCpeOtherVersion));
+        qm.createVulnerability(vulnerabilityB, false);
+
+        final VulnerableSoftwareIndex index = VulnerableSoftwareIndex.getInstance();
+        index.refresh();
+
+        // Created after the index was built, must be picked up when the analysis starts.
+        var vsPurl = new VulnerableSoftware();
+        vsPurl.setPurlType("generic");
+        vsPurl.setPurlNamespace("xiph");
+        vsPurl.setPurlName("speex");
+        vsPurl.setVersionEndExcluding("1.3");
+        vsPurl.setVulnerable(true);
+        vsPurl = qm.persist(vsPurl);
+
+        var vulnerabilityC = new Vulnerability();
+        vulnerabilityC.setVulnId("INT-001");
+        vulnerabilityC.setSource(Vulnerability.Source.INTERNAL);
+        vulnerabilityC.setVulnerableSoftware(List.of(vsPurl));
+        qm.createVulnerability(vulnerabilityC, false);
+        index.update(List.of(vsPurl));
+
+        new InternalAnalysisTask().analyze(List.of(component));
+
+        final PaginatedResult vulnerabilities = qm.getVulnerabilities(component);
+        assertThat(vulnerabilities.getList(Vulnerability.class))
+                .extracting(Vulnerability::getVulnId)
+                .containsExactlyInAnyOrder("CVE-2020-23904", "INT-001");
+    }
+
+    @Test
+    public void testAnalyzeWithIdenticalComponents() {
+        final var project = qm.createProject("acme-app", null, null, null, null, null, true, false);
+        final Component componentA = createGjsonComponent(project, "pkg:golang/github.com/tidwall/gjson@v1.6.0?type=module");
+        final Component componentB = createGjsonComponent(project, "pkg:golang/github.com/tidwall/gjson@v1.6.0");
+        createGjsonVulnerability();
+
+        new InternalAnalysisTask().analyze(List.of(componentA, componentB));
+
+        assertThat(qm.getAllVulnerabilities(componentA)).extracting(Vulnerability::getVulnId).containsExactly("GHSA-wjm3-fq3r-5x46");
+        assertThat(qm.getAllVulnerabilities(componentB)).extracting(Vulnerability::getVulnId).containsExactly("GHSA-wjm3-fq3r-5x46");
+    }
+
+    @Test
+    public void testAnalyzePortfolio() {
+        qm.createConfigProperty(ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getGroupName(),
+                ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getPropertyName(), "true",
+                ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getPropertyType(),
+                ConfigPropertyConstants.SCANNER_INTERNAL_ENABLED.getDescription());
+
+        final var projectA = qm.createProject("acme-app-a", null, null, null, null, null, true, false);
+        final var projectB = qm.createProject("acme-app-b", null, null, null, null, null, true, false);
+        final var projectInactive = qm.createProject("acme-app-c", null, null, null, null, null, false, false);
+        final Component componentA = createGjsonComponent(projectA, "pkg:golang/github.com/tidwall/gjson@v1.6.0?type=module");
+        final Component componentB = createGjsonComponent(projectB, "pkg:golang/github.com/tidwall/gjson@v1.6.0?type=module");
+        final Component componentInactive = createGjsonComponent(projectInactive, "pkg:golang/github.com/tidwall/gjson@v1.6.0?type=module");
+        final Component componentFixed = createGjsonComponent(projectB, "pkg:golang/github.com/tidwall/gjson@v1.6.5?type=module");
+        createGjsonVulnerability();
+
+        // Findings that already exist must not be duplicated.
+        new InternalAnalysisTask().analyze(List.of(componentA));
+        new InternalAnalysisTask().analyzePortfolio(VulnerabilityAnalysisLevel.PERIODIC_ANALYSIS);
+
+        assertThat(qm.getAllVulnerabilities(componentA)).extracting(Vulnerability::getVulnId).containsExactly("GHSA-wjm3-fq3r-5x46");
+        assertThat(qm.getAllVulnerabilities(componentB)).extracting(Vulnerability::getVulnId).containsExactly("GHSA-wjm3-fq3r-5x46");
+        assertThat(qm.getAllVulnerabilities(componentInactive)).isEmpty();
+        assertThat(qm.getAllVulnerabilities(componentFixed)).isEmpty();
+        assertThat(qm.getFindingAttribution(qm.getVulnerabilityByVulnId(Vulnerability.Source.GITHUB, "GHSA-wjm3-fq3r-5x46"), componentB)).isNotNull();
+    }
+
+    private Component createGjsonComponent(final Project project, final String purl) {
+        final var component = new Component();
+        component.setProject(project);
+        component.setName("github.com/tidwall/gjson");
+        component.setVersion("v1.6.0");
+        component.setPurl(purl);
+        component.setPurlCoordinates(PurlUtil.silentPurlCoordinatesOnly(component.getPurl()));
+        return qm.createComponent(component, false);
+    }
+
+    private void createGjsonVulnerability() {
+        var vulnerableSoftware = new VulnerableSoftware();
+        vulnerableSoftware.setPurlType("golang");
+        vulnerableSoftware.setPurlNamespace("github.com/tidwall");
+        vulnerableSoftware.setPurlName("gjson");
+        vulnerableSoftware.setVersionEndExcluding("1.6.5");
+        vulnerableSoftware.setVulnerable(true);
+        vulnerableSoftware = qm.persist(vulnerableSoftware);
+
+        final var vulnerability = new Vulnerability();
+        vulnerability.setVulnId("GHSA-wjm3-fq3r-5x46");
+        vulnerability.setSource(Vulnerability.Source.GITHUB);
+        vulnerability.setVulnerableSoftware(List.of(vulnerableSoftware));
+        qm.createVulnerability(vulnerability, false);
+    }
+
+}
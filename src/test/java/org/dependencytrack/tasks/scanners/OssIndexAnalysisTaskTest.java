@@ -0,0 +1,137 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import alpine.model.IConfigProperty;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.dependencytrack.PersistenceCapableTest;
+import org.dependencytrack.event.OssIndexAnalysisEvent;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ComponentAnalysisCache;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.Vulnerability;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dependencytrack.model.ConfigPropertyConstants.SCANNER_ANALYSIS_CACHE_VALIDITY_PERIOD;
+import static org.dependencytrack.model.ConfigPropertyConstants.SCANNER_OSSINDEX_ALIAS_SYNC_ENABLED;
+import static org.dependencytrack.model.ConfigPropertyConstants.SCANNER_OSSINDEX_ENABLED;
+
+public class OssIndexAnalysisTaskTest extends PersistenceCapableTest {
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(options().dynamicPort());
+
+    @Before
+    public void setUp() {
+        qm.createConfigProperty(SCANNER_OSSINDEX_ENABLED.getGroupName(),
+                SCANNER_OSSINDEX_ENABLED.getPropertyName(),
+                "true",
+                IConfigProperty.PropertyType.BOOLEAN,
+                "ossindex");
+        qm.createConfigProperty(SCANNER_OSSINDEX_ALIAS_SYNC_ENABLED.getGroupName(),
+                SCANNER_OSSINDEX_ALIAS_SYNC_ENABLED.getPropertyName(),
+                "false",
+                IConfigProperty.PropertyType.BOOLEAN,
+                "aliasSyncEnabled");
+        qm.createConfigProperty(SCANNER_ANALYSIS_CACHE_VALIDITY_PERIOD.getGroupName(),
+                SCANNER_ANALYSIS_CACHE_VALIDITY_PERIOD.getPropertyName(),
+                "86400",
+                IConfigProperty.PropertyType.STRING,
+                "cache");
+    }
+
+    @Test
+    public void testAnalyzeWithMultipleRequests() {
+        wireMockRule.stubFor(post(urlPathEqualTo("/api/v3/component-report"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                [
+                                  {
+                                    "coordinates": "pkg:maven/com.example/lib-0@1.0.0",
+                                    "description": "",
+                                    "reference": "https://ossindex.sonatype.org/component/pkg:maven/com.example/lib-0@1.0.0",
+                                    "vulnerabilities": [
+                                      {
+                                        "id": "sonatype-2020-1234",
+                                        "displayName": "sonatype-2020-1234",
+                                        "title": "Remote Code Execution",
+                                        "description": "Remote Code Execution",
+                                        "cvssScore": 9.8,
+                                        "cvssVector": "CVSS:3.0/AV:N/AC:L/PR:N/UI:N/S:U/C:H/I:H/A:H",
+                                        "reference": "https://ossindex.sonatype.org/vulnerability/sonatype-2020-1234",
+                                        "externalReferences": []
+                                      }
+                                    ]
+                                  }
+                                ]
+                                """)));
+
+        final var project = new Project();
+        project.setName("acme-app");
+        qm.persist(project);
+
+        // Exceeds the default of 128 coordinates per request, thus requiring two requests.
+        final var components = new ArrayList<Component>();
+        for (int i = 0; i < 200; i++) {
+            final var component = new Component();
+            component.setProject(project);
+            component.setGroup("com.example");
+            component.setName("lib-" + i);
+            component.setVersion("1.0.0");
+            component.setPurl("pkg:maven/com.example/lib-%d@1.0.0".formatted(i));
+            components.add(qm.persist(component));
+        }
+
+        new OssIndexAnalysisTask(wireMockRule.baseUrl() + "/api/v3/component-report")
+                .inform(new OssIndexAnalysisEvent(qm.detach(components)));
+
+        wireMockRule.verify(2, postRequestedFor(urlPathEqualTo("/api/v3/component-report")));
+        wireMockRule.verify(1, postRequestedFor(urlPathEqualTo("/api/v3/component-report"))
+                .withRequestBody(containing("pkg:maven/com.example/lib-0@1.0.0")));
+        wireMockRule.verify(1, postRequestedFor(urlPathEqualTo("/api/v3/component-report"))
+                .withRequestBody(containing("pkg:maven/com.example/lib-199@1.0.0")));
+
+        qm.getPersistenceManager().refreshAll();
+        final List<Vulnerability> vulnerabilities = qm.getAllVulnerabilities(components.get(0));
+        assertThat(vulnerabilities).satisfiesExactly(vuln -> {
+            assertThat(vuln.getVulnId()).isEqualTo("sonatype-2020-1234");
+            assertThat(vuln.getSource()).isEqualTo(Vulnerability.Source.OSSINDEX.name());
+        });
+        assertThat(qm.getAllVulnerabilities(components.get(199))).isEmpty();
+
+        assertThat(qm.getComponentAnalysisCache(ComponentAnalysisCache.CacheType.VULNERABILITY,
+                wireMockRule.baseUrl() + "/api/v3/component-report", Vulnerability.Source.OSSINDEX.name(),
+                "pkg:maven/com.example/lib-0@1.0.0")).isNotNull();
+    }
+
+}
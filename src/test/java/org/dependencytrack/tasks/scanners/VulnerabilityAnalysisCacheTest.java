@@ -0,0 +1,99 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import org.dependencytrack.PersistenceCapableTest;
+import org.dependencytrack.model.ComponentAnalysisCache;
+import org.dependencytrack.model.ConfigPropertyConstants;
+import org.dependencytrack.model.Vulnerability;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VulnerabilityAnalysisCacheTest extends PersistenceCapableTest {
+
+    private static final String TARGET_HOST = "http://localhost:1080";
+
+    @Before
+    public void setUp() {
+        qm.createConfigProperty(ConfigPropertyConstants.SCANNER_ANALYSIS_CACHE_VALIDITY_PERIOD.getGroupName(),
+                ConfigPropertyConstants.SCANNER_ANALYSIS_CACHE_VALIDITY_PERIOD.getPropertyName(), "43200000",
+                ConfigPropertyConstants.SCANNER_ANALYSIS_CACHE_VALIDITY_PERIOD.getPropertyType(),
+                ConfigPropertyConstants.SCANNER_ANALYSIS_CACHE_VALIDITY_PERIOD.getDescription());
+    }
+
+    @Test
+    public void testGetCurrentTargets() {
+        final JsonObject result = Json.createObjectBuilder().add("vulnIds", Json.createArrayBuilder().add(1)).build();
+        qm.updateComponentAnalysisCache(ComponentAnalysisCache.CacheType.VULNERABILITY, TARGET_HOST,
+                Vulnerability.Source.SNYK.name(), "pkg:maven/foo/current@1.0", new Date(), result);
+        qm.updateComponentAnalysisCache(ComponentAnalysisCache.CacheType.VULNERABILITY, TARGET_HOST,
+                Vulnerability.Source.SNYK.name(), "pkg:maven/foo/expired@1.0", Date.from(Instant.now().minus(Duration.ofDays(1))), result);
+        qm.updateComponentAnalysisCache(ComponentAnalysisCache.CacheType.VULNERABILITY, "http://example.com",
+                Vulnerability.Source.SNYK.name(), "pkg:maven/foo/other-host@1.0", new Date(), result);
+
+        assertThat(VulnerabilityAnalysisCache.getCurrentTargets(qm, Vulnerability.Source.SNYK, TARGET_HOST, List.of(
+                "pkg:maven/foo/current@1.0",
+                "pkg:maven/foo/expired@1.0",
+                "pkg:maven/foo/other-host@1.0",
+                "pkg:maven/foo/unknown@1.0"
+        ))).containsOnly("pkg:maven/foo/current@1.0");
+        assertThat(VulnerabilityAnalysisCache.getCurrentTargets(qm, Vulnerability.Source.OSSINDEX, TARGET_HOST,
+                List.of("pkg:maven/foo/current@1.0"))).isEmpty();
+
+        // Entries read from the database must be served from memory afterwards.
+        qm.clearComponentAnalysisCache();
+        assertThat(VulnerabilityAnalysisCache.getCurrentTargets(qm, Vulnerability.Source.SNYK, TARGET_HOST,
+                List.of("pkg:maven/foo/current@1.0"))).containsOnly("pkg:maven/foo/current@1.0");
+        assertThat(VulnerabilityAnalysisCache.getResult(qm, Vulnerability.Source.SNYK, TARGET_HOST,
+                "pkg:maven/foo/current@1.0")).isEqualTo(result);
+
+        VulnerabilityAnalysisCache.invalidateAll();
+        assertThat(VulnerabilityAnalysisCache.getCurrentTargets(qm, Vulnerability.Source.SNYK, TARGET_HOST,
+                List.of("pkg:maven/foo/current@1.0"))).isEmpty();
+    }
+
+    @Test
+    public void testUpdate() {
+        final JsonObject result = Json.createObjectBuilder().add("vulnIds", Json.createArrayBuilder().add(1)).build();
+        VulnerabilityAnalysisCache.update(qm, Vulnerability.Source.OSSINDEX, TARGET_HOST, "pkg:npm/foo@1.0", result);
+
+        final ComponentAnalysisCache cac = qm.getComponentAnalysisCache(ComponentAnalysisCache.CacheType.VULNERABILITY,
+                TARGET_HOST, Vulnerability.Source.OSSINDEX.name(), "pkg:npm/foo@1.0");
+        assertThat(cac).isNotNull();
+        assertThat(cac.getResult()).isEqualTo(result);
+
+        // Updating without a result must retain the previously recorded result.
+        VulnerabilityAnalysisCache.update(qm, Vulnerability.Source.OSSINDEX, TARGET_HOST, "pkg:npm/foo@1.0", null);
+        assertThat(VulnerabilityAnalysisCache.getResult(qm, Vulnerability.Source.OSSINDEX, TARGET_HOST, "pkg:npm/foo@1.0")).isEqualTo(result);
+        VulnerabilityAnalysisCache.invalidateAll();
+        assertThat(VulnerabilityAnalysisCache.getResult(qm, Vulnerability.Source.OSSINDEX, TARGET_HOST, "pkg:npm/foo@1.0")).isEqualTo(result);
+        assertThat(VulnerabilityAnalysisCache.getCurrentTargets(qm, Vulnerability.Source.OSSINDEX, TARGET_HOST,
+                List.of("pkg:npm/foo@1.0"))).containsOnly("pkg:npm/foo@1.0");
+    }
+
+}
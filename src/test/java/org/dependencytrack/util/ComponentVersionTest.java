@@ -0,0 +1,89 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ComponentVersionTest {
+
+    @Test
+    public void testParse() {
+        assertThat(new ComponentVersion("1.2.3").getVersionParts()).containsExactly("1", "2", "3");
+        assertThat(new ComponentVersion("1.2.3-RC1").getVersionParts()).containsExactly("1", "2", "3", "rc1");
+        assertThat(new ComponentVersion("2.0.0-beta").getVersionParts()).containsExactly("2", "0", "0", "beta");
+        assertThat(new ComponentVersion("1:2.31-0ubuntu9.7").getVersionParts()).containsExactly("2", "31");
+        assertThat(new ComponentVersion("foo").getVersionParts()).containsExactly("foo");
+        assertThat(new ComponentVersion(null).getVersionParts()).isEmpty();
+    }
+
+    @Test
+    public void testVersionPartsAreUnmodifiable() {
+        final var version = new ComponentVersion("1.2.3");
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> version.getVersionParts().add("4"));
+    }
+
+    @Test
+    public void testCompareTo() {
+        assertThat(new ComponentVersion("1.2.3").compareTo(new ComponentVersion("1.2.3"))).isZero();
+        assertThat(new ComponentVersion("1.2.3").compareTo(new ComponentVersion("1.2.10"))).isNegative();
+        assertThat(new ComponentVersion("1.10.0").compareTo(new ComponentVersion("1.9.0"))).isPositive();
+        assertThat(new ComponentVersion("1.0.0").compareTo(new ComponentVersion("1.0.0.0"))).isZero();
+        assertThat(new ComponentVersion("1.0.0.0").compareTo(new ComponentVersion("1.0.0"))).isZero();
+        assertThat(new ComponentVersion("1.0").compareTo(new ComponentVersion("1.0.0.0"))).isNegative();
+        assertThat(new ComponentVersion("1.0.0-alpha").compareTo(new ComponentVersion("1.0.0-beta"))).isNegative();
+        assertThat(new ComponentVersion("1.0.0").compareTo(new ComponentVersion("1.0.0-beta"))).isNegative();
+        assertThat(new ComponentVersion("4294967296").compareTo(new ComponentVersion("5"))).isNegative();
+        assertThat(new ComponentVersion("1.2.3").compareTo(null)).isPositive();
+    }
+
+    @Test
+    public void testOf() {
+        assertThat(ComponentVersion.of("1.2.3") == ComponentVersion.of("1.2.3")).isTrue();
+        assertThat(ComponentVersion.of("1.2.3").getVersionParts()).containsExactly("1", "2", "3");
+        assertThat(ComponentVersion.of(null).getVersionParts()).isEmpty();
+    }
+
+    @Test
+    public void testOfConcurrently() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final String version = "1." + (i % 10) + ".0";
+                futures.add(executor.submit(() -> ComponentVersion.of(version).compareTo(ComponentVersion.of("1.5.0"))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertThat(futures.get(i).get()).isEqualTo(Integer.signum(Integer.compare(i % 10, 5)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.util;
+
+import org.dependencytrack.exception.SizeLimitExceededException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class CompressUtilTest {
+
+    private static final byte[] CONTENT = "{\"bomFormat\": \"CycloneDX\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testOptionallyDecompressStreamWithUncompressedInput() throws Exception {
+        final var output = new ByteArrayOutputStream();
+        assertThat(CompressUtil.optionallyDecompress(new ByteArrayInputStream(CONTENT), output, 1024)).isEqualTo(CONTENT.length);
+        assertThat(output.toByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void testOptionallyDecompressStreamWithGzipInput() throws Exception {
+        final var compressed = new ByteArrayOutputStream();
+        try (final var gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(CONTENT);
+        }
+
+        final var output = new ByteArrayOutputStream();
+        CompressUtil.optionallyDecompress(new ByteArrayInputStream(compressed.toByteArray()), output, 1024);
+        assertThat(output.toByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void testOptionallyDecompressStreamWithZipInput() throws Exception {
+        final var compressed = new ByteArrayOutputStream();
+        try (final var zipOutputStream = new ZipOutputStream(compressed)) {
+            zipOutputStream.putNextEntry(new ZipEntry("bom.json"));
+            zipOutputStream.write(CONTENT);
+            zipOutputStream.closeEntry();
+        }
+
+        final var output = new ByteArrayOutputStream();
+        CompressUtil.optionallyDecompress(new ByteArrayInputStream(compressed.toByteArray()), output, 1024);
+        assertThat(output.toByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void testOptionallyDecompressStreamWithSizeLimitExceeded() throws Exception {
+        final var compressed = new ByteArrayOutputStream();
+        try (final var gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(new byte[4096]);
+        }
+
+        // The compressed input is well below the limit, but the decompressed output is not.
+        assertThat(compressed.size()).isLessThan(1024);
+        assertThatExceptionOfType(SizeLimitExceededException.class)
+                .isThrownBy(() -> CompressUtil.optionallyDecompress(
+                        new ByteArrayInputStream(compressed.toByteArray()), new ByteArrayOutputStream(), 1024));
+    }
+
+}
@@ -30,6 +30,7 @@ public class InternalComponentIdentificationUtilTest {
     @Before
     public void setUp() {
         queryManagerMock = mock(QueryManager.class);
+        InternalComponentIdentificationUtil.invalidate();
     }
 
     @Parameterized.Parameters(name = "[{index}] groupsRegexProperty={0} componentGroup={1} " +
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.util;
+
+import org.junit.Test;
+
+import javax.jdo.PersistenceManagerFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class SnapshotCacheTest {
+
+    @Test
+    public void testGetReusesSnapshotUntilInvalidated() {
+        final var cache = new SnapshotCache<Integer>(Duration.ofHours(1));
+        final var pmf = mock(PersistenceManagerFactory.class);
+        final var loads = new AtomicInteger();
+
+        assertThat(cache.get(pmf, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.get(pmf, loads::incrementAndGet)).isEqualTo(1);
+
+        cache.invalidate();
+        assertThat(cache.get(pmf, loads::incrementAndGet)).isEqualTo(2);
+        assertThat(cache.get(pmf, loads::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetReloadsSnapshotOfOtherPersistenceManagerFactory() {
+        final var cache = new SnapshotCache<Integer>(Duration.ofHours(1));
+        final var loads = new AtomicInteger();
+
+        assertThat(cache.get(mock(PersistenceManagerFactory.class), loads::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.get(mock(PersistenceManagerFactory.class), loads::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetReloadsSnapshotExceedingMaxAge() {
+        final var cache = new SnapshotCache<Integer>(Duration.ZERO);
+        final var pmf = mock(PersistenceManagerFactory.class);
+        final var loads = new AtomicInteger();
+
+        assertThat(cache.get(pmf, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.get(pmf, loads::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetDiscardsSnapshotInvalidatedWhileLoading() {
+        final var cache = new SnapshotCache<Integer>(Duration.ofHours(1));
+        final var pmf = mock(PersistenceManagerFactory.class);
+        final var loads = new AtomicInteger();
+
+        assertThat(cache.get(pmf, () -> {
+            cache.invalidate();
+            return loads.incrementAndGet();
+        })).isEqualTo(1);
+        assertThat(cache.get(pmf, loads::incrementAndGet)).isEqualTo(2);
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VersionRangeTreeTest {
+
+    @Test
+    public void testVersionRangeContains() {
+        final VersionRange range = VersionRange.of("1.2.0", null, null, "1.5.0");
+        assertThat(range.hasBounds()).isTrue();
+        assertThat(range.isNumeric()).isTrue();
+        assertThat(range.contains(new ComponentVersion("1.1.9"))).isFalse();
+        assertThat(range.contains(new ComponentVersion("1.2"))).isTrue();
+        assertThat(range.contains(new ComponentVersion("1.4.99"))).isTrue();
+        assertThat(range.contains(new ComponentVersion("1.5.0"))).isFalse();
+
+        final VersionRange unbounded = VersionRange.of(null, "", null, null);
+        assertThat(unbounded.hasBounds()).isFalse();
+        assertThat(unbounded.contains(new ComponentVersion("1.0.0"))).isFalse();
+
+        assertThat(VersionRange.of(null, null, "2.0.0-beta1", null).isNumeric()).isFalse();
+    }
+
+    @Test
+    public void testFind() {
+        final var rangeA = VersionRange.of("1.0.0", null, null, "1.5.0");
+        final var rangeB = VersionRange.of("2.0.0", null, "2.3.1", null);
+        final var rangeC = VersionRange.of(null, null, null, "1.2.0");
+        final var rangeD = VersionRange.of(null, "3.0.0", null, null);
+        final var rangeE = VersionRange.of(null, null, "2.0.0-rc1", null);
+        final var rangeF = VersionRange.of(null, null, null, null);
+        final var tree = new VersionRangeTree<>(List.of(rangeA, rangeB, rangeC, rangeD, rangeE, rangeF), range -> range);
+
+        assertThat(tree.find(new ComponentVersion("1.1.0"))).containsExactlyInAnyOrder(rangeA, rangeC, rangeE, rangeF);
+        assertThat(tree.find(new ComponentVersion("2.1"))).containsExactlyInAnyOrder(rangeB, rangeE, rangeF);
+        assertThat(tree.find(new ComponentVersion("4.0.0"))).containsExactlyInAnyOrder(rangeD, rangeE, rangeF);
+
+        // Versions that can not be ordered must be evaluated against all ranges.
+        assertThat(tree.find(new ComponentVersion("2.1.0-beta"))).hasSize(6);
+    }
+
+    @Test
+    public void testFindIsConsistentWithContains() {
+        final var random = new Random(4711);
+        final var ranges = new ArrayList<VersionRange>();
+        for (int i = 0; i < 500; i++) {
+            final String start = random.nextBoolean() ? randomVersion(random) : null;
+            final String end = random.nextInt(4) > 0 ? randomVersion(random) : null;
+            ranges.add(random.nextBoolean()
+                    ? VersionRange.of(start, null, null, end)
+                    : VersionRange.of(null, start, end, null));
+        }
+        final var tree = new VersionRangeTree<>(ranges, range -> range);
+
+        for (int i = 0; i < 500; i++) {
+            final var version = new ComponentVersion(randomVersion(random));
+            final List<VersionRange> expected = ranges.stream().filter(range -> range.contains(version)).toList();
+            final List<VersionRange> candidates = tree.find(version);
+            assertThat(candidates).containsAll(expected);
+            assertThat(candidates.size()).isLessThanOrEqualTo(ranges.size());
+        }
+    }
+
+    private static String randomVersion(final Random random) {
+        final var sb = new StringBuilder();
+        final int parts = 1 + random.nextInt(4);
+        for (int i = 0; i < parts; i++) {
+            if (i > 0) {
+                sb.append('.');
+            }
+            sb.append(random.nextInt(4));
+        }
+        return sb.toString();
+    }
+
+}